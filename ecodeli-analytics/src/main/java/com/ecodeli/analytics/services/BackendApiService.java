@@ -13,6 +13,7 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +23,10 @@ import java.util.Map;
 @Slf4j
 public class BackendApiService {
 
+    private static final long DEFAULT_TOKEN_VALIDITY_SECONDS = 3600;
+
+    private static final long TOKEN_RENEWAL_MARGIN_SECONDS = 60;
+
     private final RestTemplate restTemplate;
 
     @Value("${ecodeli.backend.url}")
@@ -35,7 +40,24 @@ public class BackendApiService {
 
     private String authToken;
 
-    public boolean authenticate() {
+    private String refreshToken;
+
+    private Instant tokenExpiry = Instant.EPOCH;
+
+    /**
+     * Renouveler le token avant son expiration, sans refaire le login (BCrypt côté backend)
+     */
+    private synchronized boolean ensureAuthenticated() {
+        if (authToken != null && Instant.now().isBefore(tokenExpiry)) {
+            return true;
+        }
+        if (refreshToken != null && refresh()) {
+            return true;
+        }
+        return authenticate();
+    }
+
+    public synchronized boolean authenticate() {
         try {
             String loginUrl = backendUrl + "/api/auth/login";
 
@@ -43,30 +65,51 @@ public class BackendApiService {
             loginRequest.put("email", adminEmail);
             loginRequest.put("motDePasse", adminPassword);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, String>> entity = new HttpEntity<>(loginRequest, headers);
+            return requestTokens(loginUrl, loginRequest);
+        } catch (Exception e) {
+            log.error("Erreur d'authentification: {}", e.getMessage());
+        }
+        return false;
+    }
 
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                loginUrl,
-                HttpMethod.POST,
-                entity,
-                new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
+    private boolean refresh() {
+        try {
+            Map<String, String> refreshRequest = new HashMap<>();
+            refreshRequest.put("refreshToken", refreshToken);
 
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> responseBody = response.getBody();
-                if (responseBody.containsKey("token")) {
-                    this.authToken = (String) responseBody.get("token");
-                } else if (responseBody.containsKey("accessToken")) {
-                    this.authToken = (String) responseBody.get("accessToken");
-                } else if (responseBody.containsKey("jwt")) {
-                    this.authToken = (String) responseBody.get("jwt");
-                }
-                return true;
-            }
+            return requestTokens(backendUrl + "/api/auth/refresh", refreshRequest);
         } catch (Exception e) {
-            log.error("Erreur d'authentification: {}", e.getMessage());
+            log.warn("Renouvellement du token impossible, nouvelle authentification: {}", e.getMessage());
+            refreshToken = null;
+        }
+        return false;
+    }
+
+    private boolean requestTokens(String url, Map<String, String> body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Map<String, String>> entity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+            url,
+            HttpMethod.POST,
+            entity,
+            new ParameterizedTypeReference<Map<String, Object>>() {}
+        );
+
+        if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+            Map<String, Object> responseBody = response.getBody();
+            if (responseBody.containsKey("token")) {
+                this.authToken = (String) responseBody.get("token");
+            } else if (responseBody.containsKey("accessToken")) {
+                this.authToken = (String) responseBody.get("accessToken");
+            } else if (responseBody.containsKey("jwt")) {
+                this.authToken = (String) responseBody.get("jwt");
+            }
+            this.refreshToken = (String) responseBody.get("refreshToken");
+            long expiresIn = responseBody.get("expiresIn") instanceof Number n ? n.longValue() : DEFAULT_TOKEN_VALIDITY_SECONDS;
+            this.tokenExpiry = Instant.now().plusSeconds(Math.max(0, expiresIn - TOKEN_RENEWAL_MARGIN_SECONDS));
+            return true;
         }
         return false;
     }
@@ -82,7 +125,7 @@ public class BackendApiService {
 
     public List<UserDto> getAllUsers() {
         try {
-            if (authToken == null && !authenticate()) {
+            if (!ensureAuthenticated()) {
                 throw new RuntimeException("Impossible de s'authentifier");
             }
 
@@ -108,7 +151,7 @@ public class BackendApiService {
 
     public List<UserDto> getUsersByType(String type) {
         try {
-            if (authToken == null && !authenticate()) {
+            if (!ensureAuthenticated()) {
                 throw new RuntimeException("Impossible de s'authentifier");
             }
 
@@ -134,7 +177,7 @@ public class BackendApiService {
 
     public List<LivraisonDto> getAllLivraisons() {
         try {
-            if (authToken == null && !authenticate()) {
+            if (!ensureAuthenticated()) {
                 throw new RuntimeException("Impossible de s'authentifier");
             }
 
@@ -160,7 +203,7 @@ public class BackendApiService {
 
     public Map<String, Object> getUserStats() {
         try {
-            if (authToken == null && !authenticate()) {
+            if (!ensureAuthenticated()) {
                 throw new RuntimeException("Impossible de s'authentifier");
             }
 
@@ -186,7 +229,7 @@ public class BackendApiService {
 
     public Map<String, Object> getLivraisonStats() {
         try {
-            if (authToken == null && !authenticate()) {
+            if (!ensureAuthenticated()) {
                 throw new RuntimeException("Impossible de s'authentifier");
             }
 
@@ -212,7 +255,7 @@ public class BackendApiService {
 
     public List<ClientAnalyticsDto> getAllClientsWithInvoices() {
         try {
-            if (authToken == null && !authenticate()) {
+            if (!ensureAuthenticated()) {
                 throw new RuntimeException("Impossible de s'authentifier");
             }
 
@@ -238,7 +281,7 @@ public class BackendApiService {
 
     public List<PrestationAnalyticsDto> getAllPrestations() {
         try {
-            if (authToken == null && !authenticate()) {
+            if (!ensureAuthenticated()) {
                 throw new RuntimeException("Impossible de s'authentifier");
             }
 
@@ -264,7 +307,7 @@ public class BackendApiService {
 
     public List<ServiceDto> getAllServices() {
         try {
-            if (authToken == null && !authenticate()) {
+            if (!ensureAuthenticated()) {
                 throw new RuntimeException("Impossible de s'authentifier");
             }
 
@@ -290,7 +333,7 @@ public class BackendApiService {
 
     public Map<String, Object> getCompleteAnalyticsData() {
         try {
-            if (authToken == null && !authenticate()) {
+            if (!ensureAuthenticated()) {
                 throw new RuntimeException("Impossible de s'authentifier");
             }
 
@@ -326,7 +369,7 @@ public class BackendApiService {
 
     public boolean isAnalyticsEndpointAvailable() {
         try {
-            if (authToken == null && !authenticate()) {
+            if (!ensureAuthenticated()) {
                 return false;
             }
 
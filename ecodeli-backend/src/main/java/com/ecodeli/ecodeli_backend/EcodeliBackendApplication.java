@@ -3,6 +3,7 @@ package com.ecodeli.ecodeli_backend;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,6 +20,11 @@ public class EcodeliBackendApplication {
 		dotenv.entries().forEach(entry -> {
 			System.setProperty(entry.getKey(), entry.getValue());
 		});
-		SpringApplication.run(EcodeliBackendApplication.class, args);
+		SpringApplication application = new SpringApplication(EcodeliBackendApplication.class);
+		// Rapport de démarrage (/actuator/startup) : durée de chaque étape, dont l'initialisation de chaque bean
+		if (Boolean.parseBoolean(System.getProperty("APP_RAPPORT_DEMARRAGE", System.getenv("APP_RAPPORT_DEMARRAGE")))) {
+			application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		}
+		application.run(args);
 	}
 }
@@ -0,0 +1,40 @@
+package com.ecodeli.ecodeli_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Méthodes @Async. Sans qualificatif elles passent par l'exécuteur de Spring Boot, en threads virtuels
+ * quand spring.threads.virtual.enabled=true (comme Tomcat et @Scheduled).
+ *
+ * Les e-mails ont leur propre pool, en threads plateforme dans les deux modes : Jakarta Mail envoie
+ * sous moniteur (SMTPTransport.sendMessage est synchronized), un thread virtuel y resterait épinglé
+ * à son porteur pendant tout l'échange SMTP et bloquerait les requêtes sur un conteneur à un cœur.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Value("${app.mail.workers:2}")
+    private int workers;
+
+    @Value("${app.mail.queue-capacity:200}")
+    private int capaciteFile;
+
+    @Bean(name = "mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(capaciteFile);
+        executor.setThreadNamePrefix("mail-");
+        // Les envois en file partent avant l'arrêt : un OTP perdu bloque la livraison
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
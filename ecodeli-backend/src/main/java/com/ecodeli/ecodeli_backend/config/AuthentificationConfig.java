@@ -0,0 +1,35 @@
+package com.ecodeli.ecodeli_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pool dédié au hachage BCrypt des mots de passe. Le nombre de threads borne le CPU consommé
+ * par les connexions : une rafale de tentatives remplit la file puis est refusée (503),
+ * au lieu d'occuper tous les cœurs et les threads Tomcat.
+ */
+@Configuration
+public class AuthentificationConfig {
+
+    // 0 : la moitié des processeurs disponibles
+    @Value("${app.connexion.hachage.workers:0}")
+    private int workers;
+
+    @Value("${app.connexion.hachage.queue-capacity:32}")
+    private int capaciteFile;
+
+    @Bean(name = "hachageMotDePasseExecutor")
+    public ThreadPoolTaskExecutor hachageMotDePasseExecutor() {
+        int threads = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(capaciteFile);
+        executor.setThreadNamePrefix("hachage-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
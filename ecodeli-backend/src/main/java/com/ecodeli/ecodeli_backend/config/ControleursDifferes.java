@@ -0,0 +1,51 @@
+package com.ecodeli.ecodeli_backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Contrôleurs rarement appelés (administration, contrats) créés à leur première requête plutôt qu'au
+ * démarrage. Spring MVC enregistre leurs routes d'après la classe, sans instancier le bean.
+ *
+ * app.demarrage.controleurs-differes : paquetages ou classes concernés (préfixes de nom de classe).
+ * Un service n'est différé que s'il y figure lui aussi, et seulement si aucun bean créé au démarrage
+ * n'en dépend : y lister les services que ces contrôleurs sont seuls à utiliser.
+ */
+@Component
+@ConditionalOnProperty(name = "app.demarrage.controleurs-differes")
+@Slf4j
+public class ControleursDifferes implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private List<String> prefixes = List.of();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        prefixes = Binder.get(environment)
+            .bind("app.demarrage.controleurs-differes", Bindable.listOf(String.class))
+            .orElse(List.of());
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        int differes = 0;
+        for (String nom : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(nom);
+            String classe = definition.getBeanClassName();
+            if (classe != null && prefixes.stream().anyMatch(classe::startsWith)) {
+                definition.setLazyInit(true);
+                differes++;
+            }
+        }
+        log.info("{} bean(s) créé(s) à leur première utilisation", differes);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecodeli.ecodeli_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Pool des réponses asynchrones MVC (StreamingResponseBody des exports). Chaque export garde
+ * une connexion du pool Hikari pendant toute sa durée : le nombre d'exports simultanés reste
+ * donc petit, les demandes en trop attendent dans une file bornée.
+ */
+@Configuration
+public class ExportConfig implements WebMvcConfigurer {
+
+    @Value("${app.export.workers:2}")
+    private int workers;
+
+    @Value("${app.export.queue-capacity:10}")
+    private int capaciteFile;
+
+    @Value("${app.export.timeout-ms:1800000}")
+    private long timeout;
+
+    @Bean(name = "exportExecutor")
+    public ThreadPoolTaskExecutor exportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(capaciteFile);
+        executor.setThreadNamePrefix("exports-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor());
+        configurer.setDefaultTimeout(timeout);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecodeli.ecodeli_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lecture de ses propres écritures malgré le retard de la réplique : après la validation d'une
+ * transaction en écriture, les lectures de l'utilisateur connecté restent sur la base principale
+ * pendant app.datasource.replica.lecture-apres-ecriture (voir RoutageReplica).
+ *
+ * Mémorisé par instance du backend : derrière un répartiteur de charge, la fenêtre ne vaut que sur
+ * l'instance qui a reçu l'écriture.
+ */
+@Component
+public class LectureApresEcriture implements TransactionExecutionListener {
+
+    private static final int TAILLE_PURGE = 10_000;
+
+    private final Map<String, Long> ecritures = new ConcurrentHashMap<>();
+    private final long fenetreNanos;
+
+    public LectureApresEcriture(@Value("${app.datasource.replica.lecture-apres-ecriture:5s}") Duration fenetre) {
+        this.fenetreNanos = fenetre.toNanos();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable echec) {
+        if (echec != null || transaction.isReadOnly() || !transaction.isNewTransaction()) {
+            return;
+        }
+        String utilisateur = utilisateurCourant();
+        if (utilisateur == null) {
+            return;
+        }
+        long maintenant = System.nanoTime();
+        ecritures.put(utilisateur, maintenant);
+        if (ecritures.size() > TAILLE_PURGE) {
+            ecritures.values().removeIf(instant -> maintenant - instant > fenetreNanos);
+        }
+    }
+
+    /**
+     * L'utilisateur du thread courant a-t-il validé une écriture pendant la fenêtre ?
+     */
+    public boolean ecritureRecente() {
+        String utilisateur = utilisateurCourant();
+        if (utilisateur == null) {
+            return false;
+        }
+        Long derniere = ecritures.get(utilisateur);
+        return derniere != null && System.nanoTime() - derniere < fenetreNanos;
+    }
+
+    private static String utilisateurCourant() {
+        Authentication authentification = SecurityContextHolder.getContext().getAuthentication();
+        if (authentification == null || authentification instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentification.getName();
+    }
+}
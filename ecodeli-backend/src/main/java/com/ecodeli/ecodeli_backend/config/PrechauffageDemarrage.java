@@ -0,0 +1,42 @@
+package com.ecodeli.ecodeli_backend.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lance le préchauffage (PrechauffageEvent) une fois l'application démarrée.
+ *
+ * Par défaut dans le thread principal : l'application ne passe prête (readiness) qu'ensuite.
+ * Avec app.demarrage.prechauffage-differe=true (profil rapide), dans un thread d'arrière-plan :
+ * l'application est prête tout de suite, le classement se complète quelques secondes après.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrechauffageDemarrage {
+
+    private final ApplicationEventPublisher publisher;
+
+    @Value("${app.demarrage.prechauffage-differe:false}")
+    private boolean differe;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        if (differe) {
+            Thread.ofPlatform().name("prechauffage").daemon().start(this::prechauffer);
+        } else {
+            prechauffer();
+        }
+    }
+
+    private void prechauffer() {
+        long debut = System.nanoTime();
+        publisher.publishEvent(new PrechauffageEvent(differe));
+        log.info("Préchauffage{} terminé en {} ms", differe ? " différé" : "", (System.nanoTime() - debut) / 1_000_000);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecodeli.ecodeli_backend.config;
+
+/**
+ * Préchauffage après démarrage : classement des prestataires en mémoire.
+ * Publié par PrechauffageDemarrage, les écouteurs s'exécutent dans l'ordre de leur @Order.
+ *
+ * @param differe true si publié hors du thread principal, l'application recevant déjà du trafic
+ */
+public record PrechauffageEvent(boolean differe) {
+}
@@ -1,13 +1,23 @@
 package com.ecodeli.ecodeli_backend.config;
 
+import com.ecodeli.ecodeli_backend.metriques.sql.SurveillanceRequetesListener;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
 import java.net.URI;
+import java.sql.Connection;
 
 @Configuration
 public class RailwayDatabaseConfig {
@@ -18,8 +28,77 @@ public class RailwayDatabaseConfig {
     public DataSourceProperties dataSourceProperties() {
         DataSourceProperties properties = new DataSourceProperties();
         
-        String databaseUrl = System.getenv("DATABASE_URL");
+        appliquerDatabaseUrl(properties, System.getenv("DATABASE_URL"));
+        //  else {
+        //     // Développement local
+        //     properties.setUrl("jdbc:postgresql://localhost:5432/ecodeli");
+        //     properties.setUsername("ecodeli");
+        //     properties.setPassword("password");
+        // }
         
+        return properties;
+    }
+
+    /**
+     * Pool JDBC, enveloppé par le proxy de comptage des requêtes sauf si app.sql.surveillance.active=false.
+     *
+     * Avec DATABASE_REPLICA_URL (même format que DATABASE_URL), second pool vers la réplique : une
+     * connexion passée en lecture seule avant sa première requête (transaction readOnly, export) est
+     * prise sur la réplique par RoutageReplica, toutes les autres sur la base principale. Une seule
+     * base locale peut jouer les deux rôles (DATABASE_REPLICA_URL=$DATABASE_URL).
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 Environment environment,
+                                 LectureApresEcriture lectureApresEcriture,
+                                 MeterRegistry registry,
+                                 ObjectProvider<SurveillanceRequetesListener> surveillanceRequetes) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primaire = pool(properties, "ecodeli-primaire");
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primaire));
+        DataSource dataSource = primaire;
+
+        String replicaUrl = System.getenv("DATABASE_REPLICA_URL");
+        if (replicaUrl != null && !replicaUrl.isBlank()) {
+            DataSourceProperties proprietesReplica = new DataSourceProperties();
+            proprietesReplica.setDriverClassName(properties.getDriverClassName());
+            appliquerDatabaseUrl(proprietesReplica, replicaUrl);
+            HikariDataSource replica = pool(proprietesReplica, "ecodeli-replica");
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replica));
+            replica.setReadOnly(true);
+            // Spring Boot n'instrumente que le pool du bean DataSource, le principal
+            replica.setMetricRegistry(registry);
+
+            // Connexion réelle obtenue à la première requête, une fois connu le mode lecture seule
+            LazyConnectionDataSourceProxy routage = new LazyConnectionDataSourceProxy(primaire);
+            routage.setReadOnlyDataSource(new RoutageReplica(primaire, replica, lectureApresEcriture, registry));
+            routage.setDefaultAutoCommit(true);
+            routage.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            dataSource = routage;
+        }
+
+        SurveillanceRequetesListener listener = surveillanceRequetes.getIfAvailable();
+        if (listener == null) {
+            return dataSource;
+        }
+        return ProxyDataSourceBuilder.create(dataSource)
+            .name("ecodeli")
+            .listener(listener)
+            .build();
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String nom) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(nom);
+        return pool;
+    }
+
+    /**
+     * URL Railway (postgresql://utilisateur:mot-de-passe@hôte:port/base) convertie en URL JDBC
+     */
+    private static void appliquerDatabaseUrl(DataSourceProperties properties, String databaseUrl) {
         if (databaseUrl != null && databaseUrl.startsWith("postgresql://")) {
             try {
                 // Parser l'URL PostgreSQL Railway
@@ -54,19 +133,5 @@ public class RailwayDatabaseConfig {
                 properties.setUrl("jdbc:" + databaseUrl);
             }
         }
-        //  else {
-        //     // Développement local
-        //     properties.setUrl("jdbc:postgresql://localhost:5432/ecodeli");
-        //     properties.setUsername("ecodeli");
-        //     properties.setPassword("password");
-        // }
-        
-        return properties;
-    }
-
-    @Bean
-    @Primary
-    public DataSource dataSource(DataSourceProperties properties) {
-        return properties.initializeDataSourceBuilder().build();
     }
 }
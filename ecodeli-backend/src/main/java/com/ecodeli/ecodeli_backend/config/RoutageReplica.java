@@ -0,0 +1,60 @@
+package com.ecodeli.ecodeli_backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Source des connexions passées en lecture seule avant leur première requête (transactions
+ * readOnly, exports) : la réplique, sauf dans deux cas où la lecture reste sur la base principale.
+ * <ul>
+ *   <li>Transaction readOnly ouverte par défaut par un dépôt Spring Data, hors de toute transaction
+ *       de service : l'entité lue est souvent modifiée puis enregistrée juste après, elle ne doit
+ *       pas venir d'une réplique en retard.</li>
+ *   <li>L'utilisateur connecté vient d'écrire (LectureApresEcriture).</li>
+ * </ul>
+ * Compteur ecodeli.datasource.lectures, par cible.
+ */
+public class RoutageReplica extends AbstractRoutingDataSource {
+
+    private static final String PRIMAIRE = "primaire";
+    private static final String REPLICA = "replica";
+    private static final String TRANSACTION_SPRING_DATA = "org.springframework.data.";
+
+    private final LectureApresEcriture lectureApresEcriture;
+    private final Counter versPrimaire;
+    private final Counter versReplica;
+
+    public RoutageReplica(DataSource primaire, DataSource replica,
+                          LectureApresEcriture lectureApresEcriture, MeterRegistry registry) {
+        this.lectureApresEcriture = lectureApresEcriture;
+        this.versPrimaire = compteur(registry, PRIMAIRE);
+        this.versReplica = compteur(registry, REPLICA);
+        setTargetDataSources(Map.of(PRIMAIRE, primaire, REPLICA, replica));
+        setDefaultTargetDataSource(primaire);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+        if ((transaction != null && transaction.startsWith(TRANSACTION_SPRING_DATA))
+                || lectureApresEcriture.ecritureRecente()) {
+            versPrimaire.increment();
+            return PRIMAIRE;
+        }
+        versReplica.increment();
+        return REPLICA;
+    }
+
+    private static Counter compteur(MeterRegistry registry, String cible) {
+        return Counter.builder("ecodeli.datasource.lectures")
+            .description("Connexions en lecture seule, par base servant la lecture")
+            .tag("cible", cible)
+            .register(registry);
+    }
+}
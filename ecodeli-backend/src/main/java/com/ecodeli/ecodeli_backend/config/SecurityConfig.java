@@ -1,13 +1,19 @@
 package com.ecodeli.ecodeli_backend.config;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -23,10 +29,41 @@ public class SecurityConfig {
 
     private final JwtRequestFilter jwtRequestFilter;
 
+    @Value("${app.metriques.utilisateur:prometheus}")
+    private String utilisateurMetriques;
+
+    @Value("${app.metriques.mot-de-passe:}")
+    private String motDePasseMetriques;
+
     public SecurityConfig(JwtRequestFilter jwtRequestFilter) {
         this.jwtRequestFilter = jwtRequestFilter;
     }
 
+    /**
+     * Métriques (scrape Prometheus) et rapport de démarrage : authentification HTTP Basic dédiée,
+     * fermés si aucun mot de passe n'est configuré
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metriquesFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/prometheus", "/actuator/metrics/**", "/actuator/startup")
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .httpBasic(Customizer.withDefaults());
+        if (motDePasseMetriques.isBlank()) {
+            http.authorizeHttpRequests(auth -> auth.anyRequest().denyAll());
+        } else {
+            // Coût BCrypt minimal : le mot de passe est vérifié à chaque scrape
+            http.userDetailsService(new InMemoryUserDetailsManager(User.withUsername(utilisateurMetriques)
+                    .password(new BCryptPasswordEncoder(4).encode(motDePasseMetriques))
+                    .roles("METRIQUES")
+                    .build()))
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRIQUES"));
+        }
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -36,8 +73,11 @@ public class SecurityConfig {
                 .frameOptions(frameOptions -> frameOptions.sameOrigin()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // La reprise asynchrone (exports en streaming) a déjà été autorisée à la requête initiale
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/actuator/**").permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/api/payment/webhook").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
                 .requestMatchers("/api/addresses/**").permitAll()
                 .requestMatchers("/api/admin/documents/view/**").hasRole("ADMIN")
@@ -91,6 +131,7 @@ public class SecurityConfig {
         configuration.addAllowedMethod("*");
         configuration.addAllowedHeader("*");
         configuration.addExposedHeader("Content-Disposition");
+        configuration.addExposedHeader("Idempotent-Replayed");
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,33 @@
+package com.ecodeli.ecodeli_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pool dédié au traitement des justificatifs : taille et file bornées pour ne jamais
+ * concurrencer les threads Tomcat. Une tâche refusée reste en base et sera reprise.
+ */
+@Configuration
+public class TraitementDocumentsConfig {
+
+    @Value("${app.documents.workers:1}")
+    private int workers;
+
+    @Value("${app.documents.queue-capacity:20}")
+    private int capaciteFile;
+
+    @Bean(name = "traitementDocumentsExecutor")
+    public ThreadPoolTaskExecutor traitementDocumentsExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(capaciteFile);
+        executor.setThreadNamePrefix("documents-");
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
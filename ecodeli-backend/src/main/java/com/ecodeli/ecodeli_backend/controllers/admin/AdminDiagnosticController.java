@@ -0,0 +1,78 @@
+package com.ecodeli.ecodeli_backend.controllers.admin;
+
+import com.ecodeli.ecodeli_backend.services.diagnostic.EnregistrementJfrService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/diagnostic/jfr")
+@CrossOrigin(origins = "*")
+public class AdminDiagnosticController {
+
+    private static final DateTimeFormatter HORODATAGE = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private EnregistrementJfrService enregistrementJfrService;
+
+    /**
+     * État de l'enregistrement Java Flight Recorder en cours
+     */
+    @GetMapping
+    public ResponseEntity<EnregistrementJfrService.Etat> etat() {
+        return ResponseEntity.ok(enregistrementJfrService.etat());
+    }
+
+    /**
+     * Démarrer un enregistrement (configuration default ou profile), borné en durée
+     */
+    @PostMapping("/demarrer")
+    public ResponseEntity<?> demarrer(
+            @RequestParam(defaultValue = "default") String configuration,
+            @RequestParam(required = false) Long dureeMinutes) {
+        try {
+            return ResponseEntity.ok(enregistrementJfrService.demarrer(configuration, dureeMinutes));
+        } catch (IllegalArgumentException e) {
+            return erreur(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            return erreur(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    /**
+     * Télécharger le contenu actuel de l'enregistrement au format .jfr (lisible avec JDK Mission Control ou jfr print)
+     */
+    @GetMapping("/dump")
+    public ResponseEntity<StreamingResponseBody> dump() {
+        if (enregistrementJfrService.etat().id() == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        StreamingResponseBody corps = enregistrementJfrService::vider;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, "application/octet-stream")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=ecodeli-" + LocalDateTime.now().format(HORODATAGE) + ".jfr")
+                .body(corps);
+    }
+
+    @PostMapping("/arreter")
+    public ResponseEntity<Map<String, Object>> arreter() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("arrete", enregistrementJfrService.arreter());
+        return ResponseEntity.ok(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> erreur(HttpStatus statut, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", message);
+        return ResponseEntity.status(statut).body(response);
+    }
+}
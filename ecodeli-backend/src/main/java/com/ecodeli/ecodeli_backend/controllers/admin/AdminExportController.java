@@ -0,0 +1,46 @@
+package com.ecodeli.ecodeli_backend.controllers.admin;
+
+import com.ecodeli.ecodeli_backend.services.export.ExportService;
+import com.ecodeli.ecodeli_backend.services.export.FormatExport;
+import com.ecodeli.ecodeli_backend.services.export.TypeExport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/admin/exports")
+@CrossOrigin(origins = "*")
+public class AdminExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    /**
+     * Exporter une table complète (prestataires, livraisons, transactions, demandes) en CSV ou NDJSON
+     */
+    @GetMapping("/{type}")
+    public ResponseEntity<StreamingResponseBody> exporter(
+            @PathVariable String type,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        Optional<TypeExport> typeExport = TypeExport.depuis(type);
+        Optional<FormatExport> formatExport = FormatExport.depuis(format);
+        if (typeExport.isEmpty() || formatExport.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return reponse(exportService, typeExport.get(), formatExport.get(), gzip);
+    }
+
+    static ResponseEntity<StreamingResponseBody> reponse(ExportService exportService, TypeExport type,
+                                                        FormatExport format, boolean gzip) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : format.getTypeMime())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + exportService.nomFichier(type, format, gzip))
+                .body(exportService.flux(type, format, gzip));
+    }
+}
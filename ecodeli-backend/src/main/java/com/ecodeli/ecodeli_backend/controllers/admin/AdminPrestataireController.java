@@ -1,16 +1,29 @@
 package com.ecodeli.ecodeli_backend.controllers.admin;
 
+import com.ecodeli.ecodeli_backend.models.AnalyseJustificatif;
 import com.ecodeli.ecodeli_backend.models.Prestataire;
 import com.ecodeli.ecodeli_backend.models.PrestataireCategorie;
 import com.ecodeli.ecodeli_backend.models.Justificatif;
 import com.ecodeli.ecodeli_backend.services.AdminPrestataireService;
+import com.ecodeli.ecodeli_backend.services.documents.TraitementJustificatifService;
+import com.ecodeli.ecodeli_backend.services.export.ExportService;
+import com.ecodeli.ecodeli_backend.services.export.FormatExport;
+import com.ecodeli.ecodeli_backend.services.export.TypeExport;
+import com.ecodeli.ecodeli_backend.services.storage.StockageFichierService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/admin/prestataires")
@@ -20,13 +33,23 @@ public class AdminPrestataireController {
     @Autowired
     private AdminPrestataireService adminPrestataireService;
 
+    @Autowired
+    private StockageFichierService stockageFichierService;
+
+    @Autowired
+    private TraitementJustificatifService traitementJustificatifService;
+
+    @Autowired
+    private ExportService exportService;
+
     /**
-     * Récupérer tous les prestataires
+     * Récupérer les prestataires, résultat paginé (200 par page au plus)
      */
     @GetMapping
-    public ResponseEntity<List<Prestataire>> getAllPrestataires() {
-        List<Prestataire> prestataires = adminPrestataireService.getAllPrestataires();
-        return ResponseEntity.ok(prestataires);
+    public ResponseEntity<Map<String, Object>> getPrestataires(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(pageReponse(adminPrestataireService.getPrestataires(page, size)));
     }
 
     /**
@@ -113,6 +136,73 @@ public class AdminPrestataireController {
         return ResponseEntity.ok(justificatifs);
     }
 
+    /**
+     * Récupérer les justificatifs d'un prestataire avec leurs aperçus
+     */
+    @GetMapping("/{id}/justificatifs/apercus")
+    public ResponseEntity<List<Map<String, Object>>> getApercusJustificatifs(@PathVariable Integer id) {
+        return ResponseEntity.ok(adminPrestataireService.getApercusJustificatifs(id));
+    }
+
+    /**
+     * Récupérer le résultat d'analyse d'un justificatif (texte extrait compris)
+     */
+    @GetMapping("/justificatifs/{justificatifId}/analyse")
+    public ResponseEntity<Map<String, Object>> getAnalyseJustificatif(@PathVariable Integer justificatifId) {
+        Optional<AnalyseJustificatif> analyse = traitementJustificatifService.getAnalyse(justificatifId);
+        if (analyse.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("analyse", analyse.get());
+        response.put("texteExtrait", analyse.get().getTexteExtrait());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Consulter la miniature d'un justificatif
+     */
+    @GetMapping("/justificatifs/{justificatifId}/miniature")
+    public void getMiniatureJustificatif(
+            @PathVariable Integer justificatifId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Optional<AnalyseJustificatif> analyse = traitementJustificatifService.getAnalyse(justificatifId);
+        if (analyse.isEmpty() || analyse.get().getEmpreinteMiniature() == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Miniature non disponible");
+            return;
+        }
+
+        stockageFichierService.envoyer(analyse.get().getEmpreinteMiniature(),
+                "miniature_" + justificatifId + ".jpg", "image/jpeg", request, response);
+    }
+
+    /**
+     * Consulter le fichier d'un justificatif (supporte l'en-tête Range)
+     */
+    @GetMapping("/justificatifs/{justificatifId}/fichier")
+    public void telechargerJustificatif(
+            @PathVariable Integer justificatifId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Justificatif justificatif;
+        try {
+            justificatif = adminPrestataireService.getJustificatifById(justificatifId);
+        } catch (Exception e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, e.getMessage());
+            return;
+        }
+
+        if (justificatif.getEmpreinteSha256() == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Fichier non disponible");
+            return;
+        }
+
+        stockageFichierService.envoyer(justificatif.getEmpreinteSha256(), justificatif.getNomFichierOriginal(),
+                justificatif.getTypeMime(), request, response);
+    }
+
     /**
      * Valider ou rejeter un justificatif
      */
@@ -148,6 +238,32 @@ public class AdminPrestataireController {
         return ResponseEntity.ok(prestataires);
     }
 
+    /**
+     * Rechercher des prestataires, résultat paginé (nom, prénom, email ou entreprise et domaine)
+     */
+    @GetMapping("/recherche")
+    public ResponseEntity<Map<String, Object>> rechercherPrestatairesPagines(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String domaineExpertise,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<Prestataire> prestataires = adminPrestataireService.rechercherPrestataires(
+                search, domaineExpertise, PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, 200))));
+        return ResponseEntity.ok(pageReponse(prestataires));
+    }
+
+    private Map<String, Object> pageReponse(Page<Prestataire> prestataires) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", prestataires.getContent());
+        response.put("totalElements", prestataires.getTotalElements());
+        response.put("totalPages", prestataires.getTotalPages());
+        response.put("size", prestataires.getSize());
+        response.put("number", prestataires.getNumber());
+        response.put("first", prestataires.isFirst());
+        response.put("last", prestataires.isLast());
+        return response;
+    }
+
     /**
      * Obtenir les statistiques des prestataires
      */
@@ -161,28 +277,25 @@ public class AdminPrestataireController {
      * Exporter la liste des prestataires
      */
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exporterPrestataires(@RequestParam(defaultValue = "csv") String format) {
-        try {
-            byte[] data = adminPrestataireService.exporterPrestataires(format);
-            
-            String contentType = format.equals("pdf") ? "application/pdf" : "text/csv";
-            String fileName = "prestataires_" + java.time.LocalDate.now() + "." + format;
-            
-            return ResponseEntity.ok()
-                    .header("Content-Type", contentType)
-                    .header("Content-Disposition", "attachment; filename=" + fileName)
-                    .body(data);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+    public ResponseEntity<StreamingResponseBody> exporterPrestataires(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        Optional<FormatExport> formatExport = FormatExport.depuis(format);
+        if (formatExport.isEmpty()) {
+            return ResponseEntity.badRequest().build();
         }
+        return AdminExportController.reponse(exportService, TypeExport.PRESTATAIRES, formatExport.get(), gzip);
     }
 
     /**
      * Récupérer les prestataires par catégorie de service
      */
     @GetMapping("/categorie/{categorie}")
-    public ResponseEntity<List<Prestataire>> getPrestatairesParCategorie(@PathVariable String categorie) {
-        List<Prestataire> prestataires = adminPrestataireService.getPrestatairesParCategorie(categorie);
+    public ResponseEntity<List<Prestataire>> getPrestatairesParCategorie(
+            @PathVariable String categorie,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        List<Prestataire> prestataires = adminPrestataireService.getPrestatairesParCategorie(categorie, page, size);
         return ResponseEntity.ok(prestataires);
     }
 
@@ -190,8 +303,10 @@ public class AdminPrestataireController {
      * Récupérer les prestataires validés
      */
     @GetMapping("/valides")
-    public ResponseEntity<List<Prestataire>> getPrestatairesValides() {
-        List<Prestataire> prestataires = adminPrestataireService.getPrestatairesValides();
+    public ResponseEntity<List<Prestataire>> getPrestatairesValides(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        List<Prestataire> prestataires = adminPrestataireService.getPrestatairesValides(page, size);
         return ResponseEntity.ok(prestataires);
     }
 
@@ -199,8 +314,10 @@ public class AdminPrestataireController {
      * Récupérer les prestataires en attente de validation
      */
     @GetMapping("/en-attente")
-    public ResponseEntity<List<Prestataire>> getPrestatairesEnAttente() {
-        List<Prestataire> prestataires = adminPrestataireService.getPrestatairesEnAttente();
+    public ResponseEntity<List<Prestataire>> getPrestatairesEnAttente(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        List<Prestataire> prestataires = adminPrestataireService.getPrestatairesEnAttente(page, size);
         return ResponseEntity.ok(prestataires);
     }
 
@@ -1,11 +1,17 @@
 package com.ecodeli.ecodeli_backend.controllers.auth;
 
 import com.ecodeli.ecodeli_backend.dto.request.LoginRequest;
+import com.ecodeli.ecodeli_backend.dto.request.RefreshTokenRequest;
 import com.ecodeli.ecodeli_backend.dto.request.RegisterRequest;
 import com.ecodeli.ecodeli_backend.dto.response.AuthResponse;
 import com.ecodeli.ecodeli_backend.services.AuthService;
+import com.ecodeli.ecodeli_backend.services.auth.ConnexionRefuseeException;
+import com.ecodeli.ecodeli_backend.services.auth.JetonInvalideException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,15 +24,34 @@ public class AuthController {
     private AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
         try {
-            AuthResponse authResponse = authService.login(loginRequest);
+            AuthResponse authResponse = authService.login(loginRequest, request.getRemoteAddr());
             return ResponseEntity.ok(authResponse);
+        } catch (ConnexionRefuseeException e) {
+            return ResponseEntity.status(e.getStatut())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getReessayerApresSecondes()))
+                .build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        try {
+            return ResponseEntity.ok(authService.renouveler(refreshRequest.getRefreshToken()));
+        } catch (JetonInvalideException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        authService.deconnecter(refreshRequest.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest registerRequest) {
         try {
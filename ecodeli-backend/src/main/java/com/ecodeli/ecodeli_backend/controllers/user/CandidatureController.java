@@ -1,5 +1,6 @@
 package com.ecodeli.ecodeli_backend.controllers.user;
 
+import com.ecodeli.ecodeli_backend.dto.response.CandidatureAvecPrestataireResponse;
 import com.ecodeli.ecodeli_backend.services.CandidatureService;
 import com.ecodeli.ecodeli_backend.models.Prestataire;
 import com.ecodeli.ecodeli_backend.models.PrestataireCategorie;
@@ -31,7 +32,7 @@ public class CandidatureController {
         System.out.println("=== CONTROLLER: Récupération candidatures pour demande " + demandeId + " ===");
         
         try {
-            List<Map<String, Object>> candidatures = candidatureService.getCandidaturesWithPrestatairesByDemande(demandeId);
+            List<CandidatureAvecPrestataireResponse> candidatures = candidatureService.getCandidaturesWithPrestatairesByDemande(demandeId);
             Map<String, Object> statistiques = candidatureService.getStatistiquesCandidaturesDemande(demandeId);
             
             Map<String, Object> response = new HashMap<>();
@@ -1,5 +1,9 @@
 package com.ecodeli.ecodeli_backend.controllers.user;
 
+import com.ecodeli.ecodeli_backend.dto.response.MissionClientResponse;
+import com.ecodeli.ecodeli_backend.dto.response.MissionPrestataireResponse;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+import com.ecodeli.ecodeli_backend.services.ClassementPrestatairesService;
 import com.ecodeli.ecodeli_backend.services.MissionService;
 import com.ecodeli.ecodeli_backend.services.EvaluationService;
 import com.ecodeli.ecodeli_backend.services.PrixCalculService;
@@ -25,15 +29,21 @@ public class MissionController {
     @Autowired
     private PrixCalculService prixCalculService;
 
+    @Autowired
+    private ClassementPrestatairesService classementPrestatairesService;
+
     /**
-     * Récupérer les missions d'un prestataire
+     * Récupérer les missions d'un prestataire (curseur = id de la dernière mission reçue)
      */
     @GetMapping("/prestataire/{prestataireId}")
-    public ResponseEntity<List<Map<String, Object>>> getMissionsByPrestataire(@PathVariable Integer prestataireId) {
+    public ResponseEntity<List<MissionPrestataireResponse>> getMissionsByPrestataire(
+            @PathVariable Integer prestataireId,
+            @RequestParam(required = false) Long curseur,
+            @RequestParam(required = false) Integer limite) {
         System.out.println("=== CONTROLLER: Récupération missions prestataire " + prestataireId + " ===");
         
         try {
-            List<Map<String, Object>> missions = missionService.getMissionsByPrestataire(prestataireId);
+            List<MissionPrestataireResponse> missions = missionService.getMissionsByPrestataire(prestataireId, curseur, limite);
             
             System.out.println("Missions trouvées: " + missions.size());
             return ResponseEntity.ok(missions);
@@ -104,11 +114,11 @@ public class MissionController {
      * Récupérer les détails d'une mission
      */
     @GetMapping("/{missionId}")
-    public ResponseEntity<Map<String, Object>> getDetailsMission(@PathVariable Long missionId) {
+    public ResponseEntity<MissionPrestataireResponse> getDetailsMission(@PathVariable Long missionId) {
         System.out.println("=== CONTROLLER: Récupération détails mission " + missionId + " ===");
         
         try {
-            Map<String, Object> mission = missionService.getDetailsMission(missionId);
+            MissionPrestataireResponse mission = missionService.getDetailsMission(missionId);
             
             if (mission != null) {
                 return ResponseEntity.ok(mission);
@@ -127,14 +137,17 @@ public class MissionController {
     }
 
     /**
-     * Récupérer les missions d'un client
+     * Récupérer les missions d'un client (curseur = id de la dernière mission reçue)
      */
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<List<Map<String, Object>>> getMissionsByClient(@PathVariable Integer clientId) {
+    public ResponseEntity<List<MissionClientResponse>> getMissionsByClient(
+            @PathVariable Integer clientId,
+            @RequestParam(required = false) Long curseur,
+            @RequestParam(required = false) Integer limite) {
         System.out.println("=== CONTROLLER: Récupération missions client " + clientId + " ===");
         
         try {
-            List<Map<String, Object>> missions = missionService.getMissionsByClient(clientId);
+            List<MissionClientResponse> missions = missionService.getMissionsByClient(clientId, curseur, limite);
             
             System.out.println("Missions trouvées: " + missions.size());
             return ResponseEntity.ok(missions);
@@ -221,6 +234,21 @@ public class MissionController {
         }
     }
 
+    /**
+     * Classement des prestataires d'une catégorie (moyenne bayésienne, servi depuis la mémoire)
+     */
+    @GetMapping("/classement/{categorie}")
+    public ResponseEntity<List<ClassementPrestatairesService.EntreeClassement>> getClassementPrestataires(
+            @PathVariable String categorie,
+            @RequestParam(defaultValue = "10") int limite) {
+        try {
+            ServiceType serviceType = ServiceType.valueOf(categorie);
+            return ResponseEntity.ok(classementPrestatairesService.getClassement(serviceType, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Récupérer toutes les évaluations d'un prestataire
      */
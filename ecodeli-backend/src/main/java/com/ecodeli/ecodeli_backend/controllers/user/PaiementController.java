@@ -1,11 +1,16 @@
 package com.ecodeli.ecodeli_backend.controllers.user;
 
+import com.ecodeli.ecodeli_backend.dto.response.HistoriqueTransactionsResponse;
+import com.ecodeli.ecodeli_backend.dto.response.HistoriqueTransactionsResponse.Curseur;
 import com.ecodeli.ecodeli_backend.services.PaiementFictifService;
+import com.ecodeli.ecodeli_backend.services.ReleveMensuelService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,6 +23,9 @@ public class PaiementController {
     @Autowired
     private PaiementFictifService paiementService;
 
+    @Autowired
+    private ReleveMensuelService releveMensuelService;
+
     /**
      * Effectue le paiement d'une mission (simulation)
      */
@@ -112,20 +120,23 @@ public class PaiementController {
     }
 
     /**
-     * Récupère l'historique des transactions d'un prestataire
+     * Récupère l'historique des transactions d'un prestataire, par pages : la page suivante
+     * se demande avec le curseurSuivant de la réponse
      */
     @GetMapping("/portefeuille/prestataire/{prestataireId}/transactions")
-    public ResponseEntity<List<Map<String, Object>>> getHistoriqueTransactions(
+    public ResponseEntity<HistoriqueTransactionsResponse> getHistoriqueTransactions(
             @PathVariable Integer prestataireId,
-            @RequestParam(defaultValue = "20") int limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String curseur) {
         
         System.out.println("=== CONTROLLER: Historique transactions prestataire " + prestataireId + " ===");
         
         try {
-            List<Map<String, Object>> transactions = paiementService.getHistoriqueTransactions(prestataireId, limit);
+            HistoriqueTransactionsResponse historique = paiementService.getHistoriqueTransactions(
+                prestataireId, limit, curseur != null ? Curseur.lire(curseur) : null);
             
-            System.out.println("Transactions trouvées: " + transactions.size());
-            return ResponseEntity.ok(transactions);
+            System.out.println("Transactions trouvées: " + historique.transactions().size());
+            return ResponseEntity.ok(historique);
             
         } catch (Exception e) {
             System.err.println("ERREUR récupération transactions: " + e.getMessage());
@@ -134,6 +145,35 @@ public class PaiementController {
         }
     }
 
+    /**
+     * Récupère les relevés mensuels d'un prestataire (par défaut les 12 derniers mois)
+     */
+    @GetMapping("/portefeuille/prestataire/{prestataireId}/releves")
+    public ResponseEntity<?> getRelevesMensuels(
+            @PathVariable Integer prestataireId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth debut,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth fin) {
+        try {
+            YearMonth moisFin = fin != null ? fin : YearMonth.now();
+            YearMonth moisDebut = debut != null ? debut : moisFin.minusMonths(11);
+            return ResponseEntity.ok(releveMensuelService.getReleves(prestataireId, moisDebut, moisFin));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    /**
+     * Récupère le relevé d'un mois (yyyy-MM)
+     */
+    @GetMapping("/portefeuille/prestataire/{prestataireId}/releves/{mois}")
+    public ResponseEntity<ReleveMensuelService.ReleveMensuel> getReleveMensuel(
+            @PathVariable Integer prestataireId,
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth mois) {
+        return ResponseEntity.ok(releveMensuelService.getReleve(prestataireId, mois));
+    }
+
     /**
      * Met à jour les informations bancaires d'un prestataire
      */
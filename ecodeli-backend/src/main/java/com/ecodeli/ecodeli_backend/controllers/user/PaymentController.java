@@ -4,6 +4,10 @@ import com.ecodeli.ecodeli_backend.models.Annonce;
 import com.ecodeli.ecodeli_backend.models.Client;
 import com.ecodeli.ecodeli_backend.repositories.AnnonceRepository;
 import com.ecodeli.ecodeli_backend.services.StripePaymentService;
+import com.ecodeli.ecodeli_backend.services.stripe.StripeWebhookService;
+import com.google.gson.JsonSyntaxException;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,6 +25,7 @@ public class PaymentController {
 
     private final StripePaymentService stripePaymentService;
     private final AnnonceRepository annonceRepository;
+    private final StripeWebhookService stripeWebhookService;
 
     @Value("${stripe.publishable.key}")
     private String stripePublishableKey;
@@ -35,6 +40,7 @@ public class PaymentController {
             response.put("clientSecret", paymentData.get("clientSecret"));
             response.put("paymentIntentId", paymentData.get("paymentIntentId"));
             response.put("amount", paymentData.get("amount"));
+            response.put("reference", paymentData.get("reference"));
 
             return ResponseEntity.ok(response);
 
@@ -98,6 +104,34 @@ public class PaymentController {
         }
     }
 
+    /**
+     * Webhook Stripe (appelé par Stripe, sans JWT) : la signature Stripe-Signature fait foi
+     */
+    @PostMapping("/webhook")
+    public ResponseEntity<String> recevoirWebhook(
+            @RequestBody String payload,
+            @RequestHeader(value = "Stripe-Signature", required = false) String signature) {
+        if (signature == null) {
+            return ResponseEntity.badRequest().body("Signature manquante");
+        }
+        Event event;
+        try {
+            event = stripeWebhookService.verifier(payload, signature);
+        } catch (SignatureVerificationException | JsonSyntaxException e) {
+            log.warn("Webhook Stripe rejeté: signature ou contenu invalide");
+            return ResponseEntity.badRequest().body("Signature invalide");
+        }
+
+        try {
+            stripeWebhookService.traiter(event);
+            return ResponseEntity.ok("ok");
+        } catch (Exception e) {
+            // Réponse non 2xx : Stripe renverra l'événement plus tard
+            log.error("Erreur lors du traitement du webhook Stripe {}: {}", event.getId(), e.getMessage());
+            return ResponseEntity.internalServerError().body("Erreur de traitement");
+        }
+    }
+
     @GetMapping("/config")
     public ResponseEntity<?> getStripeConfig() {
         Map<String, Object> config = new HashMap<>();
@@ -7,6 +7,9 @@ import com.ecodeli.ecodeli_backend.models.Prestataire;
 import com.ecodeli.ecodeli_backend.models.Utilisateur;
 import com.ecodeli.ecodeli_backend.repositories.UtilisateurRepository;
 import com.ecodeli.ecodeli_backend.services.PrestataireService;
+import com.ecodeli.ecodeli_backend.services.storage.StockageFichierService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +17,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +35,9 @@ public class PrestataireController {
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
+    @Autowired
+    private StockageFichierService stockageFichierService;
+
     /**
      * Récupérer les demandes de service disponibles pour le prestataire connecté
      */
@@ -229,6 +236,30 @@ public class PrestataireController {
         }
     }
 
+    @GetMapping("/justificatifs/{justificatifId}/fichier")
+    public void telechargerJustificatif(
+            @PathVariable Integer justificatifId,
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Justificatif justificatif;
+        try {
+            Integer prestataireId = getPrestataireId(authentication);
+            justificatif = prestataireService.getJustificatifPrestataire(prestataireId, justificatifId);
+        } catch (Exception e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, e.getMessage());
+            return;
+        }
+        
+        if (justificatif.getEmpreinteSha256() == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Fichier non disponible");
+            return;
+        }
+        
+        stockageFichierService.envoyer(justificatif.getEmpreinteSha256(), justificatif.getNomFichierOriginal(),
+            justificatif.getTypeMime(), request, response);
+    }
+
     @DeleteMapping("/justificatifs/{justificatifId}")
     public ResponseEntity<Map<String, Object>> supprimerJustificatif(
             @PathVariable Long justificatifId,
@@ -0,0 +1,15 @@
+package com.ecodeli.ecodeli_backend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Le jeton de rafraîchissement est obligatoire")
+    private String refreshToken;
+}
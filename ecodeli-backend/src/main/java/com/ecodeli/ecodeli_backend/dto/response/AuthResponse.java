@@ -11,6 +11,9 @@ public class AuthResponse {
 
     private String token;
     private String type = "Bearer";
+    private String refreshToken;
+    // Durée de validité du token, en secondes
+    private Long expiresIn;
     private Integer id;
     private String email;
     private String nom;
@@ -0,0 +1,50 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.Candidature.StatutCandidature;
+import com.ecodeli.ecodeli_backend.models.PrestataireCategorie.StatutValidation;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Candidature d'une demande de service avec le profil du prestataire
+ * (mêmes clés JSON que l'ancienne réponse construite à base de Map)
+ */
+public record CandidatureAvecPrestataireResponse(
+        Long idCandidature,
+        BigDecimal prixPropose,
+        String messagePrestataire,
+        StatutCandidature statut,
+        LocalDateTime dateCandidature,
+        Integer delaiPropose,
+        PrestataireCandidat prestataire) {
+
+    public record PrestataireCandidat(
+            Integer idUtilisateur,
+            String nom,
+            String prenom,
+            String email,
+            String telephone,
+            String adresse,
+            Statistiques statistiques,
+            List<CategorieValidee> categoriesValidees) {
+    }
+
+    public record Statistiques(
+            long totalCandidatures,
+            long candidaturesAcceptees,
+            double tauxAcceptation,
+            long missionsRealisees,
+            double noteMoyenne,
+            long nombreEvaluations) {
+    }
+
+    public record CategorieValidee(
+            ServiceType categorieService,
+            StatutValidation statut,
+            Double tarifHoraire,
+            LocalDateTime dateValidation) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page de l'historique des transactions d'un prestataire, avec le curseur de la page suivante
+ * (null sur la dernière page)
+ */
+public record HistoriqueTransactionsResponse(
+        List<Map<String, Object>> transactions,
+        String curseurSuivant) {
+
+    /**
+     * Position dans l'historique, trié par (dateTransaction, idTransaction) décroissants.
+     * Forme texte : date ISO et identifiant séparés par '_', par exemple 2025-06-14T10:30:00.123_4812.
+     */
+    public record Curseur(LocalDateTime date, Long id) {
+
+        public static Curseur lire(String curseur) {
+            int separateur = curseur.lastIndexOf('_');
+            if (separateur <= 0) {
+                throw new IllegalArgumentException("Curseur invalide: " + curseur);
+            }
+            try {
+                return new Curseur(LocalDateTime.parse(curseur.substring(0, separateur)),
+                    Long.valueOf(curseur.substring(separateur + 1)));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur invalide: " + curseur);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return date + "_" + id;
+        }
+    }
+}
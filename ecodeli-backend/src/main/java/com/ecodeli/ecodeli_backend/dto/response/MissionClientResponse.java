@@ -0,0 +1,49 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.DemandeService.StatutDemande;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Mission vue par le client (demande avec le prestataire retenu).
+ * Construite directement par la requête JPQL (constructeur "à plat" ci-dessous).
+ */
+public record MissionClientResponse(
+        Long id,
+        String statut,
+        BigDecimal prixAccepte,
+        LocalDateTime dateAcceptation,
+        Prestataire prestataire,
+        Demande demandeService) {
+
+    public record Prestataire(
+            Integer idUtilisateur,
+            String prenom,
+            String nom,
+            String email) {
+    }
+
+    public record Demande(
+            Long idDemande,
+            String titre,
+            String description,
+            LocalDateTime dateSouhaitee,
+            String adresseDepart) {
+    }
+
+    /**
+     * Utilisé par l'expression "SELECT new" de CandidatureRepository
+     */
+    public MissionClientResponse(Long idCandidature, BigDecimal prixPropose, LocalDateTime dateReponse,
+                                 StatutDemande statutDemande, Integer idPrestataire, String prenomPrestataire,
+                                 String nomPrestataire, String emailPrestataire, Long idDemande, String titre,
+                                 String description, LocalDateTime dateSouhaitee, String adresseDepart) {
+        this(idCandidature,
+             MissionPrestataireResponse.statutMission(statutDemande),
+             prixPropose,
+             dateReponse,
+             new Prestataire(idPrestataire, prenomPrestataire, nomPrestataire, emailPrestataire),
+             new Demande(idDemande, titre, description, dateSouhaitee, adresseDepart));
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.DemandeService.StatutDemande;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Mission vue par le prestataire (candidature acceptée et demande associée).
+ * Construite directement par la requête JPQL (constructeur "à plat" ci-dessous).
+ */
+public record MissionPrestataireResponse(
+        Long id,
+        Long candidatureId,
+        String statut,
+        BigDecimal prixAccepte,
+        LocalDateTime dateAcceptation,
+        @JsonInclude(JsonInclude.Include.NON_NULL) LocalDateTime dateDebut,
+        @JsonInclude(JsonInclude.Include.NON_NULL) LocalDateTime dateTerminaison,
+        Demande demandeService) {
+
+    public record Demande(
+            Long idDemande,
+            String titre,
+            String description,
+            ServiceType categorieService,
+            LocalDateTime dateSouhaitee,
+            String adresseDepart,
+            String adresseArrivee,
+            String creneauHoraire,
+            Client client) {
+    }
+
+    public record Client(
+            Integer idUtilisateur,
+            String prenom,
+            String nom,
+            String email,
+            String telephone) {
+    }
+
+    /**
+     * Utilisé par les expressions "SELECT new" de CandidatureRepository
+     */
+    public MissionPrestataireResponse(Long idCandidature, BigDecimal prixPropose, LocalDateTime dateReponse,
+                                      StatutDemande statutDemande, LocalDateTime dateModification,
+                                      Long idDemande, String titre, String description, ServiceType categorieService,
+                                      LocalDateTime dateSouhaitee, String adresseDepart, String adresseArrivee,
+                                      String creneauHoraire, Integer idClient, String prenomClient, String nomClient,
+                                      String emailClient, String telephoneClient) {
+        this(idCandidature,
+             idCandidature,
+             statutMission(statutDemande),
+             prixPropose,
+             dateReponse,
+             statutDemande == StatutDemande.EN_COURS ? dateReponse : null,
+             statutDemande == StatutDemande.TERMINEE ? dateModification : null,
+             new Demande(idDemande, titre, description, categorieService, dateSouhaitee, adresseDepart,
+                 adresseArrivee, creneauHoraire,
+                 new Client(idClient, prenomClient, nomClient, emailClient, telephoneClient)));
+    }
+
+    /**
+     * Statut affiché d'une mission : tant qu'elle n'a pas démarré, le prestataire est seulement sélectionné
+     */
+    public static String statutMission(StatutDemande statutDemande) {
+        if (statutDemande == StatutDemande.EN_COURS || statutDemande == StatutDemande.TERMINEE) {
+            return statutDemande.name();
+        }
+        return StatutDemande.PRESTATAIRE_SELECTIONNE.name();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecodeli.ecodeli_backend.metriques;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durée de chaque méthode publique des beans du package services, dans le timer
+ * ecodeli.service.appels (tags classe, methode, resultat). Les timers sont créés une fois
+ * par méthode : un appel ne coûte qu'une lecture de map et deux System.nanoTime().
+ * Les appels internes à un même bean (this.methode()) ne passent pas par le proxy et ne sont pas mesurés.
+ */
+@Aspect
+@Component
+public class MesureServicesAspect {
+
+    public static final String TIMER_SERVICES = "ecodeli.service.appels";
+
+    private final MeterRegistry registry;
+
+    // [0] succès, [1] erreur
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public MesureServicesAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.ecodeli.ecodeli_backend.services..*(..))")
+    public Object mesurer(ProceedingJoinPoint point) throws Throwable {
+        Method methode = ((MethodSignature) point.getSignature()).getMethod();
+        Timer[] timersMethode = timers.computeIfAbsent(methode, this::creerTimers);
+        long debut = System.nanoTime();
+        try {
+            Object resultat = point.proceed();
+            timersMethode[0].record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+            return resultat;
+        } catch (Throwable e) {
+            timersMethode[1].record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer[] creerTimers(Method methode) {
+        String classe = methode.getDeclaringClass().getSimpleName();
+        return new Timer[] {
+            timer(classe, methode.getName(), "succes"),
+            timer(classe, methode.getName(), "erreur")
+        };
+    }
+
+    private Timer timer(String classe, String methode, String resultat) {
+        return Timer.builder(TIMER_SERVICES)
+            .description("Durée des appels aux services métier")
+            .tag("classe", classe)
+            .tag("methode", methode)
+            .tag("resultat", resultat)
+            .register(registry);
+    }
+}
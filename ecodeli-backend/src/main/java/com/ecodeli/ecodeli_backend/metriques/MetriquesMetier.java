@@ -0,0 +1,99 @@
+package com.ecodeli.ecodeli_backend.metriques;
+
+import com.ecodeli.ecodeli_backend.models.Livraison.StatutLivraison;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compteurs et timers métier. Tous les tags prennent leurs valeurs dans des ensembles fermés
+ * (énumérations, types de paiement, services externes) : jamais d'identifiant ni d'adresse.
+ */
+@Component
+public class MetriquesMetier {
+
+    public enum TypePaiement {
+        MISSION,
+        RETRAIT,
+        STRIPE
+    }
+
+    public enum ServiceExterne {
+        GOOGLE_MAPS,
+        SMTP,
+        STRIPE
+    }
+
+    private final MeterRegistry registry;
+
+    public MetriquesMetier(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Changement de statut d'une livraison ; ancien null à la création
+     */
+    public void transitionLivraison(StatutLivraison ancien, StatutLivraison nouveau) {
+        Counter.builder("ecodeli.livraisons.transitions")
+            .description("Changements de statut des livraisons")
+            .tag("de", ancien != null ? ancien.name() : "AUCUN")
+            .tag("vers", nouveau != null ? nouveau.name() : "AUCUN")
+            .register(registry)
+            .increment();
+    }
+
+    /**
+     * Règlement d'un paiement (durée totale, y compris le délai simulé de la banque)
+     */
+    public void paiement(TypePaiement type, boolean succes, BigDecimal montant, long debutNanos) {
+        String resultat = succes ? "succes" : "echec";
+        Timer.builder("ecodeli.paiements.reglement")
+            .description("Durée de règlement des paiements")
+            .tag("type", type.name())
+            .tag("resultat", resultat)
+            .register(registry)
+            .record(System.nanoTime() - debutNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("ecodeli.paiements")
+            .description("Paiements traités")
+            .tag("type", type.name())
+            .tag("resultat", resultat)
+            .register(registry)
+            .increment();
+        if (succes && montant != null) {
+            DistributionSummary.builder("ecodeli.paiements.montant")
+                .description("Montant des paiements réussis")
+                .baseUnit("euros")
+                .tag("type", type.name())
+                .register(registry)
+                .record(montant.doubleValue());
+        }
+    }
+
+    /**
+     * Nouveau statut d'un paiement Stripe reçu par webhook
+     */
+    public void statutStripe(String statut) {
+        Counter.builder("ecodeli.paiements.stripe.statuts")
+            .description("Statuts de paiement Stripe reçus par webhook")
+            .tag("statut", statut)
+            .register(registry)
+            .increment();
+    }
+
+    /**
+     * Appel à un service externe (Google Maps, SMTP, Stripe)
+     */
+    public void appelExterne(ServiceExterne service, boolean succes, long debutNanos) {
+        Timer.builder("ecodeli.appels.externes")
+            .description("Durée des appels aux services externes")
+            .tag("service", service.name())
+            .tag("resultat", succes ? "succes" : "echec")
+            .register(registry)
+            .record(System.nanoTime() - debutNanos, TimeUnit.NANOSECONDS);
+    }
+}
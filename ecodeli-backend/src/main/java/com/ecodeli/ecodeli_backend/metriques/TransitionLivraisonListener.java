@@ -0,0 +1,34 @@
+package com.ecodeli.ecodeli_backend.metriques;
+
+import com.ecodeli.ecodeli_backend.models.Livraison;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compte les transitions de statut des livraisons quel que soit le service qui les fait :
+ * Hibernate instancie ce listener via le conteneur Spring.
+ */
+@Component
+public class TransitionLivraisonListener {
+
+    private final MetriquesMetier metriquesMetier;
+
+    public TransitionLivraisonListener(MetriquesMetier metriquesMetier) {
+        this.metriquesMetier = metriquesMetier;
+    }
+
+    @PostPersist
+    public void apresCreation(Livraison livraison) {
+        metriquesMetier.transitionLivraison(null, livraison.getStatut());
+        livraison.setStatutEnregistre(livraison.getStatut());
+    }
+
+    @PostUpdate
+    public void apresModification(Livraison livraison) {
+        if (livraison.getStatut() != livraison.getStatutEnregistre()) {
+            metriquesMetier.transitionLivraison(livraison.getStatutEnregistre(), livraison.getStatut());
+            livraison.setStatutEnregistre(livraison.getStatut());
+        }
+    }
+}
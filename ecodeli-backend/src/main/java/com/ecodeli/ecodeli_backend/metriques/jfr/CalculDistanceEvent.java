@@ -0,0 +1,47 @@
+package com.ecodeli.ecodeli_backend.metriques.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.math.BigDecimal;
+
+/**
+ * Calcul de distance par l'API Google Maps (AnnonceService.calculateDistance).
+ * Les adresses ne sont pas enregistrées.
+ */
+@Name("com.ecodeli.CalculDistance")
+@Label("Calcul de distance")
+@Category({"EcoDeli", "Annonces"})
+@Description("Appel Distance Matrix et distance retenue pour le prix de l'annonce")
+@StackTrace(false)
+public class CalculDistanceEvent extends Event {
+
+    @Label("Statut Google Maps")
+    String statutGoogle;
+
+    @Label("Distance (km)")
+    double distanceKm;
+
+    @Label("Distance par défaut")
+    @Description("Vrai si l'appel a échoué et que la distance forfaitaire a été utilisée")
+    boolean distanceParDefaut;
+
+    public CalculDistanceEvent() {
+        begin();
+    }
+
+    public void statutGoogle(Object statut) {
+        this.statutGoogle = statut != null ? statut.toString() : null;
+    }
+
+    public BigDecimal terminer(BigDecimal distance, boolean parDefaut) {
+        this.distanceKm = distance.doubleValue();
+        this.distanceParDefaut = parDefaut;
+        commit();
+        return distance;
+    }
+}
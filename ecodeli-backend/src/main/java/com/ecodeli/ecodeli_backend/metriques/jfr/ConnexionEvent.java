@@ -0,0 +1,51 @@
+package com.ecodeli.ecodeli_backend.metriques.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Tentative de connexion (AuthService.login), limitation et vérification BCrypt comprises.
+ * L'email n'est pas enregistré : seul l'identifiant du compte, quand il existe.
+ */
+@Name("com.ecodeli.Connexion")
+@Label("Connexion")
+@Category({"EcoDeli", "Authentification"})
+@Description("Tentative de connexion et son issue")
+@StackTrace(false)
+public class ConnexionEvent extends Event {
+
+    public enum Resultat {
+        SUCCES,
+        COMPTE_INCONNU,
+        MOT_DE_PASSE_INCORRECT,
+        LIMITEE,
+        SATUREE,
+        ERREUR
+    }
+
+    @Label("Utilisateur")
+    int idUtilisateur;
+
+    @Label("Résultat")
+    String resultat;
+
+    public ConnexionEvent() {
+        begin();
+    }
+
+    public void utilisateur(Integer idUtilisateur) {
+        this.idUtilisateur = idUtilisateur != null ? idUtilisateur : 0;
+    }
+
+    public void resultat(Resultat resultat) {
+        this.resultat = resultat.name();
+    }
+
+    public boolean resultatConnu() {
+        return resultat != null;
+    }
+}
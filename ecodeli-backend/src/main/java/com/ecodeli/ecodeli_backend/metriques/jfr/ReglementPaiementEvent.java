@@ -0,0 +1,63 @@
+package com.ecodeli.ecodeli_backend.metriques.jfr;
+
+import com.ecodeli.ecodeli_backend.metriques.MetriquesMetier.TypePaiement;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Règlement d'un paiement de mission ou d'un retrait prestataire, délai bancaire simulé compris
+ */
+@Name("com.ecodeli.ReglementPaiement")
+@Label("Règlement de paiement")
+@Category({"EcoDeli", "Paiements"})
+@Description("Paiement de mission ou retrait prestataire traité par PaiementFictifService")
+@StackTrace(false)
+public class ReglementPaiementEvent extends Event {
+
+    @Label("Type")
+    String type;
+
+    @Label("Référence métier")
+    @Description("Candidature pour une mission, prestataire pour un retrait")
+    long idReference;
+
+    @Label("Montant")
+    double montant;
+
+    @Label("Transaction")
+    long idTransaction;
+
+    @Label("Succès")
+    boolean succes;
+
+    @Label("Erreur")
+    String erreur;
+
+    public ReglementPaiementEvent(TypePaiement type, Number idReference, BigDecimal montant) {
+        this.type = type.name();
+        this.idReference = idReference != null ? idReference.longValue() : 0;
+        this.montant = montant != null ? montant.doubleValue() : 0;
+        begin();
+    }
+
+    /**
+     * Renseigner l'issue depuis la réponse du service (success, transactionId, error) et enregistrer
+     */
+    public void terminer(Map<String, Object> resultat) {
+        this.succes = Boolean.TRUE.equals(resultat.get("success"));
+        if (resultat.get("transactionId") instanceof Number idTransaction) {
+            this.idTransaction = idTransaction.longValue();
+        }
+        if (resultat.get("error") != null) {
+            this.erreur = resultat.get("error").toString();
+        }
+        commit();
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecodeli.ecodeli_backend.metriques.jfr;
+
+import com.ecodeli.ecodeli_backend.models.Livraison.StatutLivraison;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Opération de LivraisonService qui fait avancer (ou refuse de faire avancer) une livraison
+ */
+@Name("com.ecodeli.LivraisonTransition")
+@Label("Transition de livraison")
+@Category({"EcoDeli", "Livraisons"})
+@Description("Démarrage, fin, validation OTP, changement de statut ou annulation d'une livraison")
+@StackTrace(false)
+public class TransitionLivraisonEvent extends Event {
+
+    @Label("Opération")
+    String operation;
+
+    @Label("Livraison")
+    int idLivraison;
+
+    @Label("Livreur")
+    int idLivreur;
+
+    @Label("Statut avant")
+    String statutAvant;
+
+    @Label("Statut après")
+    String statutApres;
+
+    @Label("Succès")
+    boolean succes;
+
+    @Label("Erreur")
+    String erreur;
+
+    public TransitionLivraisonEvent(String operation, Integer idLivraison, Integer idLivreur) {
+        this.operation = operation;
+        this.idLivraison = idLivraison != null ? idLivraison : 0;
+        this.idLivreur = idLivreur != null ? idLivreur : 0;
+        begin();
+    }
+
+    public void statutAvant(StatutLivraison statut) {
+        this.statutAvant = statut != null ? statut.name() : null;
+    }
+
+    /**
+     * Statut après l'opération ; réussie sauf si un échec a été signalé
+     */
+    public void fin(StatutLivraison statut) {
+        this.statutApres = statut != null ? statut.name() : null;
+        this.succes = erreur == null;
+    }
+
+    public void echec(String erreur) {
+        this.succes = false;
+        this.erreur = erreur;
+    }
+}
@@ -0,0 +1,198 @@
+package com.ecodeli.ecodeli_backend.metriques.sql;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Comptage des requêtes SQL exécutées par le thread courant, alimenté par le proxy de DataSource.
+ * Une mesure est ouverte par requête HTTP (SurveillanceRequetesFilter) et peut l'être dans un test
+ * d'intégration pour vérifier le nombre de requêtes d'un service :
+ * <pre>
+ * try (RequetesSql.Mesure mesure = RequetesSql.mesurer()) {
+ *     livraisonService.getLivraisonsByLivreur(4);
+ *     mesure.verifierAuPlus(2).verifierRepetitionsAuPlus(1);
+ * }
+ * </pre>
+ * Les mesures s'imbriquent : une requête compte dans la mesure courante et dans toutes celles qui l'englobent.
+ * Les requêtes exécutées sur un autre thread (exécuteurs asynchrones) ne sont pas comptées.
+ */
+public final class RequetesSql {
+
+    public enum TypeRequete {
+        SELECT,
+        INSERT,
+        UPDATE,
+        DELETE,
+        AUTRE
+    }
+
+    // Au-delà, les nouvelles requêtes distinctes sont comptées mais plus suivies pour les répétitions
+    private static final int REQUETES_DISTINCTES_MAX = 256;
+
+    private static final ThreadLocal<Mesure> COURANTE = new ThreadLocal<>();
+
+    private RequetesSql() {
+    }
+
+    /**
+     * Ouvrir une mesure sur le thread courant, à fermer (try-with-resources) sur le même thread
+     */
+    public static Mesure mesurer() {
+        Mesure mesure = new Mesure(COURANTE.get());
+        COURANTE.set(mesure);
+        return mesure;
+    }
+
+    public static Optional<Mesure> courante() {
+        return Optional.ofNullable(COURANTE.get());
+    }
+
+    static void enregistrer(String sql, long dureeMs, boolean lot) {
+        Mesure mesure = COURANTE.get();
+        if (mesure == null) {
+            return;
+        }
+        TypeRequete type = type(sql);
+        for (Mesure m = mesure; m != null; m = m.parente) {
+            m.ajouter(type, sql, dureeMs, lot);
+        }
+    }
+
+    static TypeRequete type(String sql) {
+        int debut = 0;
+        while (debut < sql.length() && (Character.isWhitespace(sql.charAt(debut)) || sql.charAt(debut) == '(')) {
+            debut++;
+        }
+        if (commencePar(sql, debut, "select") || commencePar(sql, debut, "with")) {
+            return TypeRequete.SELECT;
+        }
+        if (commencePar(sql, debut, "insert")) {
+            return TypeRequete.INSERT;
+        }
+        if (commencePar(sql, debut, "update")) {
+            return TypeRequete.UPDATE;
+        }
+        if (commencePar(sql, debut, "delete")) {
+            return TypeRequete.DELETE;
+        }
+        return TypeRequete.AUTRE;
+    }
+
+    private static boolean commencePar(String sql, int debut, String motCle) {
+        return sql.regionMatches(true, debut, motCle, 0, motCle.length());
+    }
+
+    public static final class Mesure implements AutoCloseable {
+
+        private final Mesure parente;
+        private final Map<TypeRequete, Integer> parType = new EnumMap<>(TypeRequete.class);
+        private final Map<String, Integer> parSql = new HashMap<>();
+        private int total;
+        private long dureeMs;
+        private String plusRepetee;
+        private int repetitionsMax;
+
+        private Mesure(Mesure parente) {
+            this.parente = parente;
+        }
+
+        private void ajouter(TypeRequete type, String sql, long duree, boolean lot) {
+            total++;
+            dureeMs += duree;
+            parType.merge(type, 1, Integer::sum);
+            // Un lot d'INSERT/UPDATE rejoue volontairement la même requête : ce n'est pas un N+1
+            if (lot || (parSql.size() >= REQUETES_DISTINCTES_MAX && !parSql.containsKey(sql))) {
+                return;
+            }
+            int executions = parSql.merge(sql, 1, Integer::sum);
+            if (executions > repetitionsMax) {
+                repetitionsMax = executions;
+                plusRepetee = sql;
+            }
+        }
+
+        /**
+         * Nombre d'allers-retours JDBC (un lot compte pour un)
+         */
+        public int nombre() {
+            return total;
+        }
+
+        public int nombre(TypeRequete type) {
+            return parType.getOrDefault(type, 0);
+        }
+
+        public long dureeMs() {
+            return dureeMs;
+        }
+
+        /**
+         * Nombre d'exécutions de la requête la plus répétée (hors lots)
+         */
+        public int repetitionsMax() {
+            return repetitionsMax;
+        }
+
+        public Optional<String> plusRepetee() {
+            return Optional.ofNullable(plusRepetee);
+        }
+
+        public Mesure verifierNombre(int attendu) {
+            if (total != attendu) {
+                throw new AssertionError(attendu + " requête(s) SQL attendue(s), " + total + " exécutée(s)");
+            }
+            return this;
+        }
+
+        public Mesure verifierAuPlus(int maximum) {
+            if (total > maximum) {
+                throw new AssertionError("Au plus " + maximum + " requête(s) SQL attendue(s), " + total + " exécutée(s)");
+            }
+            return this;
+        }
+
+        public Mesure verifierAuPlus(TypeRequete type, int maximum) {
+            int nombre = nombre(type);
+            if (nombre > maximum) {
+                throw new AssertionError("Au plus " + maximum + " requête(s) " + type + " attendue(s), "
+                    + nombre + " exécutée(s)");
+            }
+            return this;
+        }
+
+        /**
+         * Échoue si une même requête a été exécutée plus de maximum fois : signe d'un N+1
+         */
+        public Mesure verifierRepetitionsAuPlus(int maximum) {
+            if (repetitionsMax > maximum) {
+                throw new AssertionError("Requête SQL exécutée " + repetitionsMax + " fois (N+1 probable) : " + plusRepetee);
+            }
+            return this;
+        }
+
+        /**
+         * Remettre les compteurs à zéro, par exemple après la préparation des données d'un test
+         */
+        public void reinitialiser() {
+            parType.clear();
+            parSql.clear();
+            total = 0;
+            dureeMs = 0;
+            plusRepetee = null;
+            repetitionsMax = 0;
+        }
+
+        @Override
+        public void close() {
+            if (COURANTE.get() == this) {
+                if (parente != null) {
+                    COURANTE.set(parente);
+                } else {
+                    COURANTE.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.ecodeli.ecodeli_backend.metriques.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Une mesure RequetesSql par requête HTTP, ouverte avant Spring Security pour inclure ses requêtes.
+ * Une requête SQL répétée au-delà du seuil dans un même appel est signalée (N+1 probable).
+ * Hors production (app.sql.surveillance.exposer), le nombre de requêtes est aussi renvoyé
+ * en en-têtes et enregistré par route dans ecodeli.sql.requetes.par_appel.
+ * open-in-view étant désactivé, toutes les requêtes d'un appel sont exécutées avant l'écriture
+ * de la réponse ; seuls les exports en flux en exécutent après l'envoi des en-têtes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sql.surveillance.active", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class SurveillanceRequetesFilter extends OncePerRequestFilter {
+
+    public static final String ENTETE_NOMBRE = "X-Sql-Requetes";
+    public static final String ENTETE_DUREE = "X-Sql-Duree-Ms";
+    public static final String ENTETE_REPETITIONS = "X-Sql-Repetitions-Max";
+
+    private final MeterRegistry registry;
+    private final int seuilRepetitions;
+    private final boolean exposer;
+
+    public SurveillanceRequetesFilter(MeterRegistry registry,
+                                      @Value("${app.sql.surveillance.seuil-repetitions:10}") int seuilRepetitions,
+                                      @Value("${app.sql.surveillance.exposer:false}") boolean exposer) {
+        this.registry = registry;
+        this.seuilRepetitions = seuilRepetitions;
+        this.exposer = exposer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (RequetesSql.Mesure mesure = RequetesSql.mesurer()) {
+            if (!exposer) {
+                chain.doFilter(request, response);
+            } else {
+                ReponseAvecEnTetes reponse = new ReponseAvecEnTetes(response, mesure);
+                chain.doFilter(request, reponse);
+                reponse.ecrireEnTetes();
+            }
+            bilan(request, mesure);
+        }
+    }
+
+    private void bilan(HttpServletRequest request, RequetesSql.Mesure mesure) {
+        if (mesure.nombre() == 0) {
+            return;
+        }
+        String route = route(request);
+        if (mesure.repetitionsMax() >= seuilRepetitions) {
+            Counter.builder("ecodeli.sql.repetitions")
+                .description("Appels HTTP ayant répété une même requête SQL au-delà du seuil (N+1 probable)")
+                .tag("uri", route)
+                .register(registry)
+                .increment();
+            log.warn("N+1 probable sur {} {} : requête exécutée {} fois ({} requêtes au total) : {}",
+                request.getMethod(), route, mesure.repetitionsMax(), mesure.nombre(),
+                SurveillanceRequetesListener.tronquer(mesure.plusRepetee().orElse("")));
+        }
+        if (exposer) {
+            DistributionSummary.builder("ecodeli.sql.requetes.par_appel")
+                .description("Requêtes SQL exécutées par appel HTTP")
+                .tag("uri", route)
+                .tag("methode", request.getMethod())
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(registry)
+                .record(mesure.nombre());
+        }
+    }
+
+    // Motif de la route (/api/livraisons/{id}) plutôt que l'URI : cardinalité bornée
+    private static String route(HttpServletRequest request) {
+        Object motif = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return motif != null ? motif.toString() : "NON_ROUTEE";
+    }
+
+    /**
+     * Écrit les en-têtes au premier accès au corps de la réponse, avant qu'elle ne soit envoyée
+     */
+    private static final class ReponseAvecEnTetes extends HttpServletResponseWrapper {
+
+        private final RequetesSql.Mesure mesure;
+        private boolean ecrits;
+
+        private ReponseAvecEnTetes(HttpServletResponse response, RequetesSql.Mesure mesure) {
+            super(response);
+            this.mesure = mesure;
+        }
+
+        private void ecrireEnTetes() {
+            if (ecrits || isCommitted()) {
+                return;
+            }
+            ecrits = true;
+            setHeader(ENTETE_NOMBRE, Integer.toString(mesure.nombre()));
+            setHeader(ENTETE_DUREE, Long.toString(mesure.dureeMs()));
+            setHeader(ENTETE_REPETITIONS, Integer.toString(mesure.repetitionsMax()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            ecrireEnTetes();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            ecrireEnTetes();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            ecrireEnTetes();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            ecrireEnTetes();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            ecrireEnTetes();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            ecrireEnTetes();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecodeli.ecodeli_backend.metriques.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Branché sur le proxy de DataSource (RailwayDatabaseConfig) : alimente la mesure RequetesSql
+ * du thread courant et journalise les requêtes plus lentes que le seuil.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sql.surveillance.active", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SurveillanceRequetesListener implements QueryExecutionListener {
+
+    private static final int LONGUEUR_SQL_JOURNAL = 500;
+
+    private final long seuilLentMs;
+    private final Counter lentes;
+
+    public SurveillanceRequetesListener(MeterRegistry registry,
+                                        @Value("${app.sql.surveillance.seuil-lent-ms:500}") long seuilLentMs) {
+        this.seuilLentMs = seuilLentMs;
+        this.lentes = Counter.builder("ecodeli.sql.lentes")
+            .description("Requêtes SQL plus lentes que app.sql.surveillance.seuil-lent-ms")
+            .register(registry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long dureeMs = execInfo.getElapsedTime();
+        for (QueryInfo requete : queryInfoList) {
+            RequetesSql.enregistrer(requete.getQuery(), dureeMs, execInfo.isBatch());
+        }
+        if (dureeMs >= seuilLentMs && !queryInfoList.isEmpty()) {
+            lentes.increment();
+            log.warn("Requête SQL lente ({} ms{}) : {}", dureeMs,
+                execInfo.isBatch() ? ", lot de " + execInfo.getBatchSize() : "",
+                tronquer(queryInfoList.get(0).getQuery()));
+        }
+    }
+
+    static String tronquer(String sql) {
+        return sql.length() <= LONGUEUR_SQL_JOURNAL ? sql : sql.substring(0, LONGUEUR_SQL_JOURNAL) + "…";
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecodeli.ecodeli_backend.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ANALYSE_JUSTIFICATIF", indexes = {
+    @Index(name = "idx_analyse_justificatif_statut", columnList = "statut")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyseJustificatif {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_analyse")
+    private Long idAnalyse;
+
+    @JsonIgnore
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_justificatif", nullable = false, unique = true)
+    private Justificatif justificatif;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statut", length = 20, nullable = false)
+    private StatutAnalyse statut = StatutAnalyse.EN_ATTENTE;
+
+    @Column(name = "type_detecte", length = 100)
+    private String typeDetecte;
+
+    @Column(name = "type_conforme")
+    private Boolean typeConforme;
+
+    @Column(name = "nombre_pages")
+    private Integer nombrePages;
+
+    @JsonIgnore
+    @Column(name = "texte_extrait", columnDefinition = "TEXT")
+    private String texteExtrait;
+
+    @Column(name = "empreinte_miniature", length = 64)
+    private String empreinteMiniature;
+
+    @Column(name = "tentatives", nullable = false)
+    private Integer tentatives = 0;
+
+    @Column(name = "message_erreur", length = 500)
+    private String messageErreur;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation;
+
+    @Column(name = "date_traitement")
+    private LocalDateTime dateTraitement;
+
+    @PrePersist
+    protected void onCreate() {
+        dateCreation = LocalDateTime.now();
+    }
+
+    public enum StatutAnalyse {
+        EN_ATTENTE("En attente de traitement"),
+        EN_COURS("Traitement en cours"),
+        TERMINE("Traitement terminé"),
+        REJETE("Type de fichier non conforme"),
+        ECHEC("Échec du traitement");
+
+        private final String libelle;
+
+        StatutAnalyse(String libelle) {
+            this.libelle = libelle;
+        }
+
+        public String getLibelle() {
+            return libelle;
+        }
+    }
+}
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Candidature {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candidature_seq")
+    @SequenceGenerator(name = "candidature_seq", sequenceName = "candidature_id_candidature_seq", allocationSize = 50)
     @Column(name = "id_candidature")
     private Long idCandidature;
 
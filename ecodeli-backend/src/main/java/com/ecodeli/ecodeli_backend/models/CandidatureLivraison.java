@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class CandidatureLivraison {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candidature_livraison_seq")
+    @SequenceGenerator(name = "candidature_livraison_seq", sequenceName = "candidature_livraison_id_candidature_livraison_seq", allocationSize = 50)
     @Column(name = "id_candidature_livraison")
     private Long idCandidatureLivraison;
 
@@ -0,0 +1,55 @@
+package com.ecodeli.ecodeli_backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Clé Idempotency-Key reçue sur un endpoint de paiement et réponse de sa première exécution,
+ * rejouée telle quelle pour les requêtes répétées avec la même clé.
+ */
+@Entity
+@Table(name = "CLE_IDEMPOTENCE", indexes = @Index(name = "idx_cle_idempotence_expiration", columnList = "date_expiration"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleIdempotence {
+    // SHA-256 de l'utilisateur et de la clé fournie par le client
+    @Id
+    @Column(name = "cle", length = 64)
+    private String cle;
+
+    // SHA-256 de la méthode, du chemin et du corps de la requête
+    @Column(name = "empreinte_requete", length = 64, nullable = false)
+    private String empreinteRequete;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statut", nullable = false)
+    private StatutCle statut;
+
+    @Column(name = "code_http")
+    private Integer codeHttp;
+
+    @Column(name = "type_contenu", length = 100)
+    private String typeContenu;
+
+    @Column(name = "corps_reponse", columnDefinition = "TEXT")
+    private String corpsReponse;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation;
+
+    @Column(name = "date_expiration", nullable = false)
+    private LocalDateTime dateExpiration;
+
+    // Tant que la clé est EN_COURS : au-delà, l'instance qui l'exécutait est considérée arrêtée
+    @Column(name = "bail_expire")
+    private LocalDateTime bailExpire;
+
+    public enum StatutCle {
+        EN_COURS,
+        TERMINE
+    }
+}
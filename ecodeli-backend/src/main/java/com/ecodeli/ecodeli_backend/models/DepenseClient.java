@@ -0,0 +1,32 @@
+package com.ecodeli.ecodeli_backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Total dépensé par un client en services payés, incrémenté à chaque règlement de mission
+ * pour que le montant se lise par clé primaire.
+ */
+@Entity
+@Table(name = "DEPENSE_CLIENT")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepenseClient {
+    @Id
+    @Column(name = "id_client")
+    private Integer idClient;
+
+    @Column(name = "total_services_payes", precision = 12, scale = 2, nullable = false)
+    private BigDecimal totalServicesPayes = BigDecimal.ZERO;
+
+    @Column(name = "nombre_services_payes", nullable = false)
+    private Long nombreServicesPayes = 0L;
+
+    @Column(name = "date_mise_a_jour")
+    private LocalDateTime dateMiseAJour;
+}
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class EvaluationMission {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evaluation_mission_seq")
+    @SequenceGenerator(name = "evaluation_mission_seq", sequenceName = "evaluation_mission_id_evaluation_seq", allocationSize = 50)
     @Column(name = "id_evaluation")
     private Long idEvaluation;
     
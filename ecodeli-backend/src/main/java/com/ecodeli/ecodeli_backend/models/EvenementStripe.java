@@ -0,0 +1,37 @@
+package com.ecodeli.ecodeli_backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Webhook Stripe reçu : historique des transitions des PaymentIntents, et dédoublonnage
+ * des événements que Stripe renvoie tant qu'il n'a pas reçu de réponse 2xx.
+ */
+@Entity
+@Table(name = "EVENEMENT_STRIPE", indexes = @Index(name = "idx_evenement_stripe_intent", columnList = "id_payment_intent"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvenementStripe {
+    @Id
+    @Column(name = "id_evenement", length = 255)
+    private String idEvenement;
+
+    @Column(name = "type_evenement", length = 100, nullable = false)
+    private String typeEvenement;
+
+    @Column(name = "id_payment_intent", length = 255)
+    private String idPaymentIntent;
+
+    @Column(name = "statut_stripe", length = 40)
+    private String statutStripe;
+
+    @Column(name = "date_evenement", nullable = false)
+    private LocalDateTime dateEvenement;
+
+    @Column(name = "date_reception", nullable = false)
+    private LocalDateTime dateReception;
+}
@@ -0,0 +1,51 @@
+package com.ecodeli.ecodeli_backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Jeton de rafraîchissement (refresh token). Seul le SHA-256 du jeton est stocké.
+ * Chaque renouvellement consomme le jeton et en émet un nouveau dans la même famille :
+ * un jeton déjà consommé qui revient signale un vol, toute la famille est alors révoquée.
+ */
+@Entity
+@Table(name = "JETON_RAFRAICHISSEMENT", indexes = {
+    @Index(name = "idx_jeton_rafraichissement_empreinte", columnList = "empreinte", unique = true),
+    @Index(name = "idx_jeton_rafraichissement_famille", columnList = "famille"),
+    @Index(name = "idx_jeton_rafraichissement_expiration", columnList = "date_expiration")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JetonRafraichissement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_jeton")
+    private Long idJeton;
+
+    @Column(name = "empreinte", length = 64, nullable = false)
+    private String empreinte;
+
+    // Identifiant commun à tous les jetons issus d'une même connexion
+    @Column(name = "famille", length = 36, nullable = false)
+    private String famille;
+
+    @Column(name = "id_utilisateur", nullable = false)
+    private Integer idUtilisateur;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation;
+
+    @Column(name = "date_expiration", nullable = false)
+    private LocalDateTime dateExpiration;
+
+    // Renseignée quand le jeton a été échangé contre le suivant
+    @Column(name = "date_utilisation")
+    private LocalDateTime dateUtilisation;
+
+    @Column(name = "revoque", nullable = false)
+    private boolean revoque = false;
+}
@@ -8,7 +8,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "JUSTIFICATIF")
+@Table(name = "JUSTIFICATIF", indexes = {
+    @Index(name = "idx_justificatif_empreinte", columnList = "empreinte_sha256")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,6 +39,24 @@ public class Justificatif {
     @Column(name = "chemin_fichier", length = 255)
     private String cheminFichier;
 
+    @Column(name = "empreinte_sha256", length = 64)
+    private String empreinteSha256;
+
+    @Column(name = "taille_octets")
+    private Long tailleOctets;
+
+    @Column(name = "type_mime", length = 100)
+    private String typeMime;
+
+    @Column(name = "nom_fichier_original", length = 255)
+    private String nomFichierOriginal;
+
+    @Column(name = "integrite_compromise")
+    private Boolean integriteCompromise = false;
+
+    @Column(name = "date_verification_integrite")
+    private LocalDateTime dateVerificationIntegrite;
+
     @ManyToOne
     @JoinColumn(name = "id_utilisateur", nullable = false)
     private Utilisateur utilisateur;
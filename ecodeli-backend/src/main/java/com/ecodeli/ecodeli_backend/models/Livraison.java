@@ -1,20 +1,26 @@
 package com.ecodeli.ecodeli_backend.models;
 
+import com.ecodeli.ecodeli_backend.metriques.TransitionLivraisonListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "LIVRAISON")
+@EntityListeners(TransitionLivraisonListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Livraison {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "livraison_seq")
+    @SequenceGenerator(name = "livraison_seq", sequenceName = "livraison_id_livraison_seq", allocationSize = 50)
     @Column(name = "id_livraison")
     private Integer idLivraison;
 
@@ -110,6 +116,18 @@ public class Livraison {
     @Column(name = "date_collecte_entrepot")
     private LocalDateTime dateCollecteEntrepot;
 
+    // Statut tel que lu ou écrit en base, pour détecter les transitions
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private StatutLivraison statutEnregistre;
+
+    @PostLoad
+    protected void memoriserStatut() {
+        statutEnregistre = statut;
+    }
+
     public enum TypeLivraison {
         DIRECTE,      // Livraison classique en une fois
         PARTIELLE     // Livraison en deux segments
@@ -9,7 +9,8 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "PAIEMENT")
+@Table(name = "PAIEMENT", indexes = @Index(name = "idx_paiement_payment_intent",
+       columnList = "stripe_payment_intent_id", unique = true))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,6 +40,17 @@ public class Paiement {
     @Column(name = "stripe_payment_intent_id")
     private String stripePaymentIntentId;
 
+    @Column(name = "reference", length = 32)
+    private String reference;
+
+    // Dernier statut Stripe reçu (requires_payment_method, processing, succeeded...)
+    @Column(name = "statut_stripe", length = 40)
+    private String statutStripe;
+
+    // Date Stripe du dernier événement appliqué, pour ignorer les webhooks arrivés dans le désordre
+    @Column(name = "date_evenement_stripe")
+    private LocalDateTime dateEvenementStripe;
+
     @Column(name = "date_creation")
     private LocalDateTime dateCreation = LocalDateTime.now();
 
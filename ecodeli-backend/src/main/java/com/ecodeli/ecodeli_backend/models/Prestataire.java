@@ -11,6 +11,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Table(indexes = @Index(name = "idx_prestataire_domaine", columnList = "domaine_expertise"))
 @DiscriminatorValue("PRESTATAIRE")
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -0,0 +1,99 @@
+package com.ecodeli.ecodeli_backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Agrégats des évaluations d'un prestataire, maintenus à chaque nouvelle évaluation
+ * pour que les statistiques se lisent par clé primaire.
+ */
+@Entity
+@Table(name = "RATING_SUMMARY")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummary {
+    @Id
+    @Column(name = "id_prestataire")
+    private Integer idPrestataire;
+
+    @Column(name = "nombre_evaluations", nullable = false)
+    private Long nombreEvaluations = 0L;
+
+    @Column(name = "somme_notes_globales", nullable = false)
+    private Long sommeNotesGlobales = 0L;
+
+    @Column(name = "somme_qualite", nullable = false)
+    private Long sommeQualite = 0L;
+
+    @Column(name = "somme_delais", nullable = false)
+    private Long sommeDelais = 0L;
+
+    @Column(name = "somme_communication", nullable = false)
+    private Long sommeCommunication = 0L;
+
+    @Column(name = "somme_professionnalisme", nullable = false)
+    private Long sommeProfessionnalisme = 0L;
+
+    @Column(name = "nombre_note_1", nullable = false)
+    private Long nombreNote1 = 0L;
+
+    @Column(name = "nombre_note_2", nullable = false)
+    private Long nombreNote2 = 0L;
+
+    @Column(name = "nombre_note_3", nullable = false)
+    private Long nombreNote3 = 0L;
+
+    @Column(name = "nombre_note_4", nullable = false)
+    private Long nombreNote4 = 0L;
+
+    @Column(name = "nombre_note_5", nullable = false)
+    private Long nombreNote5 = 0L;
+
+    @Column(name = "date_mise_a_jour")
+    private LocalDateTime dateMiseAJour;
+
+    public Double getNoteMoyenne() {
+        return moyenne(sommeNotesGlobales);
+    }
+
+    public Double getNoteMoyenneQualite() {
+        return moyenne(sommeQualite);
+    }
+
+    public Double getNoteMoyenneDelais() {
+        return moyenne(sommeDelais);
+    }
+
+    public Double getNoteMoyenneCommunication() {
+        return moyenne(sommeCommunication);
+    }
+
+    public Double getNoteMoyenneProfessionnalisme() {
+        return moyenne(sommeProfessionnalisme);
+    }
+
+    /**
+     * Nombre d'évaluations ayant la note globale donnée (1 à 5)
+     */
+    public Long getNombreNote(int note) {
+        return switch (note) {
+            case 1 -> nombreNote1;
+            case 2 -> nombreNote2;
+            case 3 -> nombreNote3;
+            case 4 -> nombreNote4;
+            case 5 -> nombreNote5;
+            default -> 0L;
+        };
+    }
+
+    private Double moyenne(Long somme) {
+        if (nombreEvaluations == null || nombreEvaluations == 0) {
+            return 0.0;
+        }
+        return (double) somme / nombreEvaluations;
+    }
+}
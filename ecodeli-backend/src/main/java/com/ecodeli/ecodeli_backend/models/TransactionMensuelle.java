@@ -0,0 +1,62 @@
+package com.ecodeli.ecodeli_backend.models;
+
+import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille.TypeTransaction;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Totaux mensuels des transactions effectuées d'un prestataire, par type de transaction,
+ * maintenus à chaque transaction pour que les relevés se lisent sans parcourir l'historique.
+ */
+@Entity
+@Table(name = "TRANSACTION_MENSUELLE")
+@IdClass(TransactionMensuelle.Cle.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionMensuelle {
+    @Id
+    @Column(name = "id_prestataire")
+    private Integer idPrestataire;
+
+    // Premier jour du mois
+    @Id
+    @Column(name = "mois")
+    private LocalDate mois;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type_transaction")
+    private TypeTransaction typeTransaction;
+
+    @Column(name = "nombre_transactions", nullable = false)
+    private Long nombreTransactions = 0L;
+
+    @Column(name = "total_montant", precision = 12, scale = 2, nullable = false)
+    private BigDecimal totalMontant = BigDecimal.ZERO;
+
+    @Column(name = "total_commission", precision = 12, scale = 2, nullable = false)
+    private BigDecimal totalCommission = BigDecimal.ZERO;
+
+    @Column(name = "total_frais", precision = 12, scale = 2, nullable = false)
+    private BigDecimal totalFrais = BigDecimal.ZERO;
+
+    @Column(name = "date_mise_a_jour")
+    private LocalDateTime dateMiseAJour;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cle implements Serializable {
+        private Integer idPrestataire;
+        private LocalDate mois;
+        private TypeTransaction typeTransaction;
+    }
+}
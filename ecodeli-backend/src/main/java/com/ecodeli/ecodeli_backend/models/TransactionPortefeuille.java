@@ -8,14 +8,16 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "TRANSACTION_PORTEFEUILLE")
+@Table(name = "TRANSACTION_PORTEFEUILLE", indexes = @Index(name = "idx_transaction_prestataire_date",
+       columnList = "id_prestataire, date_transaction, id_transaction"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class TransactionPortefeuille {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_portefeuille_seq")
+    @SequenceGenerator(name = "transaction_portefeuille_seq", sequenceName = "transaction_portefeuille_id_transaction_seq", allocationSize = 50)
     @Column(name = "id_transaction")
     private Long idTransaction;
     
@@ -23,6 +25,10 @@ public class TransactionPortefeuille {
     @JoinColumn(name = "id_portefeuille", nullable = false)
     private PortefeuillePrestataire portefeuille;
     
+    // Copie de portefeuille.prestataire, pour paginer l'historique sans jointure
+    @Column(name = "id_prestataire")
+    private Integer idPrestataire;
+    
     @ManyToOne
     @JoinColumn(name = "id_candidature")
     private Candidature candidature;
@@ -41,7 +47,7 @@ public class TransactionPortefeuille {
     @Column(name = "statut_transaction", nullable = false)
     private StatutTransaction statutTransaction;
     
-    @Column(name = "reference_externe", length = 100)
+    @Column(name = "reference_externe", length = 100, unique = true)
     private String referenceExterne;
     
     @Column(name = "iban_destinataire", length = 34)
@@ -69,6 +75,9 @@ public class TransactionPortefeuille {
     protected void onCreate() {
         dateCreation = LocalDateTime.now();
         dateModification = LocalDateTime.now();
+        if (idPrestataire == null && portefeuille != null && portefeuille.getPrestataire() != null) {
+            idPrestataire = portefeuille.getPrestataire().getIdUtilisateur();
+        }
         if (dateTransaction == null) {
             dateTransaction = LocalDateTime.now();
         }
@@ -161,10 +170,11 @@ public class TransactionPortefeuille {
         return desc.toString();
     }
     
-    public static String genererReference(TypeTransaction type, Long prestataireId) {
-        String prefix = type == TypeTransaction.CREDIT_MISSION ? "CM" :
-                       type == TypeTransaction.RETRAIT_PRESTATAIRE ? "RP" : "TX";
-        long timestamp = System.currentTimeMillis();
-        return String.format("%s_%d_%d", prefix, prestataireId, timestamp);
+    /**
+     * Préfixe des références externes selon le type de transaction
+     */
+    public static String prefixeReference(TypeTransaction type) {
+        return type == TypeTransaction.CREDIT_MISSION ? "CM" :
+               type == TypeTransaction.RETRAIT_PRESTATAIRE ? "RP" : "TX";
     }
 }
\ No newline at end of file
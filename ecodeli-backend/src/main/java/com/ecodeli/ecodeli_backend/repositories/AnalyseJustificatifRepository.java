@@ -0,0 +1,61 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.AnalyseJustificatif;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AnalyseJustificatifRepository extends JpaRepository<AnalyseJustificatif, Long> {
+
+    /**
+     * Récupérer l'analyse d'un justificatif
+     */
+    Optional<AnalyseJustificatif> findByJustificatifIdJustificatif(Integer justificatifId);
+
+    /**
+     * Récupérer les analyses des justificatifs d'un utilisateur (sans charger les fichiers)
+     */
+    @Query("SELECT a FROM AnalyseJustificatif a JOIN FETCH a.justificatif j " +
+           "WHERE j.utilisateur.idUtilisateur = :utilisateurId")
+    List<AnalyseJustificatif> findByUtilisateur(@Param("utilisateurId") Integer utilisateurId);
+
+    /**
+     * Retrouver une analyse terminée pour un même contenu (fichier dédupliqué)
+     */
+    @Query("SELECT a FROM AnalyseJustificatif a WHERE a.justificatif.empreinteSha256 = :empreinte " +
+           "AND a.statut = 'TERMINE' " +
+           "ORDER BY a.dateTraitement DESC")
+    List<AnalyseJustificatif> findTermineesByEmpreinte(@Param("empreinte") String empreinte, Pageable pageable);
+
+    /**
+     * Récupérer les analyses restées en attente (file pleine ou redémarrage)
+     */
+    @Query("SELECT a.justificatif.idJustificatif FROM AnalyseJustificatif a " +
+           "WHERE (a.statut = 'EN_ATTENTE' " +
+           "OR (a.statut = 'EN_COURS' " +
+           "AND a.dateTraitement < :limiteEnCours)) " +
+           "AND a.tentatives < :maxTentatives ORDER BY a.dateCreation")
+    List<Integer> findJustificatifsATraiter(
+        @Param("limiteEnCours") LocalDateTime limiteEnCours,
+        @Param("maxTentatives") Integer maxTentatives,
+        Pageable pageable);
+
+    long countByEmpreinteMiniature(String empreinteMiniature);
+
+    /**
+     * Compter les analyses restant à faire (profondeur de la file persistante)
+     */
+    @Query("SELECT COUNT(a) FROM AnalyseJustificatif a WHERE a.statut IN ('EN_ATTENTE', 'EN_COURS')")
+    long countATraiter();
+
+    @Transactional
+    void deleteByJustificatifIdJustificatif(Integer justificatifId);
+}
@@ -4,5 +4,14 @@ import com.ecodeli.ecodeli_backend.models.Annonce;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface AnnonceRepository extends JpaRepository<Annonce, Integer> {}
+public interface AnnonceRepository extends JpaRepository<Annonce, Integer> {
+
+    List<Annonce> findByStatutOrderByDateDebutAsc(Annonce.StatutAnnonce statut);
+
+    List<Annonce> findByExpediteurIdUtilisateur(Integer expediteurId);
+
+    List<Annonce> findByLivreurIdUtilisateur(Integer livreurId);
+}
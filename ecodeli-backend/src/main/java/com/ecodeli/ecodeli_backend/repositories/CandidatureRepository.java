@@ -1,14 +1,18 @@
 package com.ecodeli.ecodeli_backend.repositories;
 
+import com.ecodeli.ecodeli_backend.dto.response.MissionClientResponse;
+import com.ecodeli.ecodeli_backend.dto.response.MissionPrestataireResponse;
 import com.ecodeli.ecodeli_backend.models.Candidature;
 import com.ecodeli.ecodeli_backend.models.DemandeService;
 import com.ecodeli.ecodeli_backend.models.Prestataire;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -107,4 +111,65 @@ public interface CandidatureRepository extends JpaRepository<Candidature, Long>
     List<Candidature> findByPrixRange(
         @Param("prixMin") java.math.BigDecimal prixMin,
         @Param("prixMax") java.math.BigDecimal prixMax);
-}
\ No newline at end of file
+    
+    /**
+     * Candidatures d'une demande avec les informations du prestataire, en une seule requête
+     * (projection : ni la demande ni le prestataire ne sont chargés comme entités)
+     */
+    @Query("SELECT c.idCandidature, c.prixPropose, c.messagePrestataire, c.statut, c.dateCandidature, " +
+           "c.delaiPropose, p.idUtilisateur, p.nom, p.prenom, p.email, p.telephone, p.adresse " +
+           "FROM Candidature c JOIN c.prestataire p WHERE c.demandeService.idDemande = :demandeId " +
+           "ORDER BY c.dateCandidature ASC")
+    List<Object[]> findLignesAvecPrestataireByDemande(@Param("demandeId") Long demandeId);
+    
+    /**
+     * Nombre total de candidatures et de candidatures acceptées pour plusieurs prestataires
+     */
+    @Query("SELECT c.prestataire.idUtilisateur, COUNT(c), " +
+           "SUM(CASE WHEN c.statut = 'ACCEPTEE' THEN 1 ELSE 0 END) FROM Candidature c " +
+           "WHERE c.prestataire.idUtilisateur IN :prestataireIds GROUP BY c.prestataire.idUtilisateur")
+    List<Object[]> countTotalEtAccepteesByPrestataires(@Param("prestataireIds") Collection<Integer> prestataireIds);
+    
+    /**
+     * Missions d'un prestataire (candidatures acceptées), de la plus récente à la plus ancienne.
+     * Pagination par curseur : seules les candidatures d'id inférieur à :curseur sont renvoyées.
+     */
+    @Query("SELECT new com.ecodeli.ecodeli_backend.dto.response.MissionPrestataireResponse(" +
+           "c.idCandidature, c.prixPropose, c.dateReponse, d.statut, d.dateModification, " +
+           "d.idDemande, d.titre, d.description, d.categorieService, d.dateSouhaitee, d.adresseDepart, " +
+           "d.adresseArrivee, d.creneauHoraire, cl.idUtilisateur, cl.prenom, cl.nom, cl.email, cl.telephone) " +
+           "FROM Candidature c JOIN c.demandeService d JOIN d.client cl " +
+           "WHERE c.prestataire.idUtilisateur = :prestataireId AND c.statut = 'ACCEPTEE' " +
+           "AND c.idCandidature < :curseur ORDER BY c.idCandidature DESC")
+    List<MissionPrestataireResponse> findMissionsPrestataire(
+        @Param("prestataireId") Integer prestataireId,
+        @Param("curseur") Long curseur,
+        Pageable pageable);
+    
+    /**
+     * Mission correspondant à une candidature acceptée
+     */
+    @Query("SELECT new com.ecodeli.ecodeli_backend.dto.response.MissionPrestataireResponse(" +
+           "c.idCandidature, c.prixPropose, c.dateReponse, d.statut, d.dateModification, " +
+           "d.idDemande, d.titre, d.description, d.categorieService, d.dateSouhaitee, d.adresseDepart, " +
+           "d.adresseArrivee, d.creneauHoraire, cl.idUtilisateur, cl.prenom, cl.nom, cl.email, cl.telephone) " +
+           "FROM Candidature c JOIN c.demandeService d JOIN d.client cl " +
+           "WHERE c.idCandidature = :candidatureId AND c.statut = 'ACCEPTEE'")
+    Optional<MissionPrestataireResponse> findMission(@Param("candidatureId") Long candidatureId);
+    
+    /**
+     * Missions d'un client : demandes avec un prestataire retenu, de la plus récente à la plus ancienne.
+     * Pagination par curseur sur l'id de la candidature acceptée.
+     */
+    @Query("SELECT new com.ecodeli.ecodeli_backend.dto.response.MissionClientResponse(" +
+           "c.idCandidature, c.prixPropose, c.dateReponse, d.statut, p.idUtilisateur, p.prenom, p.nom, p.email, " +
+           "d.idDemande, d.titre, d.description, d.dateSouhaitee, d.adresseDepart) " +
+           "FROM Candidature c JOIN c.demandeService d JOIN c.prestataire p " +
+           "WHERE d.client.idUtilisateur = :clientId AND c.statut = 'ACCEPTEE' " +
+           "AND d.statut IN ('PRESTATAIRE_SELECTIONNE', 'EN_COURS', 'TERMINEE') " +
+           "AND c.idCandidature < :curseur ORDER BY c.idCandidature DESC")
+    List<MissionClientResponse> findMissionsClient(
+        @Param("clientId") Integer clientId,
+        @Param("curseur") Long curseur,
+        Pageable pageable);
+}
@@ -0,0 +1,78 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.CleIdempotence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface CleIdempotenceRepository extends JpaRepository<CleIdempotence, String> {
+
+    /**
+     * Réserver une clé (INSERT simple : échoue si une autre requête l'a déjà réservée)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO CLE_IDEMPOTENCE (cle, empreinte_requete, statut, date_creation, date_expiration, bail_expire) " +
+           "VALUES (:cle, :empreinte, 'EN_COURS', :maintenant, :expiration, now() + :bailSecondes * interval '1 second')",
+           nativeQuery = true)
+    int reserver(@Param("cle") String cle,
+                 @Param("empreinte") String empreinte,
+                 @Param("maintenant") LocalDateTime maintenant,
+                 @Param("expiration") LocalDateTime expiration,
+                 @Param("bailSecondes") long bailSecondes);
+
+    /**
+     * Reprendre une clé EN_COURS dont le bail a expiré (UPDATE conditionnel : une seule requête l'obtient)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE CLE_IDEMPOTENCE SET bail_expire = now() + :bailSecondes * interval '1 second' " +
+           "WHERE cle = :cle AND statut = 'EN_COURS' AND bail_expire < now()",
+           nativeQuery = true)
+    int reprendre(@Param("cle") String cle, @Param("bailSecondes") long bailSecondes);
+
+    /**
+     * Prolonger le bail des clés en cours d'exécution sur cette instance
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE CLE_IDEMPOTENCE SET bail_expire = now() + :bailSecondes * interval '1 second' " +
+           "WHERE cle IN (:cles) AND statut = 'EN_COURS'",
+           nativeQuery = true)
+    int prolonger(@Param("cles") Collection<String> cles, @Param("bailSecondes") long bailSecondes);
+
+    /**
+     * Enregistrer la réponse de la première exécution
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CleIdempotence c SET c.statut = 'TERMINE', c.codeHttp = :codeHttp, " +
+           "c.typeContenu = :typeContenu, c.corpsReponse = :corps WHERE c.cle = :cle")
+    int terminer(@Param("cle") String cle,
+                 @Param("codeHttp") int codeHttp,
+                 @Param("typeContenu") String typeContenu,
+                 @Param("corps") String corps);
+
+    /**
+     * Libérer une clé dont l'exécution a échoué, pour qu'une nouvelle tentative puisse la rejouer
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CleIdempotence c WHERE c.cle = :cle AND c.statut = 'EN_COURS'")
+    int liberer(@Param("cle") String cle);
+
+    /**
+     * Supprimer les clés expirées
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CleIdempotence c WHERE c.dateExpiration < :maintenant")
+    int supprimerExpirees(@Param("maintenant") LocalDateTime maintenant);
+}
@@ -0,0 +1,59 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.DepenseClient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface DepenseClientRepository extends JpaRepository<DepenseClient, Integer> {
+
+    /**
+     * Ajouter un service payé au total du client (upsert atomique, sans lecture préalable)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO DEPENSE_CLIENT (id_client, total_services_payes, nombre_services_payes, date_mise_a_jour) " +
+           "VALUES (:clientId, :montant, 1, CURRENT_TIMESTAMP) " +
+           "ON CONFLICT (id_client) DO UPDATE SET " +
+           "total_services_payes = DEPENSE_CLIENT.total_services_payes + EXCLUDED.total_services_payes, " +
+           "nombre_services_payes = DEPENSE_CLIENT.nombre_services_payes + 1, " +
+           "date_mise_a_jour = EXCLUDED.date_mise_a_jour",
+           nativeQuery = true)
+    int ajouterPaiement(@Param("clientId") Integer clientId, @Param("montant") BigDecimal montant);
+
+    /**
+     * Recalculer le total de chaque client à partir des crédits mission effectués
+     * (montant versé au prestataire + commission EcoDeli = prix payé par le client)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO DEPENSE_CLIENT (id_client, total_services_payes, nombre_services_payes, date_mise_a_jour) " +
+           "SELECT d.id_client, SUM(t.montant + COALESCE(t.commission_ecodeli, 0)), COUNT(*), CURRENT_TIMESTAMP " +
+           "FROM TRANSACTION_PORTEFEUILLE t " +
+           "JOIN CANDIDATURE c ON c.id_candidature = t.id_candidature " +
+           "JOIN DEMANDE_SERVICE d ON d.id_demande = c.id_demande " +
+           "WHERE t.type_transaction = 'CREDIT_MISSION' AND t.statut_transaction = 'EFFECTUE' " +
+           "GROUP BY d.id_client " +
+           "ON CONFLICT (id_client) DO UPDATE SET " +
+           "total_services_payes = EXCLUDED.total_services_payes, " +
+           "nombre_services_payes = EXCLUDED.nombre_services_payes, " +
+           "date_mise_a_jour = EXCLUDED.date_mise_a_jour",
+           nativeQuery = true)
+    int recalculerTout();
+
+    /**
+     * Supprimer les totaux des clients qui n'ont plus de paiement
+     */
+    @Modifying
+    @Query(value = "DELETE FROM DEPENSE_CLIENT dc WHERE NOT EXISTS " +
+           "(SELECT 1 FROM TRANSACTION_PORTEFEUILLE t " +
+           "JOIN CANDIDATURE c ON c.id_candidature = t.id_candidature " +
+           "JOIN DEMANDE_SERVICE d ON d.id_demande = c.id_demande " +
+           "WHERE d.id_client = dc.id_client AND t.type_transaction = 'CREDIT_MISSION' " +
+           "AND t.statut_transaction = 'EFFECTUE')",
+           nativeQuery = true)
+    int supprimerOrphelins();
+}
@@ -114,7 +114,8 @@ public interface EvaluationMissionRepository extends JpaRepository<EvaluationMis
     Object[] getStatistiquesGlobales();
     
     /**
-     * Récupérer les prestataires les mieux notés
+     * Récupérer les prestataires les mieux notés (moyenne brute, parcourt toute la table :
+     * préférer ClassementPrestatairesService)
      */
     @Query("SELECT e.prestataire.idUtilisateur, AVG(e.noteGlobale) as moyenne, COUNT(e) as nombre " +
            "FROM EvaluationMission e " +
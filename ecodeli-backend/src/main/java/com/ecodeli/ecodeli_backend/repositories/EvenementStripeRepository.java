@@ -0,0 +1,16 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.EvenementStripe;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EvenementStripeRepository extends JpaRepository<EvenementStripe, String> {
+
+    /**
+     * Récupérer les transitions d'un PaymentIntent dans l'ordre chronologique
+     */
+    List<EvenementStripe> findByIdPaymentIntentOrderByDateEvenementAsc(String idPaymentIntent);
+}
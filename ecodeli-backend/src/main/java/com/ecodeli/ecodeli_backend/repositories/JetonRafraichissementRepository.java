@@ -0,0 +1,44 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.JetonRafraichissement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface JetonRafraichissementRepository extends JpaRepository<JetonRafraichissement, Long> {
+
+    /**
+     * Récupérer un jeton par le SHA-256 de sa valeur
+     */
+    Optional<JetonRafraichissement> findByEmpreinte(String empreinte);
+
+    /**
+     * Consommer un jeton : une seule requête concurrente obtient 1
+     */
+    @Modifying
+    @Query("UPDATE JetonRafraichissement j SET j.dateUtilisation = :maintenant " +
+           "WHERE j.idJeton = :id AND j.dateUtilisation IS NULL AND j.revoque = false")
+    int consommer(@Param("id") Long id, @Param("maintenant") LocalDateTime maintenant);
+
+    /**
+     * Révoquer tous les jetons d'une famille
+     */
+    @Modifying
+    @Query("UPDATE JetonRafraichissement j SET j.revoque = true WHERE j.famille = :famille")
+    int revoquerFamille(@Param("famille") String famille);
+
+    /**
+     * Supprimer les jetons expirés
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JetonRafraichissement j WHERE j.dateExpiration < :maintenant")
+    int supprimerExpires(@Param("maintenant") LocalDateTime maintenant);
+}
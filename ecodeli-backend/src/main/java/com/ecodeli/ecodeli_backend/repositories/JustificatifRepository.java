@@ -2,10 +2,13 @@ package com.ecodeli.ecodeli_backend.repositories;
 
 import com.ecodeli.ecodeli_backend.models.Justificatif;
 import com.ecodeli.ecodeli_backend.models.Prestataire;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -103,4 +106,29 @@ public interface JustificatifRepository extends JpaRepository<Justificatif, Inte
     @Query("SELECT j.typeJustificatif, COUNT(j) FROM Justificatif j " +
            "GROUP BY j.typeJustificatif ORDER BY COUNT(j) DESC")
     List<Object[]> getStatistiquesByType();
-}
\ No newline at end of file
+    
+    /**
+     * Compter les justificatifs qui référencent un même contenu stocké
+     */
+    long countByEmpreinteSha256(String empreinteSha256);
+    
+    /**
+     * Parcourir les empreintes distinctes par ordre croissant (pagination par clé)
+     */
+    @Query("SELECT DISTINCT j.empreinteSha256 FROM Justificatif j " +
+           "WHERE j.empreinteSha256 IS NOT NULL AND j.empreinteSha256 > :derniere " +
+           "ORDER BY j.empreinteSha256")
+    List<String> findEmpreintesApres(@Param("derniere") String derniere, Pageable pageable);
+    
+    /**
+     * Enregistrer le résultat de la vérification d'intégrité d'un contenu
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Justificatif j SET j.integriteCompromise = :compromis, " +
+           "j.dateVerificationIntegrite = :date WHERE j.empreinteSha256 = :empreinte")
+    int marquerVerificationIntegrite(
+        @Param("empreinte") String empreinte,
+        @Param("compromis") Boolean compromis,
+        @Param("date") LocalDateTime date);
+}
@@ -2,7 +2,27 @@ package com.ecodeli.ecodeli_backend.repositories;
 
 import com.ecodeli.ecodeli_backend.models.Livraison;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface LivraisonRepository extends JpaRepository<Livraison, Integer> {}
+public interface LivraisonRepository extends JpaRepository<Livraison, Integer> {
+
+    /**
+     * Livraisons directes d'un livreur (le livreur est porté par l'annonce)
+     */
+    @Query("SELECT l FROM Livraison l JOIN l.annonce a WHERE a.livreur.idUtilisateur = :livreurId " +
+           "AND l.typeLivraison = 'DIRECTE'")
+    List<Livraison> findDirectesByLivreur(@Param("livreurId") Integer livreurId);
+
+    /**
+     * Livraisons partielles dont le livreur assure l'un des deux segments
+     */
+    @Query("SELECT l FROM Livraison l WHERE (l.livreurSegment1.idUtilisateur = :livreurId " +
+           "OR l.livreurSegment2.idUtilisateur = :livreurId) " +
+           "AND l.typeLivraison = 'PARTIELLE'")
+    List<Livraison> findPartiellesByLivreur(@Param("livreurId") Integer livreurId);
+}
@@ -0,0 +1,16 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.Paiement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PaiementRepository extends JpaRepository<Paiement, Integer> {
+
+    /**
+     * Récupérer le paiement d'un PaymentIntent Stripe
+     */
+    Optional<Paiement> findByStripePaymentIntentId(String stripePaymentIntentId);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -87,4 +88,12 @@ public interface PrestataireCategorieRepository extends JpaRepository<Prestatair
     @Query("SELECT pc.categorieService, COUNT(pc) FROM PrestataireCategorie pc " +
            "WHERE pc.statutValidation = :statut GROUP BY pc.categorieService")
     List<Object[]> countByStatutAndCategorie(@Param("statut") PrestataireCategorie.StatutValidation statut);
-}
\ No newline at end of file
+    
+    /**
+     * Catégories validées (avec tarifs) de plusieurs prestataires, sans charger les entités
+     */
+    @Query("SELECT pc.prestataire.idUtilisateur, pc.categorieService, pc.statutValidation, pc.tarifHoraire, " +
+           "pc.dateValidation FROM PrestataireCategorie pc WHERE pc.prestataire.idUtilisateur IN :prestataireIds " +
+           "AND pc.statutValidation = 'VALIDE' ORDER BY pc.categorieService")
+    List<Object[]> findValideesByPrestataires(@Param("prestataireIds") Collection<Integer> prestataireIds);
+}
@@ -0,0 +1,77 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.Prestataire;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PrestataireRepository extends JpaRepository<Prestataire, Integer> {
+
+    String CORRESPONDANCES =
+        "SELECT u.id_utilisateur FROM UTILISATEUR u " +
+        "WHERE LOWER(u.nom || ' ' || u.prenom || ' ' || u.email) LIKE :motif " +
+        "UNION " +
+        "SELECT e.id_utilisateur FROM PRESTATAIRE e WHERE LOWER(e.nom_entreprise) LIKE :motif";
+
+    /**
+     * Rechercher des prestataires par nom/prénom/email ou entreprise (motif LIKE déjà en minuscules)
+     * et domaine ('' = tous). Une sous-requête par table, réunies par UNION : chacune utilise son index
+     * trigramme (un OR entre les deux tables force un parcours complet des deux). Les expressions
+     * LOWER(...) sont celles des index (migration V6), à garder identiques.
+     */
+    @Query(value = "SELECT p.id_utilisateur FROM (" + CORRESPONDANCES + ") m " +
+           "JOIN PRESTATAIRE p ON p.id_utilisateur = m.id_utilisateur " +
+           "WHERE (:domaine = '' OR p.domaine_expertise = :domaine) " +
+           "ORDER BY p.id_utilisateur DESC",
+           countQuery = "SELECT COUNT(*) FROM (" + CORRESPONDANCES + ") m " +
+           "JOIN PRESTATAIRE p ON p.id_utilisateur = m.id_utilisateur " +
+           "WHERE (:domaine = '' OR p.domaine_expertise = :domaine)",
+           nativeQuery = true)
+    Page<Integer> rechercherIds(@Param("motif") String motif, @Param("domaine") String domaine, Pageable pageable);
+
+    /**
+     * Récupérer des prestataires par identifiants, du plus récent au plus ancien
+     */
+    @Query("SELECT p FROM Prestataire p WHERE p.idUtilisateur IN :ids ORDER BY p.idUtilisateur DESC")
+    List<Prestataire> findByIds(@Param("ids") List<Integer> ids);
+
+    /**
+     * Récupérer les prestataires d'un domaine d'expertise
+     */
+    Page<Prestataire> findByDomaineExpertise(ServiceType domaineExpertise, Pageable pageable);
+
+    /**
+     * Récupérer les prestataires validés (tarif horaire défini)
+     */
+    @Query("SELECT p FROM Prestataire p WHERE p.tarifHoraire > 0")
+    Page<Prestataire> findValides(Pageable pageable);
+
+    /**
+     * Récupérer les prestataires en attente de validation (sans tarif horaire)
+     */
+    @Query("SELECT p FROM Prestataire p WHERE p.tarifHoraire IS NULL OR p.tarifHoraire <= 0")
+    Page<Prestataire> findEnAttente(Pageable pageable);
+
+    /**
+     * Nombre total, nombre de disponibles et tarif moyen des prestataires
+     */
+    @Query("SELECT COUNT(p), " +
+           "SUM(CASE WHEN p.disponible = true THEN 1 ELSE 0 END), " +
+           "AVG(CASE WHEN p.tarifHoraire > 0 THEN p.tarifHoraire ELSE NULL END) " +
+           "FROM Prestataire p")
+    List<Object[]> getStatistiquesGlobales();
+
+    /**
+     * Nombre de prestataires par domaine d'expertise
+     */
+    @Query("SELECT p.domaineExpertise, COUNT(p) FROM Prestataire p " +
+           "WHERE p.domaineExpertise IS NOT NULL GROUP BY p.domaineExpertise")
+    List<Object[]> countByDomaine();
+}
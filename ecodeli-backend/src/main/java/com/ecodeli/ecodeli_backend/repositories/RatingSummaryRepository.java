@@ -0,0 +1,94 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.RatingSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RatingSummaryRepository extends JpaRepository<RatingSummary, Integer> {
+
+    /**
+     * Ajouter une évaluation aux agrégats du prestataire (upsert atomique, sans lecture préalable)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO RATING_SUMMARY (id_prestataire, nombre_evaluations, somme_notes_globales, " +
+           "somme_qualite, somme_delais, somme_communication, somme_professionnalisme, " +
+           "nombre_note_1, nombre_note_2, nombre_note_3, nombre_note_4, nombre_note_5, date_mise_a_jour) " +
+           "VALUES (:prestataireId, 1, :noteGlobale, :noteQualite, :noteDelais, :noteCommunication, :noteProfessionnalisme, " +
+           "CASE WHEN :noteGlobale = 1 THEN 1 ELSE 0 END, CASE WHEN :noteGlobale = 2 THEN 1 ELSE 0 END, " +
+           "CASE WHEN :noteGlobale = 3 THEN 1 ELSE 0 END, CASE WHEN :noteGlobale = 4 THEN 1 ELSE 0 END, " +
+           "CASE WHEN :noteGlobale = 5 THEN 1 ELSE 0 END, CURRENT_TIMESTAMP) " +
+           "ON CONFLICT (id_prestataire) DO UPDATE SET " +
+           "nombre_evaluations = RATING_SUMMARY.nombre_evaluations + 1, " +
+           "somme_notes_globales = RATING_SUMMARY.somme_notes_globales + EXCLUDED.somme_notes_globales, " +
+           "somme_qualite = RATING_SUMMARY.somme_qualite + EXCLUDED.somme_qualite, " +
+           "somme_delais = RATING_SUMMARY.somme_delais + EXCLUDED.somme_delais, " +
+           "somme_communication = RATING_SUMMARY.somme_communication + EXCLUDED.somme_communication, " +
+           "somme_professionnalisme = RATING_SUMMARY.somme_professionnalisme + EXCLUDED.somme_professionnalisme, " +
+           "nombre_note_1 = RATING_SUMMARY.nombre_note_1 + EXCLUDED.nombre_note_1, " +
+           "nombre_note_2 = RATING_SUMMARY.nombre_note_2 + EXCLUDED.nombre_note_2, " +
+           "nombre_note_3 = RATING_SUMMARY.nombre_note_3 + EXCLUDED.nombre_note_3, " +
+           "nombre_note_4 = RATING_SUMMARY.nombre_note_4 + EXCLUDED.nombre_note_4, " +
+           "nombre_note_5 = RATING_SUMMARY.nombre_note_5 + EXCLUDED.nombre_note_5, " +
+           "date_mise_a_jour = EXCLUDED.date_mise_a_jour",
+           nativeQuery = true)
+    int ajouterEvaluation(
+        @Param("prestataireId") Integer prestataireId,
+        @Param("noteGlobale") Integer noteGlobale,
+        @Param("noteQualite") Integer noteQualite,
+        @Param("noteDelais") Integer noteDelais,
+        @Param("noteCommunication") Integer noteCommunication,
+        @Param("noteProfessionnalisme") Integer noteProfessionnalisme);
+
+    /**
+     * Recalculer les agrégats de tous les prestataires à partir de EVALUATION_MISSION
+     */
+    @Modifying
+    @Query(value = "INSERT INTO RATING_SUMMARY (id_prestataire, nombre_evaluations, somme_notes_globales, " +
+           "somme_qualite, somme_delais, somme_communication, somme_professionnalisme, " +
+           "nombre_note_1, nombre_note_2, nombre_note_3, nombre_note_4, nombre_note_5, date_mise_a_jour) " +
+           "SELECT e.id_prestataire, COUNT(*), SUM(e.note_globale), SUM(e.note_qualite), SUM(e.note_delais), " +
+           "SUM(e.note_communication), SUM(e.note_professionnalisme), " +
+           "COUNT(*) FILTER (WHERE e.note_globale = 1), COUNT(*) FILTER (WHERE e.note_globale = 2), " +
+           "COUNT(*) FILTER (WHERE e.note_globale = 3), COUNT(*) FILTER (WHERE e.note_globale = 4), " +
+           "COUNT(*) FILTER (WHERE e.note_globale = 5), CURRENT_TIMESTAMP " +
+           "FROM EVALUATION_MISSION e GROUP BY e.id_prestataire " +
+           "ON CONFLICT (id_prestataire) DO UPDATE SET " +
+           "nombre_evaluations = EXCLUDED.nombre_evaluations, " +
+           "somme_notes_globales = EXCLUDED.somme_notes_globales, " +
+           "somme_qualite = EXCLUDED.somme_qualite, " +
+           "somme_delais = EXCLUDED.somme_delais, " +
+           "somme_communication = EXCLUDED.somme_communication, " +
+           "somme_professionnalisme = EXCLUDED.somme_professionnalisme, " +
+           "nombre_note_1 = EXCLUDED.nombre_note_1, " +
+           "nombre_note_2 = EXCLUDED.nombre_note_2, " +
+           "nombre_note_3 = EXCLUDED.nombre_note_3, " +
+           "nombre_note_4 = EXCLUDED.nombre_note_4, " +
+           "nombre_note_5 = EXCLUDED.nombre_note_5, " +
+           "date_mise_a_jour = EXCLUDED.date_mise_a_jour",
+           nativeQuery = true)
+    int recalculerTout();
+
+    /**
+     * Supprimer les agrégats des prestataires qui n'ont plus d'évaluation
+     */
+    @Modifying
+    @Query(value = "DELETE FROM RATING_SUMMARY r WHERE NOT EXISTS " +
+           "(SELECT 1 FROM EVALUATION_MISSION e WHERE e.id_prestataire = r.id_prestataire)",
+           nativeQuery = true)
+    int supprimerOrphelins();
+
+    /**
+     * Agrégats de chaque prestataire évalué avec son domaine d'expertise
+     */
+    @Query("SELECT p.idUtilisateur, p.nom, p.prenom, p.nomEntreprise, p.domaineExpertise, " +
+           "r.nombreEvaluations, r.sommeNotesGlobales " +
+           "FROM RatingSummary r JOIN Prestataire p ON p.idUtilisateur = r.idPrestataire " +
+           "WHERE p.domaineExpertise IS NOT NULL")
+    List<Object[]> findAgregatsAvecDomaine();
+}
@@ -0,0 +1,79 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.TransactionMensuelle;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TransactionMensuelleRepository extends JpaRepository<TransactionMensuelle, TransactionMensuelle.Cle> {
+
+    /**
+     * Récupérer les totaux d'un prestataire sur une plage de mois (parcours de la clé primaire)
+     */
+    @Query("SELECT m FROM TransactionMensuelle m WHERE m.idPrestataire = :prestataireId " +
+           "AND m.mois BETWEEN :debut AND :fin ORDER BY m.mois DESC, m.typeTransaction")
+    List<TransactionMensuelle> findByPrestataireEtPeriode(
+        @Param("prestataireId") Integer prestataireId,
+        @Param("debut") LocalDate debut,
+        @Param("fin") LocalDate fin);
+
+    /**
+     * Ajouter une transaction effectuée aux totaux de son mois (upsert atomique)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO TRANSACTION_MENSUELLE (id_prestataire, mois, type_transaction, nombre_transactions, " +
+           "total_montant, total_commission, total_frais, date_mise_a_jour) " +
+           "VALUES (:prestataireId, :mois, :type, 1, :montant, :commission, :frais, CURRENT_TIMESTAMP) " +
+           "ON CONFLICT (id_prestataire, mois, type_transaction) DO UPDATE SET " +
+           "nombre_transactions = TRANSACTION_MENSUELLE.nombre_transactions + 1, " +
+           "total_montant = TRANSACTION_MENSUELLE.total_montant + EXCLUDED.total_montant, " +
+           "total_commission = TRANSACTION_MENSUELLE.total_commission + EXCLUDED.total_commission, " +
+           "total_frais = TRANSACTION_MENSUELLE.total_frais + EXCLUDED.total_frais, " +
+           "date_mise_a_jour = EXCLUDED.date_mise_a_jour",
+           nativeQuery = true)
+    int ajouterTransaction(@Param("prestataireId") Integer prestataireId,
+                           @Param("mois") LocalDate mois,
+                           @Param("type") String type,
+                           @Param("montant") BigDecimal montant,
+                           @Param("commission") BigDecimal commission,
+                           @Param("frais") BigDecimal frais);
+
+    /**
+     * Recalculer tous les totaux mensuels à partir des transactions effectuées
+     */
+    @Modifying
+    @Query(value = "INSERT INTO TRANSACTION_MENSUELLE (id_prestataire, mois, type_transaction, nombre_transactions, " +
+           "total_montant, total_commission, total_frais, date_mise_a_jour) " +
+           "SELECT t.id_prestataire, CAST(date_trunc('month', t.date_transaction) AS DATE), t.type_transaction, " +
+           "COUNT(*), SUM(t.montant), SUM(COALESCE(t.commission_ecodeli, 0)), SUM(COALESCE(t.frais_transaction, 0)), " +
+           "CURRENT_TIMESTAMP " +
+           "FROM TRANSACTION_PORTEFEUILLE t " +
+           "WHERE t.statut_transaction = 'EFFECTUE' AND t.id_prestataire IS NOT NULL " +
+           "GROUP BY t.id_prestataire, CAST(date_trunc('month', t.date_transaction) AS DATE), t.type_transaction " +
+           "ON CONFLICT (id_prestataire, mois, type_transaction) DO UPDATE SET " +
+           "nombre_transactions = EXCLUDED.nombre_transactions, " +
+           "total_montant = EXCLUDED.total_montant, " +
+           "total_commission = EXCLUDED.total_commission, " +
+           "total_frais = EXCLUDED.total_frais, " +
+           "date_mise_a_jour = EXCLUDED.date_mise_a_jour",
+           nativeQuery = true)
+    int recalculerTout();
+
+    /**
+     * Supprimer les totaux des mois qui n'ont plus de transaction effectuée
+     */
+    @Modifying
+    @Query(value = "DELETE FROM TRANSACTION_MENSUELLE m WHERE NOT EXISTS " +
+           "(SELECT 1 FROM TRANSACTION_PORTEFEUILLE t WHERE t.id_prestataire = m.id_prestataire " +
+           "AND t.type_transaction = m.type_transaction AND t.statut_transaction = 'EFFECTUE' " +
+           "AND t.date_transaction >= m.mois AND t.date_transaction < m.mois + INTERVAL '1 month')",
+           nativeQuery = true)
+    int supprimerOrphelins();
+}
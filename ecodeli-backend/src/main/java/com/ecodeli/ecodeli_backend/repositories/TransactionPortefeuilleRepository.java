@@ -3,7 +3,9 @@ package com.ecodeli.ecodeli_backend.repositories;
 import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille;
 import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille.TypeTransaction;
 import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille.StatutTransaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -21,17 +23,10 @@ public interface TransactionPortefeuilleRepository extends JpaRepository<Transac
      */
     List<TransactionPortefeuille> findByPortefeuilleIdPortefeuilleOrderByDateTransactionDesc(Long portefeuilleId);
     
-    /**
-     * Récupérer les transactions d'un prestataire par son ID
-     */
-    @Query("SELECT t FROM TransactionPortefeuille t WHERE t.portefeuille.prestataire.idUtilisateur = :prestataireId " +
-           "ORDER BY t.dateTransaction DESC")
-    List<TransactionPortefeuille> findByPrestataireIdOrderByDateDesc(@Param("prestataireId") Integer prestataireId);
-    
     /**
      * Récupérer les transactions par type
      */
-    @Query("SELECT t FROM TransactionPortefeuille t WHERE t.portefeuille.prestataire.idUtilisateur = :prestataireId " +
+    @Query("SELECT t FROM TransactionPortefeuille t WHERE t.idPrestataire = :prestataireId " +
            "AND t.typeTransaction = :type ORDER BY t.dateTransaction DESC")
     List<TransactionPortefeuille> findByPrestataireAndType(
         @Param("prestataireId") Integer prestataireId,
@@ -40,27 +35,54 @@ public interface TransactionPortefeuilleRepository extends JpaRepository<Transac
     /**
      * Récupérer les transactions par statut
      */
-    @Query("SELECT t FROM TransactionPortefeuille t WHERE t.portefeuille.prestataire.idUtilisateur = :prestataireId " +
+    @Query("SELECT t FROM TransactionPortefeuille t WHERE t.idPrestataire = :prestataireId " +
            "AND t.statutTransaction = :statut ORDER BY t.dateTransaction DESC")
     List<TransactionPortefeuille> findByPrestataireAndStatut(
         @Param("prestataireId") Integer prestataireId,
         @Param("statut") StatutTransaction statut);
     
     /**
-     * Récupérer les transactions d'une période
+     * Récupérer la première page de l'historique d'un prestataire, du plus récent au plus ancien
+     */
+    @Query("SELECT t FROM TransactionPortefeuille t " +
+           "LEFT JOIN FETCH t.candidature c LEFT JOIN FETCH c.demandeService " +
+           "WHERE t.idPrestataire = :prestataireId " +
+           "ORDER BY t.dateTransaction DESC, t.idTransaction DESC")
+    List<TransactionPortefeuille> findPageByPrestataire(
+        @Param("prestataireId") Integer prestataireId,
+        Pageable pageable);
+    
+    /**
+     * Récupérer la page suivante de l'historique d'un prestataire.
+     * Pagination par clé (dateTransaction, idTransaction) : la page commence
+     * strictement après la dernière transaction reçue, sans OFFSET.
      */
-    @Query("SELECT t FROM TransactionPortefeuille t WHERE t.portefeuille.prestataire.idUtilisateur = :prestataireId " +
-           "AND t.dateTransaction BETWEEN :dateDebut AND :dateFin ORDER BY t.dateTransaction DESC")
-    List<TransactionPortefeuille> findByPrestataireAndPeriode(
+    @Query("SELECT t FROM TransactionPortefeuille t " +
+           "LEFT JOIN FETCH t.candidature c LEFT JOIN FETCH c.demandeService " +
+           "WHERE t.idPrestataire = :prestataireId " +
+           "AND (t.dateTransaction < :avantDate OR (t.dateTransaction = :avantDate AND t.idTransaction < :avantId)) " +
+           "ORDER BY t.dateTransaction DESC, t.idTransaction DESC")
+    List<TransactionPortefeuille> findPageByPrestataireApres(
         @Param("prestataireId") Integer prestataireId,
-        @Param("dateDebut") LocalDateTime dateDebut,
-        @Param("dateFin") LocalDateTime dateFin);
+        @Param("avantDate") LocalDateTime avantDate,
+        @Param("avantId") Long avantId,
+        Pageable pageable);
+    
+    /**
+     * Renseigner id_prestataire sur les transactions enregistrées avant son ajout
+     */
+    @Modifying
+    @Query(value = "UPDATE TRANSACTION_PORTEFEUILLE t SET id_prestataire = " +
+           "(SELECT pf.id_prestataire FROM PORTEFEUILLE_PRESTATAIRE pf WHERE pf.id_portefeuille = t.id_portefeuille) " +
+           "WHERE t.id_prestataire IS NULL",
+           nativeQuery = true)
+    int renseignerPrestataireManquant();
     
     /**
      * Calculer le total des crédits d'un prestataire
      */
     @Query("SELECT COALESCE(SUM(t.montant), 0) FROM TransactionPortefeuille t " +
-           "WHERE t.portefeuille.prestataire.idUtilisateur = :prestataireId " +
+           "WHERE t.idPrestataire = :prestataireId " +
            "AND t.typeTransaction IN ('CREDIT_MISSION', 'BONUS', 'REMBOURSEMENT') " +
            "AND t.statutTransaction = 'EFFECTUE'")
     BigDecimal getTotalCredits(@Param("prestataireId") Integer prestataireId);
@@ -69,18 +91,11 @@ public interface TransactionPortefeuilleRepository extends JpaRepository<Transac
      * Calculer le total des débits d'un prestataire
      */
     @Query("SELECT COALESCE(SUM(t.montant), 0) FROM TransactionPortefeuille t " +
-           "WHERE t.portefeuille.prestataire.idUtilisateur = :prestataireId " +
+           "WHERE t.idPrestataire = :prestataireId " +
            "AND t.typeTransaction IN ('RETRAIT_PRESTATAIRE', 'FRAIS_SERVICE') " +
            "AND t.statutTransaction = 'EFFECTUE'")
     BigDecimal getTotalDebits(@Param("prestataireId") Integer prestataireId);
     
-    /**
-     * Récupérer les dernières transactions d'un prestataire
-     */
-    @Query("SELECT t FROM TransactionPortefeuille t WHERE t.portefeuille.prestataire.idUtilisateur = :prestataireId " +
-           "ORDER BY t.dateTransaction DESC")
-    List<TransactionPortefeuille> findTopByPrestataireOrderByDateDesc(@Param("prestataireId") Integer prestataireId);
-    
     /**
      * Récupérer les transactions en attente
      */
@@ -99,7 +114,7 @@ public interface TransactionPortefeuilleRepository extends JpaRepository<Transac
      * Statistiques des transactions par type
      */
     @Query("SELECT t.typeTransaction, COUNT(t), SUM(t.montant) FROM TransactionPortefeuille t " +
-           "WHERE t.portefeuille.prestataire.idUtilisateur = :prestataireId " +
+           "WHERE t.idPrestataire = :prestataireId " +
            "AND t.statutTransaction = 'EFFECTUE' " +
            "GROUP BY t.typeTransaction")
     List<Object[]> getStatistiquesParType(@Param("prestataireId") Integer prestataireId);
@@ -113,7 +128,7 @@ public interface TransactionPortefeuilleRepository extends JpaRepository<Transac
      * Compter les transactions d'un prestataire par statut
      */
     @Query("SELECT t.statutTransaction, COUNT(t) FROM TransactionPortefeuille t " +
-           "WHERE t.portefeuille.prestataire.idUtilisateur = :prestataireId " +
+           "WHERE t.idPrestataire = :prestataireId " +
            "GROUP BY t.statutTransaction")
     List<Object[]> countByStatutForPrestataire(@Param("prestataireId") Integer prestataireId);
     
@@ -148,4 +163,4 @@ public interface TransactionPortefeuilleRepository extends JpaRepository<Transac
     @Query("SELECT t FROM TransactionPortefeuille t WHERE t.candidature.idCandidature = :candidatureId " +
            "ORDER BY t.dateTransaction DESC")
     List<TransactionPortefeuille> findByCandidatureId(@Param("candidatureId") Long candidatureId);
-}
\ No newline at end of file
+}
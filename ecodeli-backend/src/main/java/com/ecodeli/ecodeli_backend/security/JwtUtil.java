@@ -45,7 +45,12 @@ public class JwtUtil {
         }
     }
 
-    private final long validityInMilliseconds = 1 * 60 * 60 * 1000;
+    @Value("${jwt.access.validity-ms:3600000}")
+    private long validityInMilliseconds;
+
+    public long getValiditySeconds() {
+        return validityInMilliseconds / 1000;
+    }
 
     public String generateToken(String email, Integer userId, String userType) {
         Map<String, Object> claims = new HashMap<>();
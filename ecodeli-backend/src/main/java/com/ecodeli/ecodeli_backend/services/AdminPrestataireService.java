@@ -1,14 +1,20 @@
 package com.ecodeli.ecodeli_backend.services;
 
 import com.ecodeli.ecodeli_backend.models.*;
+import com.ecodeli.ecodeli_backend.repositories.PrestataireRepository;
 import com.ecodeli.ecodeli_backend.repositories.UtilisateurRepository;
 import com.ecodeli.ecodeli_backend.repositories.PrestataireCategorieRepository;
 import com.ecodeli.ecodeli_backend.repositories.JustificatifRepository;
+import com.ecodeli.ecodeli_backend.repositories.AnalyseJustificatifRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintWriter;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -16,34 +22,37 @@ import java.util.stream.Collectors;
 @Service
 public class AdminPrestataireService {
 
+    private static final int TAILLE_PAGE_DEFAUT = 20;
+    private static final int TAILLE_PAGE_MAX = 200;
+
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
+    @Autowired
+    private PrestataireRepository prestataireRepository;
+
     @Autowired
     private PrestataireCategorieRepository prestataireCategorieRepository;
 
     @Autowired
     private JustificatifRepository justificatifRepository;
 
+    @Autowired
+    private AnalyseJustificatifRepository analyseJustificatifRepository;
+
     /**
-     * Récupérer tous les prestataires
+     * Récupérer les prestataires page par page, du plus récent au plus ancien
      */
-    public List<Prestataire> getAllPrestataires() {
-        return utilisateurRepository.findAll().stream()
-                .filter(user -> user instanceof Prestataire)
-                .map(user -> (Prestataire) user)
-                .collect(Collectors.toList());
+    public Page<Prestataire> getPrestataires(Integer page, Integer size) {
+        return rechercherPrestataires(null, null, pagination(page, size));
     }
 
     /**
      * Récupérer un prestataire par ID
      */
     public Prestataire getPrestataireById(Integer id) {
-        Optional<Utilisateur> utilisateur = utilisateurRepository.findById(id);
-        if (utilisateur.isPresent() && utilisateur.get() instanceof Prestataire) {
-            return (Prestataire) utilisateur.get();
-        }
-        throw new RuntimeException("Prestataire non trouvé avec l'ID: " + id);
+        return prestataireRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Prestataire non trouvé avec l'ID: " + id));
     }
 
     /**
@@ -137,6 +146,37 @@ public class AdminPrestataireService {
         return justificatifRepository.findByUtilisateurIdUtilisateur(prestataireId);
     }
 
+    /**
+     * Justificatifs d'un prestataire avec leur aperçu (type réel, pages, miniature),
+     * sans lire les fichiers originaux
+     */
+    public List<Map<String, Object>> getApercusJustificatifs(Integer prestataireId) {
+        Map<Integer, AnalyseJustificatif> analyses = analyseJustificatifRepository.findByUtilisateur(prestataireId).stream()
+                .collect(Collectors.toMap(a -> a.getJustificatif().getIdJustificatif(), a -> a));
+
+        return justificatifRepository.findByUtilisateurIdUtilisateur(prestataireId).stream()
+                .map(justificatif -> {
+                    Map<String, Object> apercu = new HashMap<>();
+                    apercu.put("justificatif", justificatif);
+
+                    AnalyseJustificatif analyse = analyses.get(justificatif.getIdJustificatif());
+                    if (analyse != null) {
+                        apercu.put("analyse", analyse);
+                        if (analyse.getEmpreinteMiniature() != null) {
+                            apercu.put("miniatureUrl", "/api/admin/prestataires/justificatifs/"
+                                    + justificatif.getIdJustificatif() + "/miniature");
+                        }
+                    }
+                    return apercu;
+                })
+                .collect(Collectors.toList());
+    }
+
+    public Justificatif getJustificatifById(Integer justificatifId) {
+        return justificatifRepository.findById(justificatifId)
+                .orElseThrow(() -> new RuntimeException("Justificatif non trouvé avec l'ID: " + justificatifId));
+    }
+
     public Justificatif validerJustificatif(Integer justificatifId, Boolean statut, String commentaire) {
         Optional<Justificatif> optionalJustificatif = justificatifRepository.findById(justificatifId);
         
@@ -152,120 +192,89 @@ public class AdminPrestataireService {
     }
 
     public List<Prestataire> rechercherPrestataires(Map<String, Object> filtres) {
-        List<Prestataire> prestataires = getAllPrestataires();
-        
-        return prestataires.stream()
-                .filter(prestataire -> {
-                    if (filtres.get("search") != null) {
-                        String search = ((String) filtres.get("search")).toLowerCase();
-                        boolean matches = prestataire.getNom().toLowerCase().contains(search) ||
-                                        prestataire.getPrenom().toLowerCase().contains(search) ||
-                                        prestataire.getEmail().toLowerCase().contains(search) ||
-                                        (prestataire.getNomEntreprise() != null && 
-                                         prestataire.getNomEntreprise().toLowerCase().contains(search));
-                        if (!matches) {
-                            return false;
-                        }
-                    }
-                    
-                    if (filtres.get("domaineExpertise") != null) {
-                        String domaine = (String) filtres.get("domaineExpertise");
-                        try {
-                            ServiceType serviceType = ServiceType.valueOf(domaine);
-                            if (prestataire.getDomaineExpertise() != serviceType) {
-                                return false;
-                            }
-                        } catch (IllegalArgumentException e) {
-                            return false;
-                        }
-                    }
-                    
-                    return true;
-                })
-                .collect(Collectors.toList());
+        Integer page = filtres.get("page") != null ? Integer.valueOf(filtres.get("page").toString()) : null;
+        Integer size = filtres.get("size") != null ? Integer.valueOf(filtres.get("size").toString()) : null;
+        return rechercherPrestataires((String) filtres.get("search"), (String) filtres.get("domaineExpertise"),
+                pagination(page, size)).getContent();
     }
 
-    public Map<String, Object> getStatistiquesPrestataires() {
-        List<Prestataire> prestataires = getAllPrestataires();
-        Map<String, Object> stats = new HashMap<>();
-        
-        stats.put("totalPrestataires", prestataires.size());
-        
-        Map<String, Long> parDomaine = prestataires.stream()
-                .filter(p -> p.getDomaineExpertise() != null)
-                .collect(Collectors.groupingBy(
-                        p -> p.getDomaineExpertise().name(),
-                        Collectors.counting()
-                ));
-        stats.put("parDomaine", parDomaine);
-        
-        long disponibles = prestataires.stream()
-                .mapToLong(p -> (p.getDisponible() != null && p.getDisponible()) ? 1 : 0)
-                .sum();
-        stats.put("disponibles", disponibles);
-        stats.put("nonDisponibles", prestataires.size() - disponibles);
-        
-        OptionalDouble tarifMoyen = prestataires.stream()
-                .filter(p -> p.getTarifHoraire() != null && p.getTarifHoraire() > 0)
-                .mapToDouble(Prestataire::getTarifHoraire)
-                .average();
-        stats.put("tarifMoyen", tarifMoyen.orElse(0.0));
-        
-        return stats;
-    }
+    /**
+     * Recherche paginée : filtre texte (nom, prénom, email, entreprise) et domaine appliqués en SQL,
+     * puis chargement des prestataires de la page par identifiants. Sans texte, pages lues directement,
+     * du plus récent au plus ancien.
+     */
+    public Page<Prestataire> rechercherPrestataires(String search, String domaine, Pageable pageable) {
+        ServiceType domaineFiltre = null;
+        if (domaine != null && !domaine.isBlank()) {
+            try {
+                domaineFiltre = ServiceType.valueOf(domaine);
+            } catch (IllegalArgumentException e) {
+                return Page.empty(pageable);
+            }
+        }
 
-    public byte[] exporterPrestataires(String format) {
-        List<Prestataire> prestataires = getAllPrestataires();
-        
-        if ("csv".equals(format)) {
-            return exporterCSV(prestataires);
-        } else {
-            throw new RuntimeException("Format d'export non supporté: " + format);
+        if (search == null || search.isBlank()) {
+            Pageable parDateInscription = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    Sort.by(Sort.Direction.DESC, "idUtilisateur"));
+            return domaineFiltre != null
+                    ? prestataireRepository.findByDomaineExpertise(domaineFiltre, parDateInscription)
+                    : prestataireRepository.findAll(parDateInscription);
+        }
+
+        Page<Integer> ids = prestataireRepository.rechercherIds(motifRecherche(search),
+                domaineFiltre != null ? domaineFiltre.name() : "", pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
         }
+        return new PageImpl<>(prestataireRepository.findByIds(ids.getContent()), pageable, ids.getTotalElements());
     }
 
-    private byte[] exporterCSV(List<Prestataire> prestataires) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PrintWriter writer = new PrintWriter(baos);
+    private String motifRecherche(String search) {
+        String echappe = search.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + echappe + "%";
+    }
 
-            writer.println("ID,Nom,Prénom,Email,Entreprise,SIRET,Domaine,Tarif Horaire,Disponible");
-            
-            for (Prestataire p : prestataires) {
-                writer.printf("%d,%s,%s,%s,%s,%s,%s,%.2f,%s%n",
-                        p.getIdUtilisateur(),
-                        escapeCSV(p.getNom()),
-                        escapeCSV(p.getPrenom()),
-                        escapeCSV(p.getEmail()),
-                        escapeCSV(p.getNomEntreprise()),
-                        escapeCSV(p.getSiret()),
-                        p.getDomaineExpertise() != null ? p.getDomaineExpertise().name() : "",
-                        p.getTarifHoraire() != null ? p.getTarifHoraire() : 0.0,
-                        p.getDisponible() != null ? (p.getDisponible() ? "Oui" : "Non") : "Non renseigné"
-                );
-            }
-            
-            writer.flush();
-            return baos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Erreur lors de l'export CSV", e);
+    /**
+     * Toujours bornée : sans page ni taille, première page de TAILLE_PAGE_MAX (la recherche charge
+     * ensuite la page par identifiants, dans la limite des paramètres d'une requête PostgreSQL)
+     */
+    private Pageable pagination(Integer page, Integer size) {
+        if (page == null && size == null) {
+            return PageRequest.of(0, TAILLE_PAGE_MAX);
         }
+        return PageRequest.of(page != null ? Math.max(0, page) : 0,
+                size != null ? Math.max(1, Math.min(size, TAILLE_PAGE_MAX)) : TAILLE_PAGE_DEFAUT);
     }
 
-    private String escapeCSV(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStatistiquesPrestataires() {
+        Map<String, Object> stats = new HashMap<>();
+        
+        Object[] globales = prestataireRepository.getStatistiquesGlobales().get(0);
+        long total = ((Number) globales[0]).longValue();
+        long disponibles = globales[1] != null ? ((Number) globales[1]).longValue() : 0L;
+        stats.put("totalPrestataires", total);
+        
+        Map<String, Long> parDomaine = new HashMap<>();
+        for (Object[] ligne : prestataireRepository.countByDomaine()) {
+            parDomaine.put(((ServiceType) ligne[0]).name(), ((Number) ligne[1]).longValue());
         }
-        return value;
+        stats.put("parDomaine", parDomaine);
+        
+        stats.put("disponibles", disponibles);
+        stats.put("nonDisponibles", total - disponibles);
+        stats.put("tarifMoyen", globales[2] != null ? ((Number) globales[2]).doubleValue() : 0.0);
+        
+        return stats;
     }
 
-    public List<Prestataire> getPrestatairesParCategorie(String categorie) {
+    public List<Prestataire> getPrestatairesParCategorie(String categorie, Integer page, Integer size) {
         try {
             ServiceType serviceType = ServiceType.valueOf(categorie);
-            return getAllPrestataires().stream()
-                    .filter(p -> p.getDomaineExpertise() == serviceType)
-                    .collect(Collectors.toList());
+            return prestataireRepository.findByDomaineExpertise(serviceType, pagination(page, size)).getContent();
         } catch (IllegalArgumentException e) {
             return new ArrayList<>();
         }
@@ -274,19 +283,15 @@ public class AdminPrestataireService {
     /**
      * Récupérer les prestataires validés (avec tarif défini)
      */
-    public List<Prestataire> getPrestatairesValides() {
-        return getAllPrestataires().stream()
-                .filter(p -> p.getTarifHoraire() != null && p.getTarifHoraire() > 0)
-                .collect(Collectors.toList());
+    public List<Prestataire> getPrestatairesValides(Integer page, Integer size) {
+        return prestataireRepository.findValides(pagination(page, size)).getContent();
     }
 
     /**
      * Récupérer les prestataires en attente de validation
      */
-    public List<Prestataire> getPrestatairesEnAttente() {
-        return getAllPrestataires().stream()
-                .filter(p -> p.getTarifHoraire() == null || p.getTarifHoraire() <= 0)
-                .collect(Collectors.toList());
+    public List<Prestataire> getPrestatairesEnAttente(Integer page, Integer size) {
+        return prestataireRepository.findEnAttente(pagination(page, size)).getContent();
     }
 
     /**
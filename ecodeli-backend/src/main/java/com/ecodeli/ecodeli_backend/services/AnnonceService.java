@@ -1,6 +1,9 @@
 package com.ecodeli.ecodeli_backend.services;
 
 import com.ecodeli.ecodeli_backend.exceptions.ResourceNotFoundException;
+import com.ecodeli.ecodeli_backend.metriques.MetriquesMetier;
+import com.ecodeli.ecodeli_backend.metriques.MetriquesMetier.ServiceExterne;
+import com.ecodeli.ecodeli_backend.metriques.jfr.CalculDistanceEvent;
 import com.ecodeli.ecodeli_backend.models.Annonce;
 import com.ecodeli.ecodeli_backend.models.Colis;
 import com.ecodeli.ecodeli_backend.models.Utilisateur;
@@ -45,9 +48,15 @@ public class AnnonceService {
     @Autowired
     private LivraisonRepository livraisonRepository;
 
+    @Autowired
+    private MetriquesMetier metriquesMetier;
+
     @Value("${GOOGLE_MAPS_API_KEY}")
     private String googleMapsApiKey;
 
+    @Value("${app.google-maps.url-base:https://maps.googleapis.com}")
+    private String googleMapsUrlBase;
+
     private final RestTemplate restTemplate = new RestTemplate();
     private final Random random = new Random();
 
@@ -127,15 +136,25 @@ public class AnnonceService {
     }
 
     public BigDecimal calculateDistance(String adresseDepart, String adresseFin) {
+        CalculDistanceEvent evenement = new CalculDistanceEvent();
         try {
             String url = String.format(
-                "https://maps.googleapis.com/maps/api/distancematrix/json?origins=%s&destinations=%s&units=metric&key=%s",
+                "%s/maps/api/distancematrix/json?origins=%s&destinations=%s&units=metric&key=%s",
+                googleMapsUrlBase,
                 adresseDepart.replace(" ", "+"),
                 adresseFin.replace(" ", "+"),
                 googleMapsApiKey
             );
 
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            long debut = System.nanoTime();
+            Map<String, Object> response = null;
+            try {
+                response = restTemplate.getForObject(url, Map.class);
+            } finally {
+                metriquesMetier.appelExterne(ServiceExterne.GOOGLE_MAPS,
+                    response != null && "OK".equals(response.get("status")), debut);
+            }
+            evenement.statutGoogle(response != null ? response.get("status") : null);
 
             if (response != null && "OK".equals(response.get("status"))) {
                 List<Map<String, Object>> rows = (List<Map<String, Object>>) response.get("rows");
@@ -147,22 +166,20 @@ public class AnnonceService {
                             Map<String, Object> distance = (Map<String, Object>) element.get("distance");
                             Integer distanceInMeters = (Integer) distance.get("value");
 
-                            return new BigDecimal(distanceInMeters).divide(new BigDecimal("1000"), 2, RoundingMode.HALF_UP);
+                            return evenement.terminer(
+                                new BigDecimal(distanceInMeters).divide(new BigDecimal("1000"), 2, RoundingMode.HALF_UP), false);
                         }
                     }
                 }
             }
-            return new BigDecimal("10.00");
+            return evenement.terminer(new BigDecimal("10.00"), true);
         } catch (Exception e) {
-            return new BigDecimal("10.00");
+            return evenement.terminer(new BigDecimal("10.00"), true);
         }
     }
 
     public List<Annonce> getAnnoncesByUser(Integer userId) {
-        return annonceRepository.findAll().stream()
-            .filter(annonce -> annonce.getExpediteur() != null &&
-                     annonce.getExpediteur().getIdUtilisateur().equals(userId))
-            .toList();
+        return annonceRepository.findByExpediteurIdUtilisateur(userId);
     }
 
     public void cancelAnnonce(Integer annonceId) {
@@ -181,9 +198,7 @@ public class AnnonceService {
     }
 
     public List<Annonce> getAvailableAnnonces() {
-        return annonceRepository.findAll().stream()
-            .filter(annonce -> annonce.getStatut() == Annonce.StatutAnnonce.PUBLIEE)
-            .toList();
+        return annonceRepository.findByStatutOrderByDateDebutAsc(Annonce.StatutAnnonce.PUBLIEE);
     }
 
     public void takeAnnonce(Integer annonceId, Integer livreurId) {
@@ -236,10 +251,7 @@ public class AnnonceService {
     }
 
     public List<Annonce> getAnnoncesByLivreur(Integer livreurId) {
-        return annonceRepository.findAll().stream()
-            .filter(annonce -> annonce.getLivreur() != null &&
-                     annonce.getLivreur().getIdUtilisateur().equals(livreurId))
-            .toList();
+        return annonceRepository.findByLivreurIdUtilisateur(livreurId);
     }
 
     public String generateDeliveryCode(Integer annonceId) {
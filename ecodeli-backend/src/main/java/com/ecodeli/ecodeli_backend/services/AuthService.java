@@ -3,11 +3,17 @@ package com.ecodeli.ecodeli_backend.services;
 import com.ecodeli.ecodeli_backend.dto.request.LoginRequest;
 import com.ecodeli.ecodeli_backend.dto.request.RegisterRequest;
 import com.ecodeli.ecodeli_backend.dto.response.AuthResponse;
+import com.ecodeli.ecodeli_backend.metriques.jfr.ConnexionEvent;
+import com.ecodeli.ecodeli_backend.metriques.jfr.ConnexionEvent.Resultat;
 import com.ecodeli.ecodeli_backend.models.*;
 import com.ecodeli.ecodeli_backend.repositories.UtilisateurRepository;
 import com.ecodeli.ecodeli_backend.security.JwtUtil;
+import com.ecodeli.ecodeli_backend.services.auth.ConnexionRefuseeException;
+import com.ecodeli.ecodeli_backend.services.auth.JetonRafraichissementService;
+import com.ecodeli.ecodeli_backend.services.auth.LimiteurConnexion;
+import com.ecodeli.ecodeli_backend.services.auth.VerificationMotDePasseService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,7 +23,13 @@ public class AuthService {
     private UtilisateurRepository utilisateurRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private VerificationMotDePasseService verificationMotDePasseService;
+
+    @Autowired
+    private LimiteurConnexion limiteurConnexion;
+
+    @Autowired
+    private JetonRafraichissementService jetonRafraichissementService;
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -25,29 +37,41 @@ public class AuthService {
     @Autowired
     private EmailService emailService;
 
-    public AuthResponse login(LoginRequest loginRequest) {
+    public AuthResponse login(LoginRequest loginRequest, String adresseIp) {
+        ConnexionEvent evenement = new ConnexionEvent();
         try {
-            Utilisateur utilisateur = utilisateurRepository.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+            limiteurConnexion.verifier(adresseIp, loginRequest.getEmail());
 
-            if (!passwordEncoder.matches(loginRequest.getMotDePasse(), utilisateur.getMotDePasse())) {
-                throw new RuntimeException("Mot de passe incorrect");
+            Utilisateur utilisateur = utilisateurRepository.findByEmail(loginRequest.getEmail()).orElse(null);
+            if (utilisateur == null) {
+                evenement.resultat(Resultat.COMPTE_INCONNU);
+                verificationMotDePasseService.rejeterCompteInconnu();
+                throw new RuntimeException("Utilisateur non trouvé");
             }
+            evenement.utilisateur(utilisateur.getIdUtilisateur());
 
-            String token = jwtUtil.generateToken(utilisateur.getEmail(), utilisateur.getIdUtilisateur(), getUserType(utilisateur));
-
-            AuthResponse response = new AuthResponse();
-            response.setToken(token);
-            response.setId(utilisateur.getIdUtilisateur());
-            response.setEmail(utilisateur.getEmail());
-            response.setPrenom(utilisateur.getPrenom());
-            response.setNom(utilisateur.getNom());
-            response.setUserType(getUserType(utilisateur));
+            if (!verificationMotDePasseService.verifier(utilisateur.getIdUtilisateur(),
+                    loginRequest.getMotDePasse(), utilisateur.getMotDePasse())) {
+                evenement.resultat(Resultat.MOT_DE_PASSE_INCORRECT);
+                throw new RuntimeException("Mot de passe incorrect");
+            }
+            limiteurConnexion.reinitialiserCompte(loginRequest.getEmail());
 
-            return response;
+            AuthResponse reponse = construireReponse(utilisateur,
+                jetonRafraichissementService.emettre(utilisateur.getIdUtilisateur()));
+            evenement.resultat(Resultat.SUCCES);
+            return reponse;
 
+        } catch (ConnexionRefuseeException e) {
+            evenement.resultat(e.getStatut() == HttpStatus.TOO_MANY_REQUESTS ? Resultat.LIMITEE : Resultat.SATUREE);
+            throw e;
         } catch (Exception e) {
+            if (!evenement.resultatConnu()) {
+                evenement.resultat(Resultat.ERREUR);
+            }
             throw new RuntimeException("Erreur lors de la connexion: " + e.getMessage());
+        } finally {
+            evenement.commit();
         }
     }
 
@@ -59,29 +83,49 @@ public class AuthService {
 
             Utilisateur utilisateur = createUserByType(registerRequest);
 
-            utilisateur.setMotDePasse(passwordEncoder.encode(registerRequest.getMotDePasse()));
+            utilisateur.setMotDePasse(verificationMotDePasseService.encoder(registerRequest.getMotDePasse()));
 
             utilisateur = utilisateurRepository.save(utilisateur);
 
             emailService.sendWelcomeEmail(utilisateur);
 
-            String token = jwtUtil.generateToken(utilisateur.getEmail(), utilisateur.getIdUtilisateur(), getUserType(utilisateur));
-
-            AuthResponse response = new AuthResponse();
-            response.setToken(token);
-            response.setId(utilisateur.getIdUtilisateur());
-            response.setEmail(utilisateur.getEmail());
-            response.setPrenom(utilisateur.getPrenom());
-            response.setNom(utilisateur.getNom());
-            response.setUserType(getUserType(utilisateur));
-
-            return response;
+            return construireReponse(utilisateur, jetonRafraichissementService.emettre(utilisateur.getIdUtilisateur()));
 
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de l'inscription: " + e.getMessage());
         }
     }
 
+    /**
+     * Nouveau JWT à partir d'un jeton de rafraîchissement, sans vérification du mot de passe
+     */
+    public AuthResponse renouveler(String refreshToken) {
+        JetonRafraichissementService.Rotation rotation = jetonRafraichissementService.renouveler(refreshToken);
+        Utilisateur utilisateur = utilisateurRepository.findById(rotation.idUtilisateur())
+            .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+        return construireReponse(utilisateur, rotation.jeton());
+    }
+
+    public void deconnecter(String refreshToken) {
+        jetonRafraichissementService.revoquer(refreshToken);
+    }
+
+    private AuthResponse construireReponse(Utilisateur utilisateur, String refreshToken) {
+        String token = jwtUtil.generateToken(utilisateur.getEmail(), utilisateur.getIdUtilisateur(), getUserType(utilisateur));
+
+        AuthResponse response = new AuthResponse();
+        response.setToken(token);
+        response.setRefreshToken(refreshToken);
+        response.setExpiresIn(jwtUtil.getValiditySeconds());
+        response.setId(utilisateur.getIdUtilisateur());
+        response.setEmail(utilisateur.getEmail());
+        response.setPrenom(utilisateur.getPrenom());
+        response.setNom(utilisateur.getNom());
+        response.setUserType(getUserType(utilisateur));
+
+        return response;
+    }
+
     private Utilisateur createUserByType(RegisterRequest request) {
         Utilisateur utilisateur;
 
@@ -1,5 +1,6 @@
 package com.ecodeli.ecodeli_backend.services;
 
+import com.ecodeli.ecodeli_backend.dto.response.CandidatureAvecPrestataireResponse;
 import com.ecodeli.ecodeli_backend.models.*;
 import com.ecodeli.ecodeli_backend.repositories.CandidatureRepository;
 import com.ecodeli.ecodeli_backend.repositories.DemandeServiceRepository;
@@ -8,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -27,41 +29,51 @@ public class CandidatureService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private RatingSummaryService ratingSummaryService;
+
     /**
-     * Récupérer toutes les candidatures pour une demande de service avec profils prestataires
+     * Récupérer toutes les candidatures pour une demande de service avec profils prestataires.
+     * Nombre de requêtes constant quel que soit le nombre de candidats : candidatures, statistiques,
+     * notes et catégories validées sont chargées en lot pour tous les prestataires de la demande.
      */
-    public List<Map<String, Object>> getCandidaturesWithPrestatairesByDemande(Long demandeId) {
-        List<Candidature> candidatures = candidatureRepository.findByDemandeServiceIdDemande(demandeId.intValue());
-        
-        return candidatures.stream().map(candidature -> {
-            Map<String, Object> candidatureWithPrestataire = new HashMap<>();
-            
-            candidatureWithPrestataire.put("idCandidature", candidature.getIdCandidature());
-            candidatureWithPrestataire.put("prixPropose", candidature.getPrixPropose());
-            candidatureWithPrestataire.put("messagePrestataire", candidature.getMessagePrestataire());
-            candidatureWithPrestataire.put("statut", candidature.getStatut().name());
-            candidatureWithPrestataire.put("dateCandidature", candidature.getDateCandidature());
-            candidatureWithPrestataire.put("delaiPropose", candidature.getDelaiPropose());
-            
-            Prestataire prestataire = candidature.getPrestataire();
-            Map<String, Object> prestataireInfo = new HashMap<>();
-            prestataireInfo.put("idUtilisateur", prestataire.getIdUtilisateur());
-            prestataireInfo.put("nom", prestataire.getNom());
-            prestataireInfo.put("prenom", prestataire.getPrenom());
-            prestataireInfo.put("email", prestataire.getEmail());
-            prestataireInfo.put("telephone", prestataire.getTelephone());
-            prestataireInfo.put("adresse", prestataire.getAdresse());
-            
-            Map<String, Object> statistiques = getStatistiquesPrestataire(prestataire);
-            prestataireInfo.put("statistiques", statistiques);
-            
-            List<Map<String, Object>> categoriesValidees = getCategoriesValideesAvecTarifs(prestataire);
-            prestataireInfo.put("categoriesValidees", categoriesValidees);
-            
-            candidatureWithPrestataire.put("prestataire", prestataireInfo);
-            
-            return candidatureWithPrestataire;
-        }).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<CandidatureAvecPrestataireResponse> getCandidaturesWithPrestatairesByDemande(Long demandeId) {
+        List<Object[]> lignes = candidatureRepository.findLignesAvecPrestataireByDemande(demandeId);
+        if (lignes.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Integer> prestataireIds = lignes.stream()
+            .map(ligne -> (Integer) ligne[6])
+            .collect(Collectors.toSet());
+
+        Map<Integer, CandidatureAvecPrestataireResponse.Statistiques> statistiques = getStatistiquesPrestataires(prestataireIds);
+        Map<Integer, List<CandidatureAvecPrestataireResponse.CategorieValidee>> categories = getCategoriesValideesAvecTarifs(prestataireIds);
+
+        List<CandidatureAvecPrestataireResponse> candidatures = new ArrayList<>(lignes.size());
+        for (Object[] ligne : lignes) {
+            Integer prestataireId = (Integer) ligne[6];
+            CandidatureAvecPrestataireResponse.PrestataireCandidat prestataire = new CandidatureAvecPrestataireResponse.PrestataireCandidat(
+                prestataireId,
+                (String) ligne[7],
+                (String) ligne[8],
+                (String) ligne[9],
+                (String) ligne[10],
+                (String) ligne[11],
+                statistiques.get(prestataireId),
+                categories.getOrDefault(prestataireId, List.of()));
+
+            candidatures.add(new CandidatureAvecPrestataireResponse(
+                (Long) ligne[0],
+                (BigDecimal) ligne[1],
+                (String) ligne[2],
+                (Candidature.StatutCandidature) ligne[3],
+                (LocalDateTime) ligne[4],
+                (Integer) ligne[5],
+                prestataire));
+        }
+        return candidatures;
     }
 
     @Transactional
@@ -160,45 +172,44 @@ public class CandidatureService {
         }
     }
 
-    private Map<String, Object> getStatistiquesPrestataire(Prestataire prestataire) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        List<Candidature> candidaturesPrestataire = candidatureRepository.findByPrestataireIdUtilisateur(prestataire.getIdUtilisateur());
-        
-        long totalCandidatures = candidaturesPrestataire.size();
-        long candidaturesAcceptees = candidaturesPrestataire.stream()
-            .filter(c -> c.getStatut() == Candidature.StatutCandidature.ACCEPTEE)
-            .count();
-        
-        double tauxAcceptation = totalCandidatures > 0 ? (candidaturesAcceptees * 100.0 / totalCandidatures) : 0;
-        
-        stats.put("totalCandidatures", totalCandidatures);
-        stats.put("candidaturesAcceptees", candidaturesAcceptees);
-        stats.put("tauxAcceptation", Math.round(tauxAcceptation * 100.0) / 100.0);
-        stats.put("missionsRealisees", candidaturesAcceptees);
-        
-        stats.put("noteMoyenne", 4.2); // Valeur fictive pour l'instant
-        stats.put("nombreEvaluations", candidaturesAcceptees > 0 ? candidaturesAcceptees : 0);
-        
+    private Map<Integer, CandidatureAvecPrestataireResponse.Statistiques> getStatistiquesPrestataires(Set<Integer> prestataireIds) {
+        Map<Integer, long[]> compteurs = new HashMap<>();
+        for (Object[] ligne : candidatureRepository.countTotalEtAccepteesByPrestataires(prestataireIds)) {
+            compteurs.put((Integer) ligne[0], new long[] {
+                ((Number) ligne[1]).longValue(),
+                ligne[2] != null ? ((Number) ligne[2]).longValue() : 0L });
+        }
+        Map<Integer, RatingSummary> resumes = ratingSummaryService.getResumes(prestataireIds);
+
+        Map<Integer, CandidatureAvecPrestataireResponse.Statistiques> stats = new HashMap<>();
+        for (Integer prestataireId : prestataireIds) {
+            long[] compteur = compteurs.getOrDefault(prestataireId, new long[2]);
+            long totalCandidatures = compteur[0];
+            long candidaturesAcceptees = compteur[1];
+            double tauxAcceptation = totalCandidatures > 0 ? (candidaturesAcceptees * 100.0 / totalCandidatures) : 0;
+
+            RatingSummary resume = resumes.getOrDefault(prestataireId, new RatingSummary());
+            stats.put(prestataireId, new CandidatureAvecPrestataireResponse.Statistiques(
+                totalCandidatures,
+                candidaturesAcceptees,
+                Math.round(tauxAcceptation * 100.0) / 100.0,
+                candidaturesAcceptees,
+                Math.round(resume.getNoteMoyenne() * 10.0) / 10.0,
+                resume.getNombreEvaluations()));
+        }
         return stats;
     }
 
-    private List<Map<String, Object>> getCategoriesValideesAvecTarifs(Prestataire prestataire) {
-        List<Map<String, Object>> categories = new ArrayList<>();
-        
-        List<PrestataireCategorie> categoriesPrestataire = prestataireCategorieRepository.findByPrestataireIdUtilisateur(prestataire.getIdUtilisateur());
-        
-        for (PrestataireCategorie pc : categoriesPrestataire) {
-            if (pc.getStatutValidation() == PrestataireCategorie.StatutValidation.VALIDE) {
-                Map<String, Object> categorieInfo = new HashMap<>();
-                categorieInfo.put("categorieService", pc.getCategorieService().name());
-                categorieInfo.put("statut", pc.getStatutValidation().name());
-                categorieInfo.put("tarifHoraire", pc.getTarifHoraire());
-                categorieInfo.put("dateValidation", pc.getDateValidation());
-                categories.add(categorieInfo);
-            }
+    private Map<Integer, List<CandidatureAvecPrestataireResponse.CategorieValidee>> getCategoriesValideesAvecTarifs(Set<Integer> prestataireIds) {
+        Map<Integer, List<CandidatureAvecPrestataireResponse.CategorieValidee>> categories = new HashMap<>();
+        for (Object[] ligne : prestataireCategorieRepository.findValideesByPrestataires(prestataireIds)) {
+            categories.computeIfAbsent((Integer) ligne[0], id -> new ArrayList<>())
+                .add(new CandidatureAvecPrestataireResponse.CategorieValidee(
+                    (ServiceType) ligne[1],
+                    (PrestataireCategorie.StatutValidation) ligne[2],
+                    (Double) ligne[3],
+                    (LocalDateTime) ligne[4]));
         }
-        
         return categories;
     }
 
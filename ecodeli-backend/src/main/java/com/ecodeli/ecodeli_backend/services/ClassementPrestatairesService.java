@@ -0,0 +1,196 @@
+package com.ecodeli.ecodeli_backend.services;
+
+import com.ecodeli.ecodeli_backend.config.PrechauffageEvent;
+import com.ecodeli.ecodeli_backend.models.Prestataire;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+import com.ecodeli.ecodeli_backend.repositories.RatingSummaryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Classement des prestataires par domaine, trié par moyenne bayésienne :
+ * score = (C * m + somme des notes) / (C + nombre d'évaluations), où m est la moyenne du domaine
+ * et C le poids de l'a priori. Un prestataire avec une seule note de 5 ne passe donc pas
+ * devant un prestataire très bien noté sur des centaines de missions.
+ *
+ * Le classement est gardé en mémoire : chargé depuis RATING_SUMMARY au démarrage, mis à jour
+ * après chaque évaluation et resynchronisé périodiquement (évaluations des autres instances).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClassementPrestatairesService implements MeterBinder {
+
+    private final RatingSummaryRepository ratingSummaryRepository;
+
+    @Value("${app.classement.poids-a-priori:10}")
+    private double poidsAPriori;
+
+    @Value("${app.classement.taille-max:50}")
+    private int tailleMax;
+
+    private volatile Map<ServiceType, Domaine> domaines = nouveauxDomaines();
+
+    public record EntreeClassement(int rang, Integer idPrestataire, String nom, String prenom,
+                                   String nomEntreprise, double scoreBayesien, double noteMoyenne,
+                                   long nombreEvaluations) {
+    }
+
+    private record Agregat(String nom, String prenom, String nomEntreprise, long nombre, long somme) {
+    }
+
+    private static final class Domaine {
+        // Pas de synchronized : le reclassement parcourt tout le domaine, un thread virtuel en attente y serait épinglé
+        private final ReentrantLock verrou = new ReentrantLock();
+        private final Map<Integer, Agregat> prestataires = new HashMap<>();
+        private long totalEvaluations;
+        private long totalNotes;
+        private volatile List<EntreeClassement> classement = List.of();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ecodeli.cache.entrees", this, s -> s.domaines.values().stream()
+                .mapToInt(d -> d.prestataires.size()).sum())
+            .description("Entrées des caches en mémoire")
+            .tag("cache", "classement_prestataires")
+            .register(registry);
+    }
+
+    /**
+     * Meilleurs prestataires d'un domaine (lecture en mémoire, sans requête)
+     */
+    public List<EntreeClassement> getClassement(ServiceType categorie, int limite) {
+        List<EntreeClassement> classement = domaines.get(categorie).classement;
+        return classement.subList(0, Math.max(0, Math.min(limite, classement.size())));
+    }
+
+    /**
+     * Prendre en compte une nouvelle évaluation une fois sa transaction validée
+     */
+    public void enregistrerEvaluation(Prestataire prestataire, int noteGlobale) {
+        if (prestataire.getDomaineExpertise() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    appliquerEvaluation(prestataire, noteGlobale);
+                }
+            });
+        } else {
+            appliquerEvaluation(prestataire, noteGlobale);
+        }
+    }
+
+    @EventListener(PrechauffageEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void chargerAuDemarrage() {
+        rafraichir();
+    }
+
+    @Scheduled(initialDelayString = "${app.classement.rafraichissement-ms:900000}",
+               fixedDelayString = "${app.classement.rafraichissement-ms:900000}")
+    public void rafraichir() {
+        try {
+            Map<ServiceType, Domaine> nouveaux = nouveauxDomaines();
+            for (Object[] ligne : ratingSummaryRepository.findAgregatsAvecDomaine()) {
+                Domaine domaine = nouveaux.get((ServiceType) ligne[4]);
+                long nombre = ((Number) ligne[5]).longValue();
+                long somme = ((Number) ligne[6]).longValue();
+                domaine.prestataires.put((Integer) ligne[0],
+                    new Agregat((String) ligne[1], (String) ligne[2], (String) ligne[3], nombre, somme));
+                domaine.totalEvaluations += nombre;
+                domaine.totalNotes += somme;
+            }
+            nouveaux.values().forEach(this::reclasser);
+            domaines = nouveaux;
+        } catch (Exception e) {
+            log.error("Impossible de charger le classement des prestataires: {}", e.getMessage());
+        }
+    }
+
+    private void appliquerEvaluation(Prestataire prestataire, int noteGlobale) {
+        Domaine domaine = domaines.get(prestataire.getDomaineExpertise());
+        domaine.verrou.lock();
+        try {
+            Agregat actuel = domaine.prestataires.get(prestataire.getIdUtilisateur());
+            long nombre = actuel != null ? actuel.nombre() : 0;
+            long somme = actuel != null ? actuel.somme() : 0;
+            domaine.prestataires.put(prestataire.getIdUtilisateur(), new Agregat(prestataire.getNom(),
+                prestataire.getPrenom(), prestataire.getNomEntreprise(), nombre + 1, somme + noteGlobale));
+            domaine.totalEvaluations++;
+            domaine.totalNotes += noteGlobale;
+            reclasser(domaine);
+        } finally {
+            domaine.verrou.unlock();
+        }
+    }
+
+    /**
+     * Recalculer les K meilleurs scores d'un domaine : la moyenne du domaine change à chaque
+     * évaluation, donc tous les scores bougent. Tas borné à K éléments, O(P log K).
+     */
+    private void reclasser(Domaine domaine) {
+        double moyenneDomaine = domaine.totalEvaluations > 0
+            ? (double) domaine.totalNotes / domaine.totalEvaluations : 0.0;
+
+        Comparator<EntreeClassement> ordre = Comparator
+            .comparingDouble(EntreeClassement::scoreBayesien)
+            .thenComparingLong(EntreeClassement::nombreEvaluations)
+            .thenComparing(EntreeClassement::idPrestataire, Comparator.reverseOrder());
+
+        PriorityQueue<EntreeClassement> meilleurs = new PriorityQueue<>(tailleMax + 1, ordre);
+        for (Map.Entry<Integer, Agregat> entree : domaine.prestataires.entrySet()) {
+            Agregat agregat = entree.getValue();
+            if (agregat.nombre() == 0) {
+                continue;
+            }
+            double score = (poidsAPriori * moyenneDomaine + agregat.somme()) / (poidsAPriori + agregat.nombre());
+            meilleurs.offer(new EntreeClassement(0, entree.getKey(), agregat.nom(), agregat.prenom(),
+                agregat.nomEntreprise(), arrondir(score), arrondir((double) agregat.somme() / agregat.nombre()),
+                agregat.nombre()));
+            if (meilleurs.size() > tailleMax) {
+                meilleurs.poll();
+            }
+        }
+
+        List<EntreeClassement> tries = new ArrayList<>(meilleurs);
+        tries.sort(ordre.reversed());
+
+        List<EntreeClassement> classement = new ArrayList<>(tries.size());
+        for (int i = 0; i < tries.size(); i++) {
+            EntreeClassement e = tries.get(i);
+            classement.add(new EntreeClassement(i + 1, e.idPrestataire(), e.nom(), e.prenom(),
+                e.nomEntreprise(), e.scoreBayesien(), e.noteMoyenne(), e.nombreEvaluations()));
+        }
+        domaine.classement = List.copyOf(classement);
+    }
+
+    private static Map<ServiceType, Domaine> nouveauxDomaines() {
+        Map<ServiceType, Domaine> map = new EnumMap<>(ServiceType.class);
+        for (ServiceType type : ServiceType.values()) {
+            map.put(type, new Domaine());
+        }
+        return map;
+    }
+
+    private static double arrondir(double valeur) {
+        return Math.round(valeur * 1000.0) / 1000.0;
+    }
+}
@@ -312,6 +312,7 @@ public class ContratService {
         templateRepository.deleteById(idTemplate);
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Long> getStatistiquesContrats() {
         return Map.of(
             "totalContrats", contratRepository.count(),
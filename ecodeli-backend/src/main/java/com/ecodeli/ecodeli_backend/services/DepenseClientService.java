@@ -0,0 +1,50 @@
+package com.ecodeli.ecodeli_backend.services;
+
+import com.ecodeli.ecodeli_backend.models.DepenseClient;
+import com.ecodeli.ecodeli_backend.repositories.DepenseClientRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+/**
+ * Maintien de la table DEPENSE_CLIENT : initialisée par la migration V7, incrémentée dans la
+ * transaction de chaque règlement de mission, reconstruite entièrement par ReconstructionAgregatsJob.
+ */
+@Service
+@RequiredArgsConstructor
+public class DepenseClientService {
+
+    private final DepenseClientRepository depenseClientRepository;
+
+    /**
+     * Doit être appelé dans la transaction qui enregistre le crédit mission
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ajouterPaiement(Integer clientId, BigDecimal montantTotal) {
+        depenseClientRepository.ajouterPaiement(clientId, montantTotal);
+    }
+
+    /**
+     * Total d'un client par clé primaire ; sans ligne, le client n'a encore rien payé
+     */
+    public DepenseClient getDepense(Integer clientId) {
+        return depenseClientRepository.findById(clientId).orElseGet(() -> {
+            DepenseClient depense = new DepenseClient();
+            depense.setIdClient(clientId);
+            return depense;
+        });
+    }
+
+    /**
+     * Reconstruire les totaux à partir des transactions existantes (idempotent)
+     */
+    @Transactional
+    public int recalculer() {
+        int clients = depenseClientRepository.recalculerTout();
+        depenseClientRepository.supprimerOrphelins();
+        return clients;
+    }
+}
@@ -1,5 +1,7 @@
 package com.ecodeli.ecodeli_backend.services;
 
+import com.ecodeli.ecodeli_backend.metriques.MetriquesMetier;
+import com.ecodeli.ecodeli_backend.metriques.MetriquesMetier.ServiceExterne;
 import com.ecodeli.ecodeli_backend.models.Utilisateur;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -29,10 +31,13 @@ public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private MetriquesMetier metriquesMetier;
+
     @Value("${MAIL_FROM}")
     private String fromEmail;
 
-    @Async
+    @Async("mailExecutor")
     public void sendWelcomeEmail(Utilisateur utilisateur) {
         try {
             logger.info("Envoi de l'email de bienvenue pour : {}", utilisateur.getEmail());
@@ -68,7 +73,14 @@ public class EmailService {
         helper.setSubject(subject);
         helper.setText(htmlContent, true);
 
-        mailSender.send(message);
+        long debut = System.nanoTime();
+        boolean succes = false;
+        try {
+            mailSender.send(message);
+            succes = true;
+        } finally {
+            metriquesMetier.appelExterne(ServiceExterne.SMTP, succes, debut);
+        }
     }
 
     private String loadWelcomeTemplate(Map<String, String> data) throws IOException {
@@ -137,7 +149,7 @@ public class EmailService {
         return roleDisplayNames.getOrDefault(role, role);
     }
 
-    @Async
+    @Async("mailExecutor")
     public void sendCandidatureNotification(String clientEmail, String livreurNom, String annonceTitle) {
         try {
             String subject = "Nouvelle candidature reçue pour : " + annonceTitle;
@@ -156,7 +168,7 @@ public class EmailService {
         }
     }
 
-    @Async
+    @Async("mailExecutor")
     public void sendCandidaturePartielleNotification(String clientEmail, String livreurNom, String annonceTitle, String segment, String entrepot) {
         try {
             String subject = "🚚 Nouvelle candidature partielle - " + annonceTitle;
@@ -189,7 +201,7 @@ public class EmailService {
         }
     }
 
-    @Async
+    @Async("mailExecutor")
     public void sendSegment2Notification(String livreurEmail, String annonceTitle, String entrepotVille) {
         try {
             String subject = "🚚 Segment 1 terminé - Vous pouvez démarrer !";
@@ -223,7 +235,7 @@ public class EmailService {
         }
     }
 
-    @Async
+    @Async("mailExecutor")
     public void sendDeliveryCode(String destinataireEmail, String code, String annonceTitle) {
         try {
             String subject = "Code de validation livraison - " + annonceTitle;
@@ -250,7 +262,7 @@ public class EmailService {
         }
     }
 
-    @Async
+    @Async("mailExecutor")
     public void sendDeliveryOTP(String destinataireEmail, String otp, String annonceTitle) {
         try {
             String subject = "Code OTP livraison - " + annonceTitle;
@@ -32,6 +32,12 @@ public class EvaluationService {
     @Autowired
     private PrixCalculService prixCalculService;
 
+    @Autowired
+    private RatingSummaryService ratingSummaryService;
+
+    @Autowired
+    private ClassementPrestatairesService classementPrestatairesService;
+
     @Transactional
     public Map<String, Object> creerEvaluation(Long candidatureId, Map<String, Object> evaluationData) {
         Optional<Candidature> candidatureOpt = candidatureRepository.findById(candidatureId);
@@ -71,6 +77,8 @@ public class EvaluationService {
         evaluation.setDateEvaluation(LocalDateTime.now());
         
         evaluation = evaluationRepository.save(evaluation);
+        ratingSummaryService.ajouterEvaluation(evaluation);
+        classementPrestatairesService.enregistrerEvaluation(evaluation.getPrestataire(), noteGlobale);
         
         Map<String, Object> paiementResult = null;
         try {
@@ -112,47 +120,42 @@ public class EvaluationService {
     }
 
     public Map<String, Object> getStatistiquesPrestataire(Integer prestataireId) {
+        RatingSummary resume = ratingSummaryService.getResume(prestataireId).orElseGet(RatingSummary::new);
+        return formaterStatistiques(resume);
+    }
+
+    /**
+     * Mettre en forme les agrégats d'un prestataire (même format que les anciennes requêtes AVG/COUNT)
+     */
+    public Map<String, Object> formaterStatistiques(RatingSummary resume) {
         Map<String, Object> stats = new HashMap<>();
-    
-        Double noteMoyenne = evaluationRepository.getNoteMoyenneByPrestataire(prestataireId);
-        stats.put("noteMoyenne", noteMoyenne != null ? Math.round(noteMoyenne * 10.0) / 10.0 : 0.0);
+        long totalEvaluations = resume.getNombreEvaluations();
         
-        Long totalEvaluations = evaluationRepository.countEvaluationsByPrestataire(prestataireId);
-        stats.put("totalEvaluations", totalEvaluations != null ? totalEvaluations : 0L);
+        stats.put("noteMoyenne", arrondir(resume.getNoteMoyenne()));
+        stats.put("totalEvaluations", totalEvaluations);
+        stats.put("noteQualite", arrondir(resume.getNoteMoyenneQualite()));
+        stats.put("noteDelais", arrondir(resume.getNoteMoyenneDelais()));
+        stats.put("noteCommunication", arrondir(resume.getNoteMoyenneCommunication()));
+        stats.put("noteProfessionnalisme", arrondir(resume.getNoteMoyenneProfessionnalisme()));
         
-        Object[] notesCriteres = evaluationRepository.getNotesMoyennesCriteresByPrestataire(prestataireId);
-        if (notesCriteres != null && notesCriteres.length == 4) {
-            stats.put("noteQualite", notesCriteres[0] != null ? Math.round((Double)notesCriteres[0] * 10.0) / 10.0 : 0.0);
-            stats.put("noteDelais", notesCriteres[1] != null ? Math.round((Double)notesCriteres[1] * 10.0) / 10.0 : 0.0);
-            stats.put("noteCommunication", notesCriteres[2] != null ? Math.round((Double)notesCriteres[2] * 10.0) / 10.0 : 0.0);
-            stats.put("noteProfessionnalisme", notesCriteres[3] != null ? Math.round((Double)notesCriteres[3] * 10.0) / 10.0 : 0.0);
-        } else {
-            stats.put("noteQualite", 0.0);
-            stats.put("noteDelais", 0.0);
-            stats.put("noteCommunication", 0.0);
-            stats.put("noteProfessionnalisme", 0.0);
-        }
-        
-        List<Object[]> repartitionNotes = evaluationRepository.getStatistiquesNotesGlobalesByPrestataire(prestataireId);
         Map<Integer, Long> repartition = new HashMap<>();
         for (int i = 1; i <= 5; i++) {
-            repartition.put(i, 0L);
-        }
-        for (Object[] row : repartitionNotes) {
-            Integer note = (Integer) row[0];
-            Long count = (Long) row[1];
-            repartition.put(note, count);
+            repartition.put(i, resume.getNombreNote(i));
         }
         stats.put("repartitionNotes", repartition);
         
         long evaluationsPositives = repartition.get(4) + repartition.get(5);
         double pourcentagePositif = totalEvaluations > 0 ? 
             (double) evaluationsPositives / totalEvaluations * 100 : 0.0;
-        stats.put("pourcentagePositif", Math.round(pourcentagePositif * 10.0) / 10.0);
+        stats.put("pourcentagePositif", arrondir(pourcentagePositif));
         
         return stats;
     }
 
+    private double arrondir(double valeur) {
+        return Math.round(valeur * 10.0) / 10.0;
+    }
+
     public List<Map<String, Object>> getDernieresEvaluationsAvecCommentaires(Integer prestataireId, int limit) {
         List<EvaluationMission> evaluations = evaluationRepository
             .findEvaluationsWithCommentsByPrestataire(prestataireId);
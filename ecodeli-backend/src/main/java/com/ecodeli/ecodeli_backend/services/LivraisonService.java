@@ -1,6 +1,7 @@
 package com.ecodeli.ecodeli_backend.services;
 
 import com.ecodeli.ecodeli_backend.exceptions.ResourceNotFoundException;
+import com.ecodeli.ecodeli_backend.metriques.jfr.TransitionLivraisonEvent;
 import com.ecodeli.ecodeli_backend.models.Livraison;
 import com.ecodeli.ecodeli_backend.models.Livreur;
 import com.ecodeli.ecodeli_backend.models.Annonce;
@@ -10,10 +11,13 @@ import com.ecodeli.ecodeli_backend.repositories.UtilisateurRepository;
 import com.ecodeli.ecodeli_backend.repositories.AnnonceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.function.BiFunction;
 
 @Service
 public class LivraisonService {
@@ -39,30 +43,17 @@ public class LivraisonService {
     private final Random random = new Random();
 
     public List<Livraison> getLivraisonsByLivreur(Integer livreurId) {
-        return livraisonRepository.findAll().stream()
-            .filter(livraison -> {
-                if (livraison.getTypeLivraison() == Livraison.TypeLivraison.DIRECTE) {
-                    return livraison.getAnnonce() != null &&
-                           livraison.getAnnonce().getLivreur() != null &&
-                           livraison.getAnnonce().getLivreur().getIdUtilisateur().equals(livreurId);
-                }
-
-                if (livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE) {
-                    return (livraison.getLivreurSegment1() != null &&
-                            livraison.getLivreurSegment1().getIdUtilisateur().equals(livreurId)) ||
-                           (livraison.getLivreurSegment2() != null &&
-                            livraison.getLivreurSegment2().getIdUtilisateur().equals(livreurId));
-                }
-
-                return false;
-            })
-            .toList();
+        List<Livraison> livraisons = new ArrayList<>(livraisonRepository.findDirectesByLivreur(livreurId));
+        livraisons.addAll(livraisonRepository.findPartiellesByLivreur(livreurId));
+        return livraisons;
     }
 
     public void startLivraison(Integer livraisonId, Integer livreurId) {
-        Livraison livraison = livraisonRepository.findById(livraisonId)
-            .orElseThrow(() -> new ResourceNotFoundException("Livraison non trouvée"));
+        avecEvenement("startLivraison", livraisonId, livreurId,
+            (livraison, evenement) -> demarrerLivraison(livraison, livreurId));
+    }
 
+    private Livraison demarrerLivraison(Livraison livraison, Integer livreurId) {
         if (!canStartLivraison(livraison, livreurId)) {
             throw new RuntimeException("Vous ne pouvez pas démarrer cette livraison pour le moment");
         }
@@ -94,13 +85,15 @@ public class LivraisonService {
             }
         }
 
-        livraisonRepository.save(livraison);
+        return livraisonRepository.save(livraison);
     }
 
     public void completeLivraison(Integer livraisonId, Integer livreurId) {
-        Livraison livraison = livraisonRepository.findById(livraisonId)
-            .orElseThrow(() -> new ResourceNotFoundException("Livraison non trouvée"));
+        avecEvenement("completeLivraison", livraisonId, livreurId,
+            (livraison, evenement) -> terminerLivraison(livraison, livreurId));
+    }
 
+    private Livraison terminerLivraison(Livraison livraison, Integer livreurId) {
         if (livraison.getTypeLivraison() == Livraison.TypeLivraison.DIRECTE) {
             if (livraison.getStatut() != Livraison.StatutLivraison.EN_COURS) {
                 throw new RuntimeException("Cette livraison ne peut pas être terminée");
@@ -137,13 +130,15 @@ public class LivraisonService {
             }
         }
 
-        livraisonRepository.save(livraison);
+        return livraisonRepository.save(livraison);
     }
 
     public boolean validateOTP(Integer livraisonId, String otp) {
-        Livraison livraison = livraisonRepository.findById(livraisonId)
-            .orElseThrow(() -> new ResourceNotFoundException("Livraison non trouvée"));
+        return avecEvenement("validateOTP", livraisonId, null,
+            (livraison, evenement) -> validerOtp(livraison, otp, evenement));
+    }
 
+    private boolean validerOtp(Livraison livraison, String otp, TransitionLivraisonEvent evenement) {
         if (livraison.getStatut() != Livraison.StatutLivraison.ARRIVED) {
             throw new RuntimeException("Cette livraison n'est pas en attente de validation OTP");
         }
@@ -152,6 +147,7 @@ public class LivraisonService {
             !livraison.getOtpCode().equals(otp) ||
             livraison.getOtpTimestamp() == null ||
             LocalDateTime.now().isAfter(livraison.getOtpTimestamp().plusMinutes(5))) {
+            evenement.echec("Code OTP invalide ou expiré");
             return false;
         }
 
@@ -270,14 +266,17 @@ public class LivraisonService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Livraison> getAllLivraisons() {
         return livraisonRepository.findAll();
     }
 
     public Livraison updateStatutLivraison(Integer livraisonId, Livraison.StatutLivraison nouveauStatut) {
-        Livraison livraison = livraisonRepository.findById(livraisonId)
-            .orElseThrow(() -> new ResourceNotFoundException("Livraison non trouvée"));
+        return avecEvenement("updateStatutLivraison", livraisonId, null,
+            (livraison, evenement) -> changerStatut(livraison, nouveauStatut));
+    }
 
+    private Livraison changerStatut(Livraison livraison, Livraison.StatutLivraison nouveauStatut) {
         if (!isValidStatusTransition(livraison.getStatut(), nouveauStatut)) {
             throw new RuntimeException("Transition de statut invalide de " +
                                      livraison.getStatut() + " vers " + nouveauStatut);
@@ -320,14 +319,37 @@ public class LivraisonService {
     }
 
     public Livraison annulerLivraison(Integer livraisonId) {
-        Livraison livraison = livraisonRepository.findById(livraisonId)
-            .orElseThrow(() -> new ResourceNotFoundException("Livraison non trouvée"));
+        return avecEvenement("annulerLivraison", livraisonId, null, (livraison, evenement) -> annuler(livraison));
+    }
 
+    private Livraison annuler(Livraison livraison) {
         if (livraison.getStatut() == Livraison.StatutLivraison.TERMINEE) {
             throw new RuntimeException("Impossible d'annuler une livraison terminée");
         }
 
-        return updateStatutLivraison(livraisonId, Livraison.StatutLivraison.ANNULEE);
+        return changerStatut(livraison, Livraison.StatutLivraison.ANNULEE);
+    }
+
+    /**
+     * Exécuter une transition dans un événement JFR (un seul par appel public) : livraison chargée,
+     * statut avant et après, ou erreur
+     */
+    private <T> T avecEvenement(String operation, Integer livraisonId, Integer livreurId,
+                                BiFunction<Livraison, TransitionLivraisonEvent, T> transition) {
+        TransitionLivraisonEvent evenement = new TransitionLivraisonEvent(operation, livraisonId, livreurId);
+        try {
+            Livraison livraison = livraisonRepository.findById(livraisonId)
+                .orElseThrow(() -> new ResourceNotFoundException("Livraison non trouvée"));
+            evenement.statutAvant(livraison.getStatut());
+            T resultat = transition.apply(livraison, evenement);
+            evenement.fin(livraison.getStatut());
+            return resultat;
+        } catch (RuntimeException e) {
+            evenement.echec(e.getMessage());
+            throw e;
+        } finally {
+            evenement.commit();
+        }
     }
 
     private boolean isValidStatusTransition(Livraison.StatutLivraison currentStatus,
@@ -1,8 +1,16 @@
 package com.ecodeli.ecodeli_backend.services;
 
+import com.ecodeli.ecodeli_backend.dto.response.HistoriqueTransactionsResponse;
+import com.ecodeli.ecodeli_backend.dto.response.HistoriqueTransactionsResponse.Curseur;
+import com.ecodeli.ecodeli_backend.metriques.MetriquesMetier;
+import com.ecodeli.ecodeli_backend.metriques.MetriquesMetier.TypePaiement;
+import com.ecodeli.ecodeli_backend.metriques.jfr.ReglementPaiementEvent;
 import com.ecodeli.ecodeli_backend.models.*;
 import com.ecodeli.ecodeli_backend.repositories.*;
+import com.ecodeli.ecodeli_backend.services.reference.GenerateurReference;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,12 +37,28 @@ public class PaiementFictifService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private DepenseClientService depenseClientService;
+
+    @Autowired
+    private ReleveMensuelService releveMensuelService;
+
+    @Autowired
+    private GenerateurReference generateurReference;
+
+    @Autowired
+    private MetriquesMetier metriquesMetier;
+
+    private static final int LIMITE_HISTORIQUE_MAX = 200;
+
     private static final BigDecimal TAUX_COMMISSION = new BigDecimal("0.05");
 
 
     @Transactional
     public Map<String, Object> simulerPaiementMission(Long candidatureId, BigDecimal montantTotal) {
         Map<String, Object> result = new HashMap<>();
+        long debut = System.nanoTime();
+        ReglementPaiementEvent evenement = new ReglementPaiementEvent(TypePaiement.MISSION, candidatureId, montantTotal);
         
         try {
             Thread.sleep(1500);
@@ -61,18 +85,21 @@ public class PaiementFictifService {
             transaction.setStatutTransaction(TransactionPortefeuille.StatutTransaction.EFFECTUE);
             transaction.setDateTransaction(LocalDateTime.now());
             transaction.setDateTraitement(LocalDateTime.now());
-            transaction.setReferenceExterne(
-                TransactionPortefeuille.genererReference(
-                    TransactionPortefeuille.TypeTransaction.CREDIT_MISSION,
-                    prestataire.getIdUtilisateur().longValue()
-                )
-            );
+            transaction.setReferenceExterne(generateurReference.nouvelleReference(
+                TransactionPortefeuille.prefixeReference(TransactionPortefeuille.TypeTransaction.CREDIT_MISSION)));
             
             String descriptionMission = candidature.getDemandeService() != null ? 
                 candidature.getDemandeService().getTitre() : "Mission";
             transaction.setDescription("Mission validée - " + descriptionMission);
             
             transaction = transactionRepository.save(transaction);
+            releveMensuelService.ajouterTransaction(transaction);
+            
+            if (candidature.getDemandeService() != null && candidature.getDemandeService().getClient() != null) {
+                depenseClientService.ajouterPaiement(
+                    candidature.getDemandeService().getClient().getIdUtilisateur(),
+                    montantPrestataire.add(commissionEcodeli));
+            }
             
             portefeuille.crediterMission(montantPrestataire);
             portefeuille = portefeuilleRepository.save(portefeuille);
@@ -98,6 +125,8 @@ public class PaiementFictifService {
             result.put("error", e.getMessage());
         }
         
+        metriquesMetier.paiement(TypePaiement.MISSION, Boolean.TRUE.equals(result.get("success")), montantTotal, debut);
+        evenement.terminer(result);
         return result;
     }
 
@@ -105,6 +134,8 @@ public class PaiementFictifService {
     @Transactional
     public Map<String, Object> simulerRetraitPrestataire(Integer prestataireId, BigDecimal montantRetrait, String iban) {
         Map<String, Object> result = new HashMap<>();
+        long debut = System.nanoTime();
+        ReglementPaiementEvent evenement = new ReglementPaiementEvent(TypePaiement.RETRAIT, prestataireId, montantRetrait);
         
         try {
             Thread.sleep(2500);
@@ -128,15 +159,12 @@ public class PaiementFictifService {
             transaction.setDateTransaction(LocalDateTime.now());
             transaction.setDateTraitement(LocalDateTime.now());
             transaction.setIbanDestinataire(iban);
-            transaction.setReferenceExterne(
-                TransactionPortefeuille.genererReference(
-                    TransactionPortefeuille.TypeTransaction.RETRAIT_PRESTATAIRE,
-                    prestataireId.longValue()
-                )
-            );
+            transaction.setReferenceExterne(generateurReference.nouvelleReference(
+                TransactionPortefeuille.prefixeReference(TransactionPortefeuille.TypeTransaction.RETRAIT_PRESTATAIRE)));
             transaction.setDescription("Retrait vers " + masquerIban(iban));
             
             transaction = transactionRepository.save(transaction);
+            releveMensuelService.ajouterTransaction(transaction);
             
             BigDecimal ancienSolde = portefeuille.getSoldeDisponible();
             portefeuille.debiterRetrait(montantRetrait);
@@ -164,6 +192,8 @@ public class PaiementFictifService {
             result.put("error", e.getMessage());
         }
         
+        metriquesMetier.paiement(TypePaiement.RETRAIT, Boolean.TRUE.equals(result.get("success")), montantRetrait, debut);
+        evenement.terminer(result);
         return result;
     }
 
@@ -188,13 +218,27 @@ public class PaiementFictifService {
     }
 
 
-    public List<Map<String, Object>> getHistoriqueTransactions(Integer prestataireId, int limit) {
-        List<TransactionPortefeuille> transactions = transactionRepository.findByPrestataireIdOrderByDateDesc(prestataireId);
-        
-        return transactions.stream()
-            .limit(limit > 0 ? limit : transactions.size())
-            .map(this::formatTransactionForResponse)
-            .toList();
+    /**
+     * Page de l'historique ; la page suivante se demande avec le curseur renvoyé
+     * (absent sur la dernière page)
+     */
+    public HistoriqueTransactionsResponse getHistoriqueTransactions(Integer prestataireId, int limit, Curseur curseur) {
+        int taille = limit > 0 ? Math.min(limit, LIMITE_HISTORIQUE_MAX) : LIMITE_HISTORIQUE_MAX;
+        // Une ligne de plus que demandé : indique s'il reste une page après celle-ci
+        Pageable page = PageRequest.of(0, taille + 1);
+        List<TransactionPortefeuille> transactions = curseur == null
+            ? transactionRepository.findPageByPrestataire(prestataireId, page)
+            : transactionRepository.findPageByPrestataireApres(prestataireId, curseur.date(), curseur.id(), page);
+
+        String curseurSuivant = null;
+        if (transactions.size() > taille) {
+            transactions = transactions.subList(0, taille);
+            TransactionPortefeuille derniere = transactions.get(taille - 1);
+            curseurSuivant = new Curseur(derniere.getDateTransaction(), derniere.getIdTransaction()).toString();
+        }
+        return new HistoriqueTransactionsResponse(
+            transactions.stream().map(this::formatTransactionForResponse).toList(),
+            curseurSuivant);
     }
 
 
@@ -216,37 +260,11 @@ public class PaiementFictifService {
 
     public Map<String, Object> getTotalDepenseClient(Integer clientId) {
         try {
-            List<Candidature> candidaturesPaye = candidatureRepository.findAll().stream()
-                .filter(c -> c.getDemandeService() != null &&
-                           c.getDemandeService().getClient() != null &&
-                           c.getDemandeService().getClient().getIdUtilisateur().equals(clientId) &&
-                           c.getStatut() == Candidature.StatutCandidature.ACCEPTEE)
-                .toList();
-            
-            BigDecimal totalServices = BigDecimal.ZERO;
-            int nombreServicesPayes = 0;
-            
-            for (Candidature candidature : candidaturesPaye) {
-                List<TransactionPortefeuille> transactions = transactionRepository.findByCandidatureId(candidature.getIdCandidature());
-                
-                for (TransactionPortefeuille transaction : transactions) {
-                    if (transaction.getTypeTransaction() == TransactionPortefeuille.TypeTransaction.CREDIT_MISSION &&
-                        transaction.getStatutTransaction() == TransactionPortefeuille.StatutTransaction.EFFECTUE) {
-                        
-                        BigDecimal montantTotal = transaction.getMontant().add(
-                            transaction.getCommissionEcodeli() != null ? transaction.getCommissionEcodeli() : BigDecimal.ZERO
-                        );
-                        
-                        totalServices = totalServices.add(montantTotal);
-                        nombreServicesPayes++;
-                        break;
-                    }
-                }
-            }
+            DepenseClient depense = depenseClientService.getDepense(clientId);
             
             Map<String, Object> result = new HashMap<>();
-            result.put("totalServicesPayes", totalServices);
-            result.put("nombreServicesPayes", nombreServicesPayes);
+            result.put("totalServicesPayes", depense.getTotalServicesPayes());
+            result.put("nombreServicesPayes", depense.getNombreServicesPayes());
             result.put("clientId", clientId);
             
             return result;
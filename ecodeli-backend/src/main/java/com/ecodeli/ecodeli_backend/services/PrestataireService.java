@@ -2,8 +2,10 @@ package com.ecodeli.ecodeli_backend.services;
 
 import com.ecodeli.ecodeli_backend.models.*;
 import com.ecodeli.ecodeli_backend.repositories.*;
+import com.ecodeli.ecodeli_backend.services.documents.TraitementJustificatifService;
+import com.ecodeli.ecodeli_backend.services.storage.FichierStocke;
+import com.ecodeli.ecodeli_backend.services.storage.StockageFichierService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -12,11 +14,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -39,8 +38,11 @@ public class PrestataireService {
     @Autowired
     private JustificatifRepository justificatifRepository;
 
-    @Value("${app.upload.dir:uploads/justificatifs}")
-    private String uploadDir;
+    @Autowired
+    private StockageFichierService stockageFichierService;
+
+    @Autowired
+    private TraitementJustificatifService traitementJustificatifService;
 
 
     public Prestataire getPrestataireById(Integer id) {
@@ -257,29 +259,31 @@ public class PrestataireService {
         try {
             validateFile(file);
             
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-            
             String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String fileName = "justificatif_" + prestataireId + "_" + System.currentTimeMillis() + extension;
             
-            Path filePath = uploadPath.resolve(fileName);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            FichierStocke fichier;
+            try (InputStream contenu = file.getInputStream()) {
+                fichier = stockageFichierService.stocker(contenu);
+            }
             
             Justificatif justificatif = new Justificatif();
-            justificatif.setCheminFichier(filePath.toString());
+            justificatif.setCheminFichier(fichier.empreinteSha256());
+            justificatif.setEmpreinteSha256(fichier.empreinteSha256());
+            justificatif.setTailleOctets(fichier.tailleOctets());
+            justificatif.setTypeMime(getTypeMime(originalFilename));
+            justificatif.setNomFichierOriginal(originalFilename);
             justificatif.setTypeJustificatif(description != null ? description : originalFilename);
-            justificatif.setCommentaire("Fichier: " + originalFilename + " (Taille: " + file.getSize() + " bytes)");
+            justificatif.setCommentaire("Fichier: " + originalFilename + " (Taille: " + fichier.tailleOctets() + " bytes)");
             justificatif.setValidationParAd(false);
             justificatif.setDateDebut(LocalDateTime.now());
             
             Prestataire prestataire = getPrestataireById(prestataireId);
             justificatif.setUtilisateur(prestataire);
             
-            return justificatifRepository.save(justificatif);
+            justificatif = justificatifRepository.save(justificatif);
+            traitementJustificatifService.soumettre(justificatif);
+            
+            return justificatif;
             
         } catch (IOException e) {
             throw new RuntimeException("Erreur lors de l'upload du fichier: " + e.getMessage());
@@ -287,6 +291,18 @@ public class PrestataireService {
     }
 
 
+    public Justificatif getJustificatifPrestataire(Integer prestataireId, Integer justificatifId) {
+        Justificatif justificatif = justificatifRepository.findById(justificatifId)
+            .orElseThrow(() -> new RuntimeException("Justificatif non trouvé"));
+        
+        if (!justificatif.getUtilisateur().getIdUtilisateur().equals(prestataireId)) {
+            throw new RuntimeException("Accès non autorisé à ce justificatif");
+        }
+        
+        return justificatif;
+    }
+
+
     public List<Justificatif> getJustificatifs(Integer prestataireId) {
         return justificatifRepository.findByPrestataire(prestataireId);
     }
@@ -305,14 +321,18 @@ public class PrestataireService {
             throw new RuntimeException("Accès non autorisé à ce justificatif");
         }
         
-        try {
-            Path filePath = Paths.get(justificatif.getCheminFichier());
-            Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            System.err.println("Erreur lors de la suppression du fichier: " + e.getMessage());
-        }
-        
+        traitementJustificatifService.supprimerAnalyse(justificatif.getIdJustificatif());
         justificatifRepository.delete(justificatif);
+        
+        // Le contenu peut être partagé par d'autres justificatifs (déduplication)
+        String empreinte = justificatif.getEmpreinteSha256();
+        if (empreinte != null && justificatifRepository.countByEmpreinteSha256(empreinte) == 0) {
+            try {
+                stockageFichierService.supprimer(empreinte);
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la suppression du fichier: " + e.getMessage());
+            }
+        }
     }
 
 
@@ -364,6 +384,18 @@ public class PrestataireService {
     }
 
 
+    private String getTypeMime(String nomFichier) {
+        String nom = nomFichier.toLowerCase();
+        if (nom.endsWith(".pdf")) {
+            return "application/pdf";
+        }
+        if (nom.endsWith(".png")) {
+            return "image/png";
+        }
+        return "image/jpeg";
+    }
+
+
     private void validateFile(MultipartFile file) {
         if (file.isEmpty()) {
             throw new RuntimeException("Le fichier est vide");
@@ -0,0 +1,63 @@
+package com.ecodeli.ecodeli_backend.services;
+
+import com.ecodeli.ecodeli_backend.models.EvaluationMission;
+import com.ecodeli.ecodeli_backend.models.RatingSummary;
+import com.ecodeli.ecodeli_backend.repositories.RatingSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maintien de la table RATING_SUMMARY : initialisée par la migration V7, incrémentée dans la
+ * transaction de chaque nouvelle évaluation, reconstruite entièrement par ReconstructionAgregatsJob.
+ */
+@Service
+@RequiredArgsConstructor
+public class RatingSummaryService {
+
+    private final RatingSummaryRepository ratingSummaryRepository;
+
+    /**
+     * Doit être appelé dans la transaction qui enregistre l'évaluation
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ajouterEvaluation(EvaluationMission evaluation) {
+        ratingSummaryRepository.ajouterEvaluation(
+            evaluation.getPrestataire().getIdUtilisateur(),
+            evaluation.getNoteGlobale(),
+            evaluation.getNoteQualite(),
+            evaluation.getNoteDelais(),
+            evaluation.getNoteCommunication(),
+            evaluation.getNoteProfessionnalisme());
+    }
+
+    public Optional<RatingSummary> getResume(Integer prestataireId) {
+        return ratingSummaryRepository.findById(prestataireId);
+    }
+
+    /**
+     * Résumés de plusieurs prestataires en une requête, indexés par prestataire
+     */
+    public Map<Integer, RatingSummary> getResumes(Collection<Integer> prestataireIds) {
+        Map<Integer, RatingSummary> resumes = new HashMap<>();
+        ratingSummaryRepository.findAllById(prestataireIds)
+            .forEach(resume -> resumes.put(resume.getIdPrestataire(), resume));
+        return resumes;
+    }
+
+    /**
+     * Reconstruire les agrégats à partir des évaluations existantes (idempotent)
+     */
+    @Transactional
+    public int recalculer() {
+        int prestataires = ratingSummaryRepository.recalculerTout();
+        ratingSummaryRepository.supprimerOrphelins();
+        return prestataires;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecodeli.ecodeli_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Reconstruction ponctuelle des agrégats tenus à jour dans les transactions métier, après des
+ * insertions faites hors de l'application (scripts de seed, reprise de données). Les données
+ * antérieures aux agrégats sont reprises par la migration V7, pas par ce job.
+ *
+ * Désactivée par défaut : le recalcul complet écrase les compteurs incrémentés par le trafic.
+ * Chaque agrégat s'active par sa propriété, le temps d'un démarrage. Le recalcul s'exécute avant
+ * que l'application passe prête (readiness), y compris avec le préchauffage différé, et avant le
+ * préchauffage lui-même (classement chargé à partir des agrégats reconstruits).
+ */
+@Component
+@Slf4j
+public class ReconstructionAgregatsJob {
+
+    private final Environment environment;
+    private final List<Agregat> agregats;
+
+    public ReconstructionAgregatsJob(Environment environment, RatingSummaryService ratingSummaryService,
+                                     DepenseClientService depenseClientService,
+                                     ReleveMensuelService releveMensuelService) {
+        this.environment = environment;
+        this.agregats = List.of(
+            new Agregat("app.rating-summary.backfill-on-startup", "agrégats d'évaluations",
+                ratingSummaryService::recalculer),
+            new Agregat("app.depense-client.backfill-on-startup", "totaux de dépenses clients",
+                depenseClientService::recalculer),
+            new Agregat("app.releve-mensuel.backfill-on-startup", "totaux mensuels des portefeuilles",
+                releveMensuelService::recalculer));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void reconstruire() {
+        for (Agregat agregat : agregats) {
+            if (!environment.getProperty(agregat.propriete(), Boolean.class, false)) {
+                continue;
+            }
+            try {
+                int lignes = agregat.recalcul().getAsInt();
+                log.info("Reconstruction des {} : {} ligne(s)", agregat.libelle(), lignes);
+            } catch (Exception e) {
+                log.error("Échec de la reconstruction des {}: {}", agregat.libelle(), e.getMessage());
+            }
+        }
+    }
+
+    private record Agregat(String propriete, String libelle, IntSupplier recalcul) {
+    }
+}
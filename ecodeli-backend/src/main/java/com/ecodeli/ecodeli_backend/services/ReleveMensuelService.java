@@ -0,0 +1,119 @@
+package com.ecodeli.ecodeli_backend.services;
+
+import com.ecodeli.ecodeli_backend.models.TransactionMensuelle;
+import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille;
+import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille.StatutTransaction;
+import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille.TypeTransaction;
+import com.ecodeli.ecodeli_backend.repositories.TransactionMensuelleRepository;
+import com.ecodeli.ecodeli_backend.repositories.TransactionPortefeuilleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Relevés mensuels des portefeuilles prestataires, construits à partir de TRANSACTION_MENSUELLE :
+ * un relevé coûte quelques lignes lues par clé primaire, quel que soit le volume de transactions.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReleveMensuelService {
+
+    private static final int MOIS_MAX = 120;
+
+    private final TransactionMensuelleRepository transactionMensuelleRepository;
+    private final TransactionPortefeuilleRepository transactionRepository;
+
+    public record LigneReleve(TypeTransaction type, String libelle, long nombreTransactions,
+                              BigDecimal montant, BigDecimal commissionEcodeli, BigDecimal frais) {
+    }
+
+    public record ReleveMensuel(String mois, List<LigneReleve> lignes, BigDecimal totalCredits,
+                                BigDecimal totalDebits, BigDecimal soldeMois) {
+    }
+
+    /**
+     * Doit être appelé dans la transaction qui enregistre la transaction du portefeuille
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ajouterTransaction(TransactionPortefeuille transaction) {
+        if (transaction.getStatutTransaction() != StatutTransaction.EFFECTUE || transaction.getIdPrestataire() == null) {
+            return;
+        }
+        transactionMensuelleRepository.ajouterTransaction(
+            transaction.getIdPrestataire(),
+            transaction.getDateTransaction().toLocalDate().withDayOfMonth(1),
+            transaction.getTypeTransaction().name(),
+            transaction.getMontant(),
+            valeur(transaction.getCommissionEcodeli()),
+            valeur(transaction.getFraisTransaction()));
+    }
+
+    public ReleveMensuel getReleve(Integer prestataireId, YearMonth mois) {
+        List<ReleveMensuel> releves = getReleves(prestataireId, mois, mois);
+        return releves.isEmpty() ? construireReleve(mois, List.of()) : releves.get(0);
+    }
+
+    /**
+     * Relevés de chaque mois de la période, du plus récent au plus ancien (mois sans transaction omis)
+     */
+    public List<ReleveMensuel> getReleves(Integer prestataireId, YearMonth debut, YearMonth fin) {
+        if (debut.isAfter(fin)) {
+            throw new IllegalArgumentException("Le mois de début doit précéder le mois de fin");
+        }
+        if (debut.plusMonths(MOIS_MAX).isBefore(fin)) {
+            throw new IllegalArgumentException("Période limitée à " + MOIS_MAX + " mois");
+        }
+
+        Map<YearMonth, List<TransactionMensuelle>> parMois = new LinkedHashMap<>();
+        for (TransactionMensuelle totaux : transactionMensuelleRepository.findByPrestataireEtPeriode(
+                prestataireId, debut.atDay(1), fin.atDay(1))) {
+            parMois.computeIfAbsent(YearMonth.from(totaux.getMois()), m -> new ArrayList<>()).add(totaux);
+        }
+
+        List<ReleveMensuel> releves = new ArrayList<>(parMois.size());
+        parMois.forEach((mois, totaux) -> releves.add(construireReleve(mois, totaux)));
+        return releves;
+    }
+
+    /**
+     * Reconstruire les totaux mensuels à partir des transactions existantes (idempotent)
+     */
+    @Transactional
+    public int recalculer() {
+        transactionRepository.renseignerPrestataireManquant();
+        int lignes = transactionMensuelleRepository.recalculerTout();
+        transactionMensuelleRepository.supprimerOrphelins();
+        return lignes;
+    }
+
+    private ReleveMensuel construireReleve(YearMonth mois, List<TransactionMensuelle> totaux) {
+        List<LigneReleve> lignes = new ArrayList<>(totaux.size());
+        BigDecimal credits = BigDecimal.ZERO;
+        BigDecimal debits = BigDecimal.ZERO;
+        for (TransactionMensuelle t : totaux) {
+            TypeTransaction type = t.getTypeTransaction();
+            lignes.add(new LigneReleve(type, type.getLabel(), t.getNombreTransactions(),
+                t.getTotalMontant(), t.getTotalCommission(), t.getTotalFrais()));
+            if (type == TypeTransaction.CREDIT_MISSION || type == TypeTransaction.BONUS
+                    || type == TypeTransaction.REMBOURSEMENT) {
+                credits = credits.add(t.getTotalMontant());
+            } else if (type == TypeTransaction.RETRAIT_PRESTATAIRE || type == TypeTransaction.FRAIS_SERVICE) {
+                debits = debits.add(t.getTotalMontant());
+            }
+        }
+        return new ReleveMensuel(mois.toString(), lignes, credits, debits, credits.subtract(debits));
+    }
+
+    private static BigDecimal valeur(BigDecimal montant) {
+        return montant != null ? montant : BigDecimal.ZERO;
+    }
+}
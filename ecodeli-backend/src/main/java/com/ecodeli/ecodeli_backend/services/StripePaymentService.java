@@ -1,16 +1,24 @@
 package com.ecodeli.ecodeli_backend.services;
 
 import com.ecodeli.ecodeli_backend.models.Annonce;
+import com.ecodeli.ecodeli_backend.models.Paiement;
+import com.ecodeli.ecodeli_backend.models.Paiement.StatutPaiement;
 import com.ecodeli.ecodeli_backend.repositories.AnnonceRepository;
-import com.stripe.exception.StripeException;
-import com.stripe.model.PaymentIntent;
-import com.stripe.param.PaymentIntentCreateParams;
+import com.ecodeli.ecodeli_backend.repositories.PaiementRepository;
+import com.ecodeli.ecodeli_backend.services.reference.GenerateurReference;
+import com.ecodeli.ecodeli_backend.services.stripe.PasserelleStripe;
+import com.ecodeli.ecodeli_backend.services.stripe.PasserelleStripe.IntentionPaiement;
+import com.ecodeli.ecodeli_backend.services.stripe.StripeWebhookService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -18,52 +26,110 @@ import java.util.Map;
 public class StripePaymentService {
 
     private final AnnonceRepository annonceRepository;
+    private final PaiementRepository paiementRepository;
+    private final GenerateurReference generateurReference;
+    private final PasserelleStripe passerelleStripe;
+    private final StripeWebhookService stripeWebhookService;
 
-    public Map<String, Object> createPaymentIntent(Integer annonceId) {
-        try {
-            Annonce annonce = annonceRepository.findById(annonceId)
-                .orElseThrow(() -> new RuntimeException("Annonce non trouvée"));
+    private static final long INTERVALLE_ATTENTE_MS = 200;
 
-            BigDecimal prixEuros = annonce.getPrixUnitaire();
-            long montantCentimes = prixEuros.multiply(BigDecimal.valueOf(100)).longValue();
+    // Délai laissé au webhook, qui suit souvent de peu la confirmation côté navigateur
+    @Value("${stripe.confirmation.attente-webhook:3s}")
+    private Duration attenteWebhook;
 
-            PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                .setAmount(montantCentimes)
-                .setCurrency("eur")
-                .putMetadata("annonceId", annonceId.toString())
-                .putMetadata("clientId", annonce.getExpediteur().getIdUtilisateur().toString())
-                .setDescription("Paiement pour livraison: " + annonce.getTitre())
-                .build();
+    // Interroger Stripe si le webhook n'est toujours pas reçu après ce délai
+    @Value("${stripe.confirmation.repli-api:true}")
+    private boolean repliApi;
 
-            PaymentIntent paymentIntent = PaymentIntent.create(params);
+    public Map<String, Object> createPaymentIntent(Integer annonceId) {
+        Annonce annonce = annonceRepository.findById(annonceId)
+            .orElseThrow(() -> new RuntimeException("Annonce non trouvée"));
 
-            log.info("PaymentIntent créé: {} pour annonce: {}", paymentIntent.getId(), annonceId);
+        BigDecimal prixEuros = annonce.getPrixUnitaire();
+        long montantCentimes = prixEuros.multiply(BigDecimal.valueOf(100)).longValue();
+        String reference = generateurReference.nouvelleReference("PI");
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("clientSecret", paymentIntent.getClientSecret());
-            response.put("paymentIntentId", paymentIntent.getId());
-            response.put("amount", montantCentimes);
-            return response;
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("annonceId", annonceId.toString());
+        metadata.put("clientId", annonce.getExpediteur().getIdUtilisateur().toString());
+        metadata.put("reference", reference);
 
-        } catch (StripeException e) {
+        IntentionPaiement intention;
+        try {
+            intention = passerelleStripe.creer(montantCentimes, "eur",
+                "Paiement pour livraison: " + annonce.getTitre(), metadata);
+        } catch (RuntimeException e) {
             log.error("Erreur lors de la création du PaymentIntent: {}", e.getMessage());
             throw new RuntimeException("Erreur lors de la création du paiement: " + e.getMessage());
         }
+
+        stripeWebhookService.enregistrerStatut(intention.id(), intention.statut(), intention.echec(), montantCentimes,
+            metadata, null);
+
+        log.info("PaymentIntent créé: {} ({}) pour annonce: {}", intention.id(), reference, annonceId);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("clientSecret", intention.clientSecret());
+        response.put("paymentIntentId", intention.id());
+        response.put("amount", montantCentimes);
+        response.put("reference", reference);
+        return response;
     }
 
+    /**
+     * Statut lu dans PAIEMENT (tenu à jour par les webhooks). Un paiement encore en attente est relu
+     * pendant stripe.confirmation.attente-webhook, puis Stripe est interrogé (via le bulkhead de la
+     * passerelle) si aucun état définitif n'a été reçu
+     */
     public boolean confirmPayment(String paymentIntentId, Integer annonceId) {
+        Optional<Paiement> paiement = paiementRepository.findByStripePaymentIntentId(paymentIntentId);
+        if (paiement.isPresent() && paiement.get().getAnnonce() != null
+                && !paiement.get().getAnnonce().getIdAnnonce().equals(annonceId)) {
+            log.warn("PaymentIntent {} présenté pour une autre annonce ({})", paymentIntentId, annonceId);
+            return false;
+        }
+        if (paiement.isPresent()) {
+            paiement = attendreWebhook(paiement.get());
+        }
+        if (paiement.isPresent() && paiement.get().getStatut() != StatutPaiement.PENDING) {
+            return confirme(paiement.get(), annonceId);
+        }
+        if (!repliApi) {
+            return false;
+        }
+
         try {
-            PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentIntentId);
+            IntentionPaiement intention = passerelleStripe.recuperer(paymentIntentId);
+            Paiement misAJour = stripeWebhookService.enregistrerStatut(intention.id(), intention.statut(),
+                intention.echec(), intention.montantCentimes(), intention.metadata(), null);
+            return confirme(misAJour, annonceId);
+        } catch (RuntimeException e) {
+            log.error("Erreur lors de la confirmation du paiement: {}", e.getMessage());
+            return false;
+        }
+    }
 
-            if ("succeeded".equals(paymentIntent.getStatus())) {
-                log.info("Paiement confirmé: {} pour annonce: {}", paymentIntentId, annonceId);
-                return true;
+    private Optional<Paiement> attendreWebhook(Paiement paiement) {
+        long limite = System.nanoTime() + attenteWebhook.toNanos();
+        Optional<Paiement> courant = Optional.of(paiement);
+        while (courant.isPresent() && courant.get().getStatut() == StatutPaiement.PENDING
+                && System.nanoTime() < limite) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(INTERVALLE_ATTENTE_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
+            courant = paiementRepository.findByStripePaymentIntentId(paiement.getStripePaymentIntentId());
+        }
+        return courant;
+    }
 
-            return false;
-        } catch (StripeException e) {
-            log.error("Erreur lors de la confirmation du paiement: {}", e.getMessage());
-            return false;
+    private boolean confirme(Paiement paiement, Integer annonceId) {
+        if (paiement.getStatut() == StatutPaiement.COMPLETED) {
+            log.info("Paiement confirmé: {} pour annonce: {}", paiement.getStripePaymentIntentId(), annonceId);
+            return true;
         }
+        return false;
     }
 }
@@ -5,6 +5,7 @@ import com.ecodeli.ecodeli_backend.models.Utilisateur;
 import com.ecodeli.ecodeli_backend.repositories.UtilisateurRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,6 +15,7 @@ public class UserService {
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
+    @Transactional(readOnly = true)
     public List<Utilisateur> getAllUsers() {
         return utilisateurRepository.findAll();
     }
@@ -59,6 +61,7 @@ public class UserService {
         utilisateurRepository.deleteById(id);
     }
 
+    @Transactional(readOnly = true)
     public Long getUserCountByType(String type) {
         return (long) utilisateurRepository.findAll().size();
     }
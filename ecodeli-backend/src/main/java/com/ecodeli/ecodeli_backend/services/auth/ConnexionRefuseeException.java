@@ -0,0 +1,27 @@
+package com.ecodeli.ecodeli_backend.services.auth;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Tentative de connexion refusée avant la vérification du mot de passe
+ * (trop de tentatives, ou pool de hachage saturé)
+ */
+public class ConnexionRefuseeException extends RuntimeException {
+
+    private final HttpStatus statut;
+    private final long reessayerApresSecondes;
+
+    public ConnexionRefuseeException(HttpStatus statut, String message, long reessayerApresSecondes) {
+        super(message);
+        this.statut = statut;
+        this.reessayerApresSecondes = reessayerApresSecondes;
+    }
+
+    public HttpStatus getStatut() {
+        return statut;
+    }
+
+    public long getReessayerApresSecondes() {
+        return reessayerApresSecondes;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecodeli.ecodeli_backend.services.auth;
+
+/**
+ * Jeton de rafraîchissement inconnu, expiré, révoqué ou déjà utilisé
+ */
+public class JetonInvalideException extends RuntimeException {
+
+    public JetonInvalideException(String message) {
+        super(message);
+    }
+}
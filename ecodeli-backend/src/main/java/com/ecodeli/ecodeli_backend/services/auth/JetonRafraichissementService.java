@@ -0,0 +1,128 @@
+package com.ecodeli.ecodeli_backend.services.auth;
+
+import com.ecodeli.ecodeli_backend.models.JetonRafraichissement;
+import com.ecodeli.ecodeli_backend.repositories.JetonRafraichissementRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Émission et rotation des jetons de rafraîchissement. Le renouvellement ne fait qu'un SHA-256
+ * et deux requêtes indexées : il remplace la connexion BCrypt à chaque expiration du JWT.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JetonRafraichissementService {
+
+    private static final SecureRandom ALEATOIRE = new SecureRandom();
+
+    private final JetonRafraichissementRepository jetonRepository;
+
+    @Value("${jwt.refresh.duree-jours:14}")
+    private long dureeJours;
+
+    // Deux onglets qui renouvellent en même temps : le second échoue sans révoquer la famille
+    @Value("${jwt.refresh.tolerance-secondes:10}")
+    private long toleranceSecondes;
+
+    public record Rotation(Integer idUtilisateur, String jeton) {
+    }
+
+    /**
+     * Ouvrir une nouvelle famille de jetons (connexion ou inscription)
+     */
+    @Transactional
+    public String emettre(Integer idUtilisateur) {
+        return creer(idUtilisateur, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Échanger un jeton valide contre le suivant de sa famille
+     */
+    @Transactional(noRollbackFor = JetonInvalideException.class)
+    public Rotation renouveler(String jeton) {
+        JetonRafraichissement actuel = jetonRepository.findByEmpreinte(empreinte(jeton))
+            .orElseThrow(() -> new JetonInvalideException("Jeton de rafraîchissement inconnu"));
+        LocalDateTime maintenant = LocalDateTime.now();
+
+        if (actuel.isRevoque()) {
+            throw new JetonInvalideException("Jeton de rafraîchissement révoqué");
+        }
+        if (actuel.getDateUtilisation() != null) {
+            signalerReutilisation(actuel, maintenant);
+        }
+        if (actuel.getDateExpiration().isBefore(maintenant)) {
+            throw new JetonInvalideException("Jeton de rafraîchissement expiré");
+        }
+        if (jetonRepository.consommer(actuel.getIdJeton(), maintenant) == 0) {
+            throw new JetonInvalideException("Jeton de rafraîchissement déjà renouvelé");
+        }
+
+        return new Rotation(actuel.getIdUtilisateur(), creer(actuel.getIdUtilisateur(), actuel.getFamille()));
+    }
+
+    /**
+     * Déconnexion : révoquer la famille du jeton
+     */
+    @Transactional
+    public void revoquer(String jeton) {
+        jetonRepository.findByEmpreinte(empreinte(jeton))
+            .ifPresent(j -> jetonRepository.revoquerFamille(j.getFamille()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval-ms:3600000}")
+    public void purger() {
+        int supprimes = jetonRepository.supprimerExpires(LocalDateTime.now());
+        if (supprimes > 0) {
+            log.info("{} jeton(s) de rafraîchissement expiré(s) supprimé(s)", supprimes);
+        }
+    }
+
+    private void signalerReutilisation(JetonRafraichissement actuel, LocalDateTime maintenant) {
+        if (actuel.getDateUtilisation().plusSeconds(toleranceSecondes).isAfter(maintenant)) {
+            throw new JetonInvalideException("Jeton de rafraîchissement déjà renouvelé");
+        }
+        int revoques = jetonRepository.revoquerFamille(actuel.getFamille());
+        log.warn("Réutilisation d'un jeton de rafraîchissement de l'utilisateur {} : {} jeton(s) révoqué(s)",
+            actuel.getIdUtilisateur(), revoques);
+        throw new JetonInvalideException("Jeton de rafraîchissement déjà utilisé, session révoquée");
+    }
+
+    private String creer(Integer idUtilisateur, String famille) {
+        byte[] octets = new byte[32];
+        ALEATOIRE.nextBytes(octets);
+        String jeton = Base64.getUrlEncoder().withoutPadding().encodeToString(octets);
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        JetonRafraichissement nouveau = new JetonRafraichissement();
+        nouveau.setEmpreinte(empreinte(jeton));
+        nouveau.setFamille(famille);
+        nouveau.setIdUtilisateur(idUtilisateur);
+        nouveau.setDateCreation(maintenant);
+        nouveau.setDateExpiration(maintenant.plusDays(dureeJours));
+        jetonRepository.save(nouveau);
+        return jeton;
+    }
+
+    private static String empreinte(String jeton) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(jeton.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
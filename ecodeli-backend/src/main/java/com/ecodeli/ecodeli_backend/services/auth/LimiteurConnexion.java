@@ -0,0 +1,165 @@
+package com.ecodeli.ecodeli_backend.services.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limitation des tentatives de connexion par seau à jetons, par adresse IP et par compte.
+ * Les seaux sont répartis sur des segments verrouillés séparément (compteurs « striped ») :
+ * deux connexions simultanées ne se bloquent que si leurs clés tombent dans le même segment.
+ * Chaque segment garde au plus N seaux, les moins récemment utilisés sont oubliés.
+ * Verrous ReentrantLock plutôt que synchronized : un thread virtuel en attente d'un moniteur
+ * reste épinglé à son porteur (Java 21), il est ici simplement suspendu.
+ */
+@Component
+public class LimiteurConnexion {
+
+    private static final int NOMBRE_SEGMENTS = 64;
+
+    private final Table parIp;
+    private final Table parCompte;
+    private final Counter refusesIp;
+    private final Counter refusesCompte;
+
+    public LimiteurConnexion(MeterRegistry registry,
+                             @Value("${app.connexion.ip.capacite:30}") int capaciteIp,
+                             @Value("${app.connexion.ip.recharge-par-minute:15}") double rechargeIp,
+                             @Value("${app.connexion.compte.capacite:5}") int capaciteCompte,
+                             @Value("${app.connexion.compte.recharge-par-minute:2}") double rechargeCompte,
+                             @Value("${app.connexion.entrees-max:100000}") int entreesMax) {
+        this.parIp = new Table(capaciteIp, rechargeIp, entreesMax);
+        this.parCompte = new Table(capaciteCompte, rechargeCompte, entreesMax);
+        this.refusesIp = Counter.builder("ecodeli.auth.connexions.limitees").tag("portee", "ip")
+            .description("Tentatives de connexion refusées par la limitation").register(registry);
+        this.refusesCompte = Counter.builder("ecodeli.auth.connexions.limitees").tag("portee", "compte")
+            .description("Tentatives de connexion refusées par la limitation").register(registry);
+        Gauge.builder("ecodeli.cache.entrees", parIp, Table::taille)
+            .description("Entrées des caches en mémoire").tag("cache", "limitation_ip").register(registry);
+        Gauge.builder("ecodeli.cache.entrees", parCompte, Table::taille)
+            .description("Entrées des caches en mémoire").tag("cache", "limitation_compte").register(registry);
+    }
+
+    /**
+     * Consommer un jeton pour l'IP puis pour le compte ; ConnexionRefuseeException (429) si l'un est vide
+     */
+    public void verifier(String ip, String email) {
+        long attenteIp = parIp.consommer(ip);
+        if (attenteIp > 0) {
+            refusesIp.increment();
+            throw new ConnexionRefuseeException(HttpStatus.TOO_MANY_REQUESTS,
+                "Trop de tentatives de connexion depuis cette adresse", attenteIp);
+        }
+        long attenteCompte = parCompte.consommer(cleCompte(email));
+        if (attenteCompte > 0) {
+            refusesCompte.increment();
+            throw new ConnexionRefuseeException(HttpStatus.TOO_MANY_REQUESTS,
+                "Trop de tentatives de connexion pour ce compte", attenteCompte);
+        }
+    }
+
+    /**
+     * Connexion réussie : le compte retrouve toutes ses tentatives
+     */
+    public void reinitialiserCompte(String email) {
+        parCompte.oublier(cleCompte(email));
+    }
+
+    private static String cleCompte(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Seau {
+        private double jetons;
+        private long derniereRecharge;
+    }
+
+    private static final class Segment extends LinkedHashMap<String, Seau> {
+        private final ReentrantLock verrou = new ReentrantLock();
+        private final int tailleMax;
+
+        private Segment(int tailleMax) {
+            super(16, 0.75f, true);
+            this.tailleMax = tailleMax;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Seau> eldest) {
+            return size() > tailleMax;
+        }
+    }
+
+    private static final class Table {
+        private final double capacite;
+        private final double jetonsParNano;
+        private final Segment[] segments = new Segment[NOMBRE_SEGMENTS];
+
+        private Table(int capacite, double rechargeParMinute, int entreesMax) {
+            this.capacite = capacite;
+            this.jetonsParNano = rechargeParMinute / 60_000_000_000.0;
+            for (int i = 0; i < NOMBRE_SEGMENTS; i++) {
+                segments[i] = new Segment(Math.max(1, entreesMax / NOMBRE_SEGMENTS));
+            }
+        }
+
+        /**
+         * 0 si un jeton a été pris, sinon le nombre de secondes avant le prochain jeton
+         */
+        private long consommer(String cle) {
+            Segment segment = segment(cle);
+            long maintenant = System.nanoTime();
+            segment.verrou.lock();
+            try {
+                Seau seau = segment.get(cle);
+                if (seau == null) {
+                    seau = new Seau();
+                    seau.jetons = capacite;
+                    seau.derniereRecharge = maintenant;
+                    segment.put(cle, seau);
+                } else {
+                    seau.jetons = Math.min(capacite, seau.jetons + (maintenant - seau.derniereRecharge) * jetonsParNano);
+                    seau.derniereRecharge = maintenant;
+                }
+                if (seau.jetons >= 1) {
+                    seau.jetons -= 1;
+                    return 0;
+                }
+                return Math.max(1, (long) Math.ceil((1 - seau.jetons) / jetonsParNano / 1_000_000_000.0));
+            } finally {
+                segment.verrou.unlock();
+            }
+        }
+
+        // Lecture sans verrou : valeur indicative pour la jauge
+        private double taille() {
+            long total = 0;
+            for (Segment segment : segments) {
+                total += segment.size();
+            }
+            return total;
+        }
+
+        private void oublier(String cle) {
+            Segment segment = segment(cle);
+            segment.verrou.lock();
+            try {
+                segment.remove(cle);
+            } finally {
+                segment.verrou.unlock();
+            }
+        }
+
+        private Segment segment(String cle) {
+            int h = cle.hashCode();
+            return segments[(h ^ (h >>> 16)) & (NOMBRE_SEGMENTS - 1)];
+        }
+    }
+}
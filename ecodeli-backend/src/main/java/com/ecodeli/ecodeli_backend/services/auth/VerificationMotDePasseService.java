@@ -0,0 +1,199 @@
+package com.ecodeli.ecodeli_backend.services.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Vérification des mots de passe hors des threads Tomcat, sur le pool borné
+ * hachageMotDePasseExecutor.
+ *
+ * Les connexions réussies sont mises en cache quelques minutes (HMAC du mot de passe avec une
+ * clé tirée au démarrage, jamais le mot de passe lui-même) : une reconnexion avec le même mot de
+ * passe ne refait pas de BCrypt. L'entrée est ignorée dès que le hash stocké change.
+ *
+ * Un compte inconnu ne coûte pas de BCrypt : la réponse est retardée de la durée moyenne
+ * d'une vérification réelle, pour que le temps de réponse ne révèle pas si l'email existe.
+ */
+@Service
+@Slf4j
+public class VerificationMotDePasseService {
+
+    private static final double POIDS_MOYENNE = 0.1;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor executor;
+    private final byte[] cleCache = new byte[32];
+    private final Map<Integer, EntreeCache> cache = new ConcurrentHashMap<>();
+
+    private final Timer dureeHachage;
+    private final Timer attenteHachage;
+    private final Counter cacheTrouve;
+    private final Counter cacheManque;
+
+    // Moyenne glissante d'une vérification complète (file + BCrypt)
+    private volatile long dureeMoyenneNanos;
+
+    @Value("${app.connexion.hachage.attente-max-ms:5000}")
+    private long attenteMaxMs;
+
+    @Value("${app.connexion.cache.duree-secondes:300}")
+    private long dureeCacheSecondes;
+
+    @Value("${app.connexion.cache.taille-max:10000}")
+    private int tailleMaxCache;
+
+    private record EntreeCache(String hashStocke, byte[] empreinte, long expiration) {
+    }
+
+    public VerificationMotDePasseService(PasswordEncoder passwordEncoder,
+                                         @Qualifier("hachageMotDePasseExecutor") ThreadPoolTaskExecutor executor,
+                                         MeterRegistry registry) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        new SecureRandom().nextBytes(cleCache);
+
+        this.dureeHachage = Timer.builder("ecodeli.auth.hachage.duree")
+            .description("Durée d'un hachage BCrypt").register(registry);
+        this.attenteHachage = Timer.builder("ecodeli.auth.hachage.attente")
+            .description("Attente dans la file du pool de hachage").register(registry);
+        this.cacheTrouve = Counter.builder("ecodeli.auth.cache").tag("resultat", "trouve").register(registry);
+        this.cacheManque = Counter.builder("ecodeli.auth.cache").tag("resultat", "manque").register(registry);
+        Gauge.builder("ecodeli.auth.hachage.file", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+            .description("Hachages en attente").register(registry);
+        Gauge.builder("ecodeli.auth.hachage.actifs", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .description("Hachages en cours").register(registry);
+        Gauge.builder("ecodeli.cache.entrees", cache, Map::size)
+            .description("Entrées des caches en mémoire").tag("cache", "connexions").register(registry);
+
+        // Premiers hachages plus lents (JIT) : on garde le plus rapide de quelques essais
+        long plusRapide = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long debut = System.nanoTime();
+            passwordEncoder.encode("calibrage");
+            plusRapide = Math.min(plusRapide, System.nanoTime() - debut);
+        }
+        this.dureeMoyenneNanos = plusRapide;
+    }
+
+    /**
+     * Vérifier le mot de passe d'un compte existant
+     */
+    public boolean verifier(Integer idUtilisateur, String motDePasse, String hashStocke) {
+        if (hashStocke == null) {
+            rejeterCompteInconnu();
+            return false;
+        }
+        byte[] empreinte = empreinte(motDePasse);
+        EntreeCache entree = cache.get(idUtilisateur);
+        if (entree != null && entree.expiration() > System.currentTimeMillis()
+                && entree.hashStocke().equals(hashStocke)
+                && MessageDigest.isEqual(entree.empreinte(), empreinte)) {
+            cacheTrouve.increment();
+            return true;
+        }
+        cacheManque.increment();
+
+        long debut = System.nanoTime();
+        boolean valide = executerHachage(() -> passwordEncoder.matches(motDePasse, hashStocke));
+        long duree = System.nanoTime() - debut;
+        dureeMoyenneNanos = (long) (dureeMoyenneNanos * (1 - POIDS_MOYENNE) + duree * POIDS_MOYENNE);
+
+        if (valide) {
+            mettreEnCache(idUtilisateur, hashStocke, empreinte);
+        } else {
+            cache.remove(idUtilisateur);
+        }
+        return valide;
+    }
+
+    /**
+     * Hacher un nouveau mot de passe (inscription) sur le même pool borné
+     */
+    public String encoder(String motDePasse) {
+        return executerHachage(() -> passwordEncoder.encode(motDePasse));
+    }
+
+    /**
+     * Compte inconnu : attendre sans calculer la durée d'une vérification réelle
+     */
+    public void rejeterCompteInconnu() {
+        LockSupport.parkNanos(dureeMoyenneNanos);
+    }
+
+    private <T> T executerHachage(Supplier<T> hachage) {
+        long soumission = System.nanoTime();
+        CompletableFuture<T> resultat;
+        try {
+            resultat = CompletableFuture.supplyAsync(() -> {
+                attenteHachage.record(System.nanoTime() - soumission, TimeUnit.NANOSECONDS);
+                return dureeHachage.record(hachage);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Pool de hachage saturé, tentative de connexion refusée");
+            throw new ConnexionRefuseeException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Service de connexion surchargé, réessayez dans quelques instants", 1);
+        }
+
+        try {
+            return resultat.get(attenteMaxMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            resultat.cancel(false);
+            throw new ConnexionRefuseeException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Service de connexion surchargé, réessayez dans quelques instants", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Vérification du mot de passe interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec du hachage du mot de passe", e.getCause());
+        }
+    }
+
+    private void mettreEnCache(Integer idUtilisateur, String hashStocke, byte[] empreinte) {
+        if (dureeCacheSecondes <= 0) {
+            return;
+        }
+        long maintenant = System.currentTimeMillis();
+        if (cache.size() >= tailleMaxCache) {
+            cache.values().removeIf(e -> e.expiration() <= maintenant);
+            if (cache.size() >= tailleMaxCache) {
+                return;
+            }
+        }
+        cache.put(idUtilisateur, new EntreeCache(hashStocke, empreinte, maintenant + dureeCacheSecondes * 1000));
+    }
+
+    private byte[] empreinte(String motDePasse) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(cleCache, "HmacSHA256"));
+            return mac.doFinal(motDePasse.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponible", e);
+        }
+    }
+}
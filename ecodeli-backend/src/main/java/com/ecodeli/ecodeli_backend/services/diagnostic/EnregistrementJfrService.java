@@ -0,0 +1,153 @@
+package com.ecodeli.ecodeli_backend.services.diagnostic;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Un seul enregistrement Java Flight Recorder à la fois, démarré et vidé depuis l'administration.
+ * Les événements EcoDeli (catégorie « EcoDeli ») sont inclus quelle que soit la configuration choisie.
+ */
+@Service
+@Slf4j
+public class EnregistrementJfrService {
+
+    private static final Set<String> CONFIGURATIONS = Set.of("default", "profile");
+
+    @Value("${app.diagnostic.jfr.duree-max-minutes:30}")
+    private long dureeMaxMinutes;
+
+    @Value("${app.diagnostic.jfr.taille-max-mo:100}")
+    private long tailleMaxMo;
+
+    // Le vidage écrit sur disque : pas de synchronized pour ne pas bloquer un thread virtuel
+    private final ReentrantLock verrou = new ReentrantLock();
+
+    private Recording enregistrement;
+
+    public record Etat(boolean actif, Long id, String nom, Instant debut, Duration dureeMax, long tailleOctets) {
+
+        static Etat inactif() {
+            return new Etat(false, null, null, null, null, 0);
+        }
+    }
+
+    /**
+     * Démarrer un enregistrement borné en durée et en taille ; IllegalStateException s'il y en a déjà un
+     */
+    public Etat demarrer(String configuration, Long dureeMinutes) {
+        if (!CONFIGURATIONS.contains(configuration)) {
+            throw new IllegalArgumentException("Configuration JFR inconnue: " + configuration + " (default ou profile)");
+        }
+        Duration duree = Duration.ofMinutes(dureeMinutes != null && dureeMinutes > 0
+            ? Math.min(dureeMinutes, dureeMaxMinutes) : dureeMaxMinutes);
+
+        verrou.lock();
+        try {
+            if (enCours()) {
+                throw new IllegalStateException("Un enregistrement JFR est déjà en cours");
+            }
+            Recording nouveau = new Recording(Configuration.getConfiguration(configuration));
+            nouveau.setName("ecodeli-" + configuration);
+            nouveau.setDuration(duree);
+            nouveau.setMaxSize(tailleMaxMo * 1024 * 1024);
+            nouveau.setToDisk(true);
+            nouveau.start();
+            fermer();
+            enregistrement = nouveau;
+            log.info("Enregistrement JFR {} démarré ({}, {} min)", nouveau.getId(), configuration, duree.toMinutes());
+            return etat();
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Configuration JFR illisible: " + configuration, e);
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public Etat etat() {
+        verrou.lock();
+        try {
+            if (enregistrement == null || enregistrement.getState() == RecordingState.CLOSED) {
+                return Etat.inactif();
+            }
+            return new Etat(enregistrement.getState() == RecordingState.RUNNING, enregistrement.getId(),
+                enregistrement.getName(), enregistrement.getStartTime(), enregistrement.getDuration(),
+                enregistrement.getSize());
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Copier le contenu actuel de l'enregistrement (en cours ou terminé) ; l'enregistrement continue
+     */
+    public void vider(OutputStream sortie) throws IOException {
+        Path fichier = Files.createTempFile("ecodeli-", ".jfr");
+        try {
+            verrou.lock();
+            try {
+                if (enregistrement == null || enregistrement.getState() == RecordingState.CLOSED) {
+                    throw new IllegalStateException("Aucun enregistrement JFR à vider");
+                }
+                enregistrement.dump(fichier);
+            } finally {
+                verrou.unlock();
+            }
+            Files.copy(fichier, sortie);
+        } finally {
+            try {
+                Files.deleteIfExists(fichier);
+            } catch (IOException e) {
+                log.warn("Fichier JFR temporaire non supprimé: {}", fichier);
+            }
+        }
+    }
+
+    /**
+     * Arrêter et libérer l'enregistrement ; false s'il n'y en avait pas
+     */
+    public boolean arreter() {
+        verrou.lock();
+        try {
+            if (enregistrement == null) {
+                return false;
+            }
+            fermer();
+            return true;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    @PreDestroy
+    void liberer() {
+        arreter();
+    }
+
+    private boolean enCours() {
+        return enregistrement != null
+            && (enregistrement.getState() == RecordingState.RUNNING || enregistrement.getState() == RecordingState.DELAYED);
+    }
+
+    private void fermer() {
+        if (enregistrement != null) {
+            log.info("Enregistrement JFR {} fermé", enregistrement.getId());
+            enregistrement.close();
+            enregistrement = null;
+        }
+    }
+}
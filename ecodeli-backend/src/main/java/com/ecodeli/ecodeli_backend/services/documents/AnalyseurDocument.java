@@ -0,0 +1,169 @@
+package com.ecodeli.ecodeli_backend.services.documents;
+
+import com.ecodeli.ecodeli_backend.services.storage.StockageFichierService;
+import lombok.RequiredArgsConstructor;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Analyse d'un fichier stocké : type réel (octets magiques), nombre de pages,
+ * texte des premières pages et miniature JPEG basse résolution.
+ * Les PDF sont ouverts avec un cache disque et les images sont sous-échantillonnées
+ * à la lecture, pour que la mémoire utilisée ne dépende pas de la taille du fichier.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnalyseurDocument {
+
+    public static final String TYPE_PDF = "application/pdf";
+    public static final String TYPE_PNG = "image/png";
+    public static final String TYPE_JPEG = "image/jpeg";
+
+    private static final int LARGEUR_MINIATURE = 200;
+    private static final int PAGES_TEXTE_MAX = 5;
+    private static final int LONGUEUR_TEXTE_MAX = 10_000;
+
+    private final StockageFichierService stockageFichierService;
+
+    public record ResultatAnalyse(String typeDetecte, Integer nombrePages, String texte, byte[] miniature) {
+    }
+
+    public ResultatAnalyse analyser(String empreinte) throws IOException {
+        String type = detecterType(empreinte);
+        if (type == null) {
+            return new ResultatAnalyse(null, null, null, null);
+        }
+        if (TYPE_PDF.equals(type)) {
+            return analyserPdf(empreinte);
+        }
+        return new ResultatAnalyse(type, 1, null, miniatureImage(empreinte));
+    }
+
+    private String detecterType(String empreinte) throws IOException {
+        byte[] entete;
+        try (InputStream entree = stockageFichierService.lire(empreinte)) {
+            entete = entree.readNBytes(8);
+        }
+        if (entete.length >= 5 && entete[0] == '%' && entete[1] == 'P' && entete[2] == 'D'
+                && entete[3] == 'F' && entete[4] == '-') {
+            return TYPE_PDF;
+        }
+        if (entete.length >= 8 && (entete[0] & 0xFF) == 0x89 && entete[1] == 'P' && entete[2] == 'N'
+                && entete[3] == 'G' && entete[4] == 0x0D && entete[5] == 0x0A && entete[6] == 0x1A
+                && entete[7] == 0x0A) {
+            return TYPE_PNG;
+        }
+        if (entete.length >= 3 && (entete[0] & 0xFF) == 0xFF && (entete[1] & 0xFF) == 0xD8
+                && (entete[2] & 0xFF) == 0xFF) {
+            return TYPE_JPEG;
+        }
+        return null;
+    }
+
+    private ResultatAnalyse analyserPdf(String empreinte) throws IOException {
+        Optional<Path> chemin = stockageFichierService.cheminLocal(empreinte);
+        Path temporaire = null;
+        try {
+            File fichier;
+            if (chemin.isPresent()) {
+                fichier = chemin.get().toFile();
+            } else {
+                temporaire = Files.createTempFile("analyse_", ".pdf");
+                try (InputStream entree = stockageFichierService.lire(empreinte)) {
+                    Files.copy(entree, temporaire, StandardCopyOption.REPLACE_EXISTING);
+                }
+                fichier = temporaire.toFile();
+            }
+
+            try (PDDocument document = Loader.loadPDF(fichier, IOUtils.createTempFileOnlyStreamCache())) {
+                int nombrePages = document.getNumberOfPages();
+
+                PDFTextStripper stripper = new PDFTextStripper();
+                stripper.setStartPage(1);
+                stripper.setEndPage(Math.min(nombrePages, PAGES_TEXTE_MAX));
+                String texte = stripper.getText(document).trim();
+                if (texte.length() > LONGUEUR_TEXTE_MAX) {
+                    texte = texte.substring(0, LONGUEUR_TEXTE_MAX);
+                }
+
+                byte[] miniature = null;
+                if (nombrePages > 0) {
+                    PDRectangle format = document.getPage(0).getMediaBox();
+                    float echelle = LARGEUR_MINIATURE / Math.max(format.getWidth(), 1f);
+                    BufferedImage image = new PDFRenderer(document).renderImage(0, echelle, ImageType.RGB);
+                    miniature = encoderJpeg(image);
+                }
+
+                return new ResultatAnalyse(TYPE_PDF, nombrePages, texte.isEmpty() ? null : texte, miniature);
+            }
+        } finally {
+            if (temporaire != null) {
+                Files.deleteIfExists(temporaire);
+            }
+        }
+    }
+
+    private byte[] miniatureImage(String empreinte) throws IOException {
+        try (InputStream entree = stockageFichierService.lire(empreinte);
+             ImageInputStream imageEntree = ImageIO.createImageInputStream(entree)) {
+            Iterator<ImageReader> lecteurs = ImageIO.getImageReaders(imageEntree);
+            if (!lecteurs.hasNext()) {
+                return null;
+            }
+            ImageReader lecteur = lecteurs.next();
+            try {
+                lecteur.setInput(imageEntree, true, true);
+                int sousEchantillonnage = Math.max(1, lecteur.getWidth(0) / LARGEUR_MINIATURE);
+                ImageReadParam parametres = lecteur.getDefaultReadParam();
+                parametres.setSourceSubsampling(sousEchantillonnage, sousEchantillonnage, 0, 0);
+                return encoderJpeg(lecteur.read(0, parametres));
+            } finally {
+                lecteur.dispose();
+            }
+        }
+    }
+
+    private byte[] encoderJpeg(BufferedImage source) throws IOException {
+        int largeur = Math.min(LARGEUR_MINIATURE, source.getWidth());
+        int hauteur = Math.max(1, Math.round(source.getHeight() * (largeur / (float) source.getWidth())));
+
+        BufferedImage miniature = new BufferedImage(largeur, hauteur, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = miniature.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, largeur, hauteur);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, largeur, hauteur, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        ImageIO.write(miniature, "jpg", sortie);
+        return sortie.toByteArray();
+    }
+}
@@ -0,0 +1,221 @@
+package com.ecodeli.ecodeli_backend.services.documents;
+
+import com.ecodeli.ecodeli_backend.models.AnalyseJustificatif;
+import com.ecodeli.ecodeli_backend.models.AnalyseJustificatif.StatutAnalyse;
+import com.ecodeli.ecodeli_backend.models.Justificatif;
+import com.ecodeli.ecodeli_backend.repositories.AnalyseJustificatifRepository;
+import com.ecodeli.ecodeli_backend.repositories.JustificatifRepository;
+import com.ecodeli.ecodeli_backend.services.storage.FichierStocke;
+import com.ecodeli.ecodeli_backend.services.storage.StockageFichierService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipeline asynchrone exécuté après l'upload d'un justificatif.
+ * Le suivi est persistant (AnalyseJustificatif) : si la file du pool est pleine ou si
+ * l'application redémarre, les analyses en attente sont reprises par la tâche planifiée.
+ */
+@Service
+@Slf4j
+public class TraitementJustificatifService implements MeterBinder {
+
+    private static final int DUREE_MAX_EN_COURS_MINUTES = 10;
+
+    private final AnalyseJustificatifRepository analyseRepository;
+    private final JustificatifRepository justificatifRepository;
+    private final AnalyseurDocument analyseurDocument;
+    private final StockageFichierService stockageFichierService;
+    private final ThreadPoolTaskExecutor executor;
+
+    // Justificatifs déjà dans la file, pour ne pas les soumettre deux fois
+    private final Set<Integer> enFile = ConcurrentHashMap.newKeySet();
+
+    // Analyses en attente en base, relevées à chaque passage de la reprise planifiée
+    private final AtomicLong aTraiter = new AtomicLong();
+
+    @Value("${app.documents.max-tentatives:3}")
+    private int maxTentatives;
+
+    public TraitementJustificatifService(AnalyseJustificatifRepository analyseRepository,
+                                         JustificatifRepository justificatifRepository,
+                                         AnalyseurDocument analyseurDocument,
+                                         StockageFichierService stockageFichierService,
+                                         @Qualifier("traitementDocumentsExecutor") ThreadPoolTaskExecutor executor) {
+        this.analyseRepository = analyseRepository;
+        this.justificatifRepository = justificatifRepository;
+        this.analyseurDocument = analyseurDocument;
+        this.stockageFichierService = stockageFichierService;
+        this.executor = executor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ecodeli.outbox.profondeur", aTraiter, AtomicLong::get)
+            .description("Travaux persistants en attente de traitement")
+            .tag("file", "analyses_justificatifs")
+            .register(registry);
+    }
+
+    /**
+     * Enregistrer l'analyse en attente et la planifier (après commit si une transaction est active)
+     */
+    public void soumettre(Justificatif justificatif) {
+        AnalyseJustificatif analyse = new AnalyseJustificatif();
+        analyse.setJustificatif(justificatif);
+        analyse.setStatut(StatutAnalyse.EN_ATTENTE);
+        analyseRepository.save(analyse);
+
+        Integer justificatifId = justificatif.getIdJustificatif();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    planifier(justificatifId);
+                }
+            });
+        } else {
+            planifier(justificatifId);
+        }
+    }
+
+    public Optional<AnalyseJustificatif> getAnalyse(Integer justificatifId) {
+        return analyseRepository.findByJustificatifIdJustificatif(justificatifId);
+    }
+
+    /**
+     * Supprimer l'analyse d'un justificatif et sa miniature si elle n'est plus partagée
+     */
+    public void supprimerAnalyse(Integer justificatifId) {
+        Optional<AnalyseJustificatif> analyse = analyseRepository.findByJustificatifIdJustificatif(justificatifId);
+        if (analyse.isEmpty()) {
+            return;
+        }
+        String miniature = analyse.get().getEmpreinteMiniature();
+        analyseRepository.deleteByJustificatifIdJustificatif(justificatifId);
+
+        if (miniature != null && analyseRepository.countByEmpreinteMiniature(miniature) == 0) {
+            try {
+                stockageFichierService.supprimer(miniature);
+            } catch (IOException e) {
+                log.warn("Suppression de la miniature {} impossible: {}", miniature, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.documents.reprise-interval-ms:60000}",
+               fixedDelayString = "${app.documents.reprise-interval-ms:60000}")
+    public void reprendreAnalysesEnAttente() {
+        aTraiter.set(analyseRepository.countATraiter());
+        int places = executor.getThreadPoolExecutor().getQueue().remainingCapacity();
+        if (places == 0) {
+            return;
+        }
+        List<Integer> justificatifIds = analyseRepository.findJustificatifsATraiter(
+            LocalDateTime.now().minusMinutes(DUREE_MAX_EN_COURS_MINUTES), maxTentatives, PageRequest.of(0, places));
+        justificatifIds.forEach(this::planifier);
+    }
+
+    private void planifier(Integer justificatifId) {
+        if (!enFile.add(justificatifId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    traiter(justificatifId);
+                } finally {
+                    enFile.remove(justificatifId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            enFile.remove(justificatifId);
+            log.info("File de traitement pleine, justificatif {} repris plus tard", justificatifId);
+        }
+    }
+
+    private void traiter(Integer justificatifId) {
+        Optional<AnalyseJustificatif> analyseOpt = analyseRepository.findByJustificatifIdJustificatif(justificatifId);
+        Optional<Justificatif> justificatifOpt = justificatifRepository.findById(justificatifId);
+        if (analyseOpt.isEmpty() || justificatifOpt.isEmpty()) {
+            return;
+        }
+
+        AnalyseJustificatif analyse = analyseOpt.get();
+        Justificatif justificatif = justificatifOpt.get();
+        if (analyse.getStatut() == StatutAnalyse.TERMINE || analyse.getStatut() == StatutAnalyse.REJETE
+                || justificatif.getEmpreinteSha256() == null) {
+            return;
+        }
+
+        analyse.setStatut(StatutAnalyse.EN_COURS);
+        analyse.setTentatives(analyse.getTentatives() + 1);
+        analyse.setDateTraitement(LocalDateTime.now());
+        analyse = analyseRepository.save(analyse);
+
+        try {
+            if (!copierAnalyseExistante(analyse, justificatif.getEmpreinteSha256())) {
+                appliquerResultat(analyse, analyseurDocument.analyser(justificatif.getEmpreinteSha256()));
+            }
+
+            boolean typeReconnu = analyse.getTypeDetecte() != null;
+            analyse.setTypeConforme(typeReconnu && analyse.getTypeDetecte().equals(justificatif.getTypeMime()));
+            analyse.setStatut(typeReconnu ? StatutAnalyse.TERMINE : StatutAnalyse.REJETE);
+            analyse.setMessageErreur(typeReconnu ? null : "Le contenu du fichier n'est ni un PDF, ni un PNG, ni un JPEG");
+        } catch (Exception e) {
+            log.warn("Échec de l'analyse du justificatif {} (tentative {}): {}",
+                justificatifId, analyse.getTentatives(), e.getMessage());
+            analyse.setStatut(analyse.getTentatives() >= maxTentatives ? StatutAnalyse.ECHEC : StatutAnalyse.EN_ATTENTE);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            analyse.setMessageErreur(message.length() > 500 ? message.substring(0, 500) : message);
+        }
+
+        analyse.setDateTraitement(LocalDateTime.now());
+        analyseRepository.save(analyse);
+    }
+
+    /**
+     * Un contenu identique a déjà été analysé : on réutilise le résultat
+     */
+    private boolean copierAnalyseExistante(AnalyseJustificatif analyse, String empreinte) {
+        List<AnalyseJustificatif> existantes = analyseRepository.findTermineesByEmpreinte(empreinte, PageRequest.of(0, 1));
+        if (existantes.isEmpty()) {
+            return false;
+        }
+        AnalyseJustificatif existante = existantes.get(0);
+        analyse.setTypeDetecte(existante.getTypeDetecte());
+        analyse.setNombrePages(existante.getNombrePages());
+        analyse.setTexteExtrait(existante.getTexteExtrait());
+        analyse.setEmpreinteMiniature(existante.getEmpreinteMiniature());
+        return true;
+    }
+
+    private void appliquerResultat(AnalyseJustificatif analyse, AnalyseurDocument.ResultatAnalyse resultat) throws IOException {
+        analyse.setTypeDetecte(resultat.typeDetecte());
+        analyse.setNombrePages(resultat.nombrePages());
+        analyse.setTexteExtrait(resultat.texte());
+        if (resultat.miniature() != null) {
+            FichierStocke miniature = stockageFichierService.stocker(new ByteArrayInputStream(resultat.miniature()));
+            analyse.setEmpreinteMiniature(miniature.empreinteSha256());
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.ecodeli.ecodeli_backend.services.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export en streaming des grandes tables (CSV ou NDJSON, éventuellement gzip).
+ * Les lignes sont lues par un curseur JDBC en avant seulement (fetch size borné, autocommit
+ * désactivé pour que PostgreSQL utilise un curseur serveur) et écrites directement dans la
+ * réponse : la mémoire utilisée ne dépend pas du nombre de lignes exportées.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    private static final int TAILLE_TAMPON = 64 * 1024;
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Corps de réponse écrit par le pool async MVC, une fois les en-têtes envoyés
+     */
+    public StreamingResponseBody flux(TypeExport type, FormatExport format, boolean gzip) {
+        return sortie -> {
+            try {
+                exporter(type, format, gzip, sortie);
+            } catch (IOException e) {
+                log.error("Export {} interrompu: {}", type.getCode(), e.getMessage());
+                throw e;
+            }
+        };
+    }
+
+    public String nomFichier(TypeExport type, FormatExport format, boolean gzip) {
+        return type.getCode() + "_" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+    }
+
+    /**
+     * Écrire toutes les lignes du type demandé dans le flux de sortie, qui n'est pas fermé
+     */
+    public long exporter(TypeExport type, FormatExport format, boolean gzip, OutputStream sortie) throws IOException {
+        long debut = System.currentTimeMillis();
+        GZIPOutputStream compression = gzip ? new GZIPOutputStream(sortie, TAILLE_TAMPON) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+            compression != null ? compression : sortie, StandardCharsets.UTF_8), TAILLE_TAMPON);
+
+        long lignes;
+        try (Connection connexion = dataSource.getConnection()) {
+            boolean autoCommit = connexion.getAutoCommit();
+            connexion.setAutoCommit(false);
+            connexion.setReadOnly(true);
+            try (PreparedStatement requete = connexion.prepareStatement(type.getRequete(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                requete.setFetchSize(fetchSize);
+                try (ResultSet resultats = requete.executeQuery()) {
+                    lignes = format == FormatExport.CSV
+                        ? ecrireCsv(type, resultats, writer)
+                        : ecrireNdjson(resultats, writer);
+                }
+            } finally {
+                connexion.rollback();
+                connexion.setReadOnly(false);
+                connexion.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Erreur de lecture pendant l'export " + type.getCode(), e);
+        }
+
+        writer.flush();
+        if (compression != null) {
+            compression.finish();
+        }
+        log.info("Export {} ({}{}) : {} ligne(s) en {} ms", type.getCode(), format.getExtension(),
+            gzip ? ", gzip" : "", lignes, System.currentTimeMillis() - debut);
+        return lignes;
+    }
+
+    private long ecrireCsv(TypeExport type, ResultSet resultats, Writer writer) throws SQLException, IOException {
+        ecrireLigneCsv(writer, type.getEntetes());
+        int colonnes = resultats.getMetaData().getColumnCount();
+        long lignes = 0;
+        while (resultats.next()) {
+            for (int i = 1; i <= colonnes; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                writer.write(escapeCsv(valeurCsv(resultats.getObject(i))));
+            }
+            writer.write('\n');
+            lignes++;
+        }
+        return lignes;
+    }
+
+    private long ecrireNdjson(ResultSet resultats, Writer writer) throws SQLException, IOException {
+        ResultSetMetaData meta = resultats.getMetaData();
+        int colonnes = meta.getColumnCount();
+        String[] noms = new String[colonnes + 1];
+        int[] types = new int[colonnes + 1];
+        for (int i = 1; i <= colonnes; i++) {
+            noms[i] = meta.getColumnLabel(i).toLowerCase();
+            types[i] = meta.getColumnType(i);
+        }
+
+        JsonFactory factory = objectMapper.getFactory();
+        long lignes = 0;
+        try (JsonGenerator json = factory.createGenerator(writer)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            json.setRootValueSeparator(null);
+            while (resultats.next()) {
+                json.writeStartObject();
+                for (int i = 1; i <= colonnes; i++) {
+                    json.writeFieldName(noms[i]);
+                    ecrireValeurJson(json, resultats, i, types[i]);
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+                lignes++;
+            }
+        }
+        return lignes;
+    }
+
+    private void ecrireValeurJson(JsonGenerator json, ResultSet resultats, int i, int type)
+            throws SQLException, IOException {
+        switch (type) {
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> {
+                LocalDateTime date = resultats.getObject(i, LocalDateTime.class);
+                if (date == null) json.writeNull(); else json.writeString(date.toString());
+            }
+            case Types.DATE -> {
+                LocalDate date = resultats.getObject(i, LocalDate.class);
+                if (date == null) json.writeNull(); else json.writeString(date.toString());
+            }
+            default -> {
+                Object valeur = resultats.getObject(i);
+                if (valeur == null) {
+                    json.writeNull();
+                } else if (valeur instanceof BigDecimal decimal) {
+                    json.writeNumber(decimal);
+                } else if (valeur instanceof Integer || valeur instanceof Long || valeur instanceof Short) {
+                    json.writeNumber(((Number) valeur).longValue());
+                } else if (valeur instanceof Number nombre) {
+                    json.writeNumber(nombre.doubleValue());
+                } else if (valeur instanceof Boolean booleen) {
+                    json.writeBoolean(booleen);
+                } else {
+                    json.writeString(valeur.toString());
+                }
+            }
+        }
+    }
+
+    private void ecrireLigneCsv(Writer writer, List<String> valeurs) throws IOException {
+        for (int i = 0; i < valeurs.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(valeurs.get(i)));
+        }
+        writer.write('\n');
+    }
+
+    private String valeurCsv(Object valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        if (valeur instanceof Boolean booleen) {
+            return booleen ? "Oui" : "Non";
+        }
+        if (valeur instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (valeur instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return valeur.toString();
+    }
+
+    private String escapeCsv(String valeur) {
+        if (valeur.indexOf(',') >= 0 || valeur.indexOf('"') >= 0
+                || valeur.indexOf('\n') >= 0 || valeur.indexOf('\r') >= 0) {
+            return "\"" + valeur.replace("\"", "\"\"") + "\"";
+        }
+        return valeur;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecodeli.ecodeli_backend.services.export;
+
+import java.util.Optional;
+
+public enum FormatExport {
+    CSV("csv", "text/csv; charset=UTF-8"),
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String extension;
+    private final String typeMime;
+
+    FormatExport(String extension, String typeMime) {
+        this.extension = extension;
+        this.typeMime = typeMime;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getTypeMime() {
+        return typeMime;
+    }
+
+    public static Optional<FormatExport> depuis(String valeur) {
+        for (FormatExport format : values()) {
+            if (format.extension.equalsIgnoreCase(valeur)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecodeli.ecodeli_backend.services.export;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Données exportables : requête SQL (lue en streaming, triée par clé primaire) et colonnes.
+ * Les alias SQL servent de clés NDJSON, les libellés d'en-têtes CSV.
+ * Les données sensibles (IBAN, codes de validation, mots de passe) ne sont jamais exportées.
+ */
+public enum TypeExport {
+    PRESTATAIRES("prestataires",
+        "SELECT p.id_utilisateur AS id, u.nom AS nom, u.prenom AS prenom, u.email AS email, " +
+        "p.nom_entreprise AS entreprise, p.siret AS siret, p.domaine_expertise AS domaine, " +
+        "CAST(COALESCE(p.tarif_horaire, 0) AS NUMERIC(10, 2)) AS tarif_horaire, p.disponible AS disponible " +
+        "FROM PRESTATAIRE p JOIN UTILISATEUR u ON u.id_utilisateur = p.id_utilisateur " +
+        "ORDER BY p.id_utilisateur",
+        List.of("ID", "Nom", "Prénom", "Email", "Entreprise", "SIRET", "Domaine", "Tarif Horaire", "Disponible")),
+
+    LIVRAISONS("livraisons",
+        "SELECT l.id_livraison AS id, l.statut AS statut, l.type_livraison AS type_livraison, " +
+        "l.date_debut AS date_debut, l.date_fin AS date_fin, l.adresse_envoi AS adresse_envoi, " +
+        "l.code_postal_envoi AS code_postal_envoi, l.adresse_de_livraison AS adresse_livraison, " +
+        "l.code_postal_livraison AS code_postal_livraison, l.prix AS prix, l.id_expediteur AS id_expediteur, " +
+        "l.id_destinataire AS id_destinataire, l.livreur_segment_1 AS id_livreur_segment1, " +
+        "l.livreur_segment_2 AS id_livreur_segment2, l.validation AS validation " +
+        "FROM LIVRAISON l ORDER BY l.id_livraison",
+        List.of("ID", "Statut", "Type", "Date début", "Date fin", "Adresse envoi", "CP envoi",
+            "Adresse livraison", "CP livraison", "Prix", "Expéditeur", "Destinataire",
+            "Livreur segment 1", "Livreur segment 2", "Validée")),
+
+    TRANSACTIONS("transactions",
+        "SELECT t.id_transaction AS id, t.reference_externe AS reference, t.type_transaction AS type, " +
+        "t.statut_transaction AS statut, t.montant AS montant, t.commission_ecodeli AS commission_ecodeli, " +
+        "t.frais_transaction AS frais, pf.id_prestataire AS id_prestataire, t.id_candidature AS id_candidature, " +
+        "t.date_transaction AS date_transaction, t.date_traitement AS date_traitement " +
+        "FROM TRANSACTION_PORTEFEUILLE t JOIN PORTEFEUILLE_PRESTATAIRE pf ON pf.id_portefeuille = t.id_portefeuille " +
+        "ORDER BY t.id_transaction",
+        List.of("ID", "Référence", "Type", "Statut", "Montant", "Commission EcoDeli", "Frais",
+            "Prestataire", "Candidature", "Date transaction", "Date traitement")),
+
+    DEMANDES("demandes",
+        "SELECT d.id_demande AS id, d.titre AS titre, d.categorie_service AS categorie, d.statut AS statut, " +
+        "d.id_client AS id_client, d.budget_min AS budget_min, d.budget_max AS budget_max, " +
+        "d.date_souhaitee AS date_souhaitee, d.adresse_depart AS adresse_depart, " +
+        "d.adresse_arrivee AS adresse_arrivee, d.date_creation AS date_creation " +
+        "FROM DEMANDE_SERVICE d ORDER BY d.id_demande",
+        List.of("ID", "Titre", "Catégorie", "Statut", "Client", "Budget min", "Budget max",
+            "Date souhaitée", "Adresse départ", "Adresse arrivée", "Date création"));
+
+    private final String code;
+    private final String requete;
+    private final List<String> entetes;
+
+    TypeExport(String code, String requete, List<String> entetes) {
+        this.code = code;
+        this.requete = requete;
+        this.entetes = entetes;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getRequete() {
+        return requete;
+    }
+
+    public List<String> getEntetes() {
+        return entetes;
+    }
+
+    public static Optional<TypeExport> depuis(String code) {
+        for (TypeExport type : values()) {
+            if (type.code.equalsIgnoreCase(code)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecodeli.ecodeli_backend.services.idempotence;
+
+import org.springframework.http.HttpStatus;
+
+public class IdempotenceException extends RuntimeException {
+
+    private final HttpStatus statut;
+
+    public IdempotenceException(HttpStatus statut, String message) {
+        super(message);
+        this.statut = statut;
+    }
+
+    public HttpStatus getStatut() {
+        return statut;
+    }
+}
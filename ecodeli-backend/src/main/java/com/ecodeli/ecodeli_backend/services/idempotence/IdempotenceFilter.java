@@ -0,0 +1,219 @@
+package com.ecodeli.ecodeli_backend.services.idempotence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * En-tête Idempotency-Key sur les endpoints de paiement : une requête répétée avec la même clé
+ * (double clic, nouvelle tentative après un délai) reçoit la réponse de la première exécution
+ * au lieu de créer une seconde transaction. Sans en-tête, la requête est traitée normalement.
+ * Exécuté après la chaîne Spring Security, la clé est propre à chaque utilisateur.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotenceFilter extends OncePerRequestFilter {
+
+    public static final String ENTETE_CLE = "Idempotency-Key";
+    public static final String ENTETE_REJOUEE = "Idempotent-Replayed";
+
+    private static final int LONGUEUR_CLE_MAX = 255;
+    private static final int TAILLE_CORPS_MAX = 64 * 1024;
+
+    private static final List<String> CHEMINS = List.of(
+        "/api/paiement/mission/*",
+        "/api/paiement/portefeuille/prestataire/*/retrait",
+        "/api/payment/create-intent/*",
+        "/api/payment/confirm/*"
+    );
+
+    private final IdempotenceService idempotenceService;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String chemin = request.getRequestURI().substring(request.getContextPath().length());
+        return CHEMINS.stream().noneMatch(motif -> matcher.match(motif, chemin));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String cleClient = request.getHeader(ENTETE_CLE);
+        if (cleClient == null || cleClient.isBlank()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (cleClient.length() > LONGUEUR_CLE_MAX) {
+            ecrireErreur(response, HttpStatus.BAD_REQUEST, "Clé d'idempotence trop longue");
+            return;
+        }
+
+        byte[] corps = request.getInputStream().readNBytes(TAILLE_CORPS_MAX + 1);
+        if (corps.length > TAILLE_CORPS_MAX) {
+            ecrireErreur(response, HttpStatus.PAYLOAD_TOO_LARGE, "Corps de requête trop volumineux");
+            return;
+        }
+
+        Authentication authentification = SecurityContextHolder.getContext().getAuthentication();
+        String utilisateur = authentification != null ? authentification.getName() : "anonyme";
+        String cle = sha256((utilisateur + "\n" + cleClient).getBytes(StandardCharsets.UTF_8));
+        String empreinte = sha256(concatener(
+            (request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8), corps));
+
+        HttpServletRequest requeteRelisible = new RequeteRelisible(request, corps);
+        ContentCachingResponseWrapper reponseCapturee = new ContentCachingResponseWrapper(response);
+
+        IdempotenceService.Resultat resultat;
+        try {
+            resultat = idempotenceService.executer(cle, empreinte, () -> {
+                chain.doFilter(requeteRelisible, reponseCapturee);
+                return new IdempotenceService.ReponseStockee(reponseCapturee.getStatus(),
+                    reponseCapturee.getContentType(), reponseCapturee.getContentAsByteArray());
+            });
+        } catch (IdempotenceException e) {
+            ecrireErreur(response, e.getStatut(), e.getMessage());
+            return;
+        }
+
+        if (!resultat.rejouee()) {
+            reponseCapturee.copyBodyToResponse();
+            return;
+        }
+
+        IdempotenceService.ReponseStockee stockee = resultat.reponse();
+        response.setStatus(stockee.codeHttp());
+        if (stockee.typeContenu() != null) {
+            response.setContentType(stockee.typeContenu());
+        }
+        response.setHeader(ENTETE_REJOUEE, "true");
+        response.setContentLength(stockee.corps().length);
+        response.getOutputStream().write(stockee.corps());
+    }
+
+    private void ecrireErreur(HttpServletResponse response, HttpStatus statut, String message) throws IOException {
+        Map<String, Object> erreur = new LinkedHashMap<>();
+        erreur.put("success", false);
+        erreur.put("error", message);
+        response.setStatus(statut.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), erreur);
+    }
+
+    private static byte[] concatener(byte[] debut, byte[] fin) {
+        byte[] resultat = new byte[debut.length + fin.length];
+        System.arraycopy(debut, 0, resultat, 0, debut.length);
+        System.arraycopy(fin, 0, resultat, debut.length, fin.length);
+        return resultat;
+    }
+
+    private static String sha256(byte[] donnees) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(donnees));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Requête dont le corps, déjà lu pour l'empreinte, peut être relu par le contrôleur
+     */
+    private static final class RequeteRelisible extends HttpServletRequestWrapper {
+
+        private final byte[] corps;
+
+        RequeteRelisible(HttpServletRequest request, byte[] corps) {
+            super(request);
+            this.corps = corps;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entree = new ByteArrayInputStream(corps);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entree.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Corps entièrement en mémoire : tout est lisible immédiatement
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return entree.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entree.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(corps),
+                getCharacterEncoding() != null ? java.nio.charset.Charset.forName(getCharacterEncoding())
+                    : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return corps.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corps.length;
+        }
+    }
+}
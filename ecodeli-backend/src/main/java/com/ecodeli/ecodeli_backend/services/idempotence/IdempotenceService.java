@@ -0,0 +1,232 @@
+package com.ecodeli.ecodeli_backend.services.idempotence;
+
+import com.ecodeli.ecodeli_backend.models.CleIdempotence;
+import com.ecodeli.ecodeli_backend.models.CleIdempotence.StatutCle;
+import com.ecodeli.ecodeli_backend.repositories.CleIdempotenceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.ServletException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Exécution au plus une fois des requêtes portant une même Idempotency-Key.
+ * Dans une instance, les doublons simultanés attendent la première exécution (CompletableFuture
+ * du cache) et reçoivent sa réponse. Entre instances, la réservation de la clé en base (INSERT
+ * sur la clé primaire) départage les requêtes, et les suivantes relisent la réponse enregistrée.
+ * La clé réservée porte un bail prolongé pendant l'exécution : si l'instance s'arrête avant de
+ * répondre, le bail expire et la clé est reprise par la requête suivante au lieu de rester EN_COURS.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotenceService implements MeterBinder {
+
+    private static final long INTERVALLE_SONDAGE_MS = 200;
+
+    private final CleIdempotenceRepository cleIdempotenceRepository;
+
+    private final ConcurrentHashMap<String, Entree> cache = new ConcurrentHashMap<>();
+
+    // Clés réservées en base et en cours d'exécution sur cette instance, dont le bail est prolongé
+    private final Set<String> reservees = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.idempotence.retention-heures:24}")
+    private long retentionHeures;
+
+    @Value("${app.idempotence.attente-max-ms:30000}")
+    private long attenteMaxMs;
+
+    @Value("${app.idempotence.cache-taille-max:10000}")
+    private int tailleMaxCache;
+
+    @Value("${app.idempotence.bail-secondes:30}")
+    private long bailSecondes;
+
+    public record ReponseStockee(int codeHttp, String typeContenu, byte[] corps) {
+    }
+
+    public record Resultat(ReponseStockee reponse, boolean rejouee) {
+    }
+
+    @FunctionalInterface
+    public interface Execution {
+        ReponseStockee executer() throws IOException, ServletException;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ecodeli.cache.entrees", cache, ConcurrentHashMap::size)
+            .description("Entrées des caches en mémoire")
+            .tag("cache", "idempotence")
+            .register(registry);
+    }
+
+    private record Entree(String empreinte, CompletableFuture<ReponseStockee> reponse, long expiration) {
+    }
+
+    public Resultat executer(String cle, String empreinte, Execution execution) throws IOException, ServletException {
+        Entree entree = new Entree(empreinte, new CompletableFuture<>(),
+            System.currentTimeMillis() + TimeUnit.HOURS.toMillis(retentionHeures));
+        Entree existante = cache.putIfAbsent(cle, entree);
+        if (existante != null) {
+            verifierEmpreinte(existante.empreinte(), empreinte);
+            return new Resultat(attendre(existante.reponse()), true);
+        }
+
+        try {
+            Optional<ReponseStockee> enregistree = reserverOuRelire(cle, empreinte);
+            if (enregistree.isPresent()) {
+                entree.reponse().complete(enregistree.get());
+                return new Resultat(enregistree.get(), true);
+            }
+        } catch (RuntimeException e) {
+            cache.remove(cle, entree);
+            entree.reponse().completeExceptionally(e);
+            throw e;
+        }
+
+        ReponseStockee reponse;
+        reservees.add(cle);
+        try {
+            reponse = execution.executer();
+        } catch (IOException | ServletException | RuntimeException e) {
+            reservees.remove(cle);
+            abandonner(cle, entree);
+            throw e;
+        }
+        reservees.remove(cle);
+
+        // Une erreur serveur n'est pas mémorisée : la même clé pourra être renvoyée
+        if (reponse.codeHttp() >= 500) {
+            abandonner(cle, entree);
+            return new Resultat(reponse, false);
+        }
+
+        try {
+            cleIdempotenceRepository.terminer(cle, reponse.codeHttp(), reponse.typeContenu(),
+                new String(reponse.corps(), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            log.error("Réponse idempotente non enregistrée pour la clé {}: {}", cle, e.getMessage());
+        }
+        entree.reponse().complete(reponse);
+        if (cache.size() > tailleMaxCache) {
+            cache.remove(cle, entree);
+        }
+        return new Resultat(reponse, false);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotence.bail-renouvellement-ms:10000}")
+    public void prolongerBaux() {
+        if (reservees.isEmpty()) {
+            return;
+        }
+        try {
+            cleIdempotenceRepository.prolonger(List.copyOf(reservees), bailSecondes);
+        } catch (RuntimeException e) {
+            log.warn("Bail des clés d'idempotence en cours non prolongé: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotence.purge-interval-ms:3600000}")
+    public void purger() {
+        long maintenant = System.currentTimeMillis();
+        cache.entrySet().removeIf(e -> e.getValue().expiration() < maintenant && e.getValue().reponse().isDone());
+        int supprimees = cleIdempotenceRepository.supprimerExpirees(LocalDateTime.now());
+        if (supprimees > 0) {
+            log.info("{} clé(s) d'idempotence expirée(s) supprimée(s)", supprimees);
+        }
+    }
+
+    /**
+     * Réserver la clé en base ; si une autre instance l'a déjà, attendre et relire sa réponse,
+     * ou reprendre la clé si son bail a expiré
+     */
+    private Optional<ReponseStockee> reserverOuRelire(String cle, String empreinte) {
+        long limite = System.currentTimeMillis() + attenteMaxMs;
+        while (System.currentTimeMillis() < limite) {
+            Optional<CleIdempotence> existante = cleIdempotenceRepository.findById(cle);
+            if (existante.isEmpty()) {
+                try {
+                    LocalDateTime maintenant = LocalDateTime.now();
+                    cleIdempotenceRepository.reserver(cle, empreinte, maintenant, maintenant.plusHours(retentionHeures),
+                        bailSecondes);
+                    return Optional.empty();
+                } catch (DataIntegrityViolationException e) {
+                    continue;
+                }
+            }
+
+            CleIdempotence enregistree = existante.get();
+            verifierEmpreinte(enregistree.getEmpreinteRequete(), empreinte);
+            if (enregistree.getStatut() == StatutCle.TERMINE) {
+                byte[] corps = enregistree.getCorpsReponse() != null
+                    ? enregistree.getCorpsReponse().getBytes(StandardCharsets.UTF_8) : new byte[0];
+                return Optional.of(new ReponseStockee(enregistree.getCodeHttp(), enregistree.getTypeContenu(), corps));
+            }
+            if (cleIdempotenceRepository.reprendre(cle, bailSecondes) == 1) {
+                log.warn("Clé d'idempotence {} reprise après expiration du bail de l'instance qui l'exécutait", cle);
+                return Optional.empty();
+            }
+            try {
+                Thread.sleep(INTERVALLE_SONDAGE_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new IdempotenceException(HttpStatus.CONFLICT, "Une requête avec cette clé est encore en cours de traitement");
+    }
+
+    private ReponseStockee attendre(CompletableFuture<ReponseStockee> reponse) {
+        try {
+            return reponse.get(attenteMaxMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotenceException(HttpStatus.CONFLICT, "Une requête avec cette clé est encore en cours de traitement");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotenceException(HttpStatus.CONFLICT, "Une requête avec cette clé est encore en cours de traitement");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IdempotenceException idempotenceException) {
+                throw idempotenceException;
+            }
+            throw new IdempotenceException(HttpStatus.CONFLICT, "La première exécution a échoué, la requête peut être renvoyée");
+        }
+    }
+
+    private void abandonner(String cle, Entree entree) {
+        try {
+            cleIdempotenceRepository.liberer(cle);
+        } catch (RuntimeException e) {
+            log.error("Impossible de libérer la clé d'idempotence {}: {}", cle, e.getMessage());
+        }
+        cache.remove(cle, entree);
+        entree.reponse().completeExceptionally(new IdempotenceException(HttpStatus.CONFLICT,
+            "La première exécution a échoué, la requête peut être renvoyée"));
+    }
+
+    private void verifierEmpreinte(String attendue, String recue) {
+        if (!attendue.equals(recue)) {
+            throw new IdempotenceException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Cette clé d'idempotence a déjà été utilisée pour une autre requête");
+        }
+    }
+}
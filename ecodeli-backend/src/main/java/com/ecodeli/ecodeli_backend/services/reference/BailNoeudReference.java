@@ -0,0 +1,130 @@
+package com.ecodeli.ecodeli_backend.services.reference;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Numéro de nœud du générateur de références. Fixé par app.reference.node-id, ou à défaut réservé
+ * dans NOEUD_REFERENCE : premier numéro sans bail en cours, pris par un INSERT … ON CONFLICT qui ne
+ * remplace qu'un bail expiré, de sorte que deux instances qui démarrent ensemble n'obtiennent jamais
+ * le même. Réservé au premier identifiant généré, pas au démarrage : le contexte doit pouvoir être
+ * créé sans base (entraînement CDS de demarrage-rapide.sh). Le bail est prolongé bien avant son
+ * expiration et libéré à l'arrêt.
+ */
+@Component
+@Slf4j
+public class BailNoeudReference {
+
+    private static final int TENTATIVES = 5;
+
+    private static final String RESERVER =
+        "INSERT INTO NOEUD_REFERENCE (noeud, instance, bail_expire) " +
+        "SELECT n, ?, now() + ? * interval '1 second' FROM generate_series(0, " + GenerateurReference.NOEUD_MAX + ") n " +
+        "WHERE NOT EXISTS (SELECT 1 FROM NOEUD_REFERENCE r WHERE r.noeud = n AND r.bail_expire >= now()) " +
+        "ORDER BY n LIMIT 1 " +
+        "ON CONFLICT (noeud) DO UPDATE SET instance = EXCLUDED.instance, bail_expire = EXCLUDED.bail_expire " +
+        "WHERE NOEUD_REFERENCE.bail_expire < now() " +
+        "RETURNING noeud";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long bailSecondes;
+    private final boolean fixe;
+    private final String instance;
+
+    // -1 tant qu'aucun numéro n'a été réservé
+    private volatile long noeud = -1;
+
+    public BailNoeudReference(JdbcTemplate jdbcTemplate,
+                              @Value("${app.reference.node-id:-1}") long noeudConfigure,
+                              @Value("${app.reference.bail-secondes:300}") long bailSecondes) {
+        if (noeudConfigure > GenerateurReference.NOEUD_MAX) {
+            throw new IllegalArgumentException("app.reference.node-id doit être compris entre 0 et " + GenerateurReference.NOEUD_MAX);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.bailSecondes = bailSecondes;
+        this.fixe = noeudConfigure >= 0;
+        this.instance = nomInstance();
+        if (fixe) {
+            this.noeud = noeudConfigure;
+        }
+    }
+
+    public long getNoeud() {
+        long courant = noeud;
+        return courant >= 0 ? courant : premierNoeud();
+    }
+
+    private synchronized long premierNoeud() {
+        if (noeud < 0) {
+            noeud = reserver();
+            log.info("Générateur de références : nœud {} réservé pour {} s", noeud, bailSecondes);
+        }
+        return noeud;
+    }
+
+    /**
+     * Prolonge le bail. S'il a été repris par une autre instance (renouvellements en échec plus longtemps
+     * que sa durée), un autre numéro est réservé : les identifiants restent uniques, le nœud changeant.
+     */
+    @Scheduled(initialDelayString = "${app.reference.renouvellement-ms:60000}",
+               fixedDelayString = "${app.reference.renouvellement-ms:60000}")
+    public void renouveler() {
+        if (fixe || noeud < 0) {
+            return;
+        }
+        try {
+            int prolonges = jdbcTemplate.update(
+                "UPDATE NOEUD_REFERENCE SET bail_expire = now() + ? * interval '1 second' WHERE noeud = ? AND instance = ?",
+                bailSecondes, noeud, instance);
+            if (prolonges == 0) {
+                long perdu = noeud;
+                noeud = reserver();
+                log.error("Bail du nœud de références {} perdu, nouveau nœud {}", perdu, noeud);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Renouvellement du bail du nœud de références {} impossible: {}", noeud, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void liberer() {
+        if (fixe || noeud < 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("DELETE FROM NOEUD_REFERENCE WHERE noeud = ? AND instance = ?", noeud, instance);
+        } catch (DataAccessException e) {
+            log.warn("Libération du nœud de références {} impossible, il expirera: {}", noeud, e.getMessage());
+        }
+    }
+
+    // Deux instances peuvent viser le même numéro libre : celle qui perd le conflit ne reçoit aucune ligne et recommence
+    private long reserver() {
+        for (int i = 0; i < TENTATIVES; i++) {
+            List<Long> reserve = jdbcTemplate.queryForList(RESERVER, Long.class, instance, bailSecondes);
+            if (!reserve.isEmpty()) {
+                return reserve.get(0);
+            }
+        }
+        throw new IllegalStateException("Aucun numéro de nœud libre pour le générateur de références");
+    }
+
+    private static String nomInstance() {
+        String hote;
+        try {
+            hote = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            hote = "inconnu";
+        }
+        return hote + ":" + ProcessHandle.current().pid() + ":" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecodeli.ecodeli_backend.services.reference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Identifiants uniques de type Snowflake sur 63 bits : millisecondes depuis le 01/01/2024 (41 bits),
+ * numéro de nœud (10 bits) et séquence dans la milliseconde (12 bits). Génération sans verrou
+ * (un CAS), strictement croissante sur un nœud, jusqu'à 4 096 identifiants par milliseconde :
+ * au-delà, ou si l'horloge recule, la génération avance sur les millisecondes suivantes au lieu
+ * d'attendre. Les références sont encodées en base32 Crockford sur 13 caractères, à largeur fixe
+ * pour que l'ordre alphabétique suive l'ordre de création. Le numéro de nœud, unique par instance,
+ * vient de BailNoeudReference.
+ */
+@Component
+public class GenerateurReference {
+
+    public static final long EPOQUE = 1_704_067_200_000L;
+
+    private static final int BITS_NOEUD = 10;
+    private static final int BITS_SEQUENCE = 12;
+    static final long NOEUD_MAX = (1L << BITS_NOEUD) - 1;
+    private static final long MASQUE_SEQUENCE = (1L << BITS_SEQUENCE) - 1;
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final int LONGUEUR_REFERENCE = 13;
+
+    private final LongSupplier noeud;
+
+    // (millisecondes depuis l'époque << BITS_SEQUENCE) | séquence du dernier identifiant émis
+    private final AtomicLong dernier = new AtomicLong();
+
+    @Autowired
+    public GenerateurReference(BailNoeudReference bail) {
+        this.noeud = bail::getNoeud;
+    }
+
+    public GenerateurReference(long noeud) {
+        if (noeud < 0 || noeud > NOEUD_MAX) {
+            throw new IllegalArgumentException("Numéro de nœud hors de 0-" + NOEUD_MAX + ": " + noeud);
+        }
+        this.noeud = () -> noeud;
+    }
+
+    public long prochainId() {
+        long maintenant = (System.currentTimeMillis() - EPOQUE) << BITS_SEQUENCE;
+        long etat = dernier.accumulateAndGet(maintenant, (precedent, horloge) -> Math.max(precedent + 1, horloge));
+        return ((etat >>> BITS_SEQUENCE) << (BITS_NOEUD + BITS_SEQUENCE))
+            | (noeud.getAsLong() << BITS_SEQUENCE)
+            | (etat & MASQUE_SEQUENCE);
+    }
+
+    /**
+     * Nouvelle référence lisible, par exemple CM_0K5DQ3T1G4G00
+     */
+    public String nouvelleReference(String prefixe) {
+        return prefixe + "_" + encoder(prochainId());
+    }
+
+    public long getNoeud() {
+        return noeud.getAsLong();
+    }
+
+    public static String encoder(long id) {
+        char[] caracteres = new char[LONGUEUR_REFERENCE];
+        for (int i = LONGUEUR_REFERENCE - 1; i >= 0; i--) {
+            caracteres[i] = ALPHABET.charAt((int) (id & 31));
+            id >>>= 5;
+        }
+        return new String(caracteres);
+    }
+
+    public static long decoder(String reference) {
+        String valeur = reference.substring(reference.lastIndexOf('_') + 1).toUpperCase();
+        long id = 0;
+        for (int i = 0; i < valeur.length(); i++) {
+            char c = switch (valeur.charAt(i)) {
+                case 'O' -> '0';
+                case 'I', 'L' -> '1';
+                default -> valeur.charAt(i);
+            };
+            int chiffre = ALPHABET.indexOf(c);
+            if (chiffre < 0 || i >= LONGUEUR_REFERENCE) {
+                throw new IllegalArgumentException("Référence invalide: " + reference);
+            }
+            id = (id << 5) | chiffre;
+        }
+        return id;
+    }
+}
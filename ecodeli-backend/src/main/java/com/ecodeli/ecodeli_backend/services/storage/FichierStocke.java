@@ -0,0 +1,8 @@
+package com.ecodeli.ecodeli_backend.services.storage;
+
+/**
+ * Résultat d'un dépôt : l'empreinte sert de clé de stockage.
+ * dejaPresent indique que le contenu existait déjà (déduplication).
+ */
+public record FichierStocke(String empreinteSha256, long tailleOctets, boolean dejaPresent) {
+}
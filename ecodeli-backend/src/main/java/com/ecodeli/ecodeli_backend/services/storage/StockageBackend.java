@@ -0,0 +1,51 @@
+package com.ecodeli.ecodeli_backend.services.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Backend de stockage des fichiers adressés par leur clé (empreinte SHA-256).
+ * L'implémentation active est choisie par la propriété app.storage.backend.
+ */
+public interface StockageBackend {
+
+    /**
+     * Créer un fichier temporaire sur le même volume que le stockage final
+     */
+    Path creerFichierTemporaire() throws IOException;
+
+    /**
+     * Déplacer un fichier temporaire sous la clé donnée
+     */
+    void deposer(String cle, Path fichierTemporaire) throws IOException;
+
+    boolean existe(String cle) throws IOException;
+
+    long taille(String cle) throws IOException;
+
+    /**
+     * Ouvrir le contenu en lecture séquentielle (l'appelant ferme le flux)
+     */
+    InputStream lire(String cle) throws IOException;
+
+    /**
+     * Copier une plage d'octets vers le canal cible sans passer par le heap quand c'est possible
+     */
+    long transferer(String cle, long debut, long longueur, WritableByteChannel cible) throws IOException;
+
+    /**
+     * Chemin local du fichier, si le backend en a un (permet le sendfile de Tomcat)
+     */
+    Optional<Path> cheminLocal(String cle);
+
+    boolean supprimer(String cle) throws IOException;
+
+    /**
+     * Lister toutes les clés stockées (l'appelant ferme le stream)
+     */
+    Stream<String> listerCles() throws IOException;
+}
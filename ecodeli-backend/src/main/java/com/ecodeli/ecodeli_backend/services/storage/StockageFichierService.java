@@ -0,0 +1,177 @@
+package com.ecodeli.ecodeli_backend.services.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Dépôt et lecture des fichiers adressés par contenu.
+ * Le SHA-256 est calculé pendant la copie du flux, sans relire le fichier,
+ * et les téléchargements passent par FileChannel.transferTo (ou le sendfile de Tomcat).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockageFichierService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // En dessous de ce seuil, Tomcat n'utilise pas sendfile (valeur par défaut du connecteur NIO)
+    private static final long SEUIL_SENDFILE = 48 * 1024;
+
+    private static final int TAILLE_BUFFER_VERIFICATION = 64 * 1024;
+
+    private final StockageBackend backend;
+
+    /**
+     * Stocker un flux : copie en streaming vers un fichier temporaire avec calcul du SHA-256,
+     * puis dépôt sous l'empreinte si le contenu n'existe pas encore.
+     */
+    public FichierStocke stocker(InputStream contenu) throws IOException {
+        Path temporaire = backend.creerFichierTemporaire();
+        try {
+            MessageDigest digest = nouveauDigest();
+            long taille;
+            try (InputStream entree = new DigestInputStream(contenu, digest)) {
+                taille = Files.copy(entree, temporaire, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String empreinte = HexFormat.of().formatHex(digest.digest());
+
+            if (backend.existe(empreinte)) {
+                Files.deleteIfExists(temporaire);
+                log.info("Fichier déjà présent, dépôt dédupliqué: {}", empreinte);
+                return new FichierStocke(empreinte, taille, true);
+            }
+
+            backend.deposer(empreinte, temporaire);
+            return new FichierStocke(empreinte, taille, false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaire);
+            throw e;
+        }
+    }
+
+    public InputStream lire(String empreinte) throws IOException {
+        return backend.lire(empreinte);
+    }
+
+    public Optional<Path> cheminLocal(String empreinte) {
+        return backend.cheminLocal(empreinte);
+    }
+
+    public boolean supprimer(String empreinte) throws IOException {
+        return backend.supprimer(empreinte);
+    }
+
+    /**
+     * Recalculer l'empreinte du contenu stocké et la comparer à sa clé
+     */
+    public boolean verifierIntegrite(String empreinte) throws IOException {
+        if (!backend.existe(empreinte)) {
+            return false;
+        }
+        MessageDigest digest = nouveauDigest();
+        byte[] buffer = new byte[TAILLE_BUFFER_VERIFICATION];
+        try (InputStream entree = new DigestInputStream(backend.lire(empreinte), digest)) {
+            while (entree.read(buffer) != -1) {
+                // la lecture alimente le digest
+            }
+        }
+        return empreinte.equals(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Envoyer le fichier dans la réponse HTTP en gérant l'en-tête Range (une seule plage).
+     * Le contenu n'est jamais chargé en mémoire.
+     */
+    public void envoyer(String empreinte, String nomFichier, String typeMime,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!backend.existe(empreinte)) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Fichier introuvable");
+            return;
+        }
+
+        long taille = backend.taille(empreinte);
+        String etag = "\"" + empreinte + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=3600");
+
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long debut = 0;
+        long fin = taille - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && taille > 0) {
+            try {
+                List<HttpRange> plages = HttpRange.parseRanges(range);
+                if (plages.size() == 1) {
+                    debut = plages.get(0).getRangeStart(taille);
+                    fin = plages.get(0).getRangeEnd(taille);
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + debut + "-" + fin + "/" + taille);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + taille);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+        }
+
+        long longueur = taille == 0 ? 0 : fin - debut + 1;
+        response.setContentType(typeMime != null ? typeMime : "application/octet-stream");
+        response.setContentLengthLong(longueur);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "inline; filename=\"" + (nomFichier != null ? nomFichier.replace("\"", "") : empreinte) + "\"");
+
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || longueur == 0) {
+            return;
+        }
+
+        Optional<Path> chemin = backend.cheminLocal(empreinte);
+        if (chemin.isPresent() && longueur >= SEUIL_SENDFILE
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat envoie le fichier lui-même après le retour du contrôleur (zéro copie)
+            request.setAttribute(SENDFILE_FILENAME, chemin.get().toString());
+            request.setAttribute(SENDFILE_START, debut);
+            request.setAttribute(SENDFILE_END, fin + 1);
+            return;
+        }
+
+        backend.transferer(empreinte, debut, longueur, Channels.newChannel(response.getOutputStream()));
+        response.flushBuffer();
+    }
+
+    private MessageDigest nouveauDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
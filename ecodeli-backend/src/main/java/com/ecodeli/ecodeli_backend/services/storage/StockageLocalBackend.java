@@ -0,0 +1,112 @@
+package com.ecodeli.ecodeli_backend.services.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Stockage sur le système de fichiers local : les fichiers sont rangés sous
+ * {racine}/ab/cd/{empreinte} pour éviter des répertoires trop volumineux.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class StockageLocalBackend implements StockageBackend {
+
+    private static final String REPERTOIRE_TEMPORAIRE = ".tmp";
+
+    private final Path racine;
+    private final Path repertoireTemporaire;
+
+    public StockageLocalBackend(@Value("${app.upload.dir:uploads/justificatifs}") String uploadDir) throws IOException {
+        this.racine = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.repertoireTemporaire = racine.resolve(REPERTOIRE_TEMPORAIRE);
+        Files.createDirectories(repertoireTemporaire);
+    }
+
+    @Override
+    public Path creerFichierTemporaire() throws IOException {
+        return Files.createTempFile(repertoireTemporaire, "upload_", ".part");
+    }
+
+    @Override
+    public void deposer(String cle, Path fichierTemporaire) throws IOException {
+        Path cible = resoudre(cle);
+        Files.createDirectories(cible.getParent());
+        try {
+            Files.move(fichierTemporaire, cible, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Même contenu déposé en parallèle : le fichier existant fait foi
+            Files.deleteIfExists(fichierTemporaire);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(fichierTemporaire, cible, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public boolean existe(String cle) {
+        return Files.isRegularFile(resoudre(cle));
+    }
+
+    @Override
+    public long taille(String cle) throws IOException {
+        return Files.size(resoudre(cle));
+    }
+
+    @Override
+    public InputStream lire(String cle) throws IOException {
+        return Files.newInputStream(resoudre(cle), StandardOpenOption.READ);
+    }
+
+    @Override
+    public long transferer(String cle, long debut, long longueur, WritableByteChannel cible) throws IOException {
+        try (FileChannel canal = FileChannel.open(resoudre(cle), StandardOpenOption.READ)) {
+            long position = debut;
+            long restant = longueur;
+            while (restant > 0) {
+                long transferes = canal.transferTo(position, restant, cible);
+                if (transferes <= 0) {
+                    break;
+                }
+                position += transferes;
+                restant -= transferes;
+            }
+            return longueur - restant;
+        }
+    }
+
+    @Override
+    public Optional<Path> cheminLocal(String cle) {
+        return Optional.of(resoudre(cle));
+    }
+
+    @Override
+    public boolean supprimer(String cle) throws IOException {
+        return Files.deleteIfExists(resoudre(cle));
+    }
+
+    @Override
+    public Stream<String> listerCles() throws IOException {
+        return Files.walk(racine)
+            .filter(Files::isRegularFile)
+            .filter(chemin -> !chemin.startsWith(repertoireTemporaire))
+            .filter(chemin -> racine.relativize(chemin).getNameCount() == 3)
+            .map(chemin -> chemin.getFileName().toString());
+    }
+
+    private Path resoudre(String cle) {
+        if (cle == null || cle.length() < 4 || !cle.matches("[0-9a-f]+")) {
+            throw new IllegalArgumentException("Clé de stockage invalide: " + cle);
+        }
+        return racine.resolve(cle.substring(0, 2)).resolve(cle.substring(2, 4)).resolve(cle);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecodeli.ecodeli_backend.services.storage;
+
+import com.ecodeli.ecodeli_backend.repositories.JustificatifRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Vérification périodique des fichiers stockés : chaque contenu référencé est relu
+ * en streaming et son SHA-256 comparé à sa clé. Les justificatifs dont le fichier
+ * est absent ou altéré sont marqués integriteCompromise.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.scrub.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class VerificationIntegriteJob {
+
+    private static final int TAILLE_LOT = 200;
+
+    private final JustificatifRepository justificatifRepository;
+    private final StockageFichierService stockageFichierService;
+
+    @Scheduled(initialDelayString = "${app.storage.scrub.initial-delay-ms:600000}",
+               fixedDelayString = "${app.storage.scrub.interval-ms:21600000}")
+    public void verifierFichiers() {
+        long verifies = 0;
+        long compromis = 0;
+        String derniere = "";
+
+        List<String> lot;
+        do {
+            lot = justificatifRepository.findEmpreintesApres(derniere, PageRequest.of(0, TAILLE_LOT));
+            for (String empreinte : lot) {
+                boolean integre = verifier(empreinte);
+                justificatifRepository.marquerVerificationIntegrite(empreinte, !integre, LocalDateTime.now());
+                verifies++;
+                if (!integre) {
+                    compromis++;
+                }
+                derniere = empreinte;
+            }
+        } while (lot.size() == TAILLE_LOT);
+
+        if (compromis > 0) {
+            log.error("Vérification d'intégrité: {} fichier(s) compromis sur {}", compromis, verifies);
+        } else {
+            log.info("Vérification d'intégrité: {} fichier(s) vérifié(s)", verifies);
+        }
+    }
+
+    private boolean verifier(String empreinte) {
+        try {
+            boolean integre = stockageFichierService.verifierIntegrite(empreinte);
+            if (!integre) {
+                log.error("Fichier absent ou altéré: {}", empreinte);
+            }
+            return integre;
+        } catch (IOException e) {
+            log.error("Lecture impossible du fichier {}: {}", empreinte, e.getMessage());
+            return false;
+        }
+    }
+}
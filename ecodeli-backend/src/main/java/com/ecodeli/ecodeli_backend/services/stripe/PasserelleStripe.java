@@ -0,0 +1,22 @@
+package com.ecodeli.ecodeli_backend.services.stripe;
+
+import java.util.Map;
+
+/**
+ * Appels sortants vers Stripe. StripeApiPasserelle appelle l'API réelle (bulkhead et timeouts),
+ * StripeLocalPasserelle la remplace en développement et en test (stripe.mode=local).
+ */
+public interface PasserelleStripe {
+
+    /**
+     * echec : dernière tentative refusée (last_payment_error), le statut Stripe étant alors
+     * revenu à requires_payment_method
+     */
+    record IntentionPaiement(String id, String clientSecret, String statut, long montantCentimes,
+                             Map<String, String> metadata, boolean echec) {
+    }
+
+    IntentionPaiement creer(long montantCentimes, String devise, String description, Map<String, String> metadata);
+
+    IntentionPaiement recuperer(String paymentIntentId);
+}
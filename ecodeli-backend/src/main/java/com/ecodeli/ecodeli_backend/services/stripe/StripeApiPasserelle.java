@@ -0,0 +1,104 @@
+package com.ecodeli.ecodeli_backend.services.stripe;
+
+import com.ecodeli.ecodeli_backend.metriques.MetriquesMetier;
+import com.ecodeli.ecodeli_backend.metriques.MetriquesMetier.ServiceExterne;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.PaymentIntentCreateParams;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appels à l'API Stripe cloisonnés : au plus N appels simultanés (les suivants attendent
+ * brièvement puis échouent) et timeouts de connexion et de lecture courts, pour qu'une
+ * lenteur de Stripe ne bloque pas tous les threads Tomcat.
+ */
+@Component
+@ConditionalOnProperty(name = "stripe.mode", havingValue = "api", matchIfMissing = true)
+@Slf4j
+public class StripeApiPasserelle implements PasserelleStripe {
+
+    private final Semaphore appelsSimultanes;
+    private final long attenteMaxMs;
+    private final RequestOptions options;
+    private final MetriquesMetier metriquesMetier;
+
+    public StripeApiPasserelle(MetriquesMetier metriquesMetier, MeterRegistry registry,
+                               @Value("${stripe.bulkhead.max-appels:4}") int maxAppels,
+                               @Value("${stripe.bulkhead.attente-max-ms:500}") long attenteMaxMs,
+                               @Value("${stripe.timeout.connexion-ms:2000}") int timeoutConnexion,
+                               @Value("${stripe.timeout.lecture-ms:5000}") int timeoutLecture) {
+        this.appelsSimultanes = new Semaphore(maxAppels);
+        this.attenteMaxMs = attenteMaxMs;
+        this.options = RequestOptions.builder()
+            .setConnectTimeout(timeoutConnexion)
+            .setReadTimeout(timeoutLecture)
+            .setMaxNetworkRetries(1)
+            .build();
+        this.metriquesMetier = metriquesMetier;
+        Gauge.builder("ecodeli.stripe.appels.actifs", appelsSimultanes, s -> maxAppels - s.availablePermits())
+            .description("Appels Stripe en cours (cloison)").register(registry);
+    }
+
+    @Override
+    public IntentionPaiement creer(long montantCentimes, String devise, String description, Map<String, String> metadata) {
+        PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
+            .setAmount(montantCentimes)
+            .setCurrency(devise)
+            .putAllMetadata(metadata)
+            .setDescription(description)
+            .build();
+        return appeler(() -> versIntention(PaymentIntent.create(params, options)));
+    }
+
+    @Override
+    public IntentionPaiement recuperer(String paymentIntentId) {
+        return appeler(() -> versIntention(PaymentIntent.retrieve(paymentIntentId, options)));
+    }
+
+    private IntentionPaiement appeler(AppelStripe appel) {
+        boolean obtenu;
+        try {
+            obtenu = appelsSimultanes.tryAcquire(attenteMaxMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Appel Stripe interrompu");
+        }
+        if (!obtenu) {
+            log.warn("Trop d'appels Stripe simultanés, appel refusé");
+            throw new RuntimeException("Service de paiement momentanément saturé, veuillez réessayer");
+        }
+        long debut = System.nanoTime();
+        boolean succes = false;
+        try {
+            IntentionPaiement intention = appel.executer();
+            succes = true;
+            return intention;
+        } catch (StripeException e) {
+            throw new RuntimeException("Erreur Stripe: " + e.getMessage(), e);
+        } finally {
+            appelsSimultanes.release();
+            metriquesMetier.appelExterne(ServiceExterne.STRIPE, succes, debut);
+        }
+    }
+
+    private static IntentionPaiement versIntention(PaymentIntent intent) {
+        return new IntentionPaiement(intent.getId(), intent.getClientSecret(), intent.getStatus(),
+            intent.getAmount() != null ? intent.getAmount() : 0, intent.getMetadata(),
+            intent.getLastPaymentError() != null);
+    }
+
+    @FunctionalInterface
+    private interface AppelStripe {
+        IntentionPaiement executer() throws StripeException;
+    }
+}
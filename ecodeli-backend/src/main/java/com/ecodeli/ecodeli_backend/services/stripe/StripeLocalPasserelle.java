@@ -0,0 +1,149 @@
+package com.ecodeli.ecodeli_backend.services.stripe;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.Stripe;
+import com.stripe.net.Webhook;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stripe simulé pour le développement et les tests (stripe.mode=local) : les PaymentIntents
+ * sont créés en mémoire et réussissent après un court délai, puis un webhook signé
+ * payment_intent.succeeded est envoyé à l'application comme le ferait Stripe. refuser() simule
+ * une carte refusée (payment_intent.payment_failed, last_payment_error renseigné).
+ */
+@Component
+@ConditionalOnProperty(name = "stripe.mode", havingValue = "local")
+@Slf4j
+public class StripeLocalPasserelle implements PasserelleStripe {
+
+    public static final String SECRET_WEBHOOK_DEFAUT = "whsec_local";
+
+    private final Map<String, IntentionPaiement> intentions = new ConcurrentHashMap<>();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+
+    // Par défaut, l'endpoint webhook de cette instance
+    @Value("${stripe.local.webhook-url:}")
+    private String urlWebhook;
+
+    @Value("${stripe.local.delai-ms:1000}")
+    private long delaiMs;
+
+    @Value("${stripe.webhook.secret:}")
+    private String secretWebhook;
+
+    public StripeLocalPasserelle(ObjectMapper objectMapper, Environment environment) {
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        log.warn("Stripe simulé actif (stripe.mode=local) : aucun paiement réel n'est effectué");
+    }
+
+    @Override
+    public IntentionPaiement creer(long montantCentimes, String devise, String description, Map<String, String> metadata) {
+        String id = "pi_local_" + UUID.randomUUID().toString().replace("-", "");
+        IntentionPaiement intention = new IntentionPaiement(id, id + "_secret_local", "requires_payment_method",
+            montantCentimes, Map.copyOf(metadata), false);
+        intentions.put(id, intention);
+
+        CompletableFuture.delayedExecutor(delaiMs, TimeUnit.MILLISECONDS)
+            .execute(() -> reussir(id, devise));
+        return intention;
+    }
+
+    @Override
+    public IntentionPaiement recuperer(String paymentIntentId) {
+        IntentionPaiement intention = intentions.get(paymentIntentId);
+        if (intention == null) {
+            throw new RuntimeException("PaymentIntent inconnu: " + paymentIntentId);
+        }
+        return intention;
+    }
+
+    /**
+     * Refuser le paiement en attente, comme une carte déclinée
+     */
+    public void refuser(String paymentIntentId) {
+        terminer(paymentIntentId, "eur", "payment_intent.payment_failed", "requires_payment_method", true);
+    }
+
+    private void reussir(String id, String devise) {
+        terminer(id, devise, "payment_intent.succeeded", "succeeded", false);
+    }
+
+    // Seul un PaymentIntent encore en attente change d'état : un refus n'est pas suivi du succès différé
+    private void terminer(String id, String devise, String typeEvenement, String statut, boolean echec) {
+        IntentionPaiement[] terminee = new IntentionPaiement[1];
+        intentions.computeIfPresent(id, (cle, i) -> {
+            if (!"requires_payment_method".equals(i.statut()) || i.echec()) {
+                return i;
+            }
+            terminee[0] = new IntentionPaiement(i.id(), i.clientSecret(), statut, i.montantCentimes(), i.metadata(), echec);
+            return terminee[0];
+        });
+        if (terminee[0] == null) {
+            return;
+        }
+        IntentionPaiement intention = terminee[0];
+        try {
+            Map<String, Object> objet = new LinkedHashMap<>();
+            objet.put("id", intention.id());
+            objet.put("object", "payment_intent");
+            objet.put("amount", intention.montantCentimes());
+            objet.put("currency", devise);
+            objet.put("status", intention.statut());
+            objet.put("metadata", intention.metadata());
+            if (echec) {
+                objet.put("last_payment_error", Map.of("type", "card_error", "code", "card_declined",
+                    "message", "Your card was declined."));
+            }
+
+            long maintenant = Webhook.Util.getTimeNow();
+            Map<String, Object> evenement = new LinkedHashMap<>();
+            evenement.put("id", "evt_local_" + UUID.randomUUID().toString().replace("-", ""));
+            evenement.put("object", "event");
+            evenement.put("api_version", Stripe.API_VERSION);
+            evenement.put("created", maintenant);
+            evenement.put("type", typeEvenement);
+            evenement.put("data", Map.of("object", objet));
+
+            String corps = objectMapper.writeValueAsString(evenement);
+            String secret = secretWebhook.isBlank() ? SECRET_WEBHOOK_DEFAUT : secretWebhook;
+            String signature = "t=" + maintenant + ",v1=" + Webhook.Util.computeHmacSha256(secret, maintenant + "." + corps);
+
+            HttpRequest requete = HttpRequest.newBuilder(URI.create(urlWebhook()))
+                .header("Content-Type", "application/json")
+                .header("Stripe-Signature", signature)
+                .POST(HttpRequest.BodyPublishers.ofString(corps))
+                .build();
+            HttpResponse<String> reponse = client.send(requete, HttpResponse.BodyHandlers.ofString());
+            log.info("Webhook simulé {} envoyé pour {} (HTTP {})", typeEvenement, id, reponse.statusCode());
+        } catch (Exception e) {
+            log.error("Échec de l'envoi du webhook simulé pour {}: {}", id, e.getMessage());
+        }
+    }
+
+    // Port réel du serveur (local.server.port, connu une fois Tomcat démarré, y compris en port aléatoire)
+    private String urlWebhook() {
+        if (!urlWebhook.isBlank()) {
+            return urlWebhook;
+        }
+        String port = environment.getProperty("local.server.port", environment.getProperty("server.port", "8080"));
+        return "http://localhost:" + port + "/api/payment/webhook";
+    }
+}
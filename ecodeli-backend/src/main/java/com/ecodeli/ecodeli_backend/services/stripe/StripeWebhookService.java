@@ -0,0 +1,164 @@
+package com.ecodeli.ecodeli_backend.services.stripe;
+
+import com.ecodeli.ecodeli_backend.metriques.MetriquesMetier;
+import com.ecodeli.ecodeli_backend.models.Annonce;
+import com.ecodeli.ecodeli_backend.models.Client;
+import com.ecodeli.ecodeli_backend.models.EvenementStripe;
+import com.ecodeli.ecodeli_backend.models.Paiement;
+import com.ecodeli.ecodeli_backend.models.Paiement.StatutPaiement;
+import com.ecodeli.ecodeli_backend.repositories.AnnonceRepository;
+import com.ecodeli.ecodeli_backend.repositories.EvenementStripeRepository;
+import com.ecodeli.ecodeli_backend.repositories.PaiementRepository;
+import com.stripe.exception.EventDataObjectDeserializationException;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
+import com.stripe.net.Webhook;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Réception des webhooks Stripe signés : chaque transition d'un PaymentIntent est enregistrée
+ * (EVENEMENT_STRIPE) et son dernier état reporté sur PAIEMENT, que la confirmation lit ensuite
+ * localement au lieu d'interroger Stripe.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StripeWebhookService {
+
+    private final PaiementRepository paiementRepository;
+    private final EvenementStripeRepository evenementStripeRepository;
+    private final AnnonceRepository annonceRepository;
+    private final MetriquesMetier metriquesMetier;
+
+    @Value("${stripe.webhook.secret:}")
+    private String secretWebhook;
+
+    @Value("${stripe.mode:api}")
+    private String mode;
+
+    /**
+     * Vérifier la signature Stripe-Signature et décoder l'événement
+     */
+    public Event verifier(String payload, String signature) throws SignatureVerificationException {
+        String secret = secretWebhook;
+        if (secret.isBlank() && "local".equals(mode)) {
+            secret = StripeLocalPasserelle.SECRET_WEBHOOK_DEFAUT;
+        }
+        if (secret.isBlank()) {
+            throw new IllegalStateException("stripe.webhook.secret n'est pas configuré");
+        }
+        return Webhook.constructEvent(payload, signature, secret);
+    }
+
+    /**
+     * Appliquer un événement ; false s'il a déjà été traité ou ne concerne pas un PaymentIntent
+     */
+    @Transactional
+    public boolean traiter(Event event) throws EventDataObjectDeserializationException {
+        if (!event.getType().startsWith("payment_intent.") || evenementStripeRepository.existsById(event.getId())) {
+            return false;
+        }
+
+        StripeObject objet = event.getDataObjectDeserializer().getObject().isPresent()
+            ? event.getDataObjectDeserializer().getObject().get()
+            : event.getDataObjectDeserializer().deserializeUnsafe();
+        if (!(objet instanceof PaymentIntent intent)) {
+            return false;
+        }
+
+        LocalDateTime dateEvenement = LocalDateTime.ofInstant(Instant.ofEpochSecond(event.getCreated()), ZoneId.systemDefault());
+        evenementStripeRepository.save(new EvenementStripe(event.getId(), event.getType(), intent.getId(),
+            intent.getStatus(), dateEvenement, LocalDateTime.now()));
+
+        boolean echec = "payment_intent.payment_failed".equals(event.getType()) || intent.getLastPaymentError() != null;
+        enregistrerStatut(intent.getId(), intent.getStatus(), echec, intent.getAmount(), intent.getMetadata(), dateEvenement);
+        log.info("Webhook Stripe {} appliqué: {} -> {}", event.getType(), intent.getId(), intent.getStatus());
+        return true;
+    }
+
+    /**
+     * Reporter le statut d'un PaymentIntent sur son paiement local (créé s'il n'existe pas encore).
+     * echec signale une tentative refusée (événement payment_intent.payment_failed ou last_payment_error).
+     * dateEvenement est la date Stripe d'un webhook, null pour un statut lu directement sur l'API.
+     */
+    @Transactional
+    public Paiement enregistrerStatut(String paymentIntentId, String statutStripe, boolean echec, Long montantCentimes,
+                                      Map<String, String> metadata, LocalDateTime dateEvenement) {
+        Paiement paiement = paiementRepository.findByStripePaymentIntentId(paymentIntentId)
+            .orElseGet(() -> nouveauPaiement(paymentIntentId, montantCentimes, metadata));
+
+        // Événement plus ancien que l'état connu, ou retour en arrière après un succès : ignoré
+        if (dateEvenement != null && paiement.getDateEvenementStripe() != null
+                && dateEvenement.isBefore(paiement.getDateEvenementStripe())) {
+            return paiement;
+        }
+        if (paiement.getStatut() == StatutPaiement.COMPLETED && !"succeeded".equals(statutStripe)) {
+            return paiement;
+        }
+
+        StatutPaiement ancienStatut = paiement.getStatut();
+        paiement.setStatutStripe(statutStripe);
+        paiement.setStatut(statutPaiement(statutStripe, echec));
+        if (paiement.getStatut() != ancienStatut) {
+            metriquesMetier.statutStripe(paiement.getStatut().name());
+        }
+        if (dateEvenement != null) {
+            paiement.setDateEvenementStripe(dateEvenement);
+        }
+        if (paiement.getStatut() == StatutPaiement.COMPLETED && paiement.getDateCompletion() == null) {
+            paiement.setDateCompletion(LocalDateTime.now());
+        }
+        return paiementRepository.save(paiement);
+    }
+
+    /**
+     * Stripe n'a pas de statut « échoué » : après un refus, le PaymentIntent revient à
+     * requires_payment_method avec last_payment_error renseigné
+     */
+    public static StatutPaiement statutPaiement(String statutStripe, boolean echec) {
+        if (statutStripe == null) {
+            return StatutPaiement.PENDING;
+        }
+        return switch (statutStripe) {
+            case "succeeded" -> StatutPaiement.COMPLETED;
+            case "requires_capture" -> StatutPaiement.HELD;
+            case "canceled" -> StatutPaiement.CANCELLED;
+            case "requires_payment_method" -> echec ? StatutPaiement.FAILED : StatutPaiement.PENDING;
+            default -> StatutPaiement.PENDING;
+        };
+    }
+
+    private Paiement nouveauPaiement(String paymentIntentId, Long montantCentimes, Map<String, String> metadata) {
+        Paiement paiement = new Paiement();
+        paiement.setStripePaymentIntentId(paymentIntentId);
+        paiement.setModeDePaiement(Paiement.ModeDePaiement.STRIPE);
+        paiement.setMontant(BigDecimal.valueOf(montantCentimes != null ? montantCentimes : 0).movePointLeft(2));
+        if (metadata != null) {
+            paiement.setReference(metadata.get("reference"));
+            String annonceId = metadata.get("annonceId");
+            if (annonceId != null) {
+                annonceRepository.findById(Integer.valueOf(annonceId)).ifPresent(annonce -> rattacher(paiement, annonce));
+            }
+        }
+        return paiement;
+    }
+
+    static void rattacher(Paiement paiement, Annonce annonce) {
+        paiement.setAnnonce(annonce);
+        if (annonce.getExpediteur() instanceof Client client) {
+            paiement.setClient(client);
+        }
+    }
+}
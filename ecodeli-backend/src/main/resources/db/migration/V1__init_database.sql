@@ -1,12 +1,1402 @@
--- EcoDeli Database Initialization Script for PostgreSQL
--- This script will be executed by Hibernate on Railway
+-- Schéma EcoDeli (PostgreSQL), tel que le décrivent les entités JPA au moment du passage à Flyway.
+-- Rejouable sur une base déjà créée par Hibernate (ddl-auto), marquée version 0 par
+-- spring.flyway.baseline-on-migrate : tables, colonnes, index et contraintes absents y sont ajoutés.
+-- Toute évolution du schéma passe désormais par une nouvelle migration V<n>__<description>.sql.
 
--- Configure PostgreSQL settings
-SET timezone = 'UTC';
+create table if not exists Admin (
+    id_utilisateur integer not null,
+    primary key (id_utilisateur)
+);
 
--- Enable necessary extensions
-CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
-CREATE EXTENSION IF NOT EXISTS "postgis" CASCADE;
+create table if not exists ANALYSE_JUSTIFICATIF (
+    id_justificatif integer not null unique,
+    nombre_pages integer,
+    tentatives integer not null,
+    type_conforme boolean,
+    date_creation timestamp(6) not null,
+    date_traitement timestamp(6),
+    id_analyse bigserial not null,
+    statut varchar(20) not null check (statut in ('EN_ATTENTE','EN_COURS','TERMINE','REJETE','ECHEC')),
+    empreinte_miniature varchar(64),
+    type_detecte varchar(100),
+    message_erreur varchar(500),
+    texte_extrait TEXT,
+    primary key (id_analyse)
+);
 
--- The tables will be created automatically by Hibernate based on @Entity annotations
--- This file ensures proper PostgreSQL configuration
+create table if not exists ANNONCE (
+    id_annonce serial not null,
+    id_colis integer unique,
+    id_destinataire integer,
+    id_expediteur integer not null,
+    id_livreur integer,
+    id_livreur_segment1 integer,
+    id_livreur_segment2 integer,
+    livraison_partielle_autorisee boolean,
+    prix_unitaire numeric(10,2) not null,
+    code_validation varchar(6),
+    code_expiration timestamp(6),
+    date_debut timestamp(6),
+    date_fin timestamp(6),
+    titre varchar(100),
+    email_destinataire varchar(150),
+    adresse_depart TEXT,
+    adresse_fin TEXT,
+    description TEXT,
+    entrepot_intermediaire varchar(255),
+    statut varchar(255) check (statut in ('PUBLIEE','VALIDEE','SEGMENT_1_PRIS','SEGMENT_2_PRIS','SEGMENTS_COMPLETS','EN_COURS_SEGMENT_1','ATTENTE_ENTREPOT','EN_COURS_SEGMENT_2','EN_COURS','TERMINEE','ANNULEE')),
+    statut_segment1 varchar(255) check (statut_segment1 in ('DISPONIBLE','PRIS','EN_COURS','TERMINE')),
+    statut_segment2 varchar(255) check (statut_segment2 in ('DISPONIBLE','PRIS','EN_COURS','TERMINE')),
+    type_annonce varchar(255) check (type_annonce in ('unique','multiple')),
+    primary key (id_annonce)
+);
+
+create table if not exists ANNONCE_COMMERCANT (
+    aide_contextuelle_affichee boolean,
+    commande_minimum numeric(10,2),
+    disponibilite_temps_reel boolean,
+    gestion_disponibilite_continue boolean,
+    heure_livraison_precise time(6),
+    heures_service_debut time(6),
+    heures_service_fin time(6),
+    id_admin_approbateur integer,
+    id_annonce_commercant serial not null,
+    id_commercant integer not null,
+    optimisation_route boolean,
+    planification_capacite boolean,
+    poids_colis numeric(8,2),
+    prix_estime numeric(10,2),
+    temps_livraison_moyen integer,
+    volume_estime numeric(10,2),
+    date_approbation timestamp(6),
+    date_creation timestamp(6) not null,
+    date_expiration timestamp(6),
+    date_livraison_precise timestamp(6),
+    date_publication timestamp(6),
+    titre varchar(200) not null,
+    adresse_collecte TEXT,
+    adresse_destination TEXT,
+    capacite_vehicule_requise varchar(255),
+    categorie varchar(255) not null check (categorie in ('LIVRAISON_PONCTUELLE','SERVICE_CHARIOT','TRANSPORT_MARCHANDISES')),
+    categories_marchandises TEXT,
+    commentaire_approbation TEXT,
+    conditions_transport TEXT,
+    contact_destinataire varchar(255),
+    creneaux_disponibles TEXT,
+    description TEXT,
+    dimensions_colis varchar(255),
+    etapes_completees TEXT,
+    frequence_transport varchar(255) check (frequence_transport in ('UNIQUE','HEBDOMADAIRE','MENSUELLE','REGULIERE')),
+    instructions_livraison TEXT,
+    itineraires_detailles TEXT,
+    jours_service varchar(255),
+    statut varchar(255) not null check (statut in ('BROUILLON','EN_ATTENTE_APPROBATION','APPROUVEE','PUBLIEE','ACTIVE','SUSPENDUE','EXPIREE','ANNULEE')),
+    statut_approbation varchar(255) check (statut_approbation in ('EN_ATTENTE','APPROUVEE','REJETEE','REVISION_DEMANDEE')),
+    zone_couverture TEXT,
+    primary key (id_annonce_commercant)
+);
+
+create table if not exists CANDIDATURE (
+    delai_propose integer,
+    id_prestataire integer not null,
+    prix_propose numeric(10,2) not null,
+    date_candidature timestamp(6) not null,
+    date_reponse timestamp(6),
+    id_candidature bigserial not null,
+    id_demande bigint not null,
+    commentaire_client TEXT,
+    message_prestataire TEXT,
+    statut varchar(255) not null check (statut in ('EN_ATTENTE','ACCEPTEE','REFUSEE')),
+    primary key (id_candidature)
+);
+
+create table if not exists CANDIDATURE_LIVRAISON (
+    id_annonce integer not null,
+    id_livreur integer not null,
+    date_candidature timestamp(6) not null,
+    date_reponse timestamp(6),
+    id_candidature_livraison bigserial not null,
+    entrepot_choisi varchar(50),
+    commentaire_client TEXT,
+    message_livreur TEXT,
+    segment_livraison varchar(255) check (segment_livraison in ('SEGMENT_1','SEGMENT_2')),
+    statut varchar(255) not null check (statut in ('EN_ATTENTE','ACCEPTEE','REFUSEE')),
+    primary key (id_candidature_livraison)
+);
+
+create table if not exists CLE_IDEMPOTENCE (
+    code_http integer,
+    date_creation timestamp(6) not null,
+    date_expiration timestamp(6) not null,
+    cle varchar(64) not null,
+    empreinte_requete varchar(64) not null,
+    type_contenu varchar(100),
+    corps_reponse TEXT,
+    statut varchar(255) not null check (statut in ('EN_COURS','TERMINE')),
+    primary key (cle)
+);
+
+create table if not exists Client (
+    id_utilisateur integer not null,
+    primary key (id_utilisateur)
+);
+
+create table if not exists COLIS (
+    fragile boolean,
+    hauteur numeric(38,2),
+    id_colis serial not null,
+    largeur numeric(38,2),
+    longueur numeric(38,2),
+    poids numeric(38,2),
+    description TEXT,
+    primary key (id_colis)
+);
+
+create table if not exists Commercant (
+    id_utilisateur integer not null,
+    siret varchar(14),
+    description_commerce TEXT,
+    horaires_ouverture TEXT,
+    nom_commerce varchar(255) not null,
+    primary key (id_utilisateur)
+);
+
+create table if not exists CONTRAT_COMMERCANT (
+    id_admin_createur integer,
+    id_commercant integer not null,
+    id_contrat serial not null,
+    signature_commercant boolean,
+    date_creation_contrat timestamp(6),
+    date_demande timestamp(6) not null,
+    date_signature timestamp(6),
+    commentaire_admin TEXT,
+    contenu_contrat TEXT,
+    statut varchar(255) not null check (statut in ('DEMANDE_ENVOYEE','EN_ATTENTE_ADMIN','CONTRAT_CREE','SIGNE_VALIDE','REFUSE')),
+    primary key (id_contrat)
+);
+
+create table if not exists DEMANDE_SERVICE (
+    budget_max numeric(10,2),
+    budget_min numeric(10,2),
+    id_client integer not null,
+    service_personnalise boolean,
+    date_creation timestamp(6) not null,
+    date_modification timestamp(6),
+    date_souhaitee timestamp(6),
+    id_demande bigserial not null,
+    creneau_horaire varchar(100),
+    titre varchar(100) not null,
+    type_service_specifique varchar(100),
+    adresse_arrivee TEXT,
+    adresse_depart TEXT,
+    categorie_service varchar(255) not null check (categorie_service in ('TRANSPORT_LIVRAISON','SERVICES_DOMICILE','TRAVAUX_REPARATIONS','COURSES_ACHATS','SERVICES_PERSONNELS','EDUCATION_FORMATION')),
+    description TEXT not null,
+    details_specifiques TEXT,
+    statut varchar(255) not null check (statut in ('PUBLIEE','CANDIDATURES_RECUES','PRESTATAIRE_SELECTIONNE','EN_COURS','TERMINEE','ANNULEE')),
+    primary key (id_demande)
+);
+
+create table if not exists demande_service_photos (
+    id_demande bigint not null,
+    photo_url varchar(255)
+);
+
+create table if not exists DEPENSE_CLIENT (
+    id_client integer not null,
+    total_services_payes numeric(12,2) not null,
+    date_mise_a_jour timestamp(6),
+    nombre_services_payes bigint not null,
+    primary key (id_client)
+);
+
+create table if not exists disponibilites_prestataire (
+    id_prestataire integer not null,
+    disponibilites timestamp(6)
+);
+
+create table if not exists ENTREPOT (
+    id_entrepot serial not null,
+    nombre_de_places integer,
+    ville varchar(100),
+    statut varchar(255) check (statut in ('ACTIF','INACTIF','EN_MAINTENANCE','COMPLET')),
+    primary key (id_entrepot)
+);
+
+create table if not exists ENTREPRISE (
+    id_entreprise serial not null,
+    statut_juridique integer,
+    validation_par_ad boolean,
+    date_ajout timestamp(6),
+    code_postal varchar(10),
+    telephone varchar(30),
+    SIRET varchar(50),
+    pays varchar(50),
+    site_web varchar(50),
+    secteur_activite varchar(100),
+    ville varchar(100),
+    email varchar(150) not null unique,
+    adresse TEXT,
+    primary key (id_entreprise)
+);
+
+create table if not exists EVALUATION_MISSION (
+    id_client integer not null,
+    id_prestataire integer not null,
+    note_communication integer not null check ((note_communication>=1) and (note_communication<=5)),
+    note_delais integer not null check ((note_delais>=1) and (note_delais<=5)),
+    note_globale integer not null check ((note_globale>=1) and (note_globale<=5)),
+    note_professionnalisme integer not null check ((note_professionnalisme>=1) and (note_professionnalisme<=5)),
+    note_qualite integer not null check ((note_qualite>=1) and (note_qualite<=5)),
+    date_creation timestamp(6) not null,
+    date_evaluation timestamp(6) not null,
+    date_modification timestamp(6),
+    id_candidature bigint not null unique,
+    id_evaluation bigserial not null,
+    commentaire varchar(500),
+    primary key (id_evaluation)
+);
+
+create table if not exists EVENEMENT_STRIPE (
+    date_evenement timestamp(6) not null,
+    date_reception timestamp(6) not null,
+    statut_stripe varchar(40),
+    type_evenement varchar(100) not null,
+    id_evenement varchar(255) not null,
+    id_payment_intent varchar(255),
+    primary key (id_evenement)
+);
+
+create table if not exists JETON_RAFRAICHISSEMENT (
+    id_utilisateur integer not null,
+    revoque boolean not null,
+    date_creation timestamp(6) not null,
+    date_expiration timestamp(6) not null,
+    date_utilisation timestamp(6),
+    id_jeton bigserial not null,
+    famille varchar(36) not null,
+    empreinte varchar(64) not null,
+    primary key (id_jeton),
+    constraint idx_jeton_rafraichissement_empreinte unique (empreinte)
+);
+
+create table if not exists JUSTIFICATIF (
+    id_justificatif serial not null,
+    id_utilisateur integer not null,
+    integrite_compromise boolean,
+    validation_par_ad boolean,
+    date_debut timestamp(6),
+    date_fin timestamp(6),
+    date_verification_integrite timestamp(6),
+    taille_octets bigint,
+    empreinte_sha256 varchar(64),
+    type_justificatif varchar(100),
+    type_mime varchar(100),
+    chemin_fichier varchar(255),
+    commentaire TEXT,
+    nom_fichier_original varchar(255),
+    primary key (id_justificatif)
+);
+
+create table if not exists LIVRAISON (
+    id_annonce integer,
+    id_colis integer,
+    id_destinataire integer,
+    id_expediteur integer not null,
+    id_livraison serial not null,
+    latitude_envoi float(53),
+    latitude_livraison float(53),
+    livreur_segment_1 integer,
+    livreur_segment_2 integer,
+    longitude_envoi float(53),
+    longitude_livraison float(53),
+    prix integer,
+    validation boolean,
+    otp_code varchar(6),
+    date_collecte_entrepot timestamp(6),
+    date_debut timestamp(6),
+    date_depot_entrepot timestamp(6),
+    date_fin timestamp(6),
+    otp_timestamp timestamp(6),
+    code_postal_envoi varchar(10),
+    code_postal_livraison varchar(10),
+    code_validation varchar(10),
+    entrepot_ville varchar(50),
+    adresse_de_livraison varchar(100),
+    adresse_envoi varchar(100),
+    statut varchar(255) check (statut in ('VALIDEE','EN_COURS','ATTENTE_SEGMENT_2','SEGMENT_2_EN_COURS','ARRIVED','TERMINEE','ANNULEE')),
+    type_livraison varchar(255) check (type_livraison in ('DIRECTE','PARTIELLE')),
+    primary key (id_livraison)
+);
+
+create table if not exists Livreur (
+    disponible boolean,
+    id_utilisateur integer not null,
+    solde_portefeuille numeric(10,2),
+    total_gagnes numeric(10,2),
+    numero_permis varchar(9),
+    iban_livreur varchar(34),
+    vehicule varchar(255),
+    primary key (id_utilisateur)
+);
+
+create table if not exists MESSAGE (
+    id_destinataire integer not null,
+    id_expediteur integer not null,
+    id_message serial not null,
+    lu boolean,
+    date timestamp(6),
+    message TEXT not null,
+    primary key (id_message)
+);
+
+create table if not exists PAIEMENT (
+    commission numeric(10,2),
+    id_annonce integer,
+    id_client integer,
+    id_paiement serial not null,
+    montant numeric(10,2) not null,
+    date_completion timestamp(6),
+    date_creation timestamp(6),
+    date_evenement_stripe timestamp(6),
+    reference varchar(32),
+    statut_stripe varchar(40),
+    mode_de_paiement varchar(255) check (mode_de_paiement in ('STRIPE','PayPal','Espèces','Virement','Chèque')),
+    statut varchar(255) check (statut in ('PENDING','HELD','COMPLETED','FAILED','REFUNDED','CANCELLED')),
+    stripe_payment_intent_id varchar(255),
+    primary key (id_paiement),
+    constraint idx_paiement_payment_intent unique (stripe_payment_intent_id)
+);
+
+create table if not exists PORTEFEUILLE_PRESTATAIRE (
+    id_prestataire integer not null unique,
+    nombre_transactions integer not null,
+    solde_disponible numeric(10,2) not null,
+    solde_en_attente numeric(10,2) not null,
+    total_gagne numeric(10,2) not null,
+    total_retire numeric(10,2) not null,
+    date_creation timestamp(6) not null,
+    date_modification timestamp(6),
+    id_portefeuille bigserial not null,
+    iban_prestataire varchar(34),
+    nom_titulaire varchar(100),
+    primary key (id_portefeuille)
+);
+
+create table if not exists Prestataire (
+    disponible boolean,
+    id_admin_validateur integer,
+    id_utilisateur integer not null,
+    tarif_horaire float(53),
+    date_validation timestamp(6),
+    siret varchar(14),
+    commentaire_validation TEXT,
+    description TEXT,
+    domaine_expertise varchar(255) check (domaine_expertise in ('TRANSPORT_LIVRAISON','SERVICES_DOMICILE','TRAVAUX_REPARATIONS','COURSES_ACHATS','SERVICES_PERSONNELS','EDUCATION_FORMATION')),
+    image_url varchar(255),
+    nom_entreprise varchar(255) not null,
+    statut_validation varchar(255) check (statut_validation in ('EN_ATTENTE','VALIDE','REJETE','SUSPENDU')),
+    zone_intervention TEXT,
+    primary key (id_utilisateur)
+);
+
+create table if not exists PRESTATAIRE_CATEGORIE (
+    id_admin_validateur integer,
+    id_prestataire integer not null,
+    tarif_horaire float(53),
+    date_demande timestamp(6) not null,
+    date_validation timestamp(6),
+    id_prestataire_categorie bigserial not null,
+    categorie_service varchar(255) not null check (categorie_service in ('TRANSPORT_LIVRAISON','SERVICES_DOMICILE','TRAVAUX_REPARATIONS','COURSES_ACHATS','SERVICES_PERSONNELS','EDUCATION_FORMATION')),
+    commentaire_admin TEXT,
+    statut_validation varchar(255) not null check (statut_validation in ('EN_ATTENTE','VALIDE','REJETE')),
+    primary key (id_prestataire_categorie)
+);
+
+create table if not exists RATING_SUMMARY (
+    id_prestataire integer not null,
+    date_mise_a_jour timestamp(6),
+    nombre_evaluations bigint not null,
+    nombre_note_1 bigint not null,
+    nombre_note_2 bigint not null,
+    nombre_note_3 bigint not null,
+    nombre_note_4 bigint not null,
+    nombre_note_5 bigint not null,
+    somme_communication bigint not null,
+    somme_delais bigint not null,
+    somme_notes_globales bigint not null,
+    somme_professionnalisme bigint not null,
+    somme_qualite bigint not null,
+    primary key (id_prestataire)
+);
+
+create table if not exists RETRAIT (
+    id_livreur integer not null,
+    id_retrait serial not null,
+    montant numeric(10,2) not null,
+    date_demande timestamp(6),
+    date_traitement timestamp(6),
+    iban varchar(34),
+    statut varchar(255) check (statut in ('EN_ATTENTE','TRAITE','REFUSE')),
+    primary key (id_retrait)
+);
+
+create table if not exists SERVICE (
+    id_client integer not null,
+    id_prestataire integer not null,
+    prix_final numeric(10,2) not null,
+    progression integer not null check ((progression<=100) and (progression>=0)),
+    date_creation timestamp(6) not null,
+    date_debut timestamp(6),
+    date_fin timestamp(6),
+    date_modification timestamp(6),
+    date_realisation_prevue timestamp(6),
+    id_candidature bigint not null unique,
+    id_demande_service bigint not null unique,
+    id_service bigserial not null,
+    adresse_secondaire TEXT,
+    adresse_service TEXT,
+    notes_client TEXT,
+    notes_prestataire TEXT,
+    statut varchar(255) not null check (statut in ('CONFIRME','EN_COURS','TERMINE','ANNULE')),
+    primary key (id_service)
+);
+
+create table if not exists TEMPLATE_CONTRAT (
+    actif boolean,
+    id_admin_createur integer,
+    id_template serial not null,
+    date_creation timestamp(6) not null,
+    date_modification timestamp(6),
+    nom_template varchar(100) not null,
+    description TEXT,
+    contenu_template oid,
+    primary key (id_template)
+);
+
+create table if not exists TRANSACTION_MENSUELLE (
+    id_prestataire integer not null,
+    mois date not null,
+    total_commission numeric(12,2) not null,
+    total_frais numeric(12,2) not null,
+    total_montant numeric(12,2) not null,
+    date_mise_a_jour timestamp(6),
+    nombre_transactions bigint not null,
+    type_transaction varchar(255) not null check (type_transaction in ('CREDIT_MISSION','RETRAIT_PRESTATAIRE','FRAIS_SERVICE','BONUS','REMBOURSEMENT','CORRECTION')),
+    primary key (id_prestataire, mois, type_transaction)
+);
+
+create table if not exists TRANSACTION_PORTEFEUILLE (
+    commission_ecodeli numeric(10,2),
+    frais_transaction numeric(10,2),
+    id_prestataire integer,
+    montant numeric(10,2) not null,
+    date_creation timestamp(6) not null,
+    date_modification timestamp(6),
+    date_traitement timestamp(6),
+    date_transaction timestamp(6) not null,
+    id_candidature bigint,
+    id_portefeuille bigint not null,
+    id_transaction bigserial not null,
+    iban_destinataire varchar(34),
+    reference_externe varchar(100) unique,
+    description varchar(500),
+    statut_transaction varchar(255) not null check (statut_transaction in ('EN_ATTENTE','EN_COURS','EFFECTUE','ECHOUE','ANNULE')),
+    type_transaction varchar(255) not null check (type_transaction in ('CREDIT_MISSION','RETRAIT_PRESTATAIRE','FRAIS_SERVICE','BONUS','REMBOURSEMENT','CORRECTION')),
+    primary key (id_transaction)
+);
+
+create table if not exists UTILISATEUR (
+    date_de_naissance date,
+    genre boolean,
+    id_utilisateur serial not null,
+    code_postal varchar(10),
+    telephone varchar(30),
+    type_utilisateur varchar(31) not null,
+    pays varchar(50),
+    nom varchar(100) not null,
+    prenom varchar(100) not null,
+    ville varchar(100),
+    email varchar(150) not null unique,
+    adresse TEXT,
+    mot_de_passe varchar(255) not null,
+    primary key (id_utilisateur)
+);
+
+-- Bases créées par une version antérieure des entités : colonnes ajoutées depuis. Sans NOT NULL,
+-- que les lignes existantes ne rempliraient pas ; sans effet sur une base créée par ce script.
+
+alter table ANALYSE_JUSTIFICATIF
+    add column if not exists id_justificatif integer unique,
+    add column if not exists nombre_pages integer,
+    add column if not exists tentatives integer,
+    add column if not exists type_conforme boolean,
+    add column if not exists date_creation timestamp(6),
+    add column if not exists date_traitement timestamp(6),
+    add column if not exists statut varchar(20) check (statut in ('EN_ATTENTE','EN_COURS','TERMINE','REJETE','ECHEC')),
+    add column if not exists empreinte_miniature varchar(64),
+    add column if not exists type_detecte varchar(100),
+    add column if not exists message_erreur varchar(500),
+    add column if not exists texte_extrait TEXT;
+
+alter table ANNONCE
+    add column if not exists id_colis integer unique,
+    add column if not exists id_destinataire integer,
+    add column if not exists id_expediteur integer,
+    add column if not exists id_livreur integer,
+    add column if not exists id_livreur_segment1 integer,
+    add column if not exists id_livreur_segment2 integer,
+    add column if not exists livraison_partielle_autorisee boolean,
+    add column if not exists prix_unitaire numeric(10,2),
+    add column if not exists code_validation varchar(6),
+    add column if not exists code_expiration timestamp(6),
+    add column if not exists date_debut timestamp(6),
+    add column if not exists date_fin timestamp(6),
+    add column if not exists titre varchar(100),
+    add column if not exists email_destinataire varchar(150),
+    add column if not exists adresse_depart TEXT,
+    add column if not exists adresse_fin TEXT,
+    add column if not exists description TEXT,
+    add column if not exists entrepot_intermediaire varchar(255),
+    add column if not exists statut varchar(255) check (statut in ('PUBLIEE','VALIDEE','SEGMENT_1_PRIS','SEGMENT_2_PRIS','SEGMENTS_COMPLETS','EN_COURS_SEGMENT_1','ATTENTE_ENTREPOT','EN_COURS_SEGMENT_2','EN_COURS','TERMINEE','ANNULEE')),
+    add column if not exists statut_segment1 varchar(255) check (statut_segment1 in ('DISPONIBLE','PRIS','EN_COURS','TERMINE')),
+    add column if not exists statut_segment2 varchar(255) check (statut_segment2 in ('DISPONIBLE','PRIS','EN_COURS','TERMINE')),
+    add column if not exists type_annonce varchar(255) check (type_annonce in ('unique','multiple'));
+
+alter table ANNONCE_COMMERCANT
+    add column if not exists aide_contextuelle_affichee boolean,
+    add column if not exists commande_minimum numeric(10,2),
+    add column if not exists disponibilite_temps_reel boolean,
+    add column if not exists gestion_disponibilite_continue boolean,
+    add column if not exists heure_livraison_precise time(6),
+    add column if not exists heures_service_debut time(6),
+    add column if not exists heures_service_fin time(6),
+    add column if not exists id_admin_approbateur integer,
+    add column if not exists id_commercant integer,
+    add column if not exists optimisation_route boolean,
+    add column if not exists planification_capacite boolean,
+    add column if not exists poids_colis numeric(8,2),
+    add column if not exists prix_estime numeric(10,2),
+    add column if not exists temps_livraison_moyen integer,
+    add column if not exists volume_estime numeric(10,2),
+    add column if not exists date_approbation timestamp(6),
+    add column if not exists date_creation timestamp(6),
+    add column if not exists date_expiration timestamp(6),
+    add column if not exists date_livraison_precise timestamp(6),
+    add column if not exists date_publication timestamp(6),
+    add column if not exists titre varchar(200),
+    add column if not exists adresse_collecte TEXT,
+    add column if not exists adresse_destination TEXT,
+    add column if not exists capacite_vehicule_requise varchar(255),
+    add column if not exists categorie varchar(255) check (categorie in ('LIVRAISON_PONCTUELLE','SERVICE_CHARIOT','TRANSPORT_MARCHANDISES')),
+    add column if not exists categories_marchandises TEXT,
+    add column if not exists commentaire_approbation TEXT,
+    add column if not exists conditions_transport TEXT,
+    add column if not exists contact_destinataire varchar(255),
+    add column if not exists creneaux_disponibles TEXT,
+    add column if not exists description TEXT,
+    add column if not exists dimensions_colis varchar(255),
+    add column if not exists etapes_completees TEXT,
+    add column if not exists frequence_transport varchar(255) check (frequence_transport in ('UNIQUE','HEBDOMADAIRE','MENSUELLE','REGULIERE')),
+    add column if not exists instructions_livraison TEXT,
+    add column if not exists itineraires_detailles TEXT,
+    add column if not exists jours_service varchar(255),
+    add column if not exists statut varchar(255) check (statut in ('BROUILLON','EN_ATTENTE_APPROBATION','APPROUVEE','PUBLIEE','ACTIVE','SUSPENDUE','EXPIREE','ANNULEE')),
+    add column if not exists statut_approbation varchar(255) check (statut_approbation in ('EN_ATTENTE','APPROUVEE','REJETEE','REVISION_DEMANDEE')),
+    add column if not exists zone_couverture TEXT;
+
+alter table CANDIDATURE
+    add column if not exists delai_propose integer,
+    add column if not exists id_prestataire integer,
+    add column if not exists prix_propose numeric(10,2),
+    add column if not exists date_candidature timestamp(6),
+    add column if not exists date_reponse timestamp(6),
+    add column if not exists id_demande bigint,
+    add column if not exists commentaire_client TEXT,
+    add column if not exists message_prestataire TEXT,
+    add column if not exists statut varchar(255) check (statut in ('EN_ATTENTE','ACCEPTEE','REFUSEE'));
+
+alter table CANDIDATURE_LIVRAISON
+    add column if not exists id_annonce integer,
+    add column if not exists id_livreur integer,
+    add column if not exists date_candidature timestamp(6),
+    add column if not exists date_reponse timestamp(6),
+    add column if not exists entrepot_choisi varchar(50),
+    add column if not exists commentaire_client TEXT,
+    add column if not exists message_livreur TEXT,
+    add column if not exists segment_livraison varchar(255) check (segment_livraison in ('SEGMENT_1','SEGMENT_2')),
+    add column if not exists statut varchar(255) check (statut in ('EN_ATTENTE','ACCEPTEE','REFUSEE'));
+
+alter table CLE_IDEMPOTENCE
+    add column if not exists code_http integer,
+    add column if not exists date_creation timestamp(6),
+    add column if not exists date_expiration timestamp(6),
+    add column if not exists empreinte_requete varchar(64),
+    add column if not exists type_contenu varchar(100),
+    add column if not exists corps_reponse TEXT,
+    add column if not exists statut varchar(255) check (statut in ('EN_COURS','TERMINE'));
+
+alter table COLIS
+    add column if not exists fragile boolean,
+    add column if not exists hauteur numeric(38,2),
+    add column if not exists largeur numeric(38,2),
+    add column if not exists longueur numeric(38,2),
+    add column if not exists poids numeric(38,2),
+    add column if not exists description TEXT;
+
+alter table Commercant
+    add column if not exists siret varchar(14),
+    add column if not exists description_commerce TEXT,
+    add column if not exists horaires_ouverture TEXT,
+    add column if not exists nom_commerce varchar(255);
+
+alter table CONTRAT_COMMERCANT
+    add column if not exists id_admin_createur integer,
+    add column if not exists id_commercant integer,
+    add column if not exists signature_commercant boolean,
+    add column if not exists date_creation_contrat timestamp(6),
+    add column if not exists date_demande timestamp(6),
+    add column if not exists date_signature timestamp(6),
+    add column if not exists commentaire_admin TEXT,
+    add column if not exists contenu_contrat TEXT,
+    add column if not exists statut varchar(255) check (statut in ('DEMANDE_ENVOYEE','EN_ATTENTE_ADMIN','CONTRAT_CREE','SIGNE_VALIDE','REFUSE'));
+
+alter table DEMANDE_SERVICE
+    add column if not exists budget_max numeric(10,2),
+    add column if not exists budget_min numeric(10,2),
+    add column if not exists id_client integer,
+    add column if not exists service_personnalise boolean,
+    add column if not exists date_creation timestamp(6),
+    add column if not exists date_modification timestamp(6),
+    add column if not exists date_souhaitee timestamp(6),
+    add column if not exists creneau_horaire varchar(100),
+    add column if not exists titre varchar(100),
+    add column if not exists type_service_specifique varchar(100),
+    add column if not exists adresse_arrivee TEXT,
+    add column if not exists adresse_depart TEXT,
+    add column if not exists categorie_service varchar(255) check (categorie_service in ('TRANSPORT_LIVRAISON','SERVICES_DOMICILE','TRAVAUX_REPARATIONS','COURSES_ACHATS','SERVICES_PERSONNELS','EDUCATION_FORMATION')),
+    add column if not exists description TEXT,
+    add column if not exists details_specifiques TEXT,
+    add column if not exists statut varchar(255) check (statut in ('PUBLIEE','CANDIDATURES_RECUES','PRESTATAIRE_SELECTIONNE','EN_COURS','TERMINEE','ANNULEE'));
+
+alter table demande_service_photos
+    add column if not exists id_demande bigint,
+    add column if not exists photo_url varchar(255);
+
+alter table DEPENSE_CLIENT
+    add column if not exists total_services_payes numeric(12,2),
+    add column if not exists date_mise_a_jour timestamp(6),
+    add column if not exists nombre_services_payes bigint;
+
+alter table disponibilites_prestataire
+    add column if not exists id_prestataire integer,
+    add column if not exists disponibilites timestamp(6);
+
+alter table ENTREPOT
+    add column if not exists nombre_de_places integer,
+    add column if not exists ville varchar(100),
+    add column if not exists statut varchar(255) check (statut in ('ACTIF','INACTIF','EN_MAINTENANCE','COMPLET'));
+
+alter table ENTREPRISE
+    add column if not exists statut_juridique integer,
+    add column if not exists validation_par_ad boolean,
+    add column if not exists date_ajout timestamp(6),
+    add column if not exists code_postal varchar(10),
+    add column if not exists telephone varchar(30),
+    add column if not exists SIRET varchar(50),
+    add column if not exists pays varchar(50),
+    add column if not exists site_web varchar(50),
+    add column if not exists secteur_activite varchar(100),
+    add column if not exists ville varchar(100),
+    add column if not exists email varchar(150) unique,
+    add column if not exists adresse TEXT;
+
+alter table EVALUATION_MISSION
+    add column if not exists id_client integer,
+    add column if not exists id_prestataire integer,
+    add column if not exists note_communication integer check ((note_communication>=1) and (note_communication<=5)),
+    add column if not exists note_delais integer check ((note_delais>=1) and (note_delais<=5)),
+    add column if not exists note_globale integer check ((note_globale>=1) and (note_globale<=5)),
+    add column if not exists note_professionnalisme integer check ((note_professionnalisme>=1) and (note_professionnalisme<=5)),
+    add column if not exists note_qualite integer check ((note_qualite>=1) and (note_qualite<=5)),
+    add column if not exists date_creation timestamp(6),
+    add column if not exists date_evaluation timestamp(6),
+    add column if not exists date_modification timestamp(6),
+    add column if not exists id_candidature bigint unique,
+    add column if not exists commentaire varchar(500);
+
+alter table EVENEMENT_STRIPE
+    add column if not exists date_evenement timestamp(6),
+    add column if not exists date_reception timestamp(6),
+    add column if not exists statut_stripe varchar(40),
+    add column if not exists type_evenement varchar(100),
+    add column if not exists id_payment_intent varchar(255);
+
+alter table JETON_RAFRAICHISSEMENT
+    add column if not exists id_utilisateur integer,
+    add column if not exists revoque boolean,
+    add column if not exists date_creation timestamp(6),
+    add column if not exists date_expiration timestamp(6),
+    add column if not exists date_utilisation timestamp(6),
+    add column if not exists famille varchar(36),
+    add column if not exists empreinte varchar(64);
+
+alter table JUSTIFICATIF
+    add column if not exists id_utilisateur integer,
+    add column if not exists integrite_compromise boolean,
+    add column if not exists validation_par_ad boolean,
+    add column if not exists date_debut timestamp(6),
+    add column if not exists date_fin timestamp(6),
+    add column if not exists date_verification_integrite timestamp(6),
+    add column if not exists taille_octets bigint,
+    add column if not exists empreinte_sha256 varchar(64),
+    add column if not exists type_justificatif varchar(100),
+    add column if not exists type_mime varchar(100),
+    add column if not exists chemin_fichier varchar(255),
+    add column if not exists commentaire TEXT,
+    add column if not exists nom_fichier_original varchar(255);
+
+alter table LIVRAISON
+    add column if not exists id_annonce integer,
+    add column if not exists id_colis integer,
+    add column if not exists id_destinataire integer,
+    add column if not exists id_expediteur integer,
+    add column if not exists latitude_envoi float(53),
+    add column if not exists latitude_livraison float(53),
+    add column if not exists livreur_segment_1 integer,
+    add column if not exists livreur_segment_2 integer,
+    add column if not exists longitude_envoi float(53),
+    add column if not exists longitude_livraison float(53),
+    add column if not exists prix integer,
+    add column if not exists validation boolean,
+    add column if not exists otp_code varchar(6),
+    add column if not exists date_collecte_entrepot timestamp(6),
+    add column if not exists date_debut timestamp(6),
+    add column if not exists date_depot_entrepot timestamp(6),
+    add column if not exists date_fin timestamp(6),
+    add column if not exists otp_timestamp timestamp(6),
+    add column if not exists code_postal_envoi varchar(10),
+    add column if not exists code_postal_livraison varchar(10),
+    add column if not exists code_validation varchar(10),
+    add column if not exists entrepot_ville varchar(50),
+    add column if not exists adresse_de_livraison varchar(100),
+    add column if not exists adresse_envoi varchar(100),
+    add column if not exists statut varchar(255) check (statut in ('VALIDEE','EN_COURS','ATTENTE_SEGMENT_2','SEGMENT_2_EN_COURS','ARRIVED','TERMINEE','ANNULEE')),
+    add column if not exists type_livraison varchar(255) check (type_livraison in ('DIRECTE','PARTIELLE'));
+
+alter table Livreur
+    add column if not exists disponible boolean,
+    add column if not exists solde_portefeuille numeric(10,2),
+    add column if not exists total_gagnes numeric(10,2),
+    add column if not exists numero_permis varchar(9),
+    add column if not exists iban_livreur varchar(34),
+    add column if not exists vehicule varchar(255);
+
+alter table MESSAGE
+    add column if not exists id_destinataire integer,
+    add column if not exists id_expediteur integer,
+    add column if not exists lu boolean,
+    add column if not exists date timestamp(6),
+    add column if not exists message TEXT;
+
+alter table PAIEMENT
+    add column if not exists commission numeric(10,2),
+    add column if not exists id_annonce integer,
+    add column if not exists id_client integer,
+    add column if not exists montant numeric(10,2),
+    add column if not exists date_completion timestamp(6),
+    add column if not exists date_creation timestamp(6),
+    add column if not exists date_evenement_stripe timestamp(6),
+    add column if not exists reference varchar(32),
+    add column if not exists statut_stripe varchar(40),
+    add column if not exists mode_de_paiement varchar(255) check (mode_de_paiement in ('STRIPE','PayPal','Espèces','Virement','Chèque')),
+    add column if not exists statut varchar(255) check (statut in ('PENDING','HELD','COMPLETED','FAILED','REFUNDED','CANCELLED')),
+    add column if not exists stripe_payment_intent_id varchar(255);
+
+alter table PORTEFEUILLE_PRESTATAIRE
+    add column if not exists id_prestataire integer unique,
+    add column if not exists nombre_transactions integer,
+    add column if not exists solde_disponible numeric(10,2),
+    add column if not exists solde_en_attente numeric(10,2),
+    add column if not exists total_gagne numeric(10,2),
+    add column if not exists total_retire numeric(10,2),
+    add column if not exists date_creation timestamp(6),
+    add column if not exists date_modification timestamp(6),
+    add column if not exists iban_prestataire varchar(34),
+    add column if not exists nom_titulaire varchar(100);
+
+alter table Prestataire
+    add column if not exists disponible boolean,
+    add column if not exists id_admin_validateur integer,
+    add column if not exists tarif_horaire float(53),
+    add column if not exists date_validation timestamp(6),
+    add column if not exists siret varchar(14),
+    add column if not exists commentaire_validation TEXT,
+    add column if not exists description TEXT,
+    add column if not exists domaine_expertise varchar(255) check (domaine_expertise in ('TRANSPORT_LIVRAISON','SERVICES_DOMICILE','TRAVAUX_REPARATIONS','COURSES_ACHATS','SERVICES_PERSONNELS','EDUCATION_FORMATION')),
+    add column if not exists image_url varchar(255),
+    add column if not exists nom_entreprise varchar(255),
+    add column if not exists statut_validation varchar(255) check (statut_validation in ('EN_ATTENTE','VALIDE','REJETE','SUSPENDU')),
+    add column if not exists zone_intervention TEXT;
+
+alter table PRESTATAIRE_CATEGORIE
+    add column if not exists id_admin_validateur integer,
+    add column if not exists id_prestataire integer,
+    add column if not exists tarif_horaire float(53),
+    add column if not exists date_demande timestamp(6),
+    add column if not exists date_validation timestamp(6),
+    add column if not exists categorie_service varchar(255) check (categorie_service in ('TRANSPORT_LIVRAISON','SERVICES_DOMICILE','TRAVAUX_REPARATIONS','COURSES_ACHATS','SERVICES_PERSONNELS','EDUCATION_FORMATION')),
+    add column if not exists commentaire_admin TEXT,
+    add column if not exists statut_validation varchar(255) check (statut_validation in ('EN_ATTENTE','VALIDE','REJETE'));
+
+alter table RATING_SUMMARY
+    add column if not exists date_mise_a_jour timestamp(6),
+    add column if not exists nombre_evaluations bigint,
+    add column if not exists nombre_note_1 bigint,
+    add column if not exists nombre_note_2 bigint,
+    add column if not exists nombre_note_3 bigint,
+    add column if not exists nombre_note_4 bigint,
+    add column if not exists nombre_note_5 bigint,
+    add column if not exists somme_communication bigint,
+    add column if not exists somme_delais bigint,
+    add column if not exists somme_notes_globales bigint,
+    add column if not exists somme_professionnalisme bigint,
+    add column if not exists somme_qualite bigint;
+
+alter table RETRAIT
+    add column if not exists id_livreur integer,
+    add column if not exists montant numeric(10,2),
+    add column if not exists date_demande timestamp(6),
+    add column if not exists date_traitement timestamp(6),
+    add column if not exists iban varchar(34),
+    add column if not exists statut varchar(255) check (statut in ('EN_ATTENTE','TRAITE','REFUSE'));
+
+alter table SERVICE
+    add column if not exists id_client integer,
+    add column if not exists id_prestataire integer,
+    add column if not exists prix_final numeric(10,2),
+    add column if not exists progression integer check ((progression<=100) and (progression>=0)),
+    add column if not exists date_creation timestamp(6),
+    add column if not exists date_debut timestamp(6),
+    add column if not exists date_fin timestamp(6),
+    add column if not exists date_modification timestamp(6),
+    add column if not exists date_realisation_prevue timestamp(6),
+    add column if not exists id_candidature bigint unique,
+    add column if not exists id_demande_service bigint unique,
+    add column if not exists adresse_secondaire TEXT,
+    add column if not exists adresse_service TEXT,
+    add column if not exists notes_client TEXT,
+    add column if not exists notes_prestataire TEXT,
+    add column if not exists statut varchar(255) check (statut in ('CONFIRME','EN_COURS','TERMINE','ANNULE'));
+
+alter table TEMPLATE_CONTRAT
+    add column if not exists actif boolean,
+    add column if not exists id_admin_createur integer,
+    add column if not exists date_creation timestamp(6),
+    add column if not exists date_modification timestamp(6),
+    add column if not exists nom_template varchar(100),
+    add column if not exists description TEXT,
+    add column if not exists contenu_template oid;
+
+alter table TRANSACTION_MENSUELLE
+    add column if not exists total_commission numeric(12,2),
+    add column if not exists total_frais numeric(12,2),
+    add column if not exists total_montant numeric(12,2),
+    add column if not exists date_mise_a_jour timestamp(6),
+    add column if not exists nombre_transactions bigint;
+
+alter table TRANSACTION_PORTEFEUILLE
+    add column if not exists commission_ecodeli numeric(10,2),
+    add column if not exists frais_transaction numeric(10,2),
+    add column if not exists id_prestataire integer,
+    add column if not exists montant numeric(10,2),
+    add column if not exists date_creation timestamp(6),
+    add column if not exists date_modification timestamp(6),
+    add column if not exists date_traitement timestamp(6),
+    add column if not exists date_transaction timestamp(6),
+    add column if not exists id_candidature bigint,
+    add column if not exists id_portefeuille bigint,
+    add column if not exists iban_destinataire varchar(34),
+    add column if not exists reference_externe varchar(100) unique,
+    add column if not exists description varchar(500),
+    add column if not exists statut_transaction varchar(255) check (statut_transaction in ('EN_ATTENTE','EN_COURS','EFFECTUE','ECHOUE','ANNULE')),
+    add column if not exists type_transaction varchar(255) check (type_transaction in ('CREDIT_MISSION','RETRAIT_PRESTATAIRE','FRAIS_SERVICE','BONUS','REMBOURSEMENT','CORRECTION'));
+
+alter table UTILISATEUR
+    add column if not exists date_de_naissance date,
+    add column if not exists genre boolean,
+    add column if not exists code_postal varchar(10),
+    add column if not exists telephone varchar(30),
+    add column if not exists type_utilisateur varchar(31),
+    add column if not exists pays varchar(50),
+    add column if not exists nom varchar(100),
+    add column if not exists prenom varchar(100),
+    add column if not exists ville varchar(100),
+    add column if not exists email varchar(150) unique,
+    add column if not exists adresse TEXT,
+    add column if not exists mot_de_passe varchar(255);
+
+
+create index if not exists idx_analyse_justificatif_statut
+   on ANALYSE_JUSTIFICATIF (statut);
+
+create index if not exists idx_cle_idempotence_expiration
+   on CLE_IDEMPOTENCE (date_expiration);
+
+create index if not exists idx_evenement_stripe_intent
+   on EVENEMENT_STRIPE (id_payment_intent);
+
+create index if not exists idx_jeton_rafraichissement_famille
+   on JETON_RAFRAICHISSEMENT (famille);
+
+create index if not exists idx_jeton_rafraichissement_expiration
+   on JETON_RAFRAICHISSEMENT (date_expiration);
+
+create index if not exists idx_justificatif_empreinte
+   on JUSTIFICATIF (empreinte_sha256);
+
+create index if not exists idx_prestataire_domaine
+   on Prestataire (domaine_expertise);
+
+create index if not exists idx_transaction_prestataire_date
+   on TRANSACTION_PORTEFEUILLE (id_prestataire, date_transaction, id_transaction);
+
+alter table if exists Admin
+   drop constraint if exists FKlsk3swu85nq0cm9diit3mm0io,
+   add constraint FKlsk3swu85nq0cm9diit3mm0io
+   foreign key (id_utilisateur)
+   references UTILISATEUR;
+
+alter table if exists ANALYSE_JUSTIFICATIF
+   drop constraint if exists FK8rxwt79tga11n6nqnuy0va4cs,
+   add constraint FK8rxwt79tga11n6nqnuy0va4cs
+   foreign key (id_justificatif)
+   references JUSTIFICATIF;
+
+alter table if exists ANNONCE
+   drop constraint if exists FKrt31cptnen8c02avkc7yuyc3w,
+   add constraint FKrt31cptnen8c02avkc7yuyc3w
+   foreign key (id_colis)
+   references COLIS;
+
+alter table if exists ANNONCE
+   drop constraint if exists FKqix68ps4m9rkasf7arxmbk1uw,
+   add constraint FKqix68ps4m9rkasf7arxmbk1uw
+   foreign key (id_destinataire)
+   references UTILISATEUR;
+
+alter table if exists ANNONCE
+   drop constraint if exists FKg6y48tw5i3bmrn47r4k607shd,
+   add constraint FKg6y48tw5i3bmrn47r4k607shd
+   foreign key (id_expediteur)
+   references UTILISATEUR;
+
+alter table if exists ANNONCE
+   drop constraint if exists FKi7pyx8voaimn9e6mq5a37tdb2,
+   add constraint FKi7pyx8voaimn9e6mq5a37tdb2
+   foreign key (id_livreur)
+   references Livreur;
+
+alter table if exists ANNONCE
+   drop constraint if exists FKtlwlijveriicnooln7rx5w06x,
+   add constraint FKtlwlijveriicnooln7rx5w06x
+   foreign key (id_livreur_segment1)
+   references Livreur;
+
+alter table if exists ANNONCE
+   drop constraint if exists FK4r0ijrxn64s8wctiin10ht5u5,
+   add constraint FK4r0ijrxn64s8wctiin10ht5u5
+   foreign key (id_livreur_segment2)
+   references Livreur;
+
+alter table if exists ANNONCE_COMMERCANT
+   drop constraint if exists FK7lq95wq8n7ak4blupp43vbr5s,
+   add constraint FK7lq95wq8n7ak4blupp43vbr5s
+   foreign key (id_admin_approbateur)
+   references Admin;
+
+alter table if exists ANNONCE_COMMERCANT
+   drop constraint if exists FK6ol3ghiepy7bd276gjppsgouh,
+   add constraint FK6ol3ghiepy7bd276gjppsgouh
+   foreign key (id_commercant)
+   references Commercant;
+
+alter table if exists CANDIDATURE
+   drop constraint if exists FK3nee2vnlxml44lx2i41w6bvb2,
+   add constraint FK3nee2vnlxml44lx2i41w6bvb2
+   foreign key (id_demande)
+   references DEMANDE_SERVICE;
+
+alter table if exists CANDIDATURE
+   drop constraint if exists FK3ph6wlsxnpjjxqw77hrlvwpe4,
+   add constraint FK3ph6wlsxnpjjxqw77hrlvwpe4
+   foreign key (id_prestataire)
+   references Prestataire;
+
+alter table if exists CANDIDATURE_LIVRAISON
+   drop constraint if exists FK8uxl798m92c2mj7re43jp2g4n,
+   add constraint FK8uxl798m92c2mj7re43jp2g4n
+   foreign key (id_annonce)
+   references ANNONCE;
+
+alter table if exists CANDIDATURE_LIVRAISON
+   drop constraint if exists FKim15c9ct4enc0r80p2mfegg9r,
+   add constraint FKim15c9ct4enc0r80p2mfegg9r
+   foreign key (id_livreur)
+   references UTILISATEUR;
+
+alter table if exists Client
+   drop constraint if exists FKhxxv1ftkpmilngu5hhdaty26e,
+   add constraint FKhxxv1ftkpmilngu5hhdaty26e
+   foreign key (id_utilisateur)
+   references UTILISATEUR;
+
+alter table if exists Commercant
+   drop constraint if exists FKiwtl3fqymtfov5m38tco62ftc,
+   add constraint FKiwtl3fqymtfov5m38tco62ftc
+   foreign key (id_utilisateur)
+   references UTILISATEUR;
+
+alter table if exists CONTRAT_COMMERCANT
+   drop constraint if exists FKh6df3yc8st2343u9d22skwy7q,
+   add constraint FKh6df3yc8st2343u9d22skwy7q
+   foreign key (id_admin_createur)
+   references Admin;
+
+alter table if exists CONTRAT_COMMERCANT
+   drop constraint if exists FKkurs8hdtidaxgary4v6s796il,
+   add constraint FKkurs8hdtidaxgary4v6s796il
+   foreign key (id_commercant)
+   references Commercant;
+
+alter table if exists DEMANDE_SERVICE
+   drop constraint if exists FK89c6e49ug32f4oupincgymh66,
+   add constraint FK89c6e49ug32f4oupincgymh66
+   foreign key (id_client)
+   references Client;
+
+alter table if exists demande_service_photos
+   drop constraint if exists FKpxdd7pyni0bh9us9isbuqb5hg,
+   add constraint FKpxdd7pyni0bh9us9isbuqb5hg
+   foreign key (id_demande)
+   references DEMANDE_SERVICE;
+
+alter table if exists disponibilites_prestataire
+   drop constraint if exists FK93atrw40yphpih0vogfywtp5q,
+   add constraint FK93atrw40yphpih0vogfywtp5q
+   foreign key (id_prestataire)
+   references Prestataire;
+
+alter table if exists EVALUATION_MISSION
+   drop constraint if exists FKioqo4huiaoupupp1ghkw9khul,
+   add constraint FKioqo4huiaoupupp1ghkw9khul
+   foreign key (id_candidature)
+   references CANDIDATURE;
+
+alter table if exists EVALUATION_MISSION
+   drop constraint if exists FKfyyuwq6mge3mn5kqatu81ug1x,
+   add constraint FKfyyuwq6mge3mn5kqatu81ug1x
+   foreign key (id_client)
+   references Client;
+
+alter table if exists EVALUATION_MISSION
+   drop constraint if exists FKog7uswt0m2hm65mfuxj3rhnkt,
+   add constraint FKog7uswt0m2hm65mfuxj3rhnkt
+   foreign key (id_prestataire)
+   references Prestataire;
+
+alter table if exists JUSTIFICATIF
+   drop constraint if exists FK77so4f1rvhe8gv2qj706629ud,
+   add constraint FK77so4f1rvhe8gv2qj706629ud
+   foreign key (id_utilisateur)
+   references UTILISATEUR;
+
+alter table if exists LIVRAISON
+   drop constraint if exists FKp38y1mc4j6sxdxxjtym81b307,
+   add constraint FKp38y1mc4j6sxdxxjtym81b307
+   foreign key (id_annonce)
+   references ANNONCE;
+
+alter table if exists LIVRAISON
+   drop constraint if exists FKquwrbguj61ofjhb9rp5h5pbwf,
+   add constraint FKquwrbguj61ofjhb9rp5h5pbwf
+   foreign key (id_colis)
+   references COLIS;
+
+alter table if exists LIVRAISON
+   drop constraint if exists FKa8ucaql49i7yo2mllvl8j0gsp,
+   add constraint FKa8ucaql49i7yo2mllvl8j0gsp
+   foreign key (id_destinataire)
+   references UTILISATEUR;
+
+alter table if exists LIVRAISON
+   drop constraint if exists FKiopdica0s7t4dyuerhh81kafy,
+   add constraint FKiopdica0s7t4dyuerhh81kafy
+   foreign key (id_expediteur)
+   references UTILISATEUR;
+
+alter table if exists LIVRAISON
+   drop constraint if exists FKlacucxo36xs6ot3otyprbggpp,
+   add constraint FKlacucxo36xs6ot3otyprbggpp
+   foreign key (livreur_segment_1)
+   references Livreur;
+
+alter table if exists LIVRAISON
+   drop constraint if exists FKg8dwwrxkp9c5dmd54e0b55l2w,
+   add constraint FKg8dwwrxkp9c5dmd54e0b55l2w
+   foreign key (livreur_segment_2)
+   references Livreur;
+
+alter table if exists Livreur
+   drop constraint if exists FK7knlio1b00gsex0ul2asttk69,
+   add constraint FK7knlio1b00gsex0ul2asttk69
+   foreign key (id_utilisateur)
+   references UTILISATEUR;
+
+alter table if exists MESSAGE
+   drop constraint if exists FKjv27xe0nmao1n38ynpb0ywld4,
+   add constraint FKjv27xe0nmao1n38ynpb0ywld4
+   foreign key (id_destinataire)
+   references UTILISATEUR;
+
+alter table if exists MESSAGE
+   drop constraint if exists FKesgrveug1ojbvh8eh03982k6c,
+   add constraint FKesgrveug1ojbvh8eh03982k6c
+   foreign key (id_expediteur)
+   references UTILISATEUR;
+
+alter table if exists PAIEMENT
+   drop constraint if exists FKbk2fywhhusdnp23dolo178maq,
+   add constraint FKbk2fywhhusdnp23dolo178maq
+   foreign key (id_annonce)
+   references ANNONCE;
+
+alter table if exists PAIEMENT
+   drop constraint if exists FK2c38oi8h4g829aaa9a6ni2vhd,
+   add constraint FK2c38oi8h4g829aaa9a6ni2vhd
+   foreign key (id_client)
+   references Client;
+
+alter table if exists PORTEFEUILLE_PRESTATAIRE
+   drop constraint if exists FK79fwbgutp5u70g1pfw4h2nt,
+   add constraint FK79fwbgutp5u70g1pfw4h2nt
+   foreign key (id_prestataire)
+   references Prestataire;
+
+alter table if exists Prestataire
+   drop constraint if exists FKs4me41tfh3n6rkrh26jntmcyj,
+   add constraint FKs4me41tfh3n6rkrh26jntmcyj
+   foreign key (id_admin_validateur)
+   references Admin;
+
+alter table if exists Prestataire
+   drop constraint if exists FKq98e6j5n05hqqsmwdqjx7mcjk,
+   add constraint FKq98e6j5n05hqqsmwdqjx7mcjk
+   foreign key (id_utilisateur)
+   references UTILISATEUR;
+
+alter table if exists PRESTATAIRE_CATEGORIE
+   drop constraint if exists FKlunyyn84ckyonqj3t33lcphdo,
+   add constraint FKlunyyn84ckyonqj3t33lcphdo
+   foreign key (id_admin_validateur)
+   references Admin;
+
+alter table if exists PRESTATAIRE_CATEGORIE
+   drop constraint if exists FKqefw937o3btpysap7dg4n5b1b,
+   add constraint FKqefw937o3btpysap7dg4n5b1b
+   foreign key (id_prestataire)
+   references Prestataire;
+
+alter table if exists RETRAIT
+   drop constraint if exists FK422e7apsdqldpue3c7vyewple,
+   add constraint FK422e7apsdqldpue3c7vyewple
+   foreign key (id_livreur)
+   references Livreur;
+
+alter table if exists SERVICE
+   drop constraint if exists FKh8h1guep93cgfkg6xmgjhri0q,
+   add constraint FKh8h1guep93cgfkg6xmgjhri0q
+   foreign key (id_candidature)
+   references CANDIDATURE;
+
+alter table if exists SERVICE
+   drop constraint if exists FKrhl6anyyot62vd41mlrlpuwoj,
+   add constraint FKrhl6anyyot62vd41mlrlpuwoj
+   foreign key (id_client)
+   references Client;
+
+alter table if exists SERVICE
+   drop constraint if exists FKkq8jvqxxxbypufm4qw5wt2kss,
+   add constraint FKkq8jvqxxxbypufm4qw5wt2kss
+   foreign key (id_demande_service)
+   references DEMANDE_SERVICE;
+
+alter table if exists SERVICE
+   drop constraint if exists FKrxr4c7k0c06iuy6n4a1eymt8i,
+   add constraint FKrxr4c7k0c06iuy6n4a1eymt8i
+   foreign key (id_prestataire)
+   references Prestataire;
+
+alter table if exists TEMPLATE_CONTRAT
+   drop constraint if exists FKjlcs2uwkd2r41a3i7ig0ursl0,
+   add constraint FKjlcs2uwkd2r41a3i7ig0ursl0
+   foreign key (id_admin_createur)
+   references Admin;
+
+alter table if exists TRANSACTION_PORTEFEUILLE
+   drop constraint if exists FKojyjm84nn4h2pxbx6rwoc3irx,
+   add constraint FKojyjm84nn4h2pxbx6rwoc3irx
+   foreign key (id_candidature)
+   references CANDIDATURE;
+
+alter table if exists TRANSACTION_PORTEFEUILLE
+   drop constraint if exists FKod3l4syeiy52m63jtk640884n,
+   add constraint FKod3l4syeiy52m63jtk640884n
+   foreign key (id_portefeuille)
+   references PORTEFEUILLE_PRESTATAIRE;
+
+-- Listes de valeurs des énumérations, recréées avec les valeurs actuelles (une base plus ancienne
+-- refuserait les valeurs ajoutées depuis). PostgreSQL nomme les contrôles <table>_<colonne>_check.
+
+alter table ANALYSE_JUSTIFICATIF
+    drop constraint if exists analyse_justificatif_statut_check,
+    add constraint analyse_justificatif_statut_check check (statut in ('EN_ATTENTE','EN_COURS','TERMINE','REJETE','ECHEC'));
+
+alter table ANNONCE
+    drop constraint if exists annonce_statut_check,
+    add constraint annonce_statut_check check (statut in ('PUBLIEE','VALIDEE','SEGMENT_1_PRIS','SEGMENT_2_PRIS','SEGMENTS_COMPLETS','EN_COURS_SEGMENT_1','ATTENTE_ENTREPOT','EN_COURS_SEGMENT_2','EN_COURS','TERMINEE','ANNULEE'));
+
+alter table ANNONCE
+    drop constraint if exists annonce_statut_segment1_check,
+    add constraint annonce_statut_segment1_check check (statut_segment1 in ('DISPONIBLE','PRIS','EN_COURS','TERMINE'));
+
+alter table ANNONCE
+    drop constraint if exists annonce_statut_segment2_check,
+    add constraint annonce_statut_segment2_check check (statut_segment2 in ('DISPONIBLE','PRIS','EN_COURS','TERMINE'));
+
+alter table ANNONCE
+    drop constraint if exists annonce_type_annonce_check,
+    add constraint annonce_type_annonce_check check (type_annonce in ('unique','multiple'));
+
+alter table ANNONCE_COMMERCANT
+    drop constraint if exists annonce_commercant_categorie_check,
+    add constraint annonce_commercant_categorie_check check (categorie in ('LIVRAISON_PONCTUELLE','SERVICE_CHARIOT','TRANSPORT_MARCHANDISES'));
+
+alter table ANNONCE_COMMERCANT
+    drop constraint if exists annonce_commercant_frequence_transport_check,
+    add constraint annonce_commercant_frequence_transport_check check (frequence_transport in ('UNIQUE','HEBDOMADAIRE','MENSUELLE','REGULIERE'));
+
+alter table ANNONCE_COMMERCANT
+    drop constraint if exists annonce_commercant_statut_check,
+    add constraint annonce_commercant_statut_check check (statut in ('BROUILLON','EN_ATTENTE_APPROBATION','APPROUVEE','PUBLIEE','ACTIVE','SUSPENDUE','EXPIREE','ANNULEE'));
+
+alter table ANNONCE_COMMERCANT
+    drop constraint if exists annonce_commercant_statut_approbation_check,
+    add constraint annonce_commercant_statut_approbation_check check (statut_approbation in ('EN_ATTENTE','APPROUVEE','REJETEE','REVISION_DEMANDEE'));
+
+alter table CANDIDATURE
+    drop constraint if exists candidature_statut_check,
+    add constraint candidature_statut_check check (statut in ('EN_ATTENTE','ACCEPTEE','REFUSEE'));
+
+alter table CANDIDATURE_LIVRAISON
+    drop constraint if exists candidature_livraison_segment_livraison_check,
+    add constraint candidature_livraison_segment_livraison_check check (segment_livraison in ('SEGMENT_1','SEGMENT_2'));
+
+alter table CANDIDATURE_LIVRAISON
+    drop constraint if exists candidature_livraison_statut_check,
+    add constraint candidature_livraison_statut_check check (statut in ('EN_ATTENTE','ACCEPTEE','REFUSEE'));
+
+alter table CLE_IDEMPOTENCE
+    drop constraint if exists cle_idempotence_statut_check,
+    add constraint cle_idempotence_statut_check check (statut in ('EN_COURS','TERMINE'));
+
+alter table CONTRAT_COMMERCANT
+    drop constraint if exists contrat_commercant_statut_check,
+    add constraint contrat_commercant_statut_check check (statut in ('DEMANDE_ENVOYEE','EN_ATTENTE_ADMIN','CONTRAT_CREE','SIGNE_VALIDE','REFUSE'));
+
+alter table DEMANDE_SERVICE
+    drop constraint if exists demande_service_categorie_service_check,
+    add constraint demande_service_categorie_service_check check (categorie_service in ('TRANSPORT_LIVRAISON','SERVICES_DOMICILE','TRAVAUX_REPARATIONS','COURSES_ACHATS','SERVICES_PERSONNELS','EDUCATION_FORMATION'));
+
+alter table DEMANDE_SERVICE
+    drop constraint if exists demande_service_statut_check,
+    add constraint demande_service_statut_check check (statut in ('PUBLIEE','CANDIDATURES_RECUES','PRESTATAIRE_SELECTIONNE','EN_COURS','TERMINEE','ANNULEE'));
+
+alter table ENTREPOT
+    drop constraint if exists entrepot_statut_check,
+    add constraint entrepot_statut_check check (statut in ('ACTIF','INACTIF','EN_MAINTENANCE','COMPLET'));
+
+alter table EVALUATION_MISSION
+    drop constraint if exists evaluation_mission_note_communication_check,
+    add constraint evaluation_mission_note_communication_check check ((note_communication>=1) and (note_communication<=5));
+
+alter table EVALUATION_MISSION
+    drop constraint if exists evaluation_mission_note_delais_check,
+    add constraint evaluation_mission_note_delais_check check ((note_delais>=1) and (note_delais<=5));
+
+alter table EVALUATION_MISSION
+    drop constraint if exists evaluation_mission_note_globale_check,
+    add constraint evaluation_mission_note_globale_check check ((note_globale>=1) and (note_globale<=5));
+
+alter table EVALUATION_MISSION
+    drop constraint if exists evaluation_mission_note_professionnalisme_check,
+    add constraint evaluation_mission_note_professionnalisme_check check ((note_professionnalisme>=1) and (note_professionnalisme<=5));
+
+alter table EVALUATION_MISSION
+    drop constraint if exists evaluation_mission_note_qualite_check,
+    add constraint evaluation_mission_note_qualite_check check ((note_qualite>=1) and (note_qualite<=5));
+
+alter table LIVRAISON
+    drop constraint if exists livraison_statut_check,
+    add constraint livraison_statut_check check (statut in ('VALIDEE','EN_COURS','ATTENTE_SEGMENT_2','SEGMENT_2_EN_COURS','ARRIVED','TERMINEE','ANNULEE'));
+
+alter table LIVRAISON
+    drop constraint if exists livraison_type_livraison_check,
+    add constraint livraison_type_livraison_check check (type_livraison in ('DIRECTE','PARTIELLE'));
+
+alter table PAIEMENT
+    drop constraint if exists paiement_mode_de_paiement_check,
+    add constraint paiement_mode_de_paiement_check check (mode_de_paiement in ('STRIPE','PayPal','Espèces','Virement','Chèque'));
+
+alter table PAIEMENT
+    drop constraint if exists paiement_statut_check,
+    add constraint paiement_statut_check check (statut in ('PENDING','HELD','COMPLETED','FAILED','REFUNDED','CANCELLED'));
+
+alter table Prestataire
+    drop constraint if exists prestataire_domaine_expertise_check,
+    add constraint prestataire_domaine_expertise_check check (domaine_expertise in ('TRANSPORT_LIVRAISON','SERVICES_DOMICILE','TRAVAUX_REPARATIONS','COURSES_ACHATS','SERVICES_PERSONNELS','EDUCATION_FORMATION'));
+
+alter table Prestataire
+    drop constraint if exists prestataire_statut_validation_check,
+    add constraint prestataire_statut_validation_check check (statut_validation in ('EN_ATTENTE','VALIDE','REJETE','SUSPENDU'));
+
+alter table PRESTATAIRE_CATEGORIE
+    drop constraint if exists prestataire_categorie_categorie_service_check,
+    add constraint prestataire_categorie_categorie_service_check check (categorie_service in ('TRANSPORT_LIVRAISON','SERVICES_DOMICILE','TRAVAUX_REPARATIONS','COURSES_ACHATS','SERVICES_PERSONNELS','EDUCATION_FORMATION'));
+
+alter table PRESTATAIRE_CATEGORIE
+    drop constraint if exists prestataire_categorie_statut_validation_check,
+    add constraint prestataire_categorie_statut_validation_check check (statut_validation in ('EN_ATTENTE','VALIDE','REJETE'));
+
+alter table RETRAIT
+    drop constraint if exists retrait_statut_check,
+    add constraint retrait_statut_check check (statut in ('EN_ATTENTE','TRAITE','REFUSE'));
+
+alter table SERVICE
+    drop constraint if exists service_progression_check,
+    add constraint service_progression_check check ((progression<=100) and (progression>=0));
+
+alter table SERVICE
+    drop constraint if exists service_statut_check,
+    add constraint service_statut_check check (statut in ('CONFIRME','EN_COURS','TERMINE','ANNULE'));
+
+alter table TRANSACTION_MENSUELLE
+    drop constraint if exists transaction_mensuelle_type_transaction_check,
+    add constraint transaction_mensuelle_type_transaction_check check (type_transaction in ('CREDIT_MISSION','RETRAIT_PRESTATAIRE','FRAIS_SERVICE','BONUS','REMBOURSEMENT','CORRECTION'));
+
+alter table TRANSACTION_PORTEFEUILLE
+    drop constraint if exists transaction_portefeuille_statut_transaction_check,
+    add constraint transaction_portefeuille_statut_transaction_check check (statut_transaction in ('EN_ATTENTE','EN_COURS','EFFECTUE','ECHOUE','ANNULE'));
+
+alter table TRANSACTION_PORTEFEUILLE
+    drop constraint if exists transaction_portefeuille_type_transaction_check,
+    add constraint transaction_portefeuille_type_transaction_check check (type_transaction in ('CREDIT_MISSION','RETRAIT_PRESTATAIRE','FRAIS_SERVICE','BONUS','REMBOURSEMENT','CORRECTION'));
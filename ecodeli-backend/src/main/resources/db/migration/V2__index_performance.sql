@@ -0,0 +1,26 @@
+-- Index secondaires des recherches fréquentes. PostgreSQL n'indexe pas les clés étrangères :
+-- sans eux, chaque liste par livreur, prestataire ou demande parcourt la table entière.
+
+-- Livraisons d'un livreur : directes via l'annonce (id_livreur), partielles via chacun des segments
+CREATE INDEX idx_annonce_livreur ON ANNONCE (id_livreur);
+CREATE INDEX idx_livraison_annonce ON LIVRAISON (id_annonce);
+CREATE INDEX idx_livraison_livreur_segment_1 ON LIVRAISON (livreur_segment_1);
+CREATE INDEX idx_livraison_livreur_segment_2 ON LIVRAISON (livreur_segment_2);
+
+-- Annonces publiées (triées par date de début) et annonces d'un expéditeur
+CREATE INDEX idx_annonce_statut_date ON ANNONCE (statut, date_debut);
+CREATE INDEX idx_annonce_expediteur ON ANNONCE (id_expediteur);
+
+-- Candidatures aux demandes de service : par demande, par prestataire (historique trié par date)
+CREATE INDEX idx_candidature_demande ON CANDIDATURE (id_demande);
+CREATE INDEX idx_candidature_prestataire_date ON CANDIDATURE (id_prestataire, date_candidature);
+
+-- Candidatures des livreurs aux annonces
+CREATE INDEX idx_candidature_livraison_annonce ON CANDIDATURE_LIVRAISON (id_annonce);
+CREATE INDEX idx_candidature_livraison_livreur ON CANDIDATURE_LIVRAISON (id_livreur);
+
+-- Transactions : par prestataire et date (idx_transaction_prestataire_date, V1), par portefeuille et date
+CREATE INDEX idx_transaction_portefeuille_date ON TRANSACTION_PORTEFEUILLE (id_portefeuille, date_transaction);
+
+-- Évaluations d'un prestataire, les plus récentes d'abord
+CREATE INDEX idx_evaluation_prestataire_date ON EVALUATION_MISSION (id_prestataire, date_evaluation);
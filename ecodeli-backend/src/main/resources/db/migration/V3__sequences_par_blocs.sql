@@ -0,0 +1,10 @@
+-- Identifiants des tables à fort volume attribués par blocs de 50 (optimiseur pooled-lo d'Hibernate) :
+-- un seul nextval par bloc, et les INSERT ne renvoyant plus de clé générée partent en lots JDBC.
+-- L'incrément doit rester égal à allocationSize des @SequenceGenerator (vérifié au démarrage).
+-- Les DEFAULT nextval(...) des colonnes serial sont conservés : une valeur ainsi obtenue est le début
+-- d'un bloc qu'Hibernate ne recevra jamais, les deux usages ne se recouvrent pas.
+ALTER SEQUENCE transaction_portefeuille_id_transaction_seq INCREMENT BY 50;
+ALTER SEQUENCE candidature_livraison_id_candidature_livraison_seq INCREMENT BY 50;
+ALTER SEQUENCE candidature_id_candidature_seq INCREMENT BY 50;
+ALTER SEQUENCE livraison_id_livraison_seq INCREMENT BY 50;
+ALTER SEQUENCE evaluation_mission_id_evaluation_seq INCREMENT BY 50;
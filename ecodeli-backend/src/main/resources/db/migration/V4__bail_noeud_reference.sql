@@ -0,0 +1,7 @@
+-- Numéros de nœud du générateur de références (0-1023) attribués par bail : chaque instance sans
+-- app.reference.node-id en réserve un libre ou expiré au démarrage, puis prolonge son bail.
+CREATE TABLE IF NOT EXISTS NOEUD_REFERENCE (
+    noeud SMALLINT PRIMARY KEY,
+    instance VARCHAR(200) NOT NULL,
+    bail_expire TIMESTAMP NOT NULL
+);
@@ -0,0 +1,4 @@
+-- Bail des clés d'idempotence en cours : prolongé tant que l'instance qui exécute la requête tourne.
+-- Une clé EN_COURS dont le bail a expiré (instance arrêtée en pleine exécution) est reprise.
+ALTER TABLE CLE_IDEMPOTENCE ADD COLUMN IF NOT EXISTS bail_expire TIMESTAMP(6);
+UPDATE CLE_IDEMPOTENCE SET bail_expire = date_creation WHERE statut = 'EN_COURS' AND bail_expire IS NULL;
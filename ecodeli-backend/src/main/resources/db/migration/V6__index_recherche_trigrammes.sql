@@ -0,0 +1,10 @@
+-- Index trigrammes (pg_trgm) de la recherche de prestataires : les LIKE '%motif%' de
+-- PrestataireRepository.rechercherIds passent par un index GIN au lieu d'un parcours complet.
+-- Les expressions LOWER(...) doivent rester celles de la requête. pg_trgm est une extension
+-- de confiance (PostgreSQL 13+) : le propriétaire de la base peut la créer sans être superutilisateur.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_utilisateur_recherche_trgm ON UTILISATEUR
+    USING gin (LOWER(nom || ' ' || prenom || ' ' || email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_prestataire_entreprise_trgm ON PRESTATAIRE
+    USING gin (LOWER(nom_entreprise) gin_trgm_ops);
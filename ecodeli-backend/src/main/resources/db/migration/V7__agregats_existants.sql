@@ -0,0 +1,62 @@
+-- Agrégats initialisés à partir des données existantes, une fois pour toutes : ensuite tenus à jour
+-- dans la transaction de chaque écriture. ReconstructionAgregatsJob ne sert plus qu'aux reconstructions
+-- manuelles, après une reprise de données.
+
+-- Transactions enregistrées avant l'ajout de id_prestataire, sur lequel filtrent historique et soldes
+UPDATE TRANSACTION_PORTEFEUILLE t SET id_prestataire = pf.id_prestataire
+FROM PORTEFEUILLE_PRESTATAIRE pf
+WHERE pf.id_portefeuille = t.id_portefeuille AND t.id_prestataire IS NULL;
+
+-- Totaux mensuels des portefeuilles (relevés)
+INSERT INTO TRANSACTION_MENSUELLE (id_prestataire, mois, type_transaction, nombre_transactions,
+    total_montant, total_commission, total_frais, date_mise_a_jour)
+SELECT t.id_prestataire, CAST(date_trunc('month', t.date_transaction) AS DATE), t.type_transaction,
+    COUNT(*), SUM(t.montant), SUM(COALESCE(t.commission_ecodeli, 0)), SUM(COALESCE(t.frais_transaction, 0)),
+    CURRENT_TIMESTAMP
+FROM TRANSACTION_PORTEFEUILLE t
+WHERE t.statut_transaction = 'EFFECTUE' AND t.id_prestataire IS NOT NULL
+GROUP BY t.id_prestataire, CAST(date_trunc('month', t.date_transaction) AS DATE), t.type_transaction
+ON CONFLICT (id_prestataire, mois, type_transaction) DO UPDATE SET
+    nombre_transactions = EXCLUDED.nombre_transactions,
+    total_montant = EXCLUDED.total_montant,
+    total_commission = EXCLUDED.total_commission,
+    total_frais = EXCLUDED.total_frais,
+    date_mise_a_jour = EXCLUDED.date_mise_a_jour;
+
+-- Totaux dépensés par client : crédits mission effectués (montant versé au prestataire + commission)
+INSERT INTO DEPENSE_CLIENT (id_client, total_services_payes, nombre_services_payes, date_mise_a_jour)
+SELECT d.id_client, SUM(t.montant + COALESCE(t.commission_ecodeli, 0)), COUNT(*), CURRENT_TIMESTAMP
+FROM TRANSACTION_PORTEFEUILLE t
+JOIN CANDIDATURE c ON c.id_candidature = t.id_candidature
+JOIN DEMANDE_SERVICE d ON d.id_demande = c.id_demande
+WHERE t.type_transaction = 'CREDIT_MISSION' AND t.statut_transaction = 'EFFECTUE'
+GROUP BY d.id_client
+ON CONFLICT (id_client) DO UPDATE SET
+    total_services_payes = EXCLUDED.total_services_payes,
+    nombre_services_payes = EXCLUDED.nombre_services_payes,
+    date_mise_a_jour = EXCLUDED.date_mise_a_jour;
+
+-- Agrégats des évaluations par prestataire (statistiques et classement)
+INSERT INTO RATING_SUMMARY (id_prestataire, nombre_evaluations, somme_notes_globales,
+    somme_qualite, somme_delais, somme_communication, somme_professionnalisme,
+    nombre_note_1, nombre_note_2, nombre_note_3, nombre_note_4, nombre_note_5, date_mise_a_jour)
+SELECT e.id_prestataire, COUNT(*), SUM(e.note_globale), SUM(e.note_qualite), SUM(e.note_delais),
+    SUM(e.note_communication), SUM(e.note_professionnalisme),
+    COUNT(*) FILTER (WHERE e.note_globale = 1), COUNT(*) FILTER (WHERE e.note_globale = 2),
+    COUNT(*) FILTER (WHERE e.note_globale = 3), COUNT(*) FILTER (WHERE e.note_globale = 4),
+    COUNT(*) FILTER (WHERE e.note_globale = 5), CURRENT_TIMESTAMP
+FROM EVALUATION_MISSION e
+GROUP BY e.id_prestataire
+ON CONFLICT (id_prestataire) DO UPDATE SET
+    nombre_evaluations = EXCLUDED.nombre_evaluations,
+    somme_notes_globales = EXCLUDED.somme_notes_globales,
+    somme_qualite = EXCLUDED.somme_qualite,
+    somme_delais = EXCLUDED.somme_delais,
+    somme_communication = EXCLUDED.somme_communication,
+    somme_professionnalisme = EXCLUDED.somme_professionnalisme,
+    nombre_note_1 = EXCLUDED.nombre_note_1,
+    nombre_note_2 = EXCLUDED.nombre_note_2,
+    nombre_note_3 = EXCLUDED.nombre_note_3,
+    nombre_note_4 = EXCLUDED.nombre_note_4,
+    nombre_note_5 = EXCLUDED.nombre_note_5,
+    date_mise_a_jour = EXCLUDED.date_mise_a_jour;
@@ -0,0 +1,64 @@
+package com.ecodeli.ecodeli_backend;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Base des tests d'intégration : contexte Spring complet (profil test) sur une base PostgreSQL
+ * migrée par Flyway.
+ *
+ * Conteneur Testcontainers postgres:16 par défaut, partagé par toutes les classes de test. Sans Docker,
+ * ECODELI_TEST_JDBC_URL (avec ECODELI_TEST_JDBC_UTILISATEUR et ECODELI_TEST_JDBC_MOT_DE_PASSE) désigne
+ * une base dédiée aux tests, vide ou déjà migrée. Sans l'un ni l'autre, les tests sont ignorés.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ExtendWith(BaseIntegration.BaseDisponible.class)
+public abstract class BaseIntegration {
+
+    private static final String URL = "ECODELI_TEST_JDBC_URL";
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @DynamicPropertySource
+    static void base(DynamicPropertyRegistry registry) {
+        String url = System.getenv(URL);
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("ECODELI_TEST_JDBC_UTILISATEUR", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("ECODELI_TEST_JDBC_MOT_DE_PASSE", ""));
+            return;
+        }
+        PostgreSQLContainer<?> conteneur = conteneur();
+        registry.add("spring.datasource.url", conteneur::getJdbcUrl);
+        registry.add("spring.datasource.username", conteneur::getUsername);
+        registry.add("spring.datasource.password", conteneur::getPassword);
+    }
+
+    private static synchronized PostgreSQLContainer<?> conteneur() {
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+        }
+        return postgres;
+    }
+
+    static class BaseDisponible implements ExecutionCondition {
+
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            if (System.getenv(URL) != null || DockerClientFactory.instance().isDockerAvailable()) {
+                return ConditionEvaluationResult.enabled("base PostgreSQL disponible");
+            }
+            return ConditionEvaluationResult.disabled("ni Docker ni " + URL + " : tests d'intégration ignorés");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecodeli.ecodeli_backend.services;
+
+import com.ecodeli.ecodeli_backend.BaseIntegration;
+import com.ecodeli.ecodeli_backend.dto.response.CandidatureAvecPrestataireResponse;
+import com.ecodeli.ecodeli_backend.metriques.sql.RequetesSql;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Candidatures d'une demande avec profils prestataires : nombre de requêtes constant quel que soit
+ * le nombre de candidats. Données annulées à la fin de chaque test.
+ */
+@Transactional
+class CandidatureServiceTest extends BaseIntegration {
+
+    private static final int REQUETES = 4;
+
+    @Autowired
+    private CandidatureService candidatureService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void nombreDeRequetesIndependantDuNombreDeCandidatures(int candidats) {
+        Long demandeId = creerDemande(candidats);
+        entityManager.clear();
+
+        List<CandidatureAvecPrestataireResponse> candidatures;
+        try (RequetesSql.Mesure mesure = RequetesSql.mesurer()) {
+            candidatures = candidatureService.getCandidaturesWithPrestatairesByDemande(demandeId);
+            mesure.verifierNombre(REQUETES).verifierRepetitionsAuPlus(1);
+        }
+
+        assertThat(candidatures).hasSize(candidats);
+        assertThat(candidatures).allSatisfy(candidature -> {
+            assertThat(candidature.prestataire().statistiques().totalCandidatures()).isEqualTo(1);
+            assertThat(candidature.prestataire().statistiques().nombreEvaluations()).isEqualTo(1);
+            assertThat(candidature.prestataire().categoriesValidees()).hasSize(1);
+        });
+    }
+
+    private Long creerDemande(int candidats) {
+        Integer clientId = creerUtilisateur("CLIENT");
+        jdbcTemplate.update("INSERT INTO Client (id_utilisateur) VALUES (?)", clientId);
+        Long demandeId = jdbcTemplate.queryForObject(
+            "INSERT INTO DEMANDE_SERVICE (id_client, titre, description, categorie_service, statut, date_creation) " +
+            "VALUES (?, 'Montage meuble', 'Armoire deux portes', 'SERVICES_DOMICILE', 'CANDIDATURES_RECUES', now()) " +
+            "RETURNING id_demande", Long.class, clientId);
+
+        for (int i = 0; i < candidats; i++) {
+            Integer prestataireId = creerUtilisateur("PRESTATAIRE");
+            jdbcTemplate.update("INSERT INTO Prestataire (id_utilisateur, nom_entreprise, statut_validation) " +
+                "VALUES (?, ?, 'VALIDE')", prestataireId, "Entreprise " + i);
+            jdbcTemplate.update("INSERT INTO CANDIDATURE (id_demande, id_prestataire, prix_propose, statut, date_candidature) " +
+                "VALUES (?, ?, 80, 'EN_ATTENTE', now())", demandeId, prestataireId);
+            jdbcTemplate.update("INSERT INTO PRESTATAIRE_CATEGORIE (id_prestataire, categorie_service, statut_validation, " +
+                "tarif_horaire, date_demande, date_validation) VALUES (?, 'SERVICES_DOMICILE', 'VALIDE', 35, now(), now())",
+                prestataireId);
+            jdbcTemplate.update("INSERT INTO RATING_SUMMARY (id_prestataire, nombre_evaluations, somme_notes_globales, " +
+                "somme_qualite, somme_delais, somme_communication, somme_professionnalisme, nombre_note_1, nombre_note_2, " +
+                "nombre_note_3, nombre_note_4, nombre_note_5, date_mise_a_jour) VALUES (?, 1, 4, 4, 4, 4, 4, 0, 0, 0, 1, 0, now())",
+                prestataireId);
+        }
+        return demandeId;
+    }
+
+    private Integer creerUtilisateur(String type) {
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO UTILISATEUR (type_utilisateur, nom, prenom, email, mot_de_passe) " +
+            "VALUES (?, 'Test', 'Candidature', ?, 'x') RETURNING id_utilisateur",
+            Integer.class, type, UUID.randomUUID() + "@test.ecodeli.fr");
+    }
+}
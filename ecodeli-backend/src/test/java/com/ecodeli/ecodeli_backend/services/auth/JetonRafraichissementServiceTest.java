@@ -0,0 +1,67 @@
+package com.ecodeli.ecodeli_backend.services.auth;
+
+import com.ecodeli.ecodeli_backend.BaseIntegration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Rotation des jetons de rafraîchissement avec plusieurs onglets : l'onglet en retard qui renvoie
+ * le jeton déjà consommé ne révoque pas la famille dans la fenêtre de tolérance et peut reprendre
+ * le jeton à jour (relu dans localStorage) ; au-delà, la réutilisation révoque toute la famille.
+ */
+class JetonRafraichissementServiceTest extends BaseIntegration {
+
+    @Autowired
+    private JetonRafraichissementService jetonService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer utilisateurId;
+
+    @BeforeEach
+    void utilisateur() {
+        utilisateurId = jdbcTemplate.queryForObject(
+            "INSERT INTO UTILISATEUR (type_utilisateur, nom, prenom, email, mot_de_passe) " +
+            "VALUES ('CLIENT', 'Test', 'Jeton', ?, 'x') RETURNING id_utilisateur",
+            Integer.class, UUID.randomUUID() + "@test.ecodeli.fr");
+    }
+
+    @Test
+    void ongletEnRetardReprendLeJetonAJour() {
+        String initial = jetonService.emettre(utilisateurId);
+        String ongletA = jetonService.renouveler(initial).jeton();
+
+        // Onglet B : jeton déjà consommé par A, refusé sans révoquer la famille
+        assertThatThrownBy(() -> jetonService.renouveler(initial))
+            .isInstanceOf(JetonInvalideException.class)
+            .hasMessageContaining("déjà renouvelé");
+
+        // Nouvelle tentative de B avec le jeton écrit par A
+        JetonRafraichissementService.Rotation ongletB = jetonService.renouveler(ongletA);
+        assertThat(ongletB.idUtilisateur()).isEqualTo(utilisateurId);
+        assertThat(jetonService.renouveler(ongletB.jeton()).jeton()).isNotBlank();
+    }
+
+    @Test
+    void reutilisationHorsToleranceRevoqueLaFamille() {
+        String initial = jetonService.emettre(utilisateurId);
+        String suivant = jetonService.renouveler(initial).jeton();
+        jdbcTemplate.update("UPDATE JETON_RAFRAICHISSEMENT SET date_utilisation = date_utilisation - interval '1 minute' " +
+            "WHERE id_utilisateur = ? AND date_utilisation IS NOT NULL", utilisateurId);
+
+        assertThatThrownBy(() -> jetonService.renouveler(initial))
+            .isInstanceOf(JetonInvalideException.class)
+            .hasMessageContaining("session révoquée");
+        assertThatThrownBy(() -> jetonService.renouveler(suivant))
+            .isInstanceOf(JetonInvalideException.class)
+            .hasMessageContaining("révoqué");
+    }
+}
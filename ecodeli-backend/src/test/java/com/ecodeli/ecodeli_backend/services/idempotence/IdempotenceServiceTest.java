@@ -0,0 +1,117 @@
+package com.ecodeli.ecodeli_backend.services.idempotence;
+
+import com.ecodeli.ecodeli_backend.BaseIntegration;
+import com.ecodeli.ecodeli_backend.models.CleIdempotence.StatutCle;
+import com.ecodeli.ecodeli_backend.repositories.CleIdempotenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exécution au plus une fois : rafale de requêtes simultanées portant la même clé, réparties sur
+ * deux instances du service (caches distincts, départage par la base), et reprise d'une clé laissée
+ * EN_COURS par une instance arrêtée.
+ */
+class IdempotenceServiceTest extends BaseIntegration {
+
+    private static final int REQUETES = 16;
+    private static final String EMPREINTE = "e".repeat(64);
+
+    @Autowired
+    private IdempotenceService instanceA;
+
+    @Autowired
+    private CleIdempotenceRepository cleIdempotenceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private IdempotenceService instanceB;
+
+    @BeforeEach
+    void secondeInstance() {
+        instanceB = new IdempotenceService(cleIdempotenceRepository);
+        ReflectionTestUtils.setField(instanceB, "retentionHeures", 24L);
+        ReflectionTestUtils.setField(instanceB, "attenteMaxMs", 30_000L);
+        ReflectionTestUtils.setField(instanceB, "tailleMaxCache", 10_000);
+        ReflectionTestUtils.setField(instanceB, "bailSecondes", 30L);
+    }
+
+    @Test
+    void rafaleSurDeuxInstancesExecuteeUneSeuleFois() throws Exception {
+        String cle = nouvelleCle();
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService executeur = Executors.newFixedThreadPool(REQUETES);
+        CountDownLatch depart = new CountDownLatch(1);
+        try {
+            List<Future<IdempotenceService.Resultat>> resultats = new ArrayList<>();
+            for (int i = 0; i < REQUETES; i++) {
+                IdempotenceService instance = i % 2 == 0 ? instanceA : instanceB;
+                resultats.add(executeur.submit(() -> {
+                    depart.await();
+                    return instance.executer(cle, EMPREINTE, () -> {
+                        executions.incrementAndGet();
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(300));
+                        return reponse("{\"transaction\":1}");
+                    });
+                }));
+            }
+            depart.countDown();
+
+            int rejouees = 0;
+            for (Future<IdempotenceService.Resultat> resultat : resultats) {
+                IdempotenceService.Resultat r = resultat.get();
+                assertThat(new String(r.reponse().corps(), StandardCharsets.UTF_8)).isEqualTo("{\"transaction\":1}");
+                rejouees += r.rejouee() ? 1 : 0;
+            }
+            assertThat(executions).hasValue(1);
+            assertThat(rejouees).isEqualTo(REQUETES - 1);
+            assertThat(cleIdempotenceRepository.findById(cle)).get()
+                .satisfies(c -> assertThat(c.getStatut()).isEqualTo(StatutCle.TERMINE));
+        } finally {
+            executeur.shutdownNow();
+            cleIdempotenceRepository.deleteById(cle);
+        }
+    }
+
+    @Test
+    void cleEnCoursAuBailExpireReprise() throws Exception {
+        String cle = nouvelleCle();
+        jdbcTemplate.update("INSERT INTO CLE_IDEMPOTENCE (cle, empreinte_requete, statut, date_creation, date_expiration, bail_expire) " +
+            "VALUES (?, ?, 'EN_COURS', now() - interval '5 minutes', now() + interval '1 day', now() - interval '1 minute')",
+            cle, EMPREINTE);
+        try {
+            IdempotenceService.Resultat resultat = instanceB.executer(cle, EMPREINTE, () -> reponse("{\"repris\":true}"));
+
+            assertThat(resultat.rejouee()).isFalse();
+            assertThat(cleIdempotenceRepository.findById(cle)).get()
+                .satisfies(c -> assertThat(c.getStatut()).isEqualTo(StatutCle.TERMINE));
+        } finally {
+            cleIdempotenceRepository.deleteById(cle);
+        }
+    }
+
+    private static IdempotenceService.ReponseStockee reponse(String corps) {
+        return new IdempotenceService.ReponseStockee(200, "application/json", corps.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String nouvelleCle() {
+        return (UUID.randomUUID().toString() + UUID.randomUUID()).replace("-", "");
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecodeli.ecodeli_backend.services.reference;
+
+import com.ecodeli.ecodeli_backend.BaseIntegration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Réservation des numéros de nœud : des instances qui démarrent en même temps obtiennent des
+ * numéros distincts, et un bail expiré est repris.
+ */
+class BailNoeudReferenceTest extends BaseIntegration {
+
+    private static final int INSTANCES = 12;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BailNoeudReference bailContexte;
+
+    @Test
+    void instancesSimultaneesObtiennentDesNoeudsDistincts() throws Exception {
+        ExecutorService executeur = Executors.newFixedThreadPool(INSTANCES);
+        CountDownLatch depart = new CountDownLatch(1);
+        List<BailNoeudReference> baux = new ArrayList<>();
+        try {
+            List<Future<BailNoeudReference>> demarrages = new ArrayList<>();
+            for (int i = 0; i < INSTANCES; i++) {
+                demarrages.add(executeur.submit(() -> {
+                    depart.await();
+                    return new BailNoeudReference(jdbcTemplate, -1, 300);
+                }));
+            }
+            depart.countDown();
+            for (Future<BailNoeudReference> demarrage : demarrages) {
+                baux.add(demarrage.get());
+            }
+
+            Set<Long> noeuds = new HashSet<>();
+            noeuds.add(bailContexte.getNoeud());
+            baux.forEach(bail -> noeuds.add(bail.getNoeud()));
+            assertThat(noeuds).hasSize(INSTANCES + 1);
+        } finally {
+            executeur.shutdownNow();
+            baux.forEach(BailNoeudReference::liberer);
+        }
+    }
+
+    @Test
+    void aucunAccesBaseAvantLePremierIdentifiant() {
+        BailNoeudReference bail = new BailNoeudReference(null, -1, 300);
+        bail.renouveler();
+        bail.liberer();
+    }
+
+    @Test
+    void bailExpireRepris() {
+        BailNoeudReference ancien = new BailNoeudReference(jdbcTemplate, -1, 300);
+        jdbcTemplate.update("UPDATE NOEUD_REFERENCE SET bail_expire = now() - interval '1 second' WHERE noeud = ?",
+            ancien.getNoeud());
+
+        BailNoeudReference nouveau = new BailNoeudReference(jdbcTemplate, -1, 300);
+        try {
+            assertThat(nouveau.getNoeud()).isEqualTo(ancien.getNoeud());
+
+            // L'ancienne instance, dépossédée, en réserve un autre au renouvellement
+            GenerateurReference generateur = new GenerateurReference(ancien);
+            ancien.renouveler();
+            assertThat(ancien.getNoeud()).isNotEqualTo(nouveau.getNoeud());
+            assertThat(generateur.getNoeud()).isEqualTo(ancien.getNoeud());
+        } finally {
+            ancien.liberer();
+            nouveau.liberer();
+        }
+    }
+}
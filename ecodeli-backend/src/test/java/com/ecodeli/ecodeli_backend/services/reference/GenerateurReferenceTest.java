@@ -0,0 +1,97 @@
+package com.ecodeli.ecodeli_backend.services.reference;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unicité des identifiants sous concurrence : plusieurs threads sur un même générateur, puis deux
+ * générateurs de nœuds différents (deux instances) qui tirent en même temps.
+ */
+class GenerateurReferenceTest {
+
+    private static final int THREADS = 8;
+    private static final int PAR_THREAD = 50_000;
+
+    @Test
+    void identifiantsUniquesEtCroissantsParThread() throws Exception {
+        GenerateurReference generateur = new GenerateurReference(7);
+
+        List<long[]> series = tirer(generateur, generateur);
+
+        Set<Long> tous = new HashSet<>();
+        for (long[] serie : series) {
+            for (int i = 0; i < serie.length; i++) {
+                assertThat(tous.add(serie[i])).as("doublon %d", serie[i]).isTrue();
+                if (i > 0) {
+                    assertThat(serie[i]).isGreaterThan(serie[i - 1]);
+                }
+            }
+        }
+        assertThat(tous).hasSize(THREADS * PAR_THREAD);
+    }
+
+    @Test
+    void deuxNoeudsNeProduisentJamaisLeMemeIdentifiant() throws Exception {
+        List<long[]> series = tirer(new GenerateurReference(1), new GenerateurReference(2));
+
+        Set<Long> tous = new HashSet<>();
+        series.forEach(serie -> {
+            for (long id : serie) {
+                tous.add(id);
+            }
+        });
+        assertThat(tous).hasSize(THREADS * PAR_THREAD);
+    }
+
+    @Test
+    void referenceEncodeeEtDecodee() {
+        GenerateurReference generateur = new GenerateurReference(3);
+        long id = generateur.prochainId();
+
+        String reference = "CM_" + GenerateurReference.encoder(id);
+
+        assertThat(reference).hasSize(16);
+        assertThat(GenerateurReference.decoder(reference)).isEqualTo(id);
+        assertThat(GenerateurReference.decoder(reference.toLowerCase())).isEqualTo(id);
+    }
+
+    // Moitié des threads sur chaque générateur, départ simultané
+    private static List<long[]> tirer(GenerateurReference a, GenerateurReference b) throws Exception {
+        ExecutorService executeur = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch depart = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> resultats = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                GenerateurReference generateur = t % 2 == 0 ? a : b;
+                Callable<long[]> tirage = () -> {
+                    depart.await();
+                    long[] serie = new long[PAR_THREAD];
+                    for (int i = 0; i < PAR_THREAD; i++) {
+                        serie[i] = generateur.prochainId();
+                    }
+                    return serie;
+                };
+                resultats.add(executeur.submit(tirage));
+            }
+            depart.countDown();
+            List<long[]> series = new ArrayList<>();
+            for (Future<long[]> resultat : resultats) {
+                series.add(resultat.get());
+            }
+            return series;
+        } finally {
+            executeur.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecodeli.ecodeli_backend.services.stripe;
+
+import com.ecodeli.ecodeli_backend.BaseIntegration;
+import com.ecodeli.ecodeli_backend.models.Paiement;
+import com.ecodeli.ecodeli_backend.models.Paiement.StatutPaiement;
+import com.ecodeli.ecodeli_backend.repositories.PaiementRepository;
+import com.ecodeli.ecodeli_backend.services.StripePaymentService;
+import com.ecodeli.ecodeli_backend.services.stripe.PasserelleStripe.IntentionPaiement;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Webhooks signés envoyés par le Stripe simulé (stripe.mode=local) au serveur démarré : statut du
+ * paiement local après un succès et après une carte refusée. Sans repli sur l'API Stripe, pour que
+ * la confirmation ne réussisse que par le webhook.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "stripe.confirmation.repli-api=false")
+class StripeWebhookServiceTest extends BaseIntegration {
+
+    private static final long ATTENTE_MAX_MS = 10_000;
+
+    @Autowired
+    private StripeLocalPasserelle passerelle;
+
+    @Autowired
+    private StripePaymentService stripePaymentService;
+
+    @Autowired
+    private StripeWebhookService stripeWebhookService;
+
+    @Autowired
+    private PaiementRepository paiementRepository;
+
+    @Test
+    void paiementReussi() {
+        IntentionPaiement intention = passerelle.creer(2500, "eur", "Livraison test", Map.of("reference", "PI_TEST"));
+
+        Paiement paiement = attendreStatut(intention.id(), StatutPaiement.COMPLETED);
+
+        assertThat(paiement.getStatutStripe()).isEqualTo("succeeded");
+        assertThat(paiement.getDateCompletion()).isNotNull();
+    }
+
+    @Test
+    void confirmationAttendLeWebhook() {
+        IntentionPaiement intention = passerelle.creer(2500, "eur", "Livraison test", Map.of("reference", "PI_TEST"));
+        stripeWebhookService.enregistrerStatut(intention.id(), intention.statut(), intention.echec(),
+            intention.montantCentimes(), intention.metadata(), null);
+
+        // Confirmée dès le retour du navigateur, avant le webhook du Stripe simulé (1 s)
+        assertThat(stripePaymentService.confirmPayment(intention.id(), null)).isTrue();
+    }
+
+    @Test
+    void carteRefuseeEnregistreeEnEchec() {
+        IntentionPaiement intention = passerelle.creer(2500, "eur", "Livraison test", Map.of("reference", "PI_TEST"));
+        passerelle.refuser(intention.id());
+
+        Paiement paiement = attendreStatut(intention.id(), StatutPaiement.FAILED);
+        assertThat(paiement.getStatutStripe()).isEqualTo("requires_payment_method");
+
+        // Le succès différé du Stripe simulé ne suit pas un refus
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1500));
+        assertThat(paiementRepository.findByStripePaymentIntentId(intention.id())).get()
+            .extracting(Paiement::getStatut).isEqualTo(StatutPaiement.FAILED);
+        assertThat(stripePaymentService.confirmPayment(intention.id(), null)).isFalse();
+    }
+
+    @Test
+    void statutsStripe() {
+        assertThat(StripeWebhookService.statutPaiement("requires_payment_method", false)).isEqualTo(StatutPaiement.PENDING);
+        assertThat(StripeWebhookService.statutPaiement("requires_payment_method", true)).isEqualTo(StatutPaiement.FAILED);
+        assertThat(StripeWebhookService.statutPaiement("requires_capture", false)).isEqualTo(StatutPaiement.HELD);
+        assertThat(StripeWebhookService.statutPaiement("canceled", false)).isEqualTo(StatutPaiement.CANCELLED);
+        assertThat(StripeWebhookService.statutPaiement("succeeded", true)).isEqualTo(StatutPaiement.COMPLETED);
+    }
+
+    private Paiement attendreStatut(String paymentIntentId, StatutPaiement attendu) {
+        long limite = System.currentTimeMillis() + ATTENTE_MAX_MS;
+        Optional<Paiement> paiement = Optional.empty();
+        while (System.currentTimeMillis() < limite) {
+            paiement = paiementRepository.findByStripePaymentIntentId(paymentIntentId);
+            if (paiement.isPresent() && paiement.get().getStatut() == attendu) {
+                return paiement.get();
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        throw new AssertionError("Paiement " + paymentIntentId + " toujours à " + paiement.map(Paiement::getStatut).orElse(null));
+    }
+}
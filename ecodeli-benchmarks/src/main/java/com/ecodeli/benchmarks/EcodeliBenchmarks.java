@@ -0,0 +1,34 @@
+package com.ecodeli.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Point d'entrée de benchmarks.jar : mêmes options que le Main de JMH (filtre, -f, -wi, -i, -rf json...),
+ * avec le profileur GC toujours actif pour publier le débit et l'allocation (gc.alloc.rate.norm, octets par opération).
+ */
+public final class EcodeliBenchmarks {
+
+    private EcodeliBenchmarks() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions ligneDeCommande = new CommandLineOptions(args);
+        if (ligneDeCommande.shouldHelp() || ligneDeCommande.shouldList()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Options options = new OptionsBuilder()
+            .parent(ligneDeCommande)
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecodeli.benchmarks;
+
+import com.ecodeli.ecodeli_backend.services.reference.GenerateurReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GenerateurReference : identifiant seul et référence encodée, sur un thread puis sur quatre threads
+ * partageant le même générateur (contention sur le CAS).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenerateurReferenceBenchmark {
+
+    private GenerateurReference generateur;
+
+    @Setup
+    public void preparer() {
+        generateur = new GenerateurReference(1);
+    }
+
+    @Benchmark
+    public long prochainId() {
+        return generateur.prochainId();
+    }
+
+    @Benchmark
+    public String nouvelleReference() {
+        return generateur.nouvelleReference("TX");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long prochainIdConcurrent() {
+        return generateur.prochainId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nouvelleReferenceConcurrente() {
+        return generateur.nouvelleReference("TX");
+    }
+}
@@ -0,0 +1,150 @@
+package com.ecodeli.benchmarks;
+
+import com.ecodeli.ecodeli_backend.metriques.MetriquesMetier;
+import com.ecodeli.ecodeli_backend.models.PortefeuillePrestataire;
+import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertion de lignes du grand livre (TRANSACTION_PORTEFEUILLE) par Hibernate dans une base PostgreSQL
+ * migrée et peuplée, 100 lignes par transaction comme un versement groupé. Résultat en lignes par seconde.
+ * <ul>
+ *   <li>identite : identifiant IDENTITY (surcharge META-INF/benchmarks/identite.xml), un aller-retour par ligne</li>
+ *   <li>sequence : séquence pooled-lo par blocs de 50, lots JDBC de 20</li>
+ *   <li>sequence-reecriture : idem, lots réécrits par pgjdbc en INSERT multi-lignes (reWriteBatchedInserts)</li>
+ * </ul>
+ * La transaction est annulée après le flush : la table ne grossit pas d'une itération à l'autre.
+ * Préchauffage long : Hibernate n'atteint son régime qu'après une vingtaine de secondes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 6, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InsertionsBenchmark {
+
+    private static final int LIGNES = 100;
+
+    @Param({"identite", "sequence", "sequence-reecriture"})
+    private String mode;
+
+    @Param("jdbc:postgresql://localhost:5432/ecodeli")
+    private String jdbcUrl;
+
+    @Param("postgres")
+    private String utilisateur;
+
+    @Param("")
+    private String motDePasse;
+
+    private HikariDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private Long idPortefeuille;
+    private Integer idPrestataire;
+
+    @Setup
+    public void preparer() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(jdbcUrl);
+        dataSource.setUsername(utilisateur);
+        dataSource.setPassword(motDePasse);
+        dataSource.setMaximumPoolSize(1);
+        dataSource.addDataSourceProperty("reWriteBatchedInserts", mode.equals("sequence-reecriture"));
+
+        // TransitionLivraisonListener (entité Livraison) attend ses métriques par injection
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("metriquesMetier", new MetriquesMetier(new SimpleMeterRegistry()));
+
+        Map<String, Object> proprietes = new HashMap<>();
+        proprietes.put("hibernate.physical_naming_strategy",
+            "org.hibernate.boot.model.naming.PhysicalNamingStrategyStandardImpl");
+        proprietes.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+        proprietes.put("hibernate.temp.use_jdbc_metadata_defaults", false);
+        proprietes.put("hibernate.jdbc.batch_size", 20);
+        proprietes.put("hibernate.order_inserts", true);
+        proprietes.put("hibernate.order_updates", true);
+        proprietes.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+        proprietes.put("hibernate.resource.beans.container", new SpringBeanContainer(beanFactory));
+
+        LocalContainerEntityManagerFactoryBean fabrique = new LocalContainerEntityManagerFactoryBean();
+        fabrique.setDataSource(dataSource);
+        fabrique.setPackagesToScan("com.ecodeli.ecodeli_backend.models");
+        fabrique.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        fabrique.setJpaPropertyMap(proprietes);
+        if (mode.equals("identite")) {
+            fabrique.setMappingResources("META-INF/benchmarks/identite.xml");
+        }
+        fabrique.afterPropertiesSet();
+        entityManagerFactory = fabrique.getObject();
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            Object[] portefeuille = (Object[]) entityManager.createNativeQuery(
+                    "SELECT id_portefeuille, id_prestataire FROM PORTEFEUILLE_PRESTATAIRE ORDER BY id_portefeuille LIMIT 1")
+                .getSingleResult();
+            idPortefeuille = ((Number) portefeuille[0]).longValue();
+            idPrestataire = ((Number) portefeuille[1]).intValue();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @TearDown
+    public void fermer() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIGNES)
+    public void insererLot() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            PortefeuillePrestataire portefeuille = entityManager.getReference(PortefeuillePrestataire.class, idPortefeuille);
+            LocalDateTime maintenant = LocalDateTime.now();
+            for (int i = 0; i < LIGNES; i++) {
+                TransactionPortefeuille transaction = new TransactionPortefeuille();
+                transaction.setPortefeuille(portefeuille);
+                transaction.setIdPrestataire(idPrestataire);
+                transaction.setTypeTransaction(TransactionPortefeuille.TypeTransaction.CREDIT_MISSION);
+                transaction.setStatutTransaction(TransactionPortefeuille.StatutTransaction.EFFECTUE);
+                transaction.setMontant(BigDecimal.valueOf(1000 + i, 2));
+                transaction.setDescription("Benchmark insertion " + i);
+                transaction.setDateTransaction(maintenant);
+                entityManager.persist(transaction);
+            }
+            entityManager.flush();
+        } finally {
+            entityManager.getTransaction().rollback();
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecodeli.benchmarks;
+
+import com.ecodeli.benchmarks.support.Injection;
+import com.ecodeli.ecodeli_backend.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil : émission d'un jeton et vérification telle que JwtRequestFilter la fait à chaque requête
+ * (extractEmail, validateToken, extractUserType : trois analyses et vérifications de signature).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String jeton;
+
+    @Setup
+    public void preparer() {
+        jwtUtil = new JwtUtil();
+        Injection.champ(jwtUtil, "secretString", "dGVzdHRlc3R0ZXN0dGVzdHRlc3R0ZXN0dGVzdHRlc3R0ZXN0dGVzdA==");
+        Injection.champ(jwtUtil, "validityInMilliseconds", 3_600_000L);
+        jwtUtil.init();
+        jeton = jwtUtil.generateToken("client@ecodeli.fr", 42, "CLIENT");
+    }
+
+    @Benchmark
+    public String generer() {
+        return jwtUtil.generateToken("client@ecodeli.fr", 42, "CLIENT");
+    }
+
+    @Benchmark
+    public void verifierCommeLeFiltre(Blackhole trou) {
+        trou.consume(jwtUtil.extractEmail(jeton));
+        trou.consume(jwtUtil.validateToken(jeton));
+        trou.consume(jwtUtil.extractUserType(jeton));
+    }
+
+    @Benchmark
+    public Integer extraireUtilisateur() {
+        return jwtUtil.extractUserId(jeton);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecodeli.benchmarks;
+
+import com.ecodeli.analytics.dto.ClientAnalyticsDto;
+import com.ecodeli.analytics.services.LoyaltyCalculatorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoyaltyCalculatorService.getTopLoyalClients (application analytics) sur une population de clients
+ * générée avec une graine fixe. « calculComplet » remet les scores à null avant chaque appel, comme au
+ * premier chargement des données ; « scoresConnus » ne mesure que le filtrage et le tri.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoyaltyCalculatorBenchmark {
+
+    private static final int TOP_N = 10;
+
+    @Param({"1000", "10000"})
+    public int nombreClients;
+
+    private LoyaltyCalculatorService service;
+    private List<ClientAnalyticsDto> clients;
+
+    @Setup
+    public void preparer() {
+        service = new LoyaltyCalculatorService();
+        Random aleatoire = new Random(42);
+        LocalDateTime reference = LocalDateTime.now();
+        clients = new ArrayList<>(nombreClients);
+        for (int i = 0; i < nombreClients; i++) {
+            LocalDateTime premiere = reference.minusDays(30 + aleatoire.nextInt(900));
+            LocalDateTime derniere = reference.minusDays(aleatoire.nextInt(200));
+            clients.add(ClientAnalyticsDto.builder()
+                .id((long) i)
+                .prenom("Client")
+                .nom("N" + i)
+                .nombreCommandes(aleatoire.nextInt(60))
+                .datePremiereCommande(premiere)
+                .dateDerniereCommande(derniere.isBefore(premiere) ? premiere : derniere)
+                .isActive(aleatoire.nextInt(3) > 0)
+                .build());
+        }
+        service.updateLoyaltyMetrics(clients);
+    }
+
+    @Benchmark
+    public List<ClientAnalyticsDto> calculComplet() {
+        for (ClientAnalyticsDto client : clients) {
+            client.setFrequenceCommandes(null);
+            client.setScoreFidelite(null);
+            client.setAncienneteJours(null);
+        }
+        return service.getTopLoyalClients(clients, TOP_N);
+    }
+
+    @Benchmark
+    public List<ClientAnalyticsDto> scoresConnus() {
+        return service.getTopLoyalClients(clients, TOP_N);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecodeli.benchmarks;
+
+import com.ecodeli.benchmarks.support.Substituts;
+import com.ecodeli.ecodeli_backend.validation.PasswordSecurity;
+import com.ecodeli.ecodeli_backend.validation.PasswordSecurityValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordSecurityValidator.isValid avec la configuration par défaut de l'annotation, sur un mot de passe
+ * valide, un mot de passe courant et un mot de passe long. Le contexte de validation est un substitut
+ * sans effet : seul le coût du validateur est mesuré, pas celui d'Hibernate Validator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordSecurityValidatorBenchmark {
+
+    @Param({"Motdepasse1!", "password123", "Tr3s-L0ng-M0t-De-Passe-Avec-Beaucoup-De-Caracteres-2024!"})
+    public String motDePasse;
+
+    private PasswordSecurityValidator validateur;
+    private ConstraintValidatorContext contexte;
+
+    static class Formulaire {
+        @PasswordSecurity
+        String motDePasse;
+    }
+
+    @Setup
+    public void preparer() throws NoSuchFieldException {
+        validateur = new PasswordSecurityValidator();
+        validateur.initialize(Formulaire.class.getDeclaredField("motDePasse").getAnnotation(PasswordSecurity.class));
+        contexte = Substituts.fluide(ConstraintValidatorContext.class);
+    }
+
+    @Benchmark
+    public boolean valider() {
+        return validateur.isValid(motDePasse, contexte);
+    }
+
+    @Benchmark
+    public int calculerRobustesse() {
+        return PasswordSecurityValidator.calculatePasswordStrength(motDePasse);
+    }
+}
@@ -0,0 +1,156 @@
+package com.ecodeli.benchmarks;
+
+import com.ecodeli.benchmarks.support.Injection;
+import com.ecodeli.benchmarks.support.Substituts;
+import com.ecodeli.ecodeli_backend.models.AnnonceCommercant;
+import com.ecodeli.ecodeli_backend.models.Candidature;
+import com.ecodeli.ecodeli_backend.models.CategorieAnnonce;
+import com.ecodeli.ecodeli_backend.models.Commercant;
+import com.ecodeli.ecodeli_backend.models.DemandeService;
+import com.ecodeli.ecodeli_backend.models.Prestataire;
+import com.ecodeli.ecodeli_backend.models.PrestataireCategorie;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+import com.ecodeli.ecodeli_backend.repositories.AnnonceCommercantRepository;
+import com.ecodeli.ecodeli_backend.repositories.CandidatureRepository;
+import com.ecodeli.ecodeli_backend.repositories.PrestataireCategorieRepository;
+import com.ecodeli.ecodeli_backend.repositories.UtilisateurRepository;
+import com.ecodeli.ecodeli_backend.services.AnnonceCommercantService;
+import com.ecodeli.ecodeli_backend.services.PrixCalculService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculs de prix : PrixCalculService (tarif horaire du prestataire pour une candidature) et
+ * AnnonceCommercantService.createAnnonce, seul point d'entrée public du prix estimé des annonces
+ * commerçant (lecture du formulaire, validation, prix). Les dépôts sont des substituts en mémoire.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrixBenchmark {
+
+    private PrixCalculService prixCalculService;
+    private AnnonceCommercantService annonceCommercantService;
+
+    @State(Scope.Benchmark)
+    public static class FormulaireAnnonce {
+
+        @Param({"LIVRAISON_PONCTUELLE", "SERVICE_CHARIOT", "TRANSPORT_MARCHANDISES"})
+        public CategorieAnnonce categorie;
+
+        Map<String, Object> donnees;
+
+        @Setup
+        public void preparer() {
+            donnees = formulaire(categorie);
+        }
+    }
+
+    @Setup
+    public void preparer() {
+        Prestataire prestataire = new Prestataire();
+        prestataire.setIdUtilisateur(7);
+        prestataire.setPrenom("Paul");
+        prestataire.setNom("Martin");
+        DemandeService demande = new DemandeService();
+        demande.setCategorieService(ServiceType.TRANSPORT_LIVRAISON);
+        Candidature candidature = new Candidature();
+        candidature.setIdCandidature(1L);
+        candidature.setPrestataire(prestataire);
+        candidature.setDemandeService(demande);
+        PrestataireCategorie tarif = new PrestataireCategorie();
+        tarif.setPrestataire(prestataire);
+        tarif.setCategorieService(ServiceType.TRANSPORT_LIVRAISON);
+        tarif.setTarifHoraire(32.5);
+
+        prixCalculService = new PrixCalculService();
+        Injection.champ(prixCalculService, "candidatureRepository", Substituts.depot(CandidatureRepository.class)
+            .quand("findById", args -> Optional.of(candidature))
+            .creer());
+        Injection.champ(prixCalculService, "prestataireCategorieRepository",
+            Substituts.depot(PrestataireCategorieRepository.class)
+                .quand("findByPrestataireIdUtilisateurAndCategorieService", args -> Optional.of(tarif))
+                .creer());
+
+        Commercant commercant = new Commercant();
+        commercant.setIdUtilisateur(12);
+        annonceCommercantService = new AnnonceCommercantService();
+        Injection.champ(annonceCommercantService, "annonceRepository", Substituts.depot(AnnonceCommercantRepository.class)
+            .quand("countActiveAnnouncementsByCommercant", args -> 2L)
+            .quand("save", args -> args[0])
+            .creer());
+        Injection.champ(annonceCommercantService, "utilisateurRepository", Substituts.depot(UtilisateurRepository.class)
+            .quand("findById", args -> Optional.of(commercant))
+            .creer());
+    }
+
+    @Benchmark
+    public BigDecimal prixMission() {
+        return prixCalculService.calculerPrixMission(1L);
+    }
+
+    @Benchmark
+    public Map<String, Object> detailsPrixMission() {
+        return prixCalculService.getDetailsPrix(1L);
+    }
+
+    @Benchmark
+    public BigDecimal prixAnnonceCommercant(FormulaireAnnonce formulaire) {
+        AnnonceCommercant annonce = annonceCommercantService.createAnnonce(formulaire.donnees);
+        return annonce.getPrixEstime();
+    }
+
+    private static Map<String, Object> formulaire(CategorieAnnonce categorie) {
+        Map<String, Object> donnees = new HashMap<>();
+        donnees.put("commercantId", 12);
+        donnees.put("categorie", categorie.name());
+        donnees.put("titre", "Livraison de produits frais");
+        donnees.put("description", "Caisses de fruits et légumes");
+        switch (categorie) {
+            case LIVRAISON_PONCTUELLE -> {
+                donnees.put("dateLivraisonPrecise", "2025-06-14T10:30:00");
+                donnees.put("heureLivraisonPrecise", "10:30");
+                donnees.put("adresseCollecte", "12 rue de Rivoli, Paris");
+                donnees.put("adresseDestination", "4 place Bellecour, Lyon");
+                donnees.put("poidsColis", "12.5");
+                donnees.put("contactDestinataire", "06 12 34 56 78");
+                donnees.put("disponibiliteTempsReel", "false");
+            }
+            case SERVICE_CHARIOT -> {
+                donnees.put("heuresServiceDebut", "09:00");
+                donnees.put("heuresServiceFin", "19:00");
+                donnees.put("zoneCouverture", "Paris 11e, 12e, 20e");
+                donnees.put("commandeMinimum", "30.00");
+                donnees.put("tempsLivraisonMoyen", 45);
+                donnees.put("gestionDisponibiliteContinue", "true");
+            }
+            case TRANSPORT_MARCHANDISES -> {
+                donnees.put("frequenceTransport", "HEBDOMADAIRE");
+                donnees.put("categoriesMarchandises", "Alimentaire");
+                donnees.put("itinerairesDetailles", "Rungis - Paris 11e");
+                donnees.put("volumeEstime", "8.0");
+                donnees.put("optimisationRoute", "false");
+                donnees.put("planificationCapacite", "true");
+            }
+        }
+        return donnees;
+    }
+}
@@ -0,0 +1,243 @@
+package com.ecodeli.benchmarks;
+
+import com.ecodeli.ecodeli_backend.config.JacksonConfig;
+import com.ecodeli.ecodeli_backend.dto.response.MissionPrestataireResponse;
+import com.ecodeli.ecodeli_backend.models.Annonce;
+import com.ecodeli.ecodeli_backend.models.Candidature;
+import com.ecodeli.ecodeli_backend.models.Client;
+import com.ecodeli.ecodeli_backend.models.Colis;
+import com.ecodeli.ecodeli_backend.models.DemandeService;
+import com.ecodeli.ecodeli_backend.models.DemandeService.StatutDemande;
+import com.ecodeli.ecodeli_backend.models.Livraison;
+import com.ecodeli.ecodeli_backend.models.Livreur;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation Jackson (ObjectMapper de JacksonConfig) des graphes renvoyés par les contrôleurs :
+ * une livraison avec son annonce, son colis et ses utilisateurs, une annonce seule, une page de
+ * 50 livraisons et une page de 50 missions prestataire.
+ *
+ * Les missions sont construites puis sérialisées à chaque opération : records remplis à partir des
+ * colonnes comme par la requête JPQL (pageMissionsPrestataire), ou HashMap imbriquées remplies à partir
+ * des entités, comme le faisait MissionService avant les records (pageMissionsPrestataireMaps, référence).
+ * Le chargement des entités par Hibernate, propre à l'ancien chemin, n'est pas compté.
+ * Le profileur GC donne l'allocation par opération.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerialisationJsonBenchmark {
+
+    private static final int TAILLE_PAGE = 50;
+
+    private ObjectMapper objectMapper;
+    private Livraison livraison;
+    private Annonce annonce;
+    private List<Livraison> livraisons;
+    private List<Object[]> lignesMissions;
+    private List<Candidature> candidaturesAcceptees;
+
+    @Setup
+    public void preparer() {
+        objectMapper = new JacksonConfig().objectMapper();
+        LocalDateTime maintenant = LocalDateTime.of(2025, 6, 14, 10, 30);
+
+        Client expediteur = new Client();
+        expediteur.setIdUtilisateur(1);
+        expediteur.setPrenom("Camille");
+        expediteur.setNom("Durand");
+        expediteur.setEmail("camille.durand@ecodeli.fr");
+        expediteur.setTelephone("0612345678");
+        expediteur.setAdresse("12 rue de Rivoli");
+        expediteur.setVille("Paris");
+        expediteur.setCodePostal("75001");
+
+        livraisons = new ArrayList<>(TAILLE_PAGE);
+        for (int i = 1; i <= TAILLE_PAGE; i++) {
+            livraisons.add(livraison(i, expediteur, maintenant));
+        }
+        livraison = livraisons.get(0);
+        annonce = livraison.getAnnonce();
+
+        lignesMissions = new ArrayList<>(TAILLE_PAGE);
+        candidaturesAcceptees = new ArrayList<>(TAILLE_PAGE);
+        for (long i = 1; i <= TAILLE_PAGE; i++) {
+            StatutDemande statut = i % 2 == 0 ? StatutDemande.EN_COURS : StatutDemande.TERMINEE;
+            lignesMissions.add(new Object[] {i, new BigDecimal("32.50"), maintenant, statut, maintenant.plusHours(2),
+                i, "Déménagement studio", "Cartons et petit mobilier", ServiceType.TRANSPORT_LIVRAISON,
+                maintenant.plusDays(3), "12 rue de Rivoli, Paris", "4 place Bellecour, Lyon", "09:00-12:00",
+                1, "Camille", "Durand", "camille.durand@ecodeli.fr", "0612345678"});
+
+            DemandeService demande = new DemandeService();
+            demande.setIdDemande(i);
+            demande.setTitre("Déménagement studio");
+            demande.setDescription("Cartons et petit mobilier");
+            demande.setCategorieService(ServiceType.TRANSPORT_LIVRAISON);
+            demande.setDateSouhaitee(maintenant.plusDays(3));
+            demande.setAdresseDepart("12 rue de Rivoli, Paris");
+            demande.setAdresseArrivee("4 place Bellecour, Lyon");
+            demande.setCreneauHoraire("09:00-12:00");
+            demande.setStatut(statut);
+            demande.setDateModification(maintenant.plusHours(2));
+            demande.setClient(expediteur);
+            Candidature candidature = new Candidature();
+            candidature.setIdCandidature(i);
+            candidature.setPrixPropose(new BigDecimal("32.50"));
+            candidature.setDateReponse(maintenant);
+            candidature.setDemandeService(demande);
+            candidaturesAcceptees.add(candidature);
+        }
+    }
+
+    @Benchmark
+    public byte[] livraison() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(livraison);
+    }
+
+    @Benchmark
+    public byte[] annonce() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(annonce);
+    }
+
+    @Benchmark
+    public byte[] pageLivraisons() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(livraisons);
+    }
+
+    @Benchmark
+    public byte[] pageMissionsPrestataire() throws JsonProcessingException {
+        List<MissionPrestataireResponse> missions = new ArrayList<>(lignesMissions.size());
+        for (Object[] l : lignesMissions) {
+            missions.add(new MissionPrestataireResponse((Long) l[0], (BigDecimal) l[1], (LocalDateTime) l[2],
+                (StatutDemande) l[3], (LocalDateTime) l[4], (Long) l[5], (String) l[6], (String) l[7],
+                (ServiceType) l[8], (LocalDateTime) l[9], (String) l[10], (String) l[11], (String) l[12],
+                (Integer) l[13], (String) l[14], (String) l[15], (String) l[16], (String) l[17]));
+        }
+        return objectMapper.writeValueAsBytes(missions);
+    }
+
+    @Benchmark
+    public byte[] pageMissionsPrestataireMaps() throws JsonProcessingException {
+        List<Map<String, Object>> missions = new ArrayList<>(candidaturesAcceptees.size());
+        for (Candidature candidature : candidaturesAcceptees) {
+            missions.add(missionMap(candidature));
+        }
+        return objectMapper.writeValueAsBytes(missions);
+    }
+
+    /**
+     * Ancienne construction de MissionService.getMissionsByPrestataire, conservée comme référence
+     */
+    private static Map<String, Object> missionMap(Candidature candidature) {
+        Map<String, Object> missionMap = new HashMap<>();
+        missionMap.put("id", candidature.getIdCandidature());
+        missionMap.put("candidatureId", candidature.getIdCandidature());
+
+        DemandeService demande = candidature.getDemandeService();
+        missionMap.put("statut", MissionPrestataireResponse.statutMission(demande.getStatut()));
+        missionMap.put("prixAccepte", candidature.getPrixPropose());
+        missionMap.put("dateAcceptation", candidature.getDateReponse());
+        if (demande.getStatut() == StatutDemande.EN_COURS) {
+            missionMap.put("dateDebut", candidature.getDateReponse());
+        }
+        if (demande.getStatut() == StatutDemande.TERMINEE) {
+            missionMap.put("dateTerminaison", demande.getDateModification());
+        }
+
+        Map<String, Object> demandeMap = new HashMap<>();
+        demandeMap.put("idDemande", demande.getIdDemande());
+        demandeMap.put("titre", demande.getTitre());
+        demandeMap.put("description", demande.getDescription());
+        demandeMap.put("categorieService", demande.getCategorieService().name());
+        demandeMap.put("dateSouhaitee", demande.getDateSouhaitee());
+        demandeMap.put("adresseDepart", demande.getAdresseDepart());
+        demandeMap.put("adresseArrivee", demande.getAdresseArrivee());
+        demandeMap.put("creneauHoraire", demande.getCreneauHoraire());
+
+        Map<String, Object> clientMap = new HashMap<>();
+        clientMap.put("idUtilisateur", demande.getClient().getIdUtilisateur());
+        clientMap.put("prenom", demande.getClient().getPrenom());
+        clientMap.put("nom", demande.getClient().getNom());
+        clientMap.put("email", demande.getClient().getEmail());
+        clientMap.put("telephone", demande.getClient().getTelephone());
+        demandeMap.put("client", clientMap);
+
+        missionMap.put("demandeService", demandeMap);
+        return missionMap;
+    }
+
+    private static Livraison livraison(int id, Client expediteur, LocalDateTime maintenant) {
+        Livreur livreur = new Livreur();
+        livreur.setIdUtilisateur(100 + id);
+        livreur.setPrenom("Karim");
+        livreur.setNom("Benali");
+        livreur.setEmail("livreur" + id + "@ecodeli.fr");
+        livreur.setVehicule("Vélo cargo");
+        livreur.setDisponible(true);
+
+        Colis colis = new Colis();
+        colis.setIdColis(id);
+        colis.setPoids(new BigDecimal("4.20"));
+        colis.setLongueur(new BigDecimal("40"));
+        colis.setLargeur(new BigDecimal("30"));
+        colis.setHauteur(new BigDecimal("25"));
+        colis.setDescription("Vaisselle");
+        colis.setFragile(true);
+
+        Annonce annonce = new Annonce();
+        annonce.setIdAnnonce(id);
+        annonce.setTitre("Livraison Paris - Lyon");
+        annonce.setDescription("Colis fragile, remise en main propre");
+        annonce.setDateDebut(maintenant);
+        annonce.setDateFin(maintenant.plusDays(2));
+        annonce.setPrixUnitaire(new BigDecimal("35.00"));
+        annonce.setAdresseDepart("12 rue de Rivoli, 75001 Paris");
+        annonce.setAdresseFin("4 place Bellecour, 69002 Lyon");
+        annonce.setExpediteur(expediteur);
+        annonce.setLivreur(livreur);
+        annonce.setColis(colis);
+        annonce.setEmailDestinataire("destinataire@ecodeli.fr");
+
+        Livraison livraison = new Livraison();
+        livraison.setIdLivraison(id);
+        livraison.setAnnonce(annonce);
+        livraison.setDateDebut(maintenant);
+        livraison.setStatut(Livraison.StatutLivraison.EN_COURS);
+        livraison.setAdresseEnvoi("12 rue de Rivoli");
+        livraison.setCodePostalEnvoi("75001");
+        livraison.setAdresseDeLivraison("4 place Bellecour");
+        livraison.setCodePostalLivraison("69002");
+        livraison.setPrix(35);
+        livraison.setExpediteur(expediteur);
+        livraison.setColis(colis);
+        livraison.setLatitudeEnvoi(48.8606);
+        livraison.setLongitudeEnvoi(2.3376);
+        livraison.setLatitudeLivraison(45.7578);
+        livraison.setLongitudeLivraison(4.8320);
+        livraison.setLivreurSegment1(livreur);
+        return livraison;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecodeli.benchmarks.support;
+
+import java.lang.reflect.Field;
+
+/**
+ * Remplit les champs @Autowired / @Value des services sans démarrer de contexte Spring
+ */
+public final class Injection {
+
+    private Injection() {
+    }
+
+    public static <T> T champ(T cible, String nom, Object valeur) {
+        Class<?> type = cible.getClass();
+        while (type != null) {
+            try {
+                Field champ = type.getDeclaredField(nom);
+                champ.setAccessible(true);
+                champ.set(cible, valeur);
+                return cible;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Champ " + nom + " inaccessible", e);
+            }
+        }
+        throw new IllegalArgumentException("Champ " + nom + " absent de " + cible.getClass().getName());
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecodeli.benchmarks.support;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Substituts d'interfaces (dépôts Spring Data, contexte de validation) par proxy dynamique :
+ * les benchmarks mesurent le code du service, pas la base de données.
+ */
+public final class Substituts {
+
+    private Substituts() {
+    }
+
+    /**
+     * Dépôt dont seules les méthodes déclarées répondent ; les autres échouent pour ne rien mesurer par erreur
+     */
+    public static <T> Depot<T> depot(Class<T> type) {
+        return new Depot<>(type);
+    }
+
+    /**
+     * Implémentation « fluide » : chaque méthode renvoie un nouveau substitut de son type de retour
+     * (builders du ConstraintValidatorContext), ou la valeur par défaut pour les types simples.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T fluide(Class<T> type) {
+        InvocationHandler handler = (proxy, methode, args) -> {
+            if (methode.getDeclaringClass() == Object.class) {
+                return objet(proxy, methode, args);
+            }
+            Class<?> retour = methode.getReturnType();
+            if (retour.isInterface()) {
+                return fluide(retour);
+            }
+            return defaut(retour);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    public static final class Depot<T> {
+
+        private final Class<T> type;
+        private final Map<String, Function<Object[], Object>> reponses = new HashMap<>();
+
+        private Depot(Class<T> type) {
+            this.type = type;
+        }
+
+        public Depot<T> quand(String methode, Function<Object[], Object> reponse) {
+            reponses.put(methode, reponse);
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T creer() {
+            InvocationHandler handler = (proxy, methode, args) -> {
+                if (methode.getDeclaringClass() == Object.class) {
+                    return objet(proxy, methode, args);
+                }
+                Function<Object[], Object> reponse = reponses.get(methode.getName());
+                if (reponse == null) {
+                    throw new UnsupportedOperationException(type.getSimpleName() + "." + methode.getName()
+                        + " n'est pas simulé (arguments " + Arrays.toString(args) + ")");
+                }
+                return reponse.apply(args);
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+        }
+    }
+
+    private static Object objet(Object proxy, Method methode, Object[] args) {
+        return switch (methode.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> "Substitut@" + Integer.toHexString(System.identityHashCode(proxy));
+        };
+    }
+
+    private static Object defaut(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        // Valeur par défaut d'un type primitif, déjà du bon type enveloppe
+        return Array.get(Array.newInstance(type, 1), 0);
+    }
+}
@@ -18,6 +18,8 @@ export const getApiUrl = (endpoint) => `${API_CONFIG.BASE_URL}${endpoint}`
 export const API_URLS = {
   AUTH_LOGIN: getApiUrl(API_CONFIG.ENDPOINTS.AUTH + '/login'),
   AUTH_REGISTER: getApiUrl(API_CONFIG.ENDPOINTS.AUTH + '/register'),
+  AUTH_REFRESH: getApiUrl(API_CONFIG.ENDPOINTS.AUTH + '/refresh'),
+  AUTH_LOGOUT: getApiUrl(API_CONFIG.ENDPOINTS.AUTH + '/logout'),
   ADMIN_USERS: getApiUrl(API_CONFIG.ENDPOINTS.USERS),
   ADMIN_CONTRATS: getApiUrl(API_CONFIG.ENDPOINTS.CONTRATS),
   ADMIN_LIVRAISONS: getApiUrl(API_CONFIG.ENDPOINTS.LIVRAISONS),
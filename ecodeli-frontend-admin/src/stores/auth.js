@@ -6,6 +6,8 @@ import { API_URLS } from '../config/api.js'
 export const useAuthStore = defineStore('auth', () => {
   const user = ref(null)
   const token = ref(localStorage.getItem('admin_token'))
+  const refreshToken = ref(localStorage.getItem('admin_refresh_token'))
+  let pendingRefresh = null
   const isLoading = ref(false)
 
   const isAuthenticated = computed(() => !!token.value)
@@ -25,7 +27,7 @@ export const useAuthStore = defineStore('auth', () => {
         motDePasse
       })
 
-      const { token: authToken, ...userData } = response.data
+      const { token: authToken, refreshToken: newRefreshToken, expiresIn, ...userData } = response.data
 
       if (userData.userType !== 'ADMIN') {
         throw new Error('Accès non autorisé. Seuls les administrateurs peuvent se connecter.')
@@ -34,6 +36,7 @@ export const useAuthStore = defineStore('auth', () => {
       token.value = authToken
       user.value = userData
       localStorage.setItem('admin_token', authToken)
+      saveRefreshToken(newRefreshToken)
       localStorage.setItem('admin_user', JSON.stringify(userData))
 
       setAxiosToken(authToken)
@@ -60,11 +63,12 @@ export const useAuthStore = defineStore('auth', () => {
 
       const response = await axios.post(API_URLS.AUTH_REGISTER, adminData)
 
-      const { token: authToken, ...userData } = response.data
+      const { token: authToken, refreshToken: newRefreshToken, expiresIn, ...userData } = response.data
 
       token.value = authToken
       user.value = userData
       localStorage.setItem('admin_token', authToken)
+      saveRefreshToken(newRefreshToken)
       localStorage.setItem('admin_user', JSON.stringify(userData))
 
       setAxiosToken(authToken)
@@ -82,6 +86,16 @@ export const useAuthStore = defineStore('auth', () => {
   }
 
   const logout = () => {
+    if (refreshToken.value) {
+      // Révoque la session côté serveur (tous les onglets), sans attendre la réponse
+      axios.post(API_URLS.AUTH_LOGOUT, { refreshToken: refreshToken.value }).catch(() => {})
+    }
+    clearSession()
+  }
+
+  // Session locale seulement : la famille de jetons n'est pas révoquée côté serveur
+  const clearSession = () => {
+    saveRefreshToken(null)
     user.value = null
     token.value = null
     localStorage.removeItem('admin_token')
@@ -104,6 +118,96 @@ export const useAuthStore = defineStore('auth', () => {
     axios.defaults.headers.common['Authorization'] = `Bearer ${authToken}`
   }
 
+  const saveRefreshToken = (value) => {
+    refreshToken.value = value || null
+    if (value) {
+      localStorage.setItem('admin_refresh_token', value)
+    } else {
+      localStorage.removeItem('admin_refresh_token')
+    }
+  }
+
+  const isTokenExpired = () => {
+    try {
+      const payload = JSON.parse(atob(token.value.split('.')[1].replace(/-/g, '+').replace(/_/g, '/')))
+      return payload.exp * 1000 <= Date.now()
+    } catch {
+      return true
+    }
+  }
+
+  // Un autre onglet a pu renouveler la session : son refresh token remplace celui de ce store,
+  // déjà consommé (le renvoyer ferait révoquer toute la famille par le serveur)
+  const syncFromStorage = () => {
+    const storedRefreshToken = localStorage.getItem('admin_refresh_token')
+    if (!storedRefreshToken || storedRefreshToken === refreshToken.value) {
+      return false
+    }
+    refreshToken.value = storedRefreshToken
+    const storedToken = localStorage.getItem('admin_token')
+    if (storedToken) {
+      token.value = storedToken
+      setAxiosToken(storedToken)
+    }
+    return true
+  }
+
+  const requestRefresh = async () => {
+    const response = await axios.post(API_URLS.AUTH_REFRESH, { refreshToken: refreshToken.value })
+    token.value = response.data.token
+    localStorage.setItem('admin_token', response.data.token)
+    saveRefreshToken(response.data.refreshToken)
+    setAxiosToken(response.data.token)
+    return response.data.token
+  }
+
+  // Nouveau token via le refresh token (pas de mot de passe) ; un seul renouvellement à la fois,
+  // le refresh token étant à usage unique
+  const renewToken = () => {
+    if (!pendingRefresh) {
+      pendingRefresh = (async () => {
+        if (syncFromStorage() && !isTokenExpired()) {
+          return token.value
+        }
+        try {
+          return await requestRefresh()
+        } catch (error) {
+          // Renouvelé par un autre onglet pendant la requête : une seule nouvelle tentative
+          if (error.response?.status === 401 && syncFromStorage()) {
+            return isTokenExpired() ? await requestRefresh() : token.value
+          }
+          throw error
+        }
+      })().finally(() => {
+        pendingRefresh = null
+      })
+    }
+    return pendingRefresh
+  }
+
+  axios.interceptors.response.use(
+    (response) => response,
+    async (error) => {
+      const request = error.config
+      const status = error.response?.status
+      if ((status === 401 || status === 403) && request && !request._retry && refreshToken.value
+        && token.value && !request.url?.includes('/api/auth/') && isTokenExpired()) {
+        request._retry = true
+        try {
+          const newToken = await renewToken()
+          request.headers['Authorization'] = `Bearer ${newToken}`
+          return axios(request)
+        } catch (refreshError) {
+          // Refresh token refusé : état local effacé, sans déconnexion serveur qui révoquerait la famille
+          if (refreshError.response?.status === 401) {
+            clearSession()
+          }
+        }
+      }
+      return Promise.reject(error)
+    }
+  )
+
   const hasRole = (role) => {
     return userRole.value === role
   }
@@ -115,6 +219,7 @@ export const useAuthStore = defineStore('auth', () => {
   return {
     user,
     token,
+    refreshToken,
     isLoading,
 
     isAuthenticated,
@@ -125,6 +230,7 @@ export const useAuthStore = defineStore('auth', () => {
     login,
     register,
     logout,
+    renewToken,
     loadUserFromStorage,
     hasRole
   }
@@ -6,11 +6,10 @@ export const usePrestataireStore = defineStore('prestataires', () => {
   const prestataires = ref([])
   const validations = ref([])
   const tarifs = ref([])
+  const totalPrestataires = ref(0)
   const loading = ref(false)
   const error = ref(null)
 
-  const totalPrestataires = computed(() => prestataires.value.length)
-
   const prestatairesByStatut = computed(() => {
     const statuts = {
       EN_ATTENTE: 0,
@@ -34,13 +33,19 @@ export const usePrestataireStore = defineStore('prestataires', () => {
     rejetes: prestatairesByStatut.value.REJETE
   }))
 
-  const fetchPrestataires = async () => {
+  // Une page à la fois ; avec un texte, recherche côté serveur (nom, email, entreprise)
+  const fetchPrestataires = async ({ page = 0, size = 20, search = '' } = {}) => {
     loading.value = true
     error.value = null
 
     try {
-      const response = await axios.get('https://ecodeli-2a5-zazic-lisika-tafili-production.up.railway.app/api/admin/prestataires')
-      prestataires.value = response.data
+      const url = search
+        ? 'https://ecodeli-2a5-zazic-lisika-tafili-production.up.railway.app/api/admin/prestataires/recherche'
+        : 'https://ecodeli-2a5-zazic-lisika-tafili-production.up.railway.app/api/admin/prestataires'
+      const params = search ? { page, size, search } : { page, size }
+      const response = await axios.get(url, { params })
+      prestataires.value = response.data.content
+      totalPrestataires.value = response.data.totalElements
       return { success: true, data: response.data }
     } catch (err) {
       error.value = err.response?.data?.message || 'Erreur lors du chargement des prestataires'
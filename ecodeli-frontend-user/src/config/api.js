@@ -22,5 +22,7 @@ export const getApiUrl = (endpoint) => `${API_CONFIG.BASE_URL}${endpoint}`
 export const API_URLS = {
   AUTH_LOGIN: getApiUrl(API_CONFIG.ENDPOINTS.AUTH + '/login'),
   AUTH_REGISTER: getApiUrl(API_CONFIG.ENDPOINTS.AUTH + '/register'),
+  AUTH_REFRESH: getApiUrl(API_CONFIG.ENDPOINTS.AUTH + '/refresh'),
+  AUTH_LOGOUT: getApiUrl(API_CONFIG.ENDPOINTS.AUTH + '/logout'),
   // Ajouter d'autres URLs selon les besoins
 }
@@ -0,0 +1,87 @@
+#!/bin/bash
+# Compare le démarrage à froid du backend : jar Spring Boot classique, puis mode rapide (archive AppCDS, profil
+# rapide) et, si JAR_AOT est fourni (mvn -Pdemarrage-rapide package), mode rapide avec le contexte Spring AOT.
+# Mêmes options JVM que comparer-threads.sh (budget du conteneur Railway de 512 Mo).
+#
+# Prérequis : base migrée et peuplée, DATABASE_URL exporté, backend construit (mvn -f ../ecodeli-backend package).
+# Mesures par lancement : « Started » de Spring, première réponse HTTP, fin du préchauffage, mémoire résidente
+# une fois préchauffé et pic (VmHWM). Journaux : target/demarrage-<mode>-<n>.log
+
+set -e
+cd "$(dirname "$0")"
+
+JAR_BACKEND=${JAR_BACKEND:-$(ls ../ecodeli-backend/target/ecodeli-backend-*.jar | grep -v -e plain -e exec | head -1)}
+JAR_AOT=${JAR_AOT:-}
+JVM_OPTS=${JVM_OPTS:-"-Xmx300m -Xms150m -XX:MaxMetaspaceSize=128m -XX:+UseG1GC -XX:+UseStringDeduplication"}
+PORT=${PORT:-8080}
+REPETITIONS=${REPETITIONS:-3}
+RAPIDE=../ecodeli-backend/demarrage-rapide.sh
+
+mkdir -p target
+
+echo "=== Archive CDS (exécution d'entraînement) ==="
+$RAPIDE extraire "$JAR_BACKEND" target/demarrage-cds
+JAVA_TOOL_OPTIONS="$JVM_OPTS" $RAPIDE entrainer target/demarrage-cds > target/demarrage-cds-entrainement.log 2>&1
+modes="jar rapide"
+if [ -n "$JAR_AOT" ]; then
+    $RAPIDE extraire "$JAR_AOT" target/demarrage-aot
+    JAVA_TOOL_OPTIONS="$JVM_OPTS" $RAPIDE entrainer target/demarrage-aot > target/demarrage-aot-entrainement.log 2>&1
+    modes="$modes rapide-aot"
+fi
+
+millis() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+secondes() {
+    awk -v debut="$1" -v fin="$2" 'BEGIN { print (fin - debut) / 1000 }'
+}
+
+resultats=target/demarrage.txt
+printf "%-11s %3s %12s %18s %14s %10s %12s\n" mode n "Started s" "1re réponse s" "préchauffé s" "RSS Mo" "RSS max Mo" > $resultats
+
+for mode in $modes; do
+    for n in $(seq 1 "$REPETITIONS"); do
+        journal=target/demarrage-$mode-$n.log
+        debut=$(millis)
+        case $mode in
+            jar)
+                SPRING_PROFILES_ACTIVE=charge PORT=$PORT java $JVM_OPTS -jar "$JAR_BACKEND" > "$journal" 2>&1 &
+                ;;
+            rapide)
+                SPRING_PROFILES_ACTIVE=charge,rapide PORT=$PORT JAVA_TOOL_OPTIONS="$JVM_OPTS" \
+                    $RAPIDE lancer target/demarrage-cds > "$journal" 2>&1 &
+                ;;
+            rapide-aot)
+                SPRING_PROFILES_ACTIVE=charge,rapide PORT=$PORT JAVA_TOOL_OPTIONS="$JVM_OPTS" \
+                    $RAPIDE lancer target/demarrage-aot > "$journal" 2>&1 &
+                ;;
+        esac
+        pid=$!
+
+        until curl -sf -o /dev/null "http://localhost:$PORT/actuator/health"; do
+            kill -0 $pid 2> /dev/null || { echo "Le backend s'est arrêté, voir $journal"; exit 1; }
+            sleep 0.1
+        done
+        reponse=$(millis)
+        until grep -q "Préchauffage.*terminé" "$journal"; do
+            sleep 0.1
+        done
+        prechauffe=$(millis)
+        sleep 5
+
+        started=$(grep -o "Started EcodeliBackendApplication in [0-9.]*" "$journal" | awk '{print $NF}')
+        rss=$(( $(awk '/VmRSS/ {print $2}' /proc/$pid/status) / 1024 ))
+        rss_max=$(( $(awk '/VmHWM/ {print $2}' /proc/$pid/status) / 1024 ))
+        printf "%-11s %3s %12s %18.1f %14.1f %10s %12s\n" "$mode" "$n" "$started" \
+            "$(secondes $debut $reponse)" "$(secondes $debut $prechauffe)" \
+            "$rss" "$rss_max" | tee -a $resultats
+
+        kill $pid
+        wait $pid 2> /dev/null || true
+    done
+done
+
+echo
+echo "=== Synthèse ==="
+cat $resultats
@@ -0,0 +1,56 @@
+#!/bin/bash
+# Compare le backend en threads plateforme puis en threads virtuels, à charge égale et dans le budget
+# mémoire du conteneur Railway de 512 Mo : tas de railway.toml, métaspace porté à 128 Mo (plus de 100 Mo
+# occupés dès le démarrage, un plafond plus bas finit en OutOfMemoryError: Metaspace sous charge).
+#
+# Prérequis : base peuplée (java -jar target/loadtest.jar peupler ...), DATABASE_URL exporté,
+# backend construit (mvn -f ../ecodeli-backend package -DskipTests) et ce module construit (mvn package).
+# Résultats : target/threads-plateforme.* et target/threads-virtuels.* (rapport, CSV, journal du backend).
+
+set -e
+cd "$(dirname "$0")"
+
+JAR_BACKEND=${JAR_BACKEND:-$(ls ../ecodeli-backend/target/ecodeli-backend-*.jar | grep -v -e plain -e exec | head -1)}
+JVM_OPTS=${JVM_OPTS:-"-Xmx300m -Xms150m -XX:MaxMetaspaceSize=128m -XX:+UseG1GC -XX:+UseStringDeduplication"}
+PORT=${PORT:-8080}
+ECHELLE=${ECHELLE:-1}
+UTILISATEURS=${UTILISATEURS:-400}
+MONTEE=${MONTEE:-1m}
+DUREE=${DUREE:-5m}
+# Latence Google Maps élevée : les requêtes passent l'essentiel de leur temps bloquées, ce que les threads virtuels visent
+MAPS_LATENCE=${MAPS_LATENCE:-300ms}
+
+mkdir -p target
+
+for mode in plateforme virtuels; do
+    virtuels=false
+    [ "$mode" = virtuels ] && virtuels=true
+
+    echo "=== Backend en threads $mode ==="
+    APP_VIRTUAL_THREADS=$virtuels SPRING_PROFILES_ACTIVE=charge PORT=$PORT \
+        java $JVM_OPTS -jar "$JAR_BACKEND" > "target/threads-$mode-backend.log" 2>&1 &
+    pid=$!
+
+    for _ in $(seq 1 90); do
+        curl -sf "http://localhost:$PORT/actuator/health" > /dev/null && break
+        kill -0 $pid 2> /dev/null || { echo "Le backend s'est arrêté, voir target/threads-$mode-backend.log"; exit 1; }
+        sleep 2
+    done
+
+    java -jar target/loadtest.jar scenarios --url="http://localhost:$PORT" --echelle="$ECHELLE" \
+        --utilisateurs="$UTILISATEURS" --montee="$MONTEE" --duree="$DUREE" --maps-latence="$MAPS_LATENCE" \
+        --csv="target/threads-$mode.csv" | tee "target/threads-$mode.txt"
+
+    # Pic de mémoire résidente du processus (VmHWM), à comparer à la limite de 512 Mo
+    echo "RSS max du backend : $(( $(awk '/VmHWM/ {print $2}' /proc/$pid/status) / 1024 )) Mo" | tee -a "target/threads-$mode.txt"
+
+    kill $pid
+    wait $pid 2> /dev/null || true
+done
+
+echo
+echo "=== Synthèse ==="
+for mode in plateforme virtuels; do
+    echo "--- threads $mode"
+    grep -E "^parcours |^Parcours |^Backend|^RSS" "target/threads-$mode.txt"
+done
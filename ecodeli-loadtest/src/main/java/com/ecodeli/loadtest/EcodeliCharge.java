@@ -0,0 +1,52 @@
+package com.ecodeli.loadtest;
+
+import com.ecodeli.loadtest.doublures.GoogleMapsFictif;
+import com.ecodeli.loadtest.doublures.SmtpFichier;
+import com.ecodeli.loadtest.peuplement.Peuplement;
+import com.ecodeli.loadtest.scenarios.Campagne;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Point d'entrée du test de charge :
+ * <pre>
+ *   java -jar target/loadtest.jar peupler   --jdbc-url=... --echelle=1
+ *   java -jar target/loadtest.jar doublures [--smtp-port=2525] [--maps-port=18089]
+ *   java -jar target/loadtest.jar scenarios --url=http://localhost:8080 --utilisateurs=500 --duree=10m
+ * </pre>
+ * Voir README.md pour l'enchaînement complet avec le backend.
+ */
+public final class EcodeliCharge {
+
+    private EcodeliCharge() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage : peupler | doublures | scenarios [--option=valeur ...]");
+            System.exit(2);
+        }
+        Parametres parametres = Parametres.lire(args, 1);
+        switch (args[0]) {
+            case "peupler" -> new Peuplement(parametres).executer();
+            case "doublures" -> doublures(parametres);
+            case "scenarios" -> new Campagne(parametres).executer();
+            default -> {
+                System.err.println("Commande inconnue : " + args[0]);
+                System.exit(2);
+            }
+        }
+    }
+
+    /**
+     * Doublures seules, jusqu'à l'arrêt du processus (scénarios lancés avec --sans-doublures ou tests manuels)
+     */
+    private static void doublures(Parametres parametres) throws Exception {
+        try (SmtpFichier smtp = new SmtpFichier(parametres.entier("smtp-port", 2525), parametres.chemin("boite", "target/boite"));
+             GoogleMapsFictif maps = new GoogleMapsFictif(parametres.entier("maps-port", 18089),
+                 parametres.duree("maps-latence", Duration.ofMillis(80)))) {
+            new CountDownLatch(1).await();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecodeli.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Options de la ligne de commande (--cle=valeur), avec leurs valeurs par défaut.
+ * Les mêmes options --echelle et --mot-de-passe doivent être passées au peuplement et aux scénarios :
+ * les parcours retrouvent les comptes et les annonces peuplés à partir de ces seules valeurs.
+ */
+public final class Parametres {
+
+    private final Map<String, String> valeurs;
+
+    private Parametres(Map<String, String> valeurs) {
+        this.valeurs = valeurs;
+    }
+
+    public static Parametres lire(String[] args, int debut) {
+        Map<String, String> valeurs = new HashMap<>();
+        for (int i = debut; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Option invalide: " + arg + " (attendu --cle=valeur)");
+            }
+            int egal = arg.indexOf('=');
+            if (egal < 0) {
+                valeurs.put(arg.substring(2), "true");
+            } else {
+                valeurs.put(arg.substring(2, egal), arg.substring(egal + 1));
+            }
+        }
+        return new Parametres(valeurs);
+    }
+
+    public String texte(String cle, String parDefaut) {
+        return valeurs.getOrDefault(cle, parDefaut);
+    }
+
+    public int entier(String cle, int parDefaut) {
+        String valeur = valeurs.get(cle);
+        return valeur != null ? Integer.parseInt(valeur.replace("_", "")) : parDefaut;
+    }
+
+    public double decimal(String cle, double parDefaut) {
+        String valeur = valeurs.get(cle);
+        return valeur != null ? Double.parseDouble(valeur) : parDefaut;
+    }
+
+    /**
+     * Durée ISO-8601 (PT5M) ou nombre suivi de ms / s / m / h (500ms, 30s, 5m)
+     */
+    public Duration duree(String cle, Duration parDefaut) {
+        String valeur = valeurs.get(cle);
+        if (valeur == null) {
+            return parDefaut;
+        }
+        if (valeur.startsWith("P") || valeur.startsWith("p")) {
+            return Duration.parse(valeur);
+        }
+        if (valeur.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(valeur.substring(0, valeur.length() - 2)));
+        }
+        long nombre = Long.parseLong(valeur.substring(0, valeur.length() - 1));
+        return switch (valeur.charAt(valeur.length() - 1)) {
+            case 's' -> Duration.ofSeconds(nombre);
+            case 'm' -> Duration.ofMinutes(nombre);
+            case 'h' -> Duration.ofHours(nombre);
+            default -> throw new IllegalArgumentException("Durée invalide pour --" + cle + ": " + valeur);
+        };
+    }
+
+    public Path chemin(String cle, String parDefaut) {
+        return Path.of(texte(cle, parDefaut));
+    }
+
+    public boolean present(String cle) {
+        return valeurs.containsKey(cle);
+    }
+}
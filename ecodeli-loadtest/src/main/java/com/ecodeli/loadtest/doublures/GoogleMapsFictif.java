@@ -0,0 +1,95 @@
+package com.ecodeli.loadtest.doublures;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Doublure de l'API Distance Matrix : même forme de réponse que Google, distance dérivée des deux adresses
+ * (de 1 à 800 km, toujours la même pour un même couple) et latence réseau simulée configurable.
+ * Le backend y est redirigé par app.google-maps.url-base (profil charge).
+ */
+@Slf4j
+public class GoogleMapsFictif implements AutoCloseable {
+
+    private static final String CHEMIN = "/maps/api/distancematrix/json";
+
+    private final HttpServer serveur;
+    private final Duration latence;
+    private final AtomicLong appels = new AtomicLong();
+
+    public GoogleMapsFictif(int port, Duration latence) throws IOException {
+        this.latence = latence;
+        this.serveur = HttpServer.create(new InetSocketAddress(port), 512);
+        serveur.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        serveur.createContext(CHEMIN, this::repondre);
+        serveur.start();
+        log.info("Google Maps fictif sur le port {} (latence simulée {} ms)", port, latence.toMillis());
+    }
+
+    public long appels() {
+        return appels.get();
+    }
+
+    @Override
+    public void close() {
+        serveur.stop(0);
+    }
+
+    private void repondre(HttpExchange echange) throws IOException {
+        appels.incrementAndGet();
+        Map<String, String> parametres = parametres(echange.getRequestURI().getRawQuery());
+        String origine = parametres.getOrDefault("origins", "");
+        String destination = parametres.getOrDefault("destinations", "");
+
+        if (!latence.isZero()) {
+            try {
+                Thread.sleep(latence);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int metres = 1_000 + Math.floorMod((origine + "|" + destination).hashCode(), 799_000);
+        String corps = """
+            {"destination_addresses":["%s"],"origin_addresses":["%s"],"rows":[{"elements":[\
+            {"distance":{"text":"%d km","value":%d},"duration":{"text":"%d min","value":%d},"status":"OK"}]}],"status":"OK"}"""
+            .formatted(json(destination), json(origine), metres / 1000, metres, metres / 1000, metres * 60 / 1000);
+
+        byte[] octets = corps.getBytes(StandardCharsets.UTF_8);
+        echange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        echange.sendResponseHeaders(200, octets.length);
+        try (OutputStream sortie = echange.getResponseBody()) {
+            sortie.write(octets);
+        }
+    }
+
+    private static Map<String, String> parametres(String requete) {
+        Map<String, String> parametres = new HashMap<>();
+        if (requete == null) {
+            return parametres;
+        }
+        for (String paire : requete.split("&")) {
+            int egal = paire.indexOf('=');
+            if (egal > 0) {
+                parametres.put(paire.substring(0, egal), URLDecoder.decode(paire.substring(egal + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametres;
+    }
+
+    private static String json(String texte) {
+        return texte.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
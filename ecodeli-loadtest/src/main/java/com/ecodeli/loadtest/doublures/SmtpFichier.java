@@ -0,0 +1,230 @@
+package com.ecodeli.loadtest.doublures;
+
+import jakarta.mail.BodyPart;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serveur SMTP minimal (sans authentification ni TLS) qui dépose chaque message reçu dans un fichier .eml.
+ * Le dernier message de chaque destinataire reste aussi en mémoire (index borné) pour que le parcours
+ * client puisse y lire le code OTP envoyé par le backend à la fin d'une livraison.
+ */
+@Slf4j
+public class SmtpFichier implements AutoCloseable {
+
+    private static final Pattern CODE_OTP = Pattern.compile("code OTP.*?(\\d{6})", Pattern.DOTALL);
+    private static final int TAILLE_INDEX = 100_000;
+
+    private final ServerSocket socket;
+    private final Path repertoire;
+    private final ExecutorService connexions = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong compteur = new AtomicLong();
+    private final Session session = Session.getInstance(new Properties());
+
+    // Verrou plutôt que synchronized : les parcours qui attendent un OTP sont des threads virtuels
+    private final ReentrantLock verrou = new ReentrantLock();
+    private final Condition arrivee = verrou.newCondition();
+
+    // Dernier message brut par destinataire, le plus ancien est évincé au-delà de TAILLE_INDEX
+    private final Map<String, byte[]> derniers = new LinkedHashMap<>(1024, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > TAILLE_INDEX;
+        }
+    };
+
+    public SmtpFichier(int port, Path repertoire) throws IOException {
+        this.repertoire = Files.createDirectories(repertoire);
+        this.socket = new ServerSocket(port);
+        Thread.ofVirtual().name("smtp-accept").start(this::accepter);
+        log.info("SMTP de charge sur le port {}, messages dans {}", port, repertoire.toAbsolutePath());
+    }
+
+    public long messagesRecus() {
+        return compteur.get();
+    }
+
+    /**
+     * Attend le message du destinataire et en extrait le code OTP à six chiffres, null si rien n'arrive à temps
+     */
+    public String attendreOtp(String destinataire, Duration delai) throws InterruptedException {
+        String cle = destinataire.toLowerCase(Locale.ROOT);
+        long reste = delai.toNanos();
+        byte[] brut;
+        verrou.lock();
+        try {
+            while ((brut = derniers.remove(cle)) == null) {
+                if (reste <= 0) {
+                    return null;
+                }
+                reste = arrivee.awaitNanos(reste);
+            }
+        } finally {
+            verrou.unlock();
+        }
+        return extraireOtp(brut);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        connexions.shutdownNow();
+    }
+
+    private void accepter() {
+        while (!socket.isClosed()) {
+            try {
+                Socket client = socket.accept();
+                connexions.submit(() -> dialoguer(client));
+            } catch (SocketException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("SMTP : connexion refusée ({})", e.getMessage());
+            }
+        }
+    }
+
+    private void dialoguer(Socket client) {
+        try (client;
+             BufferedReader entree = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream sortie = client.getOutputStream()) {
+            repondre(sortie, "220 charge.ecodeli.fr ESMTP");
+            List<String> destinataires = new ArrayList<>();
+            String ligne;
+            while ((ligne = entree.readLine()) != null) {
+                String commande = ligne.length() >= 4 ? ligne.substring(0, 4).toUpperCase(Locale.ROOT) : ligne.toUpperCase(Locale.ROOT);
+                switch (commande) {
+                    case "EHLO" -> repondre(sortie, "250-charge.ecodeli.fr\r\n250 8BITMIME");
+                    case "HELO" -> repondre(sortie, "250 charge.ecodeli.fr");
+                    case "MAIL" -> {
+                        destinataires.clear();
+                        repondre(sortie, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        destinataires.add(adresse(ligne));
+                        repondre(sortie, "250 OK");
+                    }
+                    case "DATA" -> {
+                        repondre(sortie, "354 Fin par <CRLF>.<CRLF>");
+                        deposer(lireDonnees(entree), destinataires);
+                        destinataires.clear();
+                        repondre(sortie, "250 OK");
+                    }
+                    case "RSET" -> {
+                        destinataires.clear();
+                        repondre(sortie, "250 OK");
+                    }
+                    case "NOOP" -> repondre(sortie, "250 OK");
+                    case "QUIT" -> {
+                        repondre(sortie, "221 Au revoir");
+                        return;
+                    }
+                    default -> repondre(sortie, "502 Commande non prise en charge");
+                }
+            }
+        } catch (IOException e) {
+            log.debug("SMTP : connexion interrompue ({})", e.getMessage());
+        }
+    }
+
+    private static byte[] lireDonnees(BufferedReader entree) throws IOException {
+        ByteArrayOutputStream message = new ByteArrayOutputStream(4096);
+        String ligne;
+        while ((ligne = entree.readLine()) != null && !".".equals(ligne)) {
+            // Transparence SMTP : un point en tête de ligne a été doublé par l'émetteur
+            String contenu = ligne.startsWith("..") ? ligne.substring(1) : ligne;
+            message.writeBytes(contenu.getBytes(StandardCharsets.UTF_8));
+            message.writeBytes(new byte[] {'\r', '\n'});
+        }
+        return message.toByteArray();
+    }
+
+    private void deposer(byte[] brut, List<String> destinataires) {
+        long numero = compteur.incrementAndGet();
+        try {
+            Files.write(repertoire.resolve(String.format("%08d.eml", numero)), brut);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        verrou.lock();
+        try {
+            for (String destinataire : destinataires) {
+                derniers.put(destinataire, brut);
+            }
+            arrivee.signalAll();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private String extraireOtp(byte[] brut) {
+        try {
+            MimeMessage message = new MimeMessage(session, new ByteArrayInputStream(brut));
+            Matcher code = CODE_OTP.matcher(texte(message));
+            return code.find() ? code.group(1) : null;
+        } catch (MessagingException | IOException e) {
+            log.warn("SMTP : message illisible ({})", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String texte(Part partie) throws MessagingException, IOException {
+        Object contenu = partie.getContent();
+        if (contenu instanceof String texte) {
+            return texte;
+        }
+        if (contenu instanceof Multipart multipart) {
+            StringBuilder texte = new StringBuilder();
+            for (int i = 0; i < multipart.getCount(); i++) {
+                BodyPart sousPartie = multipart.getBodyPart(i);
+                texte.append(texte(sousPartie));
+            }
+            return texte.toString();
+        }
+        return "";
+    }
+
+    private static String adresse(String ligne) {
+        int debut = ligne.indexOf('<');
+        int fin = ligne.indexOf('>', debut + 1);
+        String adresse = debut >= 0 && fin > debut ? ligne.substring(debut + 1, fin) : ligne.substring(ligne.indexOf(':') + 1).trim();
+        return adresse.toLowerCase(Locale.ROOT);
+    }
+
+    private static void repondre(OutputStream sortie, String reponse) throws IOException {
+        sortie.write((reponse + "\r\n").getBytes(StandardCharsets.UTF_8));
+        sortie.flush();
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecodeli.loadtest.peuplement;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Un COPY ... FROM STDIN (FORMAT csv) alimenté ligne par ligne, envoyé au serveur par blocs de 256 Ko.
+ * null devient une colonne vide non citée (NULL en CSV), les textes sont toujours cités.
+ */
+final class FluxCopy implements AutoCloseable {
+
+    private static final int TAILLE_BLOC = 256 * 1024;
+    private static final DateTimeFormatter HORODATAGE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final CopyIn copie;
+    private final StringBuilder tampon = new StringBuilder(TAILLE_BLOC + 4096);
+    private long lignes;
+
+    FluxCopy(CopyManager copyManager, String table, String colonnes) throws SQLException {
+        this.copie = copyManager.copyIn("COPY " + table + " (" + colonnes + ") FROM STDIN (FORMAT csv)");
+    }
+
+    void ligne(Object... valeurs) throws SQLException {
+        for (int i = 0; i < valeurs.length; i++) {
+            if (i > 0) {
+                tampon.append(',');
+            }
+            ecrire(valeurs[i]);
+        }
+        tampon.append('\n');
+        lignes++;
+        if (tampon.length() >= TAILLE_BLOC) {
+            envoyer();
+        }
+    }
+
+    long lignes() {
+        return lignes;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        // Déjà terminé : close() explicite avant le compte rendu, puis celui du try-with-resources
+        if (!copie.isActive()) {
+            return;
+        }
+        try {
+            envoyer();
+            copie.endCopy();
+        } finally {
+            if (copie.isActive()) {
+                copie.cancelCopy();
+            }
+        }
+    }
+
+    private void ecrire(Object valeur) {
+        if (valeur == null) {
+            return;
+        }
+        if (valeur instanceof String texte) {
+            tampon.append('"');
+            for (int i = 0; i < texte.length(); i++) {
+                char c = texte.charAt(i);
+                if (c == '"') {
+                    tampon.append('"');
+                }
+                tampon.append(c);
+            }
+            tampon.append('"');
+        } else if (valeur instanceof LocalDateTime date) {
+            HORODATAGE.formatTo(date, tampon);
+        } else {
+            tampon.append(valeur);
+        }
+    }
+
+    private void envoyer() throws SQLException {
+        if (tampon.isEmpty()) {
+            return;
+        }
+        byte[] octets = tampon.toString().getBytes(StandardCharsets.UTF_8);
+        copie.writeToCopy(octets, 0, octets.length);
+        tampon.setLength(0);
+    }
+}
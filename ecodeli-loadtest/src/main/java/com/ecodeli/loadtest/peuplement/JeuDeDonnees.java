@@ -0,0 +1,199 @@
+package com.ecodeli.loadtest.peuplement;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Plan du jeu de données, entièrement déterminé par l'échelle : identifiants, e-mails, statuts et
+ * rattachements sont calculés, pas tirés au hasard. Le peuplement écrit ce plan, les parcours s'en
+ * servent pour retrouver comptes et annonces publiées sans interroger la base.
+ *
+ * Échelle 1 : 1 160 000 utilisateurs, 2 millions d'annonces (colis et livraisons associés),
+ * 500 000 demandes de service, 1,5 million de candidatures, transactions et évaluations des missions terminées.
+ */
+public final class JeuDeDonnees {
+
+    public static final String DOMAINE_EMAIL = "charge.ecodeli.fr";
+
+    /** Valeurs de ServiceType côté backend, dans l'ordre de l'énumération */
+    public static final String[] CATEGORIES = {
+        "TRANSPORT_LIVRAISON", "SERVICES_DOMICILE", "TRAVAUX_REPARATIONS",
+        "COURSES_ACHATS", "SERVICES_PERSONNELS", "EDUCATION_FORMATION"
+    };
+
+    public static final int CANDIDATURES_PAR_DEMANDE = 3;
+
+    // Une annonce sur 100 reste publiée (disponible pour les livreurs), une sur 50 demandes reste ouverte
+    private static final int PERIODE_ANNONCES = 100;
+    private static final int PERIODE_DEMANDES = 50;
+
+    private final int clients;
+    private final int livreurs;
+    private final int prestataires;
+    private final int annonces;
+    private final int demandes;
+    private final LocalDateTime origine;
+
+    public JeuDeDonnees(double echelle) {
+        if (echelle <= 0) {
+            throw new IllegalArgumentException("--echelle doit être strictement positive");
+        }
+        this.clients = Math.max(100, (int) Math.round(1_000_000 * echelle));
+        this.livreurs = Math.max(20, (int) Math.round(100_000 * echelle));
+        this.prestataires = Math.max(1, (int) Math.round(10_000 * echelle)) * CATEGORIES.length;
+        this.annonces = Math.max(1, (int) Math.round(20_000 * echelle)) * PERIODE_ANNONCES;
+        this.demandes = Math.max(1, (int) Math.round(10_000 * echelle)) * PERIODE_DEMANDES;
+        // Historique sur deux ans, fixé à minuit pour que deux exécutions le même jour produisent les mêmes données
+        this.origine = LocalDateTime.now().toLocalDate().atStartOfDay().minusYears(2);
+    }
+
+    public int clients() {
+        return clients;
+    }
+
+    public int livreurs() {
+        return livreurs;
+    }
+
+    public int prestataires() {
+        return prestataires;
+    }
+
+    public int annonces() {
+        return annonces;
+    }
+
+    public int demandes() {
+        return demandes;
+    }
+
+    public int utilisateurs() {
+        return clients + livreurs + prestataires;
+    }
+
+    // Utilisateurs : clients, puis livreurs, puis prestataires, identifiants consécutifs à partir de 1
+
+    public int idClient(int numero) {
+        return numero;
+    }
+
+    public int idLivreur(int numero) {
+        return clients + numero;
+    }
+
+    public int idPrestataire(int numero) {
+        return clients + livreurs + numero;
+    }
+
+    public static String emailClient(int numero) {
+        return "client" + numero + "@" + DOMAINE_EMAIL;
+    }
+
+    public static String emailLivreur(int numero) {
+        return "livreur" + numero + "@" + DOMAINE_EMAIL;
+    }
+
+    public static String emailPrestataire(int numero) {
+        return "prestataire" + numero + "@" + DOMAINE_EMAIL;
+    }
+
+    /**
+     * Le prestataire n a un seul domaine, validé : (n - 1) modulo le nombre de catégories
+     */
+    public static String categoriePrestataire(int numero) {
+        return CATEGORIES[(numero - 1) % CATEGORIES.length];
+    }
+
+    /**
+     * m-ième prestataire (à partir de 0) du domaine donné
+     */
+    public int prestataireDeCategorie(int categorie, int rang) {
+        int parCategorie = prestataires / CATEGORIES.length;
+        return (rang % parCategorie) * CATEGORIES.length + categorie + 1;
+    }
+
+    // Annonces (un colis par annonce, même identifiant ; une livraison par annonce prise)
+
+    public String statutAnnonce(int idAnnonce) {
+        return switch (idAnnonce % PERIODE_ANNONCES) {
+            case 0 -> "PUBLIEE";
+            case 1 -> "VALIDEE";
+            case 2 -> "EN_COURS";
+            default -> "TERMINEE";
+        };
+    }
+
+    public int expediteurAnnonce(int idAnnonce) {
+        return idClient((idAnnonce - 1) % clients + 1);
+    }
+
+    public int livreurAnnonce(int idAnnonce) {
+        return idLivreur((int) ((idAnnonce * 7L) % livreurs) + 1);
+    }
+
+    public static String titreAnnonce(int idAnnonce) {
+        return "Livraison #" + idAnnonce;
+    }
+
+    public static String destinataireAnnonce(int idAnnonce) {
+        return "destinataire.a" + idAnnonce + "@" + DOMAINE_EMAIL;
+    }
+
+    /**
+     * Annonce publiée tirée au hasard parmi les annonces peuplées
+     */
+    public int annoncePublieeAuHasard() {
+        return PERIODE_ANNONCES * (1 + ThreadLocalRandom.current().nextInt(annonces / PERIODE_ANNONCES));
+    }
+
+    public LocalDateTime dateAnnonce(int idAnnonce) {
+        return origine.plusMinutes((long) idAnnonce * 2 * 365 * 24 * 60 / annonces);
+    }
+
+    // Demandes de service et candidatures (trois par demande, la première acceptée si un prestataire est choisi)
+
+    public String statutDemande(int idDemande) {
+        return switch (idDemande % PERIODE_DEMANDES) {
+            case 0 -> "PUBLIEE";
+            case 1 -> "PRESTATAIRE_SELECTIONNE";
+            case 2 -> "EN_COURS";
+            case 3 -> "ANNULEE";
+            default -> "TERMINEE";
+        };
+    }
+
+    public int categorieDemande(int idDemande) {
+        return idDemande % CATEGORIES.length;
+    }
+
+    public int clientDemande(int idDemande) {
+        return idClient((int) ((idDemande * 13L) % clients) + 1);
+    }
+
+    public int prestataireCandidature(int idDemande, int rang) {
+        return prestataireDeCategorie(categorieDemande(idDemande), idDemande * 31 + rang * 7);
+    }
+
+    public static long idCandidature(int idDemande, int rang) {
+        return (long) (idDemande - 1) * CANDIDATURES_PAR_DEMANDE + rang + 1;
+    }
+
+    public String statutCandidature(int idDemande, int rang) {
+        return switch (statutDemande(idDemande)) {
+            case "PUBLIEE" -> "EN_ATTENTE";
+            case "ANNULEE" -> "REFUSEE";
+            default -> rang == 0 ? "ACCEPTEE" : "REFUSEE";
+        };
+    }
+
+    /**
+     * Sept missions terminées sur dix ont été évaluées par le client
+     */
+    public static boolean demandeEvaluee(int idDemande) {
+        return idDemande % 10 < 7;
+    }
+
+    public LocalDateTime dateDemande(int idDemande) {
+        return origine.plusMinutes((long) idDemande * 2 * 365 * 24 * 60 / demandes);
+    }
+}
@@ -0,0 +1,343 @@
+package com.ecodeli.loadtest.peuplement;
+
+import com.ecodeli.loadtest.Parametres;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+/**
+ * Peuple la base du test de charge par COPY (aucune entité JPA, aucun INSERT unitaire).
+ * Le schéma doit déjà exister : démarrer une fois le backend avec le profil charge, qui le crée
+ * et le conserve ensuite. Les tables peuplées et celles qui en dépendent sont vidées au préalable ;
+ * les agrégats (RATING_SUMMARY, DEPENSE_CLIENT, TRANSACTION_MENSUELLE) sont reconstruits par le
+ * backend à son démarrage suivant.
+ */
+@Slf4j
+public class Peuplement {
+
+    private static final String[] VILLES = {"Paris", "Lyon", "Marseille", "Lille", "Bordeaux", "Nantes", "Toulouse", "Strasbourg"};
+    private static final String[] CODES_POSTAUX = {"75011", "69002", "13001", "59000", "33000", "44000", "31000", "67000"};
+
+    // Colonnes d'identifiant dont la séquence doit repartir après le COPY
+    private static final String[][] IDENTIFIANTS = {
+        {"utilisateur", "id_utilisateur"},
+        {"prestataire_categorie", "id_prestataire_categorie"},
+        {"portefeuille_prestataire", "id_portefeuille"},
+        {"colis", "id_colis"},
+        {"annonce", "id_annonce"},
+        {"livraison", "id_livraison"},
+        {"demande_service", "id_demande"},
+        {"candidature", "id_candidature"},
+        {"transaction_portefeuille", "id_transaction"},
+        {"evaluation_mission", "id_evaluation"}
+    };
+
+    private final JeuDeDonnees jeu;
+    private final String url;
+    private final String utilisateur;
+    private final String motDePasseBase;
+    private final String empreinteMotDePasse;
+
+    public Peuplement(Parametres parametres) {
+        this.jeu = new JeuDeDonnees(parametres.decimal("echelle", 1.0));
+        this.url = parametres.texte("jdbc-url", "jdbc:postgresql://localhost:5432/ecodeli");
+        this.utilisateur = parametres.texte("jdbc-utilisateur", "postgres");
+        this.motDePasseBase = parametres.texte("jdbc-mot-de-passe", "");
+        // Une seule empreinte pour tous les comptes : le coût BCrypt reste celui de la production à la connexion
+        this.empreinteMotDePasse = new BCryptPasswordEncoder().encode(parametres.texte("mot-de-passe", "Charge2024!"));
+    }
+
+    public void executer() throws SQLException {
+        long debut = System.nanoTime();
+        try (Connection connexion = DriverManager.getConnection(url, utilisateur, motDePasseBase)) {
+            verifierSchema(connexion);
+            try (Statement statement = connexion.createStatement()) {
+                statement.execute("SET synchronous_commit TO off");
+                // Un backend encore démarré garde des verrous sur ces tables : échouer vite plutôt qu'attendre
+                statement.execute("SET lock_timeout TO '10s'");
+                statement.execute("TRUNCATE utilisateur, colis RESTART IDENTITY CASCADE");
+            }
+            CopyManager copie = connexion.unwrap(PGConnection.class).getCopyAPI();
+
+            utilisateurs(copie);
+            prestataires(copie);
+            annoncesEtLivraisons(copie);
+            demandesEtCandidatures(copie);
+            transactionsEtEvaluations(copie);
+
+            try (Statement statement = connexion.createStatement()) {
+                for (String[] identifiant : IDENTIFIANTS) {
+                    statement.execute("SELECT setval(pg_get_serial_sequence('" + identifiant[0] + "', '" + identifiant[1]
+                        + "'), coalesce((SELECT max(" + identifiant[1] + ") FROM " + identifiant[0] + "), 0) + 1, false)");
+                }
+                log.info("ANALYZE des tables peuplées...");
+                statement.execute("ANALYZE");
+            }
+        }
+        log.info("Peuplement terminé en {} s : {} utilisateurs, {} annonces, {} demandes de service",
+            (System.nanoTime() - debut) / 1_000_000_000, jeu.utilisateurs(), jeu.annonces(), jeu.demandes());
+    }
+
+    private void verifierSchema(Connection connexion) throws SQLException {
+        try (Statement statement = connexion.createStatement();
+             ResultSet resultat = statement.executeQuery("SELECT to_regclass('public.utilisateur') IS NOT NULL")) {
+            resultat.next();
+            if (!resultat.getBoolean(1)) {
+                throw new IllegalStateException("Schéma absent : démarrer d'abord le backend avec SPRING_PROFILES_ACTIVE=charge");
+            }
+        }
+    }
+
+    private void utilisateurs(CopyManager copie) throws SQLException {
+        long debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "utilisateur",
+                "id_utilisateur, type_utilisateur, nom, prenom, email, mot_de_passe, telephone, adresse, ville, code_postal, pays")) {
+            for (int n = 1; n <= jeu.clients(); n++) {
+                utilisateur(flux, jeu.idClient(n), "CLIENT", JeuDeDonnees.emailClient(n));
+            }
+            for (int n = 1; n <= jeu.livreurs(); n++) {
+                utilisateur(flux, jeu.idLivreur(n), "LIVREUR", JeuDeDonnees.emailLivreur(n));
+            }
+            for (int n = 1; n <= jeu.prestataires(); n++) {
+                utilisateur(flux, jeu.idPrestataire(n), "PRESTATAIRE", JeuDeDonnees.emailPrestataire(n));
+            }
+            flux.close();
+            progression("utilisateur", flux.lignes(), debut);
+        }
+
+        debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "client", "id_utilisateur")) {
+            for (int n = 1; n <= jeu.clients(); n++) {
+                flux.ligne(jeu.idClient(n));
+            }
+            flux.close();
+            progression("client", flux.lignes(), debut);
+        }
+
+        debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "livreur",
+                "id_utilisateur, disponible, vehicule, numero_permis, solde_portefeuille, total_gagnes")) {
+            for (int n = 1; n <= jeu.livreurs(); n++) {
+                flux.ligne(jeu.idLivreur(n), true, n % 3 == 0 ? "Vélo cargo" : "Utilitaire",
+                    "P" + (1_000_000 + n), BigDecimal.ZERO, BigDecimal.ZERO);
+            }
+            flux.close();
+            progression("livreur", flux.lignes(), debut);
+        }
+    }
+
+    private void utilisateur(FluxCopy flux, int id, String type, String email) throws SQLException {
+        int ville = id % VILLES.length;
+        flux.ligne(id, type, "Nom" + id, "Prenom" + id, email, empreinteMotDePasse,
+            String.format("06%08d", id % 100_000_000), (id % 200 + 1) + " rue de la République",
+            VILLES[ville], CODES_POSTAUX[ville], "France");
+    }
+
+    private void prestataires(CopyManager copie) throws SQLException {
+        LocalDateTime validation = jeu.dateDemande(1);
+        long debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "prestataire",
+                "id_utilisateur, nom_entreprise, siret, domaine_expertise, statut_validation, tarif_horaire, disponible, zone_intervention, date_validation")) {
+            for (int n = 1; n <= jeu.prestataires(); n++) {
+                flux.ligne(jeu.idPrestataire(n), "Entreprise " + n, String.format("%014d", 10_000_000_000L + n),
+                    JeuDeDonnees.categoriePrestataire(n), "VALIDE", tarifHoraire(n), true,
+                    VILLES[n % VILLES.length], validation);
+            }
+            flux.close();
+            progression("prestataire", flux.lignes(), debut);
+        }
+
+        debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "prestataire_categorie",
+                "id_prestataire_categorie, id_prestataire, categorie_service, statut_validation, tarif_horaire, date_demande, date_validation")) {
+            for (int n = 1; n <= jeu.prestataires(); n++) {
+                flux.ligne(n, jeu.idPrestataire(n), JeuDeDonnees.categoriePrestataire(n), "VALIDE", tarifHoraire(n),
+                    validation.minusDays(2), validation);
+            }
+            flux.close();
+            progression("prestataire_categorie", flux.lignes(), debut);
+        }
+    }
+
+    private void annoncesEtLivraisons(CopyManager copie) throws SQLException {
+        long debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "colis", "id_colis, poids, longueur, largeur, hauteur, fragile, description")) {
+            for (int id = 1; id <= jeu.annonces(); id++) {
+                flux.ligne(id, BigDecimal.valueOf(50 + id % 2000, 2), 40, 30, 20 + id % 30, id % 7 == 0, "Colis " + id);
+            }
+            flux.close();
+            progression("colis", flux.lignes(), debut);
+        }
+
+        debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "annonce",
+                "id_annonce, titre, description, date_debut, date_fin, prix_unitaire, type_annonce, statut, adresse_depart, adresse_fin, "
+                    + "id_expediteur, id_livreur, id_colis, email_destinataire, livraison_partielle_autorisee, statut_segment1, statut_segment2")) {
+            for (int id = 1; id <= jeu.annonces(); id++) {
+                LocalDateTime date = jeu.dateAnnonce(id);
+                String statut = jeu.statutAnnonce(id);
+                flux.ligne(id, JeuDeDonnees.titreAnnonce(id), "Colis à livrer", date, date.plusDays(3), prixAnnonce(id),
+                    "unique", statut, adresse(id), adresse(id + 3),
+                    jeu.expediteurAnnonce(id), "PUBLIEE".equals(statut) ? null : jeu.livreurAnnonce(id), id,
+                    JeuDeDonnees.destinataireAnnonce(id), false, "DISPONIBLE", "DISPONIBLE");
+            }
+            flux.close();
+            progression("annonce", flux.lignes(), debut);
+        }
+
+        debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "livraison",
+                "id_livraison, id_annonce, date_debut, date_fin, statut, adresse_envoi, adresse_de_livraison, "
+                    + "code_postal_envoi, code_postal_livraison, prix, validation, id_expediteur, id_colis, type_livraison")) {
+            int idLivraison = 0;
+            for (int id = 1; id <= jeu.annonces(); id++) {
+                String statut = jeu.statutAnnonce(id);
+                if ("PUBLIEE".equals(statut)) {
+                    continue;
+                }
+                LocalDateTime date = jeu.dateAnnonce(id);
+                boolean terminee = "TERMINEE".equals(statut);
+                flux.ligne(++idLivraison, id, "VALIDEE".equals(statut) ? null : date.plusHours(2),
+                    terminee ? date.plusHours(5) : null, statut, adresse(id), adresse(id + 3),
+                    CODES_POSTAUX[id % VILLES.length], CODES_POSTAUX[(id + 3) % VILLES.length],
+                    prixAnnonce(id).intValue(), terminee, jeu.expediteurAnnonce(id), id, "DIRECTE");
+            }
+            flux.close();
+            progression("livraison", flux.lignes(), debut);
+        }
+    }
+
+    private void demandesEtCandidatures(CopyManager copie) throws SQLException {
+        long debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "demande_service",
+                "id_demande, titre, description, categorie_service, adresse_depart, adresse_arrivee, date_souhaitee, creneau_horaire, "
+                    + "budget_min, budget_max, statut, date_creation, date_modification, id_client, service_personnalise")) {
+            for (int id = 1; id <= jeu.demandes(); id++) {
+                LocalDateTime date = jeu.dateDemande(id);
+                flux.ligne(id, "Demande #" + id, "Prestation demandée par le client",
+                    JeuDeDonnees.CATEGORIES[jeu.categorieDemande(id)], adresse(id), adresse(id + 1), date.plusDays(2),
+                    "09:00-12:00", 20, 80, jeu.statutDemande(id), date, date.plusDays(3), jeu.clientDemande(id), false);
+            }
+            flux.close();
+            progression("demande_service", flux.lignes(), debut);
+        }
+
+        debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "candidature",
+                "id_candidature, id_demande, id_prestataire, prix_propose, message_prestataire, statut, date_candidature, date_reponse, delai_propose")) {
+            for (int id = 1; id <= jeu.demandes(); id++) {
+                LocalDateTime date = jeu.dateDemande(id);
+                boolean publiee = "PUBLIEE".equals(jeu.statutDemande(id));
+                for (int rang = 0; rang < JeuDeDonnees.CANDIDATURES_PAR_DEMANDE; rang++) {
+                    int prestataire = jeu.prestataireCandidature(id, rang);
+                    flux.ligne(JeuDeDonnees.idCandidature(id, rang), id, jeu.idPrestataire(prestataire),
+                        BigDecimal.valueOf(tarifHoraire(prestataire)), "Disponible pour cette prestation",
+                        jeu.statutCandidature(id, rang), date.plusHours(1 + rang), publiee ? null : date.plusDays(1), 2);
+                }
+            }
+            flux.close();
+            progression("candidature", flux.lignes(), debut);
+        }
+    }
+
+    /**
+     * Un crédit par mission terminée (portefeuille = prestataire retenu) et une évaluation pour 7 sur 10.
+     * Les totaux des portefeuilles sont calculés avant le COPY pour rester cohérents avec les transactions.
+     */
+    private void transactionsEtEvaluations(CopyManager copie) throws SQLException {
+        BigDecimal[] gains = new BigDecimal[jeu.prestataires() + 1];
+        int[] nombres = new int[jeu.prestataires() + 1];
+        for (int id = 1; id <= jeu.demandes(); id++) {
+            if ("TERMINEE".equals(jeu.statutDemande(id))) {
+                int prestataire = jeu.prestataireCandidature(id, 0);
+                BigDecimal net = netPrestataire(prestataire);
+                gains[prestataire] = gains[prestataire] == null ? net : gains[prestataire].add(net);
+                nombres[prestataire]++;
+            }
+        }
+
+        LocalDateTime ouverture = jeu.dateDemande(1);
+        long debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "portefeuille_prestataire",
+                "id_portefeuille, id_prestataire, solde_disponible, solde_en_attente, total_gagne, total_retire, nombre_transactions, date_creation, nom_titulaire")) {
+            for (int n = 1; n <= jeu.prestataires(); n++) {
+                BigDecimal total = gains[n] != null ? gains[n] : BigDecimal.ZERO;
+                flux.ligne(n, jeu.idPrestataire(n), total, BigDecimal.ZERO, total, BigDecimal.ZERO, nombres[n], ouverture, "Entreprise " + n);
+            }
+            flux.close();
+            progression("portefeuille_prestataire", flux.lignes(), debut);
+        }
+
+        debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "transaction_portefeuille",
+                "id_transaction, id_portefeuille, id_prestataire, id_candidature, type_transaction, montant, commission_ecodeli, "
+                    + "frais_transaction, statut_transaction, description, date_transaction, date_creation, date_traitement")) {
+            long idTransaction = 0;
+            for (int id = 1; id <= jeu.demandes(); id++) {
+                if (!"TERMINEE".equals(jeu.statutDemande(id))) {
+                    continue;
+                }
+                int prestataire = jeu.prestataireCandidature(id, 0);
+                BigDecimal brut = BigDecimal.valueOf(tarifHoraire(prestataire)).setScale(2);
+                BigDecimal commission = brut.multiply(new BigDecimal("0.10")).setScale(2, java.math.RoundingMode.HALF_UP);
+                LocalDateTime date = jeu.dateDemande(id).plusDays(3);
+                flux.ligne(++idTransaction, prestataire, jeu.idPrestataire(prestataire), JeuDeDonnees.idCandidature(id, 0),
+                    "CREDIT_MISSION", brut.subtract(commission), commission, BigDecimal.ZERO, "EFFECTUE",
+                    "Mission Demande #" + id, date, date, date);
+            }
+            flux.close();
+            progression("transaction_portefeuille", flux.lignes(), debut);
+        }
+
+        debut = System.nanoTime();
+        try (FluxCopy flux = new FluxCopy(copie, "evaluation_mission",
+                "id_evaluation, id_candidature, id_client, id_prestataire, note_globale, note_qualite, note_delais, "
+                    + "note_communication, note_professionnalisme, commentaire, date_evaluation, date_creation")) {
+            long idEvaluation = 0;
+            for (int id = 1; id <= jeu.demandes(); id++) {
+                if (!"TERMINEE".equals(jeu.statutDemande(id)) || !JeuDeDonnees.demandeEvaluee(id)) {
+                    continue;
+                }
+                int note = 1 + Math.floorMod(id * 2654435761L, 5);
+                LocalDateTime date = jeu.dateDemande(id).plusDays(4);
+                flux.ligne(++idEvaluation, JeuDeDonnees.idCandidature(id, 0), jeu.clientDemande(id),
+                    jeu.idPrestataire(jeu.prestataireCandidature(id, 0)), Math.max(note, 3), note, Math.max(note, 2),
+                    5, Math.max(note, 3), "Prestation conforme", date, date);
+            }
+            flux.close();
+            progression("evaluation_mission", flux.lignes(), debut);
+        }
+    }
+
+    private static double tarifHoraire(int prestataire) {
+        return 20 + (prestataire * 7) % 41;
+    }
+
+    private static BigDecimal netPrestataire(int prestataire) {
+        BigDecimal brut = BigDecimal.valueOf(tarifHoraire(prestataire)).setScale(2);
+        return brut.subtract(brut.multiply(new BigDecimal("0.10")).setScale(2, java.math.RoundingMode.HALF_UP));
+    }
+
+    private static BigDecimal prixAnnonce(int idAnnonce) {
+        return BigDecimal.valueOf(400 + idAnnonce % 9600, 2);
+    }
+
+    private static String adresse(int n) {
+        return (n % 150 + 1) + " avenue de la Gare, " + CODES_POSTAUX[n % VILLES.length] + " " + VILLES[n % VILLES.length];
+    }
+
+    private static void progression(String table, long lignes, long debut) {
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        log.info("{} : {} lignes en {} s ({} lignes/s)", table, lignes, String.format("%.1f", secondes),
+            Math.round(lignes / Math.max(secondes, 0.001)));
+    }
+}
@@ -0,0 +1,297 @@
+package com.ecodeli.loadtest.scenarios;
+
+import com.ecodeli.loadtest.Parametres;
+import com.ecodeli.loadtest.doublures.GoogleMapsFictif;
+import com.ecodeli.loadtest.doublures.SmtpFichier;
+import com.ecodeli.loadtest.peuplement.JeuDeDonnees;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Campagne de charge : N utilisateurs virtuels (un thread virtuel chacun) démarrés progressivement pendant la
+ * montée en charge, qui enchaînent des parcours tirés au sort selon leurs poids jusqu'à la fin de la durée.
+ * Les parcours communiquent par deux files : annonces publiées par les clients (prises par les livreurs) et
+ * livraisons arrivées (validées par OTP par les clients).
+ */
+@Slf4j
+public class Campagne {
+
+    private static final Duration INTERVALLE_PROGRESSION = Duration.ofSeconds(10);
+    private static final Duration INTERVALLE_SONDE = Duration.ofSeconds(2);
+    private static final int ESSAIS_ANNONCE_PEUPLEE = 10;
+    private static final Duration ATTENTE_ANNONCE = Duration.ofSeconds(5);
+
+    public record AnnonceCampagne(int id, String titre, String emailDestinataire) {
+    }
+
+    public record LivraisonArrivee(int idLivraison, String emailDestinataire) {
+    }
+
+    private final Parametres parametres;
+    private final JeuDeDonnees jeu;
+    private final String base;
+    private final int utilisateurs;
+    private final Duration montee;
+    private final Duration duree;
+    private final Duration pause;
+    private final String motDePasse;
+    private final double proportionDisponibles;
+    private final Duration delaiOtp;
+    private final Map<Parcours, Integer> poids = new LinkedHashMap<>();
+    private final String definitionPoids;
+
+    private final Mesures mesures = new Mesures();
+    private final Map<String, LongAdder> reussis = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> echoues = new ConcurrentHashMap<>();
+    private final LongAdder echecsJournalises = new LongAdder();
+
+    private final BlockingQueue<AnnonceCampagne> annoncesPubliees = new LinkedBlockingQueue<>();
+    private final Queue<LivraisonArrivee> livraisonsArrivees = new ConcurrentLinkedQueue<>();
+    private final Set<Integer> annoncesPeupleesPrises = ConcurrentHashMap.newKeySet();
+
+    private SmtpFichier smtp;
+
+    public Campagne(Parametres parametres) {
+        this.parametres = parametres;
+        this.jeu = new JeuDeDonnees(parametres.decimal("echelle", 1.0));
+        this.base = parametres.texte("url", "http://localhost:8080");
+        this.utilisateurs = parametres.entier("utilisateurs", 200);
+        this.montee = parametres.duree("montee", Duration.ofSeconds(30));
+        this.duree = parametres.duree("duree", Duration.ofMinutes(5));
+        this.pause = parametres.duree("pause", Duration.ofMillis(500));
+        this.motDePasse = parametres.texte("mot-de-passe", "Charge2024!");
+        this.proportionDisponibles = parametres.decimal("proportion-disponibles", 0.05);
+        this.delaiOtp = parametres.duree("delai-otp", Duration.ofSeconds(30));
+        this.definitionPoids = parametres.texte("poids", "livreur:4,client:3,prestataire:3");
+        lirePoids(definitionPoids);
+    }
+
+    public void executer() throws IOException, InterruptedException {
+        GoogleMapsFictif maps = null;
+        if (!parametres.present("sans-doublures")) {
+            smtp = new SmtpFichier(parametres.entier("smtp-port", 2525), parametres.chemin("boite", "target/boite"));
+            maps = new GoogleMapsFictif(parametres.entier("maps-port", 18089), parametres.duree("maps-latence", Duration.ofMillis(80)));
+        }
+
+        ObjectMapper json = new ObjectMapper();
+        try (ExecutorService fils = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                 .executor(fils)
+                 .connectTimeout(Duration.ofSeconds(10))
+                 .version(HttpClient.Version.HTTP_1_1)
+                 .build()) {
+            long debut = System.nanoTime();
+            long fin = debut + montee.toNanos() + duree.toNanos();
+            log.info("Campagne : {} utilisateurs virtuels sur {}, montée {} s, palier {} s, parcours {}",
+                utilisateurs, base, montee.toSeconds(), duree.toSeconds(), definitionPoids);
+
+            List<Thread> threads = new ArrayList<>(utilisateurs);
+            for (int numero = 1; numero <= utilisateurs; numero++) {
+                UtilisateurVirtuel utilisateur = new UtilisateurVirtuel(numero,
+                    new ClientApi(http, json, mesures, base, UtilisateurVirtuel.adresseIp(numero)), jeu);
+                long depart = debut + montee.toNanos() * (numero - 1) / utilisateurs;
+                threads.add(Thread.ofVirtual().name("utilisateur-" + numero).start(() -> jouer(utilisateur, depart, fin)));
+            }
+
+            SondeBackend sonde = new SondeBackend(http, json, base,
+                parametres.texte("metriques-utilisateur", "prometheus"), parametres.texte("metriques-mot-de-passe", "charge"));
+            long suivant = debut + INTERVALLE_PROGRESSION.toNanos();
+            long releve = debut;
+            for (Thread thread : threads) {
+                while (!thread.join(Duration.ofMillis(200))) {
+                    if (System.nanoTime() >= releve) {
+                        sonde.relever();
+                        releve += INTERVALLE_SONDE.toNanos();
+                    }
+                    if (System.nanoTime() >= suivant) {
+                        progression(debut);
+                        suivant += INTERVALLE_PROGRESSION.toNanos();
+                    }
+                }
+            }
+
+            Duration ecoulee = Duration.ofNanos(System.nanoTime() - debut);
+            System.out.println();
+            mesures.rapport(System.out, ecoulee);
+            System.out.println();
+            for (Parcours parcours : poids.keySet()) {
+                System.out.printf("Parcours %-12s réussis %8d   échoués %6d%n", parcours.nom(),
+                    compteur(reussis, parcours.nom()).sum(), compteur(echoues, parcours.nom()).sum());
+            }
+            sonde.rapport(System.out);
+            if (smtp != null) {
+                System.out.printf("E-mails reçus par le SMTP de charge : %d, appels Google Maps fictif : %d%n",
+                    smtp.messagesRecus(), maps.appels());
+            }
+            if (parametres.present("csv")) {
+                Path csv = parametres.chemin("csv", "target/charge.csv");
+                mesures.ecrireCsv(csv);
+                log.info("Mesures écrites dans {}", csv.toAbsolutePath());
+            }
+        } finally {
+            if (smtp != null) {
+                smtp.close();
+            }
+            if (maps != null) {
+                maps.close();
+            }
+        }
+    }
+
+    private void jouer(UtilisateurVirtuel utilisateur, long depart, long fin) {
+        try {
+            attendre(depart - System.nanoTime());
+            while (System.nanoTime() < fin) {
+                Parcours parcours = tirer();
+                long debut = System.nanoTime();
+                try {
+                    parcours.executer(utilisateur);
+                    mesures.enregistrer("parcours " + parcours.nom(), System.nanoTime() - debut, 200);
+                    compteur(reussis, parcours.nom()).increment();
+                } catch (EchecEtape e) {
+                    compteur(echoues, parcours.nom()).increment();
+                    if (e.getStatut() == 401 || e.getStatut() == 403) {
+                        utilisateur.client().oublier();
+                        utilisateur.livreur().oublier();
+                        utilisateur.prestataire().oublier();
+                    }
+                    journaliserEchec(parcours, e);
+                }
+                long reflexion = (long) (pause.toNanos() * (0.5 + ThreadLocalRandom.current().nextDouble()));
+                attendre(Math.min(reflexion, fin - System.nanoTime()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Les premiers échecs sont détaillés, ensuite un sur mille pour ne pas noyer la sortie
+    private void journaliserEchec(Parcours parcours, EchecEtape e) {
+        echecsJournalises.increment();
+        long numero = echecsJournalises.sum();
+        if (numero <= 20 || numero % 1000 == 0) {
+            log.warn("Parcours {} en échec (#{}) : {}", parcours.nom(), numero, e.getMessage());
+        }
+    }
+
+    private Parcours tirer() {
+        int total = poids.values().stream().mapToInt(Integer::intValue).sum();
+        int tirage = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Parcours, Integer> entree : poids.entrySet()) {
+            tirage -= entree.getValue();
+            if (tirage < 0) {
+                return entree.getKey();
+            }
+        }
+        throw new IllegalStateException("Tirage hors des poids");
+    }
+
+    private void lirePoids(String definition) {
+        Map<String, Parcours> connus = new LinkedHashMap<>();
+        for (Parcours parcours : List.of(new ParcoursLivreur(this), new ParcoursClient(this), new ParcoursPrestataire(this))) {
+            connus.put(parcours.nom(), parcours);
+        }
+        for (String element : definition.split(",")) {
+            String[] paire = element.trim().split(":");
+            Parcours parcours = connus.get(paire[0]);
+            if (parcours == null || paire.length != 2) {
+                throw new IllegalArgumentException("--poids attend nom:poids parmi " + connus.keySet() + ", reçu " + element);
+            }
+            int valeur = Integer.parseInt(paire[1]);
+            if (valeur > 0) {
+                poids.put(parcours, valeur);
+            }
+        }
+        if (poids.isEmpty()) {
+            throw new IllegalArgumentException("--poids : au moins un parcours doit avoir un poids positif");
+        }
+    }
+
+    private void progression(long debut) {
+        long secondes = (System.nanoTime() - debut) / 1_000_000_000;
+        long requetes = mesures.total();
+        log.info("{} s : {} requêtes ({} req/s), parcours réussis {} / échoués {}, annonces en attente {}, OTP en attente {}",
+            secondes, requetes, requetes / Math.max(1, secondes),
+            reussis.values().stream().mapToLong(LongAdder::sum).sum(),
+            echoues.values().stream().mapToLong(LongAdder::sum).sum(),
+            annoncesPubliees.size(), livraisonsArrivees.size());
+    }
+
+    private static LongAdder compteur(Map<String, LongAdder> compteurs, String nom) {
+        return compteurs.computeIfAbsent(nom, cle -> new LongAdder());
+    }
+
+    private static void attendre(long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            Thread.sleep(Duration.ofNanos(nanos));
+        }
+    }
+
+    // État partagé entre parcours
+
+    /**
+     * Annonce publiée pendant la campagne, sinon annonce publiée du jeu de données pas encore prise,
+     * sinon attente de la prochaine publication d'un client
+     */
+    AnnonceCampagne annonceAPrendre() throws InterruptedException {
+        AnnonceCampagne annonce = annoncesPubliees.poll();
+        if (annonce != null) {
+            return annonce;
+        }
+        for (int essai = 0; essai < ESSAIS_ANNONCE_PEUPLEE; essai++) {
+            int id = jeu.annoncePublieeAuHasard();
+            if (annoncesPeupleesPrises.add(id)) {
+                return new AnnonceCampagne(id, JeuDeDonnees.titreAnnonce(id), JeuDeDonnees.destinataireAnnonce(id));
+            }
+        }
+        return annoncesPubliees.poll(ATTENTE_ANNONCE.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void annoncePubliee(AnnonceCampagne annonce) {
+        annoncesPubliees.add(annonce);
+    }
+
+    void livraisonArrivee(LivraisonArrivee livraison) {
+        livraisonsArrivees.add(livraison);
+    }
+
+    LivraisonArrivee livraisonAValider() {
+        return livraisonsArrivees.poll();
+    }
+
+    SmtpFichier getSmtp() {
+        return smtp;
+    }
+
+    String getMotDePasse() {
+        return motDePasse;
+    }
+
+    double getProportionDisponibles() {
+        return proportionDisponibles;
+    }
+
+    Duration getDelaiOtp() {
+        return delaiOtp;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecodeli.loadtest.scenarios;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Appels REST d'un utilisateur virtuel. Chaque appel est mesuré sous son modèle d'URL
+ * (« PUT /api/annonces/{}/take ») pour regrouper les latences par point d'appel et non par identifiant.
+ * L'adresse X-Forwarded-For propre à l'utilisateur répartit la limite de connexion par IP comme en production.
+ */
+public class ClientApi {
+
+    private static final Duration DELAI_REPONSE = Duration.ofSeconds(60);
+
+    private final HttpClient http;
+    private final ObjectMapper json;
+    private final Mesures mesures;
+    private final String base;
+    private final String adresseIp;
+
+    public ClientApi(HttpClient http, ObjectMapper json, Mesures mesures, String base, String adresseIp) {
+        this.http = http;
+        this.json = json;
+        this.mesures = mesures;
+        this.base = base;
+        this.adresseIp = adresseIp;
+    }
+
+    public JsonNode get(String jeton, String modele, Object... variables) throws EchecEtape, InterruptedException {
+        return appeler("GET", jeton, modele, null, variables);
+    }
+
+    public JsonNode post(String jeton, String modele, Object corps, Object... variables) throws EchecEtape, InterruptedException {
+        return appeler("POST", jeton, modele, corps, variables);
+    }
+
+    public JsonNode put(String jeton, String modele, Object corps, Object... variables) throws EchecEtape, InterruptedException {
+        return appeler("PUT", jeton, modele, corps, variables);
+    }
+
+    private JsonNode appeler(String methode, String jeton, String modele, Object corps, Object[] variables)
+            throws EchecEtape, InterruptedException {
+        String point = methode + " " + modele;
+        HttpRequest.Builder requete = HttpRequest.newBuilder(URI.create(base + remplir(modele, variables)))
+            .timeout(DELAI_REPONSE)
+            .header("Accept", "application/json")
+            .header("X-Forwarded-For", adresseIp);
+        if (jeton != null) {
+            requete.header("Authorization", "Bearer " + jeton);
+        }
+        try {
+            if (corps != null) {
+                requete.header("Content-Type", "application/json")
+                    .method(methode, HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(corps)));
+            } else {
+                requete.method(methode, HttpRequest.BodyPublishers.noBody());
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Corps non sérialisable pour " + point, e);
+        }
+
+        long debut = System.nanoTime();
+        HttpResponse<byte[]> reponse;
+        try {
+            reponse = http.send(requete.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            mesures.enregistrer(point, System.nanoTime() - debut, 0);
+            throw new EchecEtape(point, 0, e.getClass().getSimpleName() + " " + e.getMessage());
+        }
+        mesures.enregistrer(point, System.nanoTime() - debut, reponse.statusCode());
+
+        if (reponse.statusCode() >= 400) {
+            throw new EchecEtape(point, reponse.statusCode(), extrait(reponse.body()));
+        }
+        try {
+            return reponse.body().length == 0 ? json.nullNode() : json.readTree(reponse.body());
+        } catch (IOException e) {
+            throw new EchecEtape(point, reponse.statusCode(), "réponse non JSON : " + extrait(reponse.body()));
+        }
+    }
+
+    private static String remplir(String modele, Object[] variables) {
+        StringBuilder chemin = new StringBuilder(modele.length() + 16);
+        int variable = 0;
+        int position = 0;
+        int trou;
+        while ((trou = modele.indexOf("{}", position)) >= 0) {
+            chemin.append(modele, position, trou).append(variables[variable++]);
+            position = trou + 2;
+        }
+        return chemin.append(modele, position, modele.length()).toString();
+    }
+
+    private static String extrait(byte[] corps) {
+        String texte = new String(corps, java.nio.charset.StandardCharsets.UTF_8);
+        return texte.length() > 200 ? texte.substring(0, 200) + "..." : texte;
+    }
+}
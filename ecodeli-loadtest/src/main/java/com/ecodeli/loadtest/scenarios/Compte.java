@@ -0,0 +1,65 @@
+package com.ecodeli.loadtest.scenarios;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compte peuplé utilisé par un utilisateur virtuel. La connexion (BCrypt côté serveur) n'a lieu qu'au premier
+ * usage puis avant l'expiration du jeton d'accès, comme une session de l'application réelle.
+ */
+public class Compte {
+
+    // Jeton d'accès valable une heure par défaut côté backend
+    private static final long DUREE_SESSION_NANOS = 50L * 60 * 1_000_000_000;
+    // 503 = file de hachage BCrypt pleine côté backend (Retry-After: 1), le frontend réessaie de même
+    private static final int ESSAIS_CONNEXION = 3;
+
+    private final String email;
+    private final int id;
+    private String jeton;
+    private long connexion;
+
+    public Compte(String email, int id) {
+        this.email = email;
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String jeton(ClientApi api, String motDePasse) throws EchecEtape, InterruptedException {
+        if (jeton == null || System.nanoTime() - connexion > DUREE_SESSION_NANOS) {
+            JsonNode reponse = connecter(api, motDePasse);
+            if (!reponse.hasNonNull("token")) {
+                throw new EchecEtape("POST /api/auth/login", 200, "pas de jeton pour " + email);
+            }
+            jeton = reponse.get("token").asText();
+            connexion = System.nanoTime();
+        }
+        return jeton;
+    }
+
+    private JsonNode connecter(ClientApi api, String motDePasse) throws EchecEtape, InterruptedException {
+        for (int essai = 1; ; essai++) {
+            try {
+                return api.post(null, "/api/auth/login", Map.of("email", email, "motDePasse", motDePasse));
+            } catch (EchecEtape e) {
+                if (e.getStatut() != 503 || essai == ESSAIS_CONNEXION) {
+                    throw e;
+                }
+                Thread.sleep(Duration.ofMillis(1000 + ThreadLocalRandom.current().nextInt(500)));
+            }
+        }
+    }
+
+    /**
+     * Jeton refusé par le serveur : la prochaine étape se reconnecte
+     */
+    public void oublier() {
+        jeton = null;
+    }
+}
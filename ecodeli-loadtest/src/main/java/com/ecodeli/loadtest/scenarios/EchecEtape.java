@@ -0,0 +1,25 @@
+package com.ecodeli.loadtest.scenarios;
+
+/**
+ * Étape d'un parcours en échec (statut HTTP d'erreur, réponse inattendue ou erreur réseau) :
+ * le parcours est abandonné et compté comme échoué, l'utilisateur virtuel passe au suivant.
+ */
+public class EchecEtape extends Exception {
+
+    private final String point;
+    private final int statut;
+
+    public EchecEtape(String point, int statut, String message) {
+        super(point + " -> " + (statut > 0 ? statut + " " : "") + message);
+        this.point = point;
+        this.statut = statut;
+    }
+
+    public String getPoint() {
+        return point;
+    }
+
+    public int getStatut() {
+        return statut;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecodeli.loadtest.scenarios;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latences par point d'appel (méthode + modèle d'URL) en microsecondes, avec compteurs d'erreurs.
+ * Les parcours complets sont mesurés de la même façon sous le nom « parcours ... ».
+ */
+public class Mesures {
+
+    // Jusqu'à 10 minutes, trois chiffres significatifs
+    private static final long MAXIMUM_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<String, Point> points = new ConcurrentHashMap<>();
+
+    public void enregistrer(String point, long dureeNanos, int statut) {
+        Point mesure = points.computeIfAbsent(point, cle -> new Point());
+        mesure.latences.recordValue(Math.min(MAXIMUM_MICROS, Math.max(1, dureeNanos / 1_000)));
+        if (statut == 0) {
+            mesure.erreursReseau.increment();
+        } else if (statut >= 500) {
+            mesure.erreurs5xx.increment();
+        } else if (statut >= 400) {
+            mesure.erreurs4xx.increment();
+        }
+    }
+
+    public long total() {
+        return points.entrySet().stream()
+            .filter(entree -> !entree.getKey().startsWith("parcours"))
+            .mapToLong(entree -> entree.getValue().latences.getTotalCount())
+            .sum();
+    }
+
+    public void rapport(PrintStream sortie, Duration duree) {
+        double secondes = Math.max(1, duree.toMillis() / 1000.0);
+        sortie.printf(Locale.ROOT, "%-70s %9s %8s %9s %9s %9s %9s %7s %7s %7s%n",
+            "Point d'appel", "requêtes", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "4xx", "5xx", "réseau");
+        for (Map.Entry<String, Point> entree : new TreeMap<>(points).entrySet()) {
+            Histogram latences = entree.getValue().latences.copy();
+            Point point = entree.getValue();
+            sortie.printf(Locale.ROOT, "%-70s %9d %8.1f %9.1f %9.1f %9.1f %9.1f %7d %7d %7d%n",
+                entree.getKey(), latences.getTotalCount(), latences.getTotalCount() / secondes,
+                millis(latences, 50), millis(latences, 95), millis(latences, 99), latences.getMaxValue() / 1000.0,
+                point.erreurs4xx.sum(), point.erreurs5xx.sum(), point.erreursReseau.sum());
+        }
+    }
+
+    public void ecrireCsv(Path fichier) throws IOException {
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(fichier))) {
+            csv.println("point;requetes;p50_ms;p95_ms;p99_ms;max_ms;erreurs_4xx;erreurs_5xx;erreurs_reseau");
+            for (Map.Entry<String, Point> entree : new TreeMap<>(points).entrySet()) {
+                Histogram latences = entree.getValue().latences.copy();
+                Point point = entree.getValue();
+                csv.printf(Locale.ROOT, "%s;%d;%.2f;%.2f;%.2f;%.2f;%d;%d;%d%n",
+                    entree.getKey(), latences.getTotalCount(), millis(latences, 50), millis(latences, 95),
+                    millis(latences, 99), latences.getMaxValue() / 1000.0,
+                    point.erreurs4xx.sum(), point.erreurs5xx.sum(), point.erreursReseau.sum());
+            }
+        }
+    }
+
+    private static double millis(Histogram latences, double centile) {
+        return latences.getValueAtPercentile(centile) / 1000.0;
+    }
+
+    private static final class Point {
+        private final ConcurrentHistogram latences = new ConcurrentHistogram(1, MAXIMUM_MICROS, 3);
+        private final LongAdder erreurs4xx = new LongAdder();
+        private final LongAdder erreurs5xx = new LongAdder();
+        private final LongAdder erreursReseau = new LongAdder();
+    }
+}
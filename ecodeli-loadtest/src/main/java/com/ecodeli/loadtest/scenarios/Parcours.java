@@ -0,0 +1,11 @@
+package com.ecodeli.loadtest.scenarios;
+
+/**
+ * Enchaînement d'appels rejoué en boucle par les utilisateurs virtuels, tiré au sort selon son poids
+ */
+public interface Parcours {
+
+    String nom();
+
+    void executer(UtilisateurVirtuel utilisateur) throws EchecEtape, InterruptedException;
+}
@@ -0,0 +1,65 @@
+package com.ecodeli.loadtest.scenarios;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Client : estime la distance, publie une annonce (que les livreurs prendront), puis valide par OTP une
+ * livraison arrivée, avec le code lu dans l'e-mail reçu par le SMTP de charge.
+ */
+class ParcoursClient implements Parcours {
+
+    private final Campagne campagne;
+
+    ParcoursClient(Campagne campagne) {
+        this.campagne = campagne;
+    }
+
+    @Override
+    public String nom() {
+        return "client";
+    }
+
+    @Override
+    public void executer(UtilisateurVirtuel utilisateur) throws EchecEtape, InterruptedException {
+        ClientApi api = utilisateur.api();
+        String jeton = utilisateur.client().jeton(api, campagne.getMotDePasse());
+
+        ThreadLocalRandom hasard = ThreadLocalRandom.current();
+        String adresseDepart = (1 + hasard.nextInt(150)) + " rue de Rivoli, 75001 Paris";
+        String adresseFin = (1 + hasard.nextInt(150)) + " rue de la République, 69002 Lyon";
+        api.post(jeton, "/api/annonces/calculate-distance", Map.of("adresseDepart", adresseDepart, "adresseFin", adresseFin));
+
+        String suffixe = UUID.randomUUID().toString().substring(0, 8);
+        String titre = "Campagne " + suffixe;
+        String emailDestinataire = "destinataire." + suffixe + "@charge.ecodeli.fr";
+        JsonNode annonce = api.post(jeton, "/api/annonces", Map.of(
+            "expediteurId", utilisateur.client().getId(),
+            "titre", titre,
+            "description", "Colis publié par le test de charge",
+            "adresseDepart", adresseDepart,
+            "adresseFin", adresseFin,
+            "emailDestinataire", emailDestinataire,
+            "colis", Map.of("poids", 2.5, "longueur", 40, "largeur", 30, "hauteur", 20, "fragile", false, "description", "Carton")));
+        if (!annonce.hasNonNull("idAnnonce")) {
+            throw new EchecEtape("POST /api/annonces", 200, "réponse sans idAnnonce");
+        }
+        campagne.annoncePubliee(new Campagne.AnnonceCampagne(annonce.get("idAnnonce").asInt(), titre, emailDestinataire));
+
+        Campagne.LivraisonArrivee arrivee = campagne.livraisonAValider();
+        if (arrivee == null || campagne.getSmtp() == null) {
+            return;
+        }
+        String otp = campagne.getSmtp().attendreOtp(arrivee.emailDestinataire(), campagne.getDelaiOtp());
+        if (otp == null) {
+            throw new EchecEtape("SMTP", 0, "aucun OTP reçu pour " + arrivee.emailDestinataire());
+        }
+        JsonNode validation = api.post(jeton, "/api/livraisons/{}/validate-otp", Map.of("otp", otp), arrivee.idLivraison());
+        if (!validation.path("success").asBoolean()) {
+            throw new EchecEtape("POST /api/livraisons/{}/validate-otp", 200, validation.path("message").asText());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecodeli.loadtest.scenarios;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Livreur : consulte parfois les annonces disponibles, prend une annonce (d'abord celles publiées pendant la
+ * campagne, sinon une annonce publiée du jeu de données), retrouve la livraison créée dans sa liste,
+ * la démarre puis la termine, ce qui envoie l'OTP au destinataire.
+ */
+class ParcoursLivreur implements Parcours {
+
+    private final Campagne campagne;
+
+    ParcoursLivreur(Campagne campagne) {
+        this.campagne = campagne;
+    }
+
+    @Override
+    public String nom() {
+        return "livreur";
+    }
+
+    @Override
+    public void executer(UtilisateurVirtuel utilisateur) throws EchecEtape, InterruptedException {
+        ClientApi api = utilisateur.api();
+        String jeton = utilisateur.livreur().jeton(api, campagne.getMotDePasse());
+        int livreurId = utilisateur.livreur().getId();
+
+        // GET /available charge toutes les annonces : on ne le joue qu'une fois sur N pour ne pas masquer le reste
+        if (ThreadLocalRandom.current().nextDouble() < campagne.getProportionDisponibles()) {
+            api.get(jeton, "/api/annonces/available");
+        }
+
+        Campagne.AnnonceCampagne annonce = campagne.annonceAPrendre();
+        if (annonce == null) {
+            throw new EchecEtape("PUT /api/annonces/{}/take", 0, "aucune annonce publiée à prendre (jeu de données épuisé et aucun client ne publie)");
+        }
+        api.put(jeton, "/api/annonces/{}/take", Map.of("livreurId", livreurId), annonce.id());
+
+        Integer idLivraison = null;
+        for (JsonNode livraison : api.get(jeton, "/api/livraisons/livreur/{}", livreurId)) {
+            if (annonce.titre().equals(livraison.path("titre").asText()) && "VALIDEE".equals(livraison.path("statut").asText())) {
+                idLivraison = livraison.path("idLivraison").asInt();
+                break;
+            }
+        }
+        if (idLivraison == null) {
+            throw new EchecEtape("GET /api/livraisons/livreur/{}", 200, "livraison de « " + annonce.titre() + " » introuvable");
+        }
+
+        api.put(jeton, "/api/livraisons/{}/start", Map.of("livreurId", livreurId), idLivraison);
+        api.put(jeton, "/api/livraisons/{}/complete", Map.of("livreurId", livreurId), idLivraison);
+        campagne.livraisonArrivee(new Campagne.LivraisonArrivee(idLivraison, annonce.emailDestinataire()));
+    }
+}
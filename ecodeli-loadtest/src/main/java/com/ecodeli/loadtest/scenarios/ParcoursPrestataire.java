@@ -0,0 +1,76 @@
+package com.ecodeli.loadtest.scenarios;
+
+import com.ecodeli.loadtest.peuplement.JeuDeDonnees;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Prestataire : un client publie une demande dans le domaine du prestataire, le prestataire parcourt les
+ * demandes disponibles et candidate, le client accepte, la mission est démarrée puis terminée, le client
+ * l'évalue (ce qui déclenche le paiement) et consulte les statistiques du prestataire.
+ */
+class ParcoursPrestataire implements Parcours {
+
+    private final Campagne campagne;
+
+    ParcoursPrestataire(Campagne campagne) {
+        this.campagne = campagne;
+    }
+
+    @Override
+    public String nom() {
+        return "prestataire";
+    }
+
+    @Override
+    public void executer(UtilisateurVirtuel utilisateur) throws EchecEtape, InterruptedException {
+        ClientApi api = utilisateur.api();
+        String jetonClient = utilisateur.client().jeton(api, campagne.getMotDePasse());
+        String jetonPrestataire = utilisateur.prestataire().jeton(api, campagne.getMotDePasse());
+        int prestataireId = utilisateur.prestataire().getId();
+
+        JsonNode demande = api.post(jetonClient, "/api/demandes-service", Map.of(
+            "titre", "Demande de charge " + utilisateur.getNumero(),
+            "description", "Prestation demandée par le test de charge",
+            "adresseDepart", "12 rue Oberkampf, 75011 Paris",
+            "adresseArrivee", "8 rue de Charonne, 75011 Paris",
+            "creneauHoraire", "14:00-17:00",
+            "dateSouhaitee", LocalDate.now().plusDays(3).toString(),
+            "categorieService", JeuDeDonnees.categoriePrestataire(utilisateur.getNumeroPrestataire()),
+            "client", Map.of("idUtilisateur", utilisateur.client().getId())));
+        long idDemande = demande.path("data").path("idDemande").asLong();
+        if (idDemande == 0) {
+            throw new EchecEtape("POST /api/demandes-service", 200, "réponse sans idDemande");
+        }
+
+        api.get(jetonPrestataire, "/api/prestataire/demandes-disponibles/paginated?page=0&size=20");
+        JsonNode candidature = api.post(jetonPrestataire, "/api/candidatures/creer", Map.of(
+            "demandeId", idDemande,
+            "prestataireId", prestataireId,
+            "messagePersonnalise", "Disponible cette semaine",
+            "delaiPropose", 2));
+        long idCandidature = candidature.path("candidatureId").asLong();
+        if (idCandidature == 0) {
+            throw new EchecEtape("POST /api/candidatures/creer", 200, "réponse sans candidatureId");
+        }
+
+        api.get(jetonClient, "/api/candidatures/demande/{}", idDemande);
+        api.put(jetonClient, "/api/candidatures/{}/accepter", Map.of("commentaire", "Parfait"), idCandidature);
+
+        api.post(jetonPrestataire, "/api/missions/{}/start", Map.of(), idCandidature);
+        api.post(jetonPrestataire, "/api/missions/{}/complete", Map.of("noteFinale", "Mission réalisée"), idCandidature);
+
+        int note = 3 + ThreadLocalRandom.current().nextInt(3);
+        api.post(jetonClient, "/api/missions/{}/evaluation", Map.of(
+            "noteGlobale", note,
+            "noteQualite", note,
+            "noteDelais", 5,
+            "noteCommunication", note,
+            "noteProfessionnalisme", 4,
+            "commentaire", "Très bien"), idCandidature);
+        api.get(jetonClient, "/api/missions/prestataire/{}/evaluations/stats", prestataireId);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecodeli.loadtest.scenarios;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Relève périodiquement la mémoire et les threads du backend (/actuator/metrics, HTTP Basic) et garde
+ * les maxima, pour comparer les modes threads plateforme / threads virtuels à charge égale.
+ * Désactivée au premier refus : les métriques sont fermées tant qu'aucun mot de passe n'est configuré.
+ */
+@Slf4j
+class SondeBackend {
+
+    private static final Map<String, String> METRIQUES = new LinkedHashMap<>();
+
+    static {
+        METRIQUES.put("tas Mo", "jvm.memory.used?tag=area:heap");
+        METRIQUES.put("hors tas Mo", "jvm.memory.used?tag=area:nonheap");
+        METRIQUES.put("threads", "jvm.threads.live");
+    }
+
+    private final HttpClient http;
+    private final ObjectMapper json;
+    private final String base;
+    private final String autorisation;
+    private final Map<String, Double> maxima = new LinkedHashMap<>();
+    private boolean active = true;
+
+    SondeBackend(HttpClient http, ObjectMapper json, String base, String utilisateur, String motDePasse) {
+        this.http = http;
+        this.json = json;
+        this.base = base;
+        this.autorisation = "Basic " + Base64.getEncoder()
+            .encodeToString((utilisateur + ":" + motDePasse).getBytes(StandardCharsets.UTF_8));
+    }
+
+    void relever() throws InterruptedException {
+        if (!active) {
+            return;
+        }
+        for (Map.Entry<String, String> metrique : METRIQUES.entrySet()) {
+            Double valeur = lire(metrique.getValue());
+            if (valeur == null) {
+                return;
+            }
+            double mesure = metrique.getKey().endsWith("Mo") ? valeur / (1024 * 1024) : valeur;
+            maxima.merge(metrique.getKey(), mesure, Math::max);
+        }
+    }
+
+    void rapport(PrintStream sortie) {
+        if (maxima.isEmpty()) {
+            return;
+        }
+        StringBuilder ligne = new StringBuilder("Backend (maxima relevés) :");
+        maxima.forEach((nom, valeur) -> ligne.append(String.format(" %s %.0f,", nom, valeur)));
+        sortie.println(ligne.substring(0, ligne.length() - 1));
+    }
+
+    private Double lire(String metrique) throws InterruptedException {
+        HttpRequest requete = HttpRequest.newBuilder(URI.create(base + "/actuator/metrics/" + metrique))
+            .timeout(Duration.ofSeconds(5))
+            .header("Authorization", autorisation)
+            .GET()
+            .build();
+        try {
+            HttpResponse<byte[]> reponse = http.send(requete, HttpResponse.BodyHandlers.ofByteArray());
+            if (reponse.statusCode() != 200) {
+                log.info("Sonde backend désactivée : /actuator/metrics a répondu {}", reponse.statusCode());
+                active = false;
+                return null;
+            }
+            JsonNode mesures = json.readTree(reponse.body()).path("measurements");
+            return mesures.isEmpty() ? null : mesures.get(0).path("value").asDouble();
+        } catch (IOException e) {
+            log.info("Sonde backend désactivée : {}", e.getMessage());
+            active = false;
+            return null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecodeli.loadtest.scenarios;
+
+import com.ecodeli.loadtest.peuplement.JeuDeDonnees;
+
+/**
+ * Un utilisateur virtuel joue tour à tour un client, un livreur et un prestataire peuplés, toujours les mêmes,
+ * depuis sa propre adresse IP fictive.
+ */
+public class UtilisateurVirtuel {
+
+    private final int numero;
+    private final ClientApi api;
+    private final Compte client;
+    private final Compte livreur;
+    private final Compte prestataire;
+    private final int numeroPrestataire;
+
+    public UtilisateurVirtuel(int numero, ClientApi api, JeuDeDonnees jeu) {
+        this.numero = numero;
+        this.api = api;
+        int numeroClient = (numero - 1) % jeu.clients() + 1;
+        int numeroLivreur = (numero - 1) % jeu.livreurs() + 1;
+        this.numeroPrestataire = (numero - 1) % jeu.prestataires() + 1;
+        this.client = new Compte(JeuDeDonnees.emailClient(numeroClient), jeu.idClient(numeroClient));
+        this.livreur = new Compte(JeuDeDonnees.emailLivreur(numeroLivreur), jeu.idLivreur(numeroLivreur));
+        this.prestataire = new Compte(JeuDeDonnees.emailPrestataire(numeroPrestataire), jeu.idPrestataire(numeroPrestataire));
+    }
+
+    /**
+     * Adresse 10.x.y.z propre à l'utilisateur, transmise en X-Forwarded-For
+     */
+    public static String adresseIp(int numero) {
+        return "10." + ((numero >> 16) & 0xFF) + "." + ((numero >> 8) & 0xFF) + "." + (numero & 0xFF);
+    }
+
+    public int getNumero() {
+        return numero;
+    }
+
+    public ClientApi api() {
+        return api;
+    }
+
+    public Compte client() {
+        return client;
+    }
+
+    public Compte livreur() {
+        return livreur;
+    }
+
+    public Compte prestataire() {
+        return prestataire;
+    }
+
+    public int getNumeroPrestataire() {
+        return numeroPrestataire;
+    }
+}